@@ -38,6 +38,7 @@ keyWords
     | ALIGNED
     | ALL
     | ALTER
+    | ANALYZE
     | ANY
     | APPEND
     | AS
@@ -65,6 +65,10 @@ ALTER
     : A L T E R
     ;
 
+ANALYZE
+    : A N A L Y Z E
+    ;
+
 ANY
     : A N Y
     ;
@@ -38,10 +38,13 @@ public enum ThreadName {
   COMPACTION_SERVICE("Compaction"),
   COMPACTION_SUB_SERVICE("Sub-Compaction"),
   COMPACTION_SCHEDULE("Compaction_Schedule"),
+  COMPACTION_IO_THROTTLE("Compaction_IO_Throttle"),
   WAL_SERIALIZE("WAL-Serialize"),
   WAL_SYNC("WAL-Sync"),
   WAL_DELETE("WAL-Delete"),
   WAL_RECOVER("WAL-Recover"),
+  WAL_REDO("WAL-Redo"),
+  WAL_GROUP_COMMIT("WAL-Group-Commit"),
   SYNC_CLIENT("Sync-Client"),
   SYNC_SERVER("Sync"),
   QUERY_SERVICE("Query"),
@@ -51,6 +54,7 @@ public enum ThreadName {
   TTL_CHECK_SERVICE("TTL-CHECK"),
   TIMED_FLUSH_SEQ_MEMTABLE("Timed-Flush-Seq-Memtable"),
   TIMED_FLUSH_UNSEQ_MEMTABLE("Timed-Flush-Unseq-Memtable"),
+  TIERED_STORAGE_MIGRATE("Tiered-Storage-Migrate"),
   SETTLE_SERVICE("Settle"),
   SYNC_SENDER_PIPE("Sync-Pipe"),
   SYNC_SENDER_HEARTBEAT("Sync-Heartbeat"),
@@ -33,6 +33,7 @@ public enum Metric {
   DATA_WRITTEN,
   DATA_READ,
   COMPACTION_TASK_COUNT,
+  COMPACTION_AMPLIFICATION,
   CLUSTER_NODE_STATUS,
   CLUSTER_NODE_LEADER_COUNT,
   PROCESS_CPU_LOAD,
@@ -74,7 +75,8 @@ public enum Metric {
   DATA_EXCHANGE_COST,
   DATA_EXCHANGE_COUNT,
   DRIVER_SCHEDULER,
-  STATEMENT_EXECUTION;
+  STATEMENT_EXECUTION,
+  DIRECTORY_IO;
 
   @Override
   public String toString() {
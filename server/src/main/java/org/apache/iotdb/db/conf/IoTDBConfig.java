@@ -43,6 +43,7 @@ import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -72,6 +73,7 @@ public class IoTDBConfig {
   private static final String MULTI_DIR_STRATEGY_PREFIX =
       "org.apache.iotdb.db.conf.directories.strategy.";
   private static final String DEFAULT_MULTI_DIR_STRATEGY = "MaxDiskUsableSpaceFirstStrategy";
+  private static final String IO_AWARE_MULTI_DIR_STRATEGY = "IOAwareDirectoryStrategy";
 
   private static final String STORAGE_GROUP_MATCHER = "([a-zA-Z0-9`_.\\-\\u2E80-\\u9FFF]+)";
   public static final Pattern STORAGE_GROUP_PATTERN = Pattern.compile(STORAGE_GROUP_MATCHER);
@@ -161,6 +163,12 @@ public class IoTDBConfig {
   /** The proportion of write memory for loading TsFile */
   private double loadTsFileProportion = 0.125;
 
+  /**
+   * How many pieces of one loading TsFile can be in flight to different region replica sets at the
+   * same time. When <= 0, use CPU core number.
+   */
+  private int loadTsFileDispatchParallelism = 4;
+
   /**
    * If memory cost of data region increased more than proportion of {@linkplain
    * IoTDBConfig#getAllocateMemoryForStorageEngine()}*{@linkplain
@@ -196,6 +204,24 @@ public class IoTDBConfig {
   /** Blocking queue capacity of each wal buffer */
   private int walBufferQueueCapacity = 50;
 
+  /** Compression algorithm of each synced wal buffer, UNCOMPRESSED means no compression */
+  private CompressionType walCompressionAlgorithm = CompressionType.UNCOMPRESSED;
+
+  /** Whether to batch fsync of all wal nodes sharing the same wal directory */
+  private boolean enableWalGroupCommit = false;
+
+  /** Max duration a group commit round waits for more fsync requests. Unit: millisecond */
+  private volatile long walGroupCommitWindowInMs = 2;
+
+  /** Group commit round starts immediately when pending bytes exceed this. Unit: byte */
+  private volatile long walGroupCommitWindowInByte = 4 * 1024 * 1024L;
+
+  /** Number of threads to recover wal nodes, and number of threads to redo their wal entries */
+  private int walRecoverThreadCount = Runtime.getRuntime().availableProcessors();
+
+  /** Max memory of decoded wal entries waiting to be redone when recovering. Unit: byte */
+  private long walRecoverMemoryBudgetInByte = 128 * 1024 * 1024L;
+
   /** Size threshold of each wal file. Unit: byte */
   private volatile long walFileSizeThresholdInByte = 10 * 1024 * 1024L;
 
@@ -293,6 +319,12 @@ public class IoTDBConfig {
   private String loadTsFileDir =
       dataDirs[0] + File.separator + IoTDBConstant.LOAD_TSFILE_FOLDER_NAME;
 
+  /**
+   * Data directories of the cold storage tier. Sealed TsFiles whose data are all older than {@link
+   * #tieredStorageMigrateThresholdInMs} are moved from dataDirs to them. Empty means disabled.
+   */
+  private String[] coldDataDirs = {};
+
   /** Strategy of multiple directories. */
   private String multiDirStrategyClassName = null;
 
@@ -322,6 +354,18 @@ public class IoTDBConfig {
   /** How many threads can concurrently execute query statement. When <= 0, use CPU core number. */
   private int queryThreadCount = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many pipelines one fragment instance can be split into to execute in parallel. When <= 0,
+   * use CPU core number.
+   */
+  private int degreeOfParallelism = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * Max bytes of memory one sort operator can reserve to buffer its input. Sorted runs are spilled
+   * to the query directory once it is exhausted.
+   */
+  private long sortBufferSizeInBytes = 32 * 1024 * 1024L;
+
   /** How many queries can be concurrently executed. When <= 0, use 1000. */
   private int maxAllowedConcurrentQueries = 1000;
 
@@ -396,6 +440,12 @@ public class IoTDBConfig {
   /** The sort algorithm used in TVList */
   private TVListSortAlgorithm tvListSortAlgorithm = TVListSortAlgorithm.TIM;
 
+  /**
+   * Point number of a block whose statistics are maintained in the memtable while writing, so that
+   * aggregations can skip unflushed data block by block. When <= 0, no statistics are maintained.
+   */
+  private int memTableStatisticsBlockSize = 1024;
+
   /** When average series point number reaches this, flush the memtable to disk */
   private int avgSeriesPointNumberThreshold = 100000;
 
@@ -472,6 +522,19 @@ public class IoTDBConfig {
   /** The max candidate file num in inner space compaction */
   private int maxInnerCompactionCandidateFileNum = 30;
 
+  /**
+   * The max estimated write amplification of a task chosen by the leveled compaction selectors.
+   * Candidate tasks whose cost exceeds it are postponed until more files accumulate, unless the
+   * time partition is no longer the latest one.
+   */
+  private double compactionMaxWriteAmplification = 4.0;
+
+  /**
+   * The weight of the read amplification reduction (number of files eliminated) in the cost of a
+   * leveled compaction task. The cost is write amplification - weight * files eliminated.
+   */
+  private double compactionReadAmplificationWeight = 0.5;
+
   /** The max candidate file num in cross space compaction */
   private int maxCrossCompactionCandidateFileNum = 1000;
 
@@ -490,6 +553,14 @@ public class IoTDBConfig {
    */
   private int subCompactionTaskNum = 4;
 
+  /**
+   * The max number of device lanes a fast compaction task compacts concurrently. Each lane writes
+   * its devices into lane files that are appended to the target files at the end, and every lane
+   * beyond the first reserves compaction memory in SystemInfo. It is capped by
+   * subCompactionTaskNum. 1 means devices are compacted one by one.
+   */
+  private int compactionDeviceParallelism = 1;
+
   private boolean enableCompactionValidation = true;
 
   /** whether to cache meta data(ChunkMetaData and TsFileMetaData) or not. */
@@ -504,6 +575,12 @@ public class IoTDBConfig {
   /** Memory allocated for chunk cache in read process */
   private long allocateMemoryForChunkCache = allocateMemoryForRead * 100 / 1001;
 
+  /**
+   * Memory allocated for the indexed modifications of TsFiles shared by queries and compaction,
+   * taken from the "others" part of the read memory
+   */
+  private long modificationCacheMemoryInByte = allocateMemoryForRead * 25 / 1001;
+
   /** Memory allocated for operators */
   private long allocateMemoryForCoordinator = allocateMemoryForRead * 50 / 1001;
 
@@ -671,6 +748,24 @@ public class IoTDBConfig {
   /** The limit of compaction merge can reach per second */
   private int compactionWriteThroughputMbPerSec = 16;
 
+  /** The limit of compaction read throughput per data directory, 0 means no limit */
+  private int compactionReadThroughputMbPerSec = 0;
+
+  /**
+   * Whether to adjust compaction read and write throughput of each data directory according to
+   * foreground query latency, flush backlog and disk utilization
+   */
+  private boolean enableAdaptiveCompactionThrottle = false;
+
+  /**
+   * The target p99 query latency of adaptive compaction throttle. Compaction slows down when it is
+   * exceeded and pauses when it is exceeded twice.
+   */
+  private long compactionThrottleQueryLatencyThresholdInMs = 1000;
+
+  /** The interval of adjusting adaptive compaction throttle */
+  private long compactionThrottleAdjustIntervalInMs = 1000;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
@@ -832,6 +927,21 @@ public class IoTDBConfig {
   /** the interval to log recover progress of each vsg when starting iotdb */
   private long recoveryLogIntervalInMs = 5_000L;
 
+  /**
+   * Whether to keep a checksummed manifest of sealed TsFileResources in the system directory of
+   * each data region, so that the region can restart without reading every .resource file
+   */
+  private boolean enableResourceManifest = false;
+
+  /** Sealed TsFiles whose data are all older than current time minus this are moved to cold dirs */
+  private long tieredStorageMigrateThresholdInMs = 7 * 24 * 60 * 60 * 1000L;
+
+  /** the interval to check whether any sealed TsFiles should be moved to the cold dirs */
+  private long tieredStorageCheckIntervalInMs = 10 * 60 * 1000L;
+
+  /** The max throughput of copying TsFiles to the cold dirs, 0 means no limit */
+  private int tieredStorageMigrateThroughputMbPerSec = 16;
+
   private boolean enableDiscardOutOfOrderData = false;
 
   /** the method to transform device path to device id, can be 'Plain' or 'SHA256' */
@@ -1189,11 +1299,17 @@ public class IoTDBConfig {
       for (int i = 0; i < dataDirs.length; i++) {
         dataDirs[i] = hdfsDir + File.separatorChar + dataDirs[i];
       }
+      for (int i = 0; i < coldDataDirs.length; i++) {
+        coldDataDirs[i] = hdfsDir + File.separatorChar + coldDataDirs[i];
+      }
     } else {
       queryDir = addDataHomeDir(queryDir);
       for (int i = 0; i < dataDirs.length; i++) {
         dataDirs[i] = addDataHomeDir(dataDirs[i]);
       }
+      for (int i = 0; i < coldDataDirs.length; i++) {
+        coldDataDirs[i] = addDataHomeDir(coldDataDirs[i]);
+      }
     }
   }
 
@@ -1290,6 +1406,18 @@ public class IoTDBConfig {
     setLoadTsFileDir(dataDirs[0] + File.separator + IoTDBConstant.LOAD_TSFILE_FOLDER_NAME);
   }
 
+  public String[] getColdDataDirs() {
+    return coldDataDirs;
+  }
+
+  public void setColdDataDirs(String[] coldDataDirs) {
+    this.coldDataDirs = coldDataDirs;
+  }
+
+  public boolean isEnableTieredStorage() {
+    return coldDataDirs.length > 0;
+  }
+
   public String getRpcAddress() {
     return rpcAddress;
   }
@@ -1474,10 +1602,13 @@ public class IoTDBConfig {
     if (isClusterMode
         && !(multiDirStrategyClassName.equals(DEFAULT_MULTI_DIR_STRATEGY)
             || multiDirStrategyClassName.equals(
-                MULTI_DIR_STRATEGY_PREFIX + DEFAULT_MULTI_DIR_STRATEGY))) {
+                MULTI_DIR_STRATEGY_PREFIX + DEFAULT_MULTI_DIR_STRATEGY)
+            || multiDirStrategyClassName.equals(IO_AWARE_MULTI_DIR_STRATEGY)
+            || multiDirStrategyClassName.equals(
+                MULTI_DIR_STRATEGY_PREFIX + IO_AWARE_MULTI_DIR_STRATEGY))) {
       String msg =
           String.format(
-              "Cannot set multi_dir_strategy to %s, because cluster mode only allows MaxDiskUsableSpaceFirstStrategy.",
+              "Cannot set multi_dir_strategy to %s, because cluster mode only allows MaxDiskUsableSpaceFirstStrategy and IOAwareDirectoryStrategy.",
               multiDirStrategyClassName);
       logger.error(msg);
       throw new RuntimeException(msg);
@@ -1524,6 +1655,22 @@ public class IoTDBConfig {
     this.maxAllowedConcurrentQueries = maxAllowedConcurrentQueries;
   }
 
+  public int getDegreeOfParallelism() {
+    return degreeOfParallelism;
+  }
+
+  public void setDegreeOfParallelism(int degreeOfParallelism) {
+    this.degreeOfParallelism = degreeOfParallelism;
+  }
+
+  public long getSortBufferSizeInBytes() {
+    return sortBufferSizeInBytes;
+  }
+
+  public void setSortBufferSizeInBytes(long sortBufferSizeInBytes) {
+    this.sortBufferSizeInBytes = sortBufferSizeInBytes;
+  }
+
   public int getSubRawQueryThreadCount() {
     return subRawQueryThreadCount;
   }
@@ -1735,6 +1882,54 @@ public class IoTDBConfig {
     this.walBufferQueueCapacity = walBufferQueueCapacity;
   }
 
+  public CompressionType getWalCompressionAlgorithm() {
+    return walCompressionAlgorithm;
+  }
+
+  public void setWalCompressionAlgorithm(CompressionType walCompressionAlgorithm) {
+    this.walCompressionAlgorithm = walCompressionAlgorithm;
+  }
+
+  public boolean isEnableWalGroupCommit() {
+    return enableWalGroupCommit;
+  }
+
+  public void setEnableWalGroupCommit(boolean enableWalGroupCommit) {
+    this.enableWalGroupCommit = enableWalGroupCommit;
+  }
+
+  public long getWalGroupCommitWindowInMs() {
+    return walGroupCommitWindowInMs;
+  }
+
+  void setWalGroupCommitWindowInMs(long walGroupCommitWindowInMs) {
+    this.walGroupCommitWindowInMs = walGroupCommitWindowInMs;
+  }
+
+  public long getWalGroupCommitWindowInByte() {
+    return walGroupCommitWindowInByte;
+  }
+
+  void setWalGroupCommitWindowInByte(long walGroupCommitWindowInByte) {
+    this.walGroupCommitWindowInByte = walGroupCommitWindowInByte;
+  }
+
+  public int getWalRecoverThreadCount() {
+    return walRecoverThreadCount;
+  }
+
+  public void setWalRecoverThreadCount(int walRecoverThreadCount) {
+    this.walRecoverThreadCount = walRecoverThreadCount;
+  }
+
+  public long getWalRecoverMemoryBudgetInByte() {
+    return walRecoverMemoryBudgetInByte;
+  }
+
+  public void setWalRecoverMemoryBudgetInByte(long walRecoverMemoryBudgetInByte) {
+    this.walRecoverMemoryBudgetInByte = walRecoverMemoryBudgetInByte;
+  }
+
   public long getWalFileSizeThresholdInByte() {
     return walFileSizeThresholdInByte;
   }
@@ -1870,6 +2065,7 @@ public class IoTDBConfig {
     this.allocateMemoryForBloomFilterCache = allocateMemoryForRead / 1001;
     this.allocateMemoryForTimeSeriesMetaDataCache = allocateMemoryForRead * 200 / 1001;
     this.allocateMemoryForChunkCache = allocateMemoryForRead * 100 / 1001;
+    this.modificationCacheMemoryInByte = allocateMemoryForRead * 25 / 1001;
     this.allocateMemoryForCoordinator = allocateMemoryForRead * 50 / 1001;
     this.allocateMemoryForOperators = allocateMemoryForRead * 200 / 1001;
     this.allocateMemoryForDataExchange = allocateMemoryForRead * 200 / 1001;
@@ -1955,6 +2151,39 @@ public class IoTDBConfig {
     this.compactionWriteThroughputMbPerSec = compactionWriteThroughputMbPerSec;
   }
 
+  public int getCompactionReadThroughputMbPerSec() {
+    return compactionReadThroughputMbPerSec;
+  }
+
+  public void setCompactionReadThroughputMbPerSec(int compactionReadThroughputMbPerSec) {
+    this.compactionReadThroughputMbPerSec = compactionReadThroughputMbPerSec;
+  }
+
+  public boolean isEnableAdaptiveCompactionThrottle() {
+    return enableAdaptiveCompactionThrottle;
+  }
+
+  public void setEnableAdaptiveCompactionThrottle(boolean enableAdaptiveCompactionThrottle) {
+    this.enableAdaptiveCompactionThrottle = enableAdaptiveCompactionThrottle;
+  }
+
+  public long getCompactionThrottleQueryLatencyThresholdInMs() {
+    return compactionThrottleQueryLatencyThresholdInMs;
+  }
+
+  public void setCompactionThrottleQueryLatencyThresholdInMs(
+      long compactionThrottleQueryLatencyThresholdInMs) {
+    this.compactionThrottleQueryLatencyThresholdInMs = compactionThrottleQueryLatencyThresholdInMs;
+  }
+
+  public long getCompactionThrottleAdjustIntervalInMs() {
+    return compactionThrottleAdjustIntervalInMs;
+  }
+
+  public void setCompactionThrottleAdjustIntervalInMs(long compactionThrottleAdjustIntervalInMs) {
+    this.compactionThrottleAdjustIntervalInMs = compactionThrottleAdjustIntervalInMs;
+  }
+
   public boolean isEnableMemControl() {
     return enableMemControl;
   }
@@ -2027,6 +2256,14 @@ public class IoTDBConfig {
     this.tvListSortAlgorithm = tvListSortAlgorithm;
   }
 
+  public int getMemTableStatisticsBlockSize() {
+    return memTableStatisticsBlockSize;
+  }
+
+  public void setMemTableStatisticsBlockSize(int memTableStatisticsBlockSize) {
+    this.memTableStatisticsBlockSize = memTableStatisticsBlockSize;
+  }
+
   public int getAvgSeriesPointNumberThreshold() {
     return avgSeriesPointNumberThreshold;
   }
@@ -2084,6 +2321,14 @@ public class IoTDBConfig {
     this.allocateMemoryForChunkCache = allocateMemoryForChunkCache;
   }
 
+  public long getModificationCacheMemoryInByte() {
+    return modificationCacheMemoryInByte;
+  }
+
+  public void setModificationCacheMemoryInByte(long modificationCacheMemoryInByte) {
+    this.modificationCacheMemoryInByte = modificationCacheMemoryInByte;
+  }
+
   public long getAllocateMemoryForCoordinator() {
     return allocateMemoryForCoordinator;
   }
@@ -2643,6 +2888,39 @@ public class IoTDBConfig {
     this.recoveryLogIntervalInMs = recoveryLogIntervalInMs;
   }
 
+  public boolean isEnableResourceManifest() {
+    return enableResourceManifest;
+  }
+
+  public void setEnableResourceManifest(boolean enableResourceManifest) {
+    this.enableResourceManifest = enableResourceManifest;
+  }
+
+  public long getTieredStorageMigrateThresholdInMs() {
+    return tieredStorageMigrateThresholdInMs;
+  }
+
+  public void setTieredStorageMigrateThresholdInMs(long tieredStorageMigrateThresholdInMs) {
+    this.tieredStorageMigrateThresholdInMs = tieredStorageMigrateThresholdInMs;
+  }
+
+  public long getTieredStorageCheckIntervalInMs() {
+    return tieredStorageCheckIntervalInMs;
+  }
+
+  public void setTieredStorageCheckIntervalInMs(long tieredStorageCheckIntervalInMs) {
+    this.tieredStorageCheckIntervalInMs = tieredStorageCheckIntervalInMs;
+  }
+
+  public int getTieredStorageMigrateThroughputMbPerSec() {
+    return tieredStorageMigrateThroughputMbPerSec;
+  }
+
+  public void setTieredStorageMigrateThroughputMbPerSec(
+      int tieredStorageMigrateThroughputMbPerSec) {
+    this.tieredStorageMigrateThroughputMbPerSec = tieredStorageMigrateThroughputMbPerSec;
+  }
+
   public boolean isRpcAdvancedCompressionEnable() {
     return rpcAdvancedCompressionEnable;
   }
@@ -2848,6 +3126,22 @@ public class IoTDBConfig {
     this.maxInnerCompactionCandidateFileNum = maxInnerCompactionCandidateFileNum;
   }
 
+  public double getCompactionMaxWriteAmplification() {
+    return compactionMaxWriteAmplification;
+  }
+
+  public void setCompactionMaxWriteAmplification(double compactionMaxWriteAmplification) {
+    this.compactionMaxWriteAmplification = compactionMaxWriteAmplification;
+  }
+
+  public double getCompactionReadAmplificationWeight() {
+    return compactionReadAmplificationWeight;
+  }
+
+  public void setCompactionReadAmplificationWeight(double compactionReadAmplificationWeight) {
+    this.compactionReadAmplificationWeight = compactionReadAmplificationWeight;
+  }
+
   public int getMaxCrossCompactionCandidateFileNum() {
     return maxCrossCompactionCandidateFileNum;
   }
@@ -2880,6 +3174,14 @@ public class IoTDBConfig {
     this.subCompactionTaskNum = subCompactionTaskNum;
   }
 
+  public int getCompactionDeviceParallelism() {
+    return compactionDeviceParallelism;
+  }
+
+  public void setCompactionDeviceParallelism(int compactionDeviceParallelism) {
+    this.compactionDeviceParallelism = compactionDeviceParallelism;
+  }
+
   public String getDeviceIDTransformationMethod() {
     return deviceIDTransformationMethod;
   }
@@ -3301,6 +3603,14 @@ public class IoTDBConfig {
     return loadTsFileProportion;
   }
 
+  public int getLoadTsFileDispatchParallelism() {
+    return loadTsFileDispatchParallelism;
+  }
+
+  public void setLoadTsFileDispatchParallelism(int loadTsFileDispatchParallelism) {
+    this.loadTsFileDispatchParallelism = loadTsFileDispatchParallelism;
+  }
+
   public void setCompactionProportion(double compactionProportion) {
     this.compactionProportion = compactionProportion;
   }
@@ -51,6 +51,7 @@ import org.apache.iotdb.metrics.reporter.iotdb.IoTDBInternalReporter;
 import org.apache.iotdb.metrics.utils.InternalReporterType;
 import org.apache.iotdb.rpc.RpcTransportFactory;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.fileSystem.FSType;
@@ -335,6 +336,11 @@ public class IoTDBDescriptor {
 
     conf.setDataDirs(properties.getProperty("dn_data_dirs", conf.getDataDirs()[0]).split(","));
 
+    String coldDataDirs = properties.getProperty("dn_cold_data_dirs", "").trim();
+    if (!coldDataDirs.isEmpty()) {
+      conf.setColdDataDirs(coldDataDirs.split(","));
+    }
+
     conf.setConsensusDir(properties.getProperty("dn_consensus_dir", conf.getConsensusDir()));
 
     int mlogBufferSize =
@@ -387,6 +393,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "tvlist_sort_algorithm", conf.getTvListSortAlgorithm().toString())));
 
+    conf.setMemTableStatisticsBlockSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "mem_table_statistics_block_size",
+                Integer.toString(conf.getMemTableStatisticsBlockSize()))));
+
     conf.setAvgSeriesPointNumberThreshold(
         Integer.parseInt(
             properties.getProperty(
@@ -483,6 +495,14 @@ public class IoTDBDescriptor {
     subtaskNum = subtaskNum <= 0 ? 1 : subtaskNum;
     conf.setSubCompactionTaskNum(subtaskNum);
 
+    int compactionDeviceParallelism =
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_device_parallelism",
+                Integer.toString(conf.getCompactionDeviceParallelism())));
+    conf.setCompactionDeviceParallelism(
+        compactionDeviceParallelism <= 0 ? 1 : compactionDeviceParallelism);
+
     conf.setQueryTimeoutThreshold(
         Long.parseLong(
             properties.getProperty(
@@ -543,6 +563,33 @@ public class IoTDBDescriptor {
       conf.setQueryThreadCount(Runtime.getRuntime().availableProcessors());
     }
 
+    conf.setDegreeOfParallelism(
+        Integer.parseInt(
+            properties.getProperty(
+                "degree_of_query_parallelism", Integer.toString(conf.getDegreeOfParallelism()))));
+
+    if (conf.getDegreeOfParallelism() <= 0) {
+      conf.setDegreeOfParallelism(Runtime.getRuntime().availableProcessors());
+    }
+
+    long sortBufferSizeInBytes =
+        Long.parseLong(
+            properties.getProperty(
+                "sort_buffer_size_in_bytes", Long.toString(conf.getSortBufferSizeInBytes())));
+    if (sortBufferSizeInBytes > 0) {
+      conf.setSortBufferSizeInBytes(sortBufferSizeInBytes);
+    }
+
+    conf.setLoadTsFileDispatchParallelism(
+        Integer.parseInt(
+            properties.getProperty(
+                "load_tsfile_dispatch_parallelism",
+                Integer.toString(conf.getLoadTsFileDispatchParallelism()))));
+
+    if (conf.getLoadTsFileDispatchParallelism() <= 0) {
+      conf.setLoadTsFileDispatchParallelism(Runtime.getRuntime().availableProcessors());
+    }
+
     conf.setMaxAllowedConcurrentQueries(
         Integer.parseInt(
             properties.getProperty(
@@ -639,6 +686,22 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "max_inner_compaction_candidate_file_num",
                 Integer.toString(conf.getMaxInnerCompactionCandidateFileNum()))));
+    double compactionMaxWriteAmplification =
+        Double.parseDouble(
+            properties.getProperty(
+                "compaction_max_write_amplification",
+                Double.toString(conf.getCompactionMaxWriteAmplification())));
+    if (compactionMaxWriteAmplification > 0) {
+      conf.setCompactionMaxWriteAmplification(compactionMaxWriteAmplification);
+    }
+    double compactionReadAmplificationWeight =
+        Double.parseDouble(
+            properties.getProperty(
+                "compaction_read_amplification_weight",
+                Double.toString(conf.getCompactionReadAmplificationWeight())));
+    if (compactionReadAmplificationWeight >= 0) {
+      conf.setCompactionReadAmplificationWeight(compactionReadAmplificationWeight);
+    }
     conf.setMaxCrossCompactionCandidateFileNum(
         Integer.parseInt(
             properties.getProperty(
@@ -656,6 +719,37 @@ public class IoTDBDescriptor {
                 "compaction_write_throughput_mb_per_sec",
                 Integer.toString(conf.getCompactionWriteThroughputMbPerSec()))));
 
+    conf.setCompactionReadThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "compaction_read_throughput_mb_per_sec",
+                Integer.toString(conf.getCompactionReadThroughputMbPerSec()))));
+
+    conf.setEnableAdaptiveCompactionThrottle(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_adaptive_compaction_throttle",
+                Boolean.toString(conf.isEnableAdaptiveCompactionThrottle()))));
+
+    long compactionThrottleQueryLatencyThresholdInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_throttle_query_latency_threshold_in_ms",
+                Long.toString(conf.getCompactionThrottleQueryLatencyThresholdInMs())));
+    if (compactionThrottleQueryLatencyThresholdInMs > 0) {
+      conf.setCompactionThrottleQueryLatencyThresholdInMs(
+          compactionThrottleQueryLatencyThresholdInMs);
+    }
+
+    long compactionThrottleAdjustIntervalInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_throttle_adjust_interval_in_ms",
+                Long.toString(conf.getCompactionThrottleAdjustIntervalInMs())));
+    if (compactionThrottleAdjustIntervalInMs > 0) {
+      conf.setCompactionThrottleAdjustIntervalInMs(compactionThrottleAdjustIntervalInMs);
+    }
+
     conf.setEnableCompactionValidation(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -800,6 +894,35 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "recovery_log_interval_in_ms", String.valueOf(conf.getRecoveryLogIntervalInMs()))));
 
+    conf.setEnableResourceManifest(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_resource_manifest", String.valueOf(conf.isEnableResourceManifest()))));
+
+    long tieredStorageMigrateThresholdInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "tiered_storage_migrate_threshold_in_ms",
+                String.valueOf(conf.getTieredStorageMigrateThresholdInMs())));
+    if (tieredStorageMigrateThresholdInMs > 0) {
+      conf.setTieredStorageMigrateThresholdInMs(tieredStorageMigrateThresholdInMs);
+    }
+
+    long tieredStorageCheckIntervalInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "tiered_storage_check_interval_in_ms",
+                String.valueOf(conf.getTieredStorageCheckIntervalInMs())));
+    if (tieredStorageCheckIntervalInMs > 0) {
+      conf.setTieredStorageCheckIntervalInMs(tieredStorageCheckIntervalInMs);
+    }
+
+    conf.setTieredStorageMigrateThroughputMbPerSec(
+        Integer.parseInt(
+            properties.getProperty(
+                "tiered_storage_migrate_throughput_mb_per_sec",
+                String.valueOf(conf.getTieredStorageMigrateThroughputMbPerSec()))));
+
     conf.setEnableDiscardOutOfOrderData(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -1050,6 +1173,45 @@ public class IoTDBDescriptor {
       conf.setWalBufferQueueCapacity(walBufferQueueCapacity);
     }
 
+    CompressionType walCompressionAlgorithm =
+        CompressionType.valueOf(
+            properties
+                .getProperty(
+                    "wal_compression_algorithm", conf.getWalCompressionAlgorithm().toString())
+                .trim());
+    if (walCompressionAlgorithm == CompressionType.UNCOMPRESSED
+        || walCompressionAlgorithm == CompressionType.SNAPPY
+        || walCompressionAlgorithm == CompressionType.LZ4) {
+      conf.setWalCompressionAlgorithm(walCompressionAlgorithm);
+    } else {
+      logger.warn(
+          "Unsupported wal_compression_algorithm {}, use {} instead.",
+          walCompressionAlgorithm,
+          conf.getWalCompressionAlgorithm());
+    }
+
+    conf.setEnableWalGroupCommit(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_wal_group_commit", Boolean.toString(conf.isEnableWalGroupCommit()))));
+
+    int walRecoverThreadCount =
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_recover_thread_count", Integer.toString(conf.getWalRecoverThreadCount())));
+    if (walRecoverThreadCount > 0) {
+      conf.setWalRecoverThreadCount(walRecoverThreadCount);
+    }
+
+    long walRecoverMemoryBudgetInByte =
+        Long.parseLong(
+            properties.getProperty(
+                "wal_recover_memory_budget_in_byte",
+                Long.toString(conf.getWalRecoverMemoryBudgetInByte())));
+    if (walRecoverMemoryBudgetInByte > 0) {
+      conf.setWalRecoverMemoryBudgetInByte(walRecoverMemoryBudgetInByte);
+    }
+
     loadWALHotModifiedProps(properties);
   }
 
@@ -1062,6 +1224,24 @@ public class IoTDBDescriptor {
       conf.setFsyncWalDelayInMs(fsyncWalDelayInMs);
     }
 
+    long walGroupCommitWindowInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "wal_group_commit_window_in_ms",
+                Long.toString(conf.getWalGroupCommitWindowInMs())));
+    if (walGroupCommitWindowInMs >= 0) {
+      conf.setWalGroupCommitWindowInMs(walGroupCommitWindowInMs);
+    }
+
+    long walGroupCommitWindowInByte =
+        Long.parseLong(
+            properties.getProperty(
+                "wal_group_commit_window_in_byte",
+                Long.toString(conf.getWalGroupCommitWindowInByte())));
+    if (walGroupCommitWindowInByte > 0) {
+      conf.setWalGroupCommitWindowInByte(walGroupCommitWindowInByte);
+    }
+
     long walFileSizeThreshold =
         Long.parseLong(
             properties.getProperty(
@@ -1587,6 +1767,11 @@ public class IoTDBDescriptor {
               maxMemoryAvailable * Integer.parseInt(proportions[5].trim()) / proportionSum);
           conf.setAllocateMemoryForTimeIndex(
               maxMemoryAvailable * Integer.parseInt(proportions[6].trim()) / proportionSum);
+          // the modification cache takes half of the "others" part
+          if (proportions.length > 7) {
+            conf.setModificationCacheMemoryInByte(
+                maxMemoryAvailable * Integer.parseInt(proportions[7].trim()) / proportionSum / 2);
+          }
         } catch (Exception e) {
           throw new RuntimeException(
               "Each subsection of configuration item chunkmeta_chunk_timeseriesmeta_free_memory_proportion"
@@ -1596,6 +1781,17 @@ public class IoTDBDescriptor {
       }
     }
 
+    long modificationCacheMemory =
+        Long.parseLong(
+            properties
+                .getProperty(
+                    "modification_cache_memory_in_byte",
+                    Long.toString(conf.getModificationCacheMemoryInByte()))
+                .trim());
+    if (modificationCacheMemory > 0) {
+      conf.setModificationCacheMemoryInByte(modificationCacheMemory);
+    }
+
     // metadata cache is disabled, we need to move all their allocated memory to other parts
     if (!conf.isMetaDataCacheEnable()) {
       long sum =
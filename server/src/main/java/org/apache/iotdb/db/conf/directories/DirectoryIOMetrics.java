@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.conf.directories;
+
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+import org.apache.iotdb.metrics.utils.MetricType;
+
+import java.util.Objects;
+
+public class DirectoryIOMetrics implements IMetricSet {
+  private static final String LATENCY = "latency";
+  private static final String THROUGHPUT = "throughput";
+  private static final String IN_FLIGHT = "in_flight";
+
+  private final DirectoryIOStatistics statistics;
+
+  public DirectoryIOMetrics(DirectoryIOStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  @Override
+  public void bindTo(AbstractMetricService metricService) {
+    metricService.createAutoGauge(
+        Metric.DIRECTORY_IO.toString(),
+        MetricLevel.IMPORTANT,
+        statistics,
+        DirectoryIOStatistics::getAvgLatencyInMs,
+        Tag.NAME.toString(),
+        statistics.getFolder(),
+        Tag.TYPE.toString(),
+        LATENCY);
+    metricService.createAutoGauge(
+        Metric.DIRECTORY_IO.toString(),
+        MetricLevel.IMPORTANT,
+        statistics,
+        DirectoryIOStatistics::getAvgThroughputInBytesPerSec,
+        Tag.NAME.toString(),
+        statistics.getFolder(),
+        Tag.TYPE.toString(),
+        THROUGHPUT);
+    metricService.createAutoGauge(
+        Metric.DIRECTORY_IO.toString(),
+        MetricLevel.IMPORTANT,
+        statistics,
+        DirectoryIOStatistics::getInFlightWriteNum,
+        Tag.NAME.toString(),
+        statistics.getFolder(),
+        Tag.TYPE.toString(),
+        IN_FLIGHT);
+  }
+
+  @Override
+  public void unbindFrom(AbstractMetricService metricService) {
+    for (String type : new String[] {LATENCY, THROUGHPUT, IN_FLIGHT}) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.DIRECTORY_IO.toString(),
+          Tag.NAME.toString(),
+          statistics.getFolder(),
+          Tag.TYPE.toString(),
+          type);
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    DirectoryIOMetrics that = (DirectoryIOMetrics) o;
+    return Objects.equals(statistics, that.statistics);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(statistics);
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.conf.directories;
+
+import org.apache.iotdb.commons.service.metric.MetricService;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DirectoryIOMonitor collects the write statistics of the folders registered by {@link
+ * org.apache.iotdb.db.conf.directories.strategy.IOAwareDirectoryStrategy}. Writers report their
+ * writes by file, which is mapped to the registered folder containing it. Writes into folders that
+ * are not registered are ignored.
+ */
+public class DirectoryIOMonitor {
+
+  private final Map<String, DirectoryIOStatistics> folder2Statistics = new ConcurrentHashMap<>();
+
+  private DirectoryIOMonitor() {}
+
+  /** Start to monitor the folder, returns the statistics of it. */
+  public DirectoryIOStatistics register(String folder) {
+    return folder2Statistics.computeIfAbsent(
+        new File(folder).getAbsolutePath(),
+        path -> {
+          DirectoryIOStatistics statistics = new DirectoryIOStatistics(path);
+          MetricService.getInstance().addMetricSet(new DirectoryIOMetrics(statistics));
+          return statistics;
+        });
+  }
+
+  /**
+   * Get the statistics of the registered folder containing the file.
+   *
+   * @return null if the file is not in any registered folder
+   */
+  public DirectoryIOStatistics getStatistics(File file) {
+    if (folder2Statistics.isEmpty()) {
+      return null;
+    }
+    String path = file.getAbsolutePath();
+    DirectoryIOStatistics result = null;
+    for (Map.Entry<String, DirectoryIOStatistics> entry : folder2Statistics.entrySet()) {
+      String folder = entry.getKey();
+      if ((path.equals(folder) || path.startsWith(folder + File.separator))
+          && (result == null || folder.length() > result.getFolder().length())) {
+        result = entry.getValue();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Mark a write into the file as started.
+   *
+   * @return the statistics to pass to {@link #finishWrite}, null if the file is not monitored
+   */
+  public DirectoryIOStatistics startWrite(File file) {
+    DirectoryIOStatistics statistics = getStatistics(file);
+    if (statistics != null) {
+      statistics.startWrite();
+    }
+    return statistics;
+  }
+
+  public void finishWrite(DirectoryIOStatistics statistics, long writtenBytes, long costInNanos) {
+    if (statistics != null) {
+      statistics.finishWrite(writtenBytes, costInNanos);
+    }
+  }
+
+  public static DirectoryIOMonitor getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  private static class InstanceHolder {
+    private static final DirectoryIOMonitor INSTANCE = new DirectoryIOMonitor();
+
+    private InstanceHolder() {}
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.conf.directories;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write statistics of one folder, including the smoothed latency and throughput of recent writes
+ * and the number of writes (flush, compaction and wal) in progress on it.
+ */
+public class DirectoryIOStatistics {
+
+  /** weight of the newest sample in the exponentially weighted moving averages */
+  private static final double SMOOTHING_FACTOR = 0.2;
+
+  /** samples older than this are considered outdated, so that a slow folder will be retried */
+  private static final long SAMPLE_EXPIRE_TIME_IN_MS = TimeUnit.MINUTES.toMillis(1);
+
+  private final String folder;
+
+  private final AtomicInteger inFlightWriteNum = new AtomicInteger(0);
+  private final AtomicLong totalWrittenBytes = new AtomicLong(0);
+
+  private double avgLatencyInMs = 0;
+  private double avgThroughputInBytesPerSec = 0;
+  private long lastSampleTime = 0;
+
+  public DirectoryIOStatistics(String folder) {
+    this.folder = folder;
+  }
+
+  public String getFolder() {
+    return folder;
+  }
+
+  public void startWrite() {
+    inFlightWriteNum.incrementAndGet();
+  }
+
+  /**
+   * Finish a write started by {@link #startWrite()}.
+   *
+   * @param writtenBytes bytes written, no latency sample is recorded if it is not positive
+   * @param costInNanos time spent on the write
+   */
+  public void finishWrite(long writtenBytes, long costInNanos) {
+    inFlightWriteNum.decrementAndGet();
+    recordWrite(writtenBytes, costInNanos);
+  }
+
+  /**
+   * Record a write sample without changing the number of in-flight writes. Samples without a
+   * measured cost are not used for the averages, since they would make the folder look infinitely
+   * fast.
+   */
+  public void recordWrite(long writtenBytes, long costInNanos) {
+    if (writtenBytes <= 0) {
+      return;
+    }
+    totalWrittenBytes.addAndGet(writtenBytes);
+    if (costInNanos <= 0) {
+      return;
+    }
+    double latencyInMs = costInNanos / 1_000_000d;
+    double throughput = writtenBytes * 1_000_000_000d / costInNanos;
+    synchronized (this) {
+      if (lastSampleTime == 0) {
+        avgLatencyInMs = latencyInMs;
+        avgThroughputInBytesPerSec = throughput;
+      } else {
+        avgLatencyInMs += SMOOTHING_FACTOR * (latencyInMs - avgLatencyInMs);
+        avgThroughputInBytesPerSec +=
+            SMOOTHING_FACTOR * (throughput - avgThroughputInBytesPerSec);
+      }
+      lastSampleTime = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * The expected time to write one byte into this folder considering the writes queued on it. A
+   * folder without recent samples gets 0 if no write is in progress on it, so that it will be
+   * chosen and sampled again. Otherwise, its probe is still running and it gets the max score, so
+   * that it is only chosen when no folder with a known throughput is available, instead of taking
+   * all the new writes until the probe finishes.
+   */
+  public synchronized double getLoadScore() {
+    int currentInFlightWriteNum = inFlightWriteNum.get();
+    if (lastSampleTime == 0
+        || System.currentTimeMillis() - lastSampleTime > SAMPLE_EXPIRE_TIME_IN_MS
+        || avgThroughputInBytesPerSec <= 0) {
+      return currentInFlightWriteNum == 0 ? 0 : Double.MAX_VALUE;
+    }
+    return (currentInFlightWriteNum + 1) / avgThroughputInBytesPerSec;
+  }
+
+  public int getInFlightWriteNum() {
+    return inFlightWriteNum.get();
+  }
+
+  public long getTotalWrittenBytes() {
+    return totalWrittenBytes.get();
+  }
+
+  public synchronized double getAvgLatencyInMs() {
+    return avgLatencyInMs;
+  }
+
+  public synchronized double getAvgThroughputInBytesPerSec() {
+    return avgThroughputInBytesPerSec;
+  }
+}
@@ -46,6 +46,13 @@ public class DirectoryManager {
   private DirectoryStrategy sequenceStrategy;
   private DirectoryStrategy unsequenceStrategy;
 
+  /** folders of the cold storage tier, sealed TsFiles are moved to them when they get old */
+  private List<String> coldSequenceFileFolders;
+
+  private List<String> coldUnsequenceFileFolders;
+  private DirectoryStrategy coldSequenceStrategy;
+  private DirectoryStrategy coldUnsequenceStrategy;
+
   private DirectoryManager() {
     sequenceFileFolders =
         new ArrayList<>(Arrays.asList(IoTDBDescriptor.getInstance().getConfig().getDataDirs()));
@@ -63,6 +70,12 @@ public class DirectoryManager {
     }
     mkDataDirs(unsequenceFileFolders);
 
+    String[] coldDataDirs = IoTDBDescriptor.getInstance().getConfig().getColdDataDirs();
+    coldSequenceFileFolders = getSubFolders(coldDataDirs, IoTDBConstant.SEQUENCE_FLODER_NAME);
+    mkDataDirs(coldSequenceFileFolders);
+    coldUnsequenceFileFolders = getSubFolders(coldDataDirs, IoTDBConstant.UNSEQUENCE_FLODER_NAME);
+    mkDataDirs(coldUnsequenceFileFolders);
+
     String strategyName = "";
     try {
       strategyName = IoTDBDescriptor.getInstance().getConfig().getMultiDirStrategyClassName();
@@ -71,6 +84,7 @@ public class DirectoryManager {
       sequenceStrategy.setFolders(sequenceFileFolders);
       unsequenceStrategy = (DirectoryStrategy) clazz.newInstance();
       unsequenceStrategy.setFolders(unsequenceFileFolders);
+      setColdStrategies(clazz);
     } catch (DiskSpaceInsufficientException e) {
       logger.error("All disks of folders are full.", e);
     } catch (Exception e) {
@@ -117,6 +131,7 @@ public class DirectoryManager {
       sequenceStrategy.setFolders(sequenceFileFolders);
       unsequenceStrategy = (DirectoryStrategy) clazz.newInstance();
       unsequenceStrategy.setFolders(unsequenceFileFolders);
+      setColdStrategies(clazz);
       logger.info("Success to update directory strategy.");
     } catch (Exception e) {
       logger.error("Fail to update directory strategy {}, use previous strategy", strategyName, e);
@@ -127,6 +142,25 @@ public class DirectoryManager {
     }
   }
 
+  private void setColdStrategies(Class<?> clazz)
+      throws InstantiationException, IllegalAccessException, DiskSpaceInsufficientException {
+    if (coldSequenceFileFolders.isEmpty()) {
+      return;
+    }
+    coldSequenceStrategy = (DirectoryStrategy) clazz.newInstance();
+    coldSequenceStrategy.setFolders(coldSequenceFileFolders);
+    coldUnsequenceStrategy = (DirectoryStrategy) clazz.newInstance();
+    coldUnsequenceStrategy.setFolders(coldUnsequenceFileFolders);
+  }
+
+  private static List<String> getSubFolders(String[] dirs, String subFolderName) {
+    List<String> folders = new ArrayList<>(dirs.length);
+    for (String dir : dirs) {
+      folders.add(dir + File.separator + subFolderName);
+    }
+    return folders;
+  }
+
   public static DirectoryManager getInstance() {
     return DirectoriesHolder.INSTANCE;
   }
@@ -153,8 +187,11 @@ public class DirectoryManager {
     }
   }
 
+  /** @return the sequence folders of both the hot and the cold tier */
   public List<String> getAllSequenceFileFolders() {
-    return new ArrayList<>(sequenceFileFolders);
+    List<String> folders = new ArrayList<>(sequenceFileFolders);
+    folders.addAll(coldSequenceFileFolders);
+    return folders;
   }
 
   public String getNextFolderForUnSequenceFile() throws DiskSpaceInsufficientException {
@@ -167,16 +204,48 @@ public class DirectoryManager {
     }
   }
 
+  /** @return the unsequence folders of both the hot and the cold tier */
   public List<String> getAllUnSequenceFileFolders() {
-    return new ArrayList<>(unsequenceFileFolders);
+    List<String> folders = new ArrayList<>(unsequenceFileFolders);
+    folders.addAll(coldUnsequenceFileFolders);
+    return folders;
   }
 
   public List<String> getAllFilesFolders() {
-    List<String> folders = new ArrayList<>(sequenceFileFolders);
-    folders.addAll(unsequenceFileFolders);
+    List<String> folders = getAllSequenceFileFolders();
+    folders.addAll(getAllUnSequenceFileFolders());
     return folders;
   }
 
+  public String getNextFolderForColdSequenceFile() throws DiskSpaceInsufficientException {
+    return coldSequenceFileFolders.get(coldSequenceStrategy.nextFolderIndex());
+  }
+
+  public String getNextFolderForColdUnSequenceFile() throws DiskSpaceInsufficientException {
+    return coldUnsequenceFileFolders.get(coldUnsequenceStrategy.nextFolderIndex());
+  }
+
+  /**
+   * TsFiles are in {folder}/{database}/{region}/{partition}/, so check whether the folder is one of
+   * the cold folders.
+   */
+  public boolean isInColdFolder(File tsFile) {
+    File partitionDir = tsFile.getAbsoluteFile().getParentFile();
+    File folder = partitionDir.getParentFile().getParentFile().getParentFile();
+    String folderPath = folder.getAbsolutePath();
+    for (String coldFolder : coldSequenceFileFolders) {
+      if (new File(coldFolder).getAbsolutePath().equals(folderPath)) {
+        return true;
+      }
+    }
+    for (String coldFolder : coldUnsequenceFileFolders) {
+      if (new File(coldFolder).getAbsolutePath().equals(folderPath)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @TestOnly
   public void resetFolders() {
     sequenceFileFolders =
@@ -191,6 +260,9 @@ public class DirectoryManager {
       unsequenceFileFolders.set(
           i, unsequenceFileFolders.get(i) + File.separator + IoTDBConstant.UNSEQUENCE_FLODER_NAME);
     }
+    String[] coldDataDirs = IoTDBDescriptor.getInstance().getConfig().getColdDataDirs();
+    coldSequenceFileFolders = getSubFolders(coldDataDirs, IoTDBConstant.SEQUENCE_FLODER_NAME);
+    coldUnsequenceFileFolders = getSubFolders(coldDataDirs, IoTDBConstant.UNSEQUENCE_FLODER_NAME);
   }
 
   private static class DirectoriesHolder {
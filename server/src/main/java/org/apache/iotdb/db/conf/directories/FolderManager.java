@@ -22,6 +22,7 @@ import org.apache.iotdb.commons.cluster.NodeStatus;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.db.conf.directories.strategy.DirectoryStrategy;
 import org.apache.iotdb.db.conf.directories.strategy.DirectoryStrategyType;
+import org.apache.iotdb.db.conf.directories.strategy.IOAwareDirectoryStrategy;
 import org.apache.iotdb.db.conf.directories.strategy.MaxDiskUsableSpaceFirstStrategy;
 import org.apache.iotdb.db.conf.directories.strategy.MinFolderOccupiedSpaceFirstStrategy;
 import org.apache.iotdb.db.conf.directories.strategy.RandomOnDiskUsableSpaceStrategy;
@@ -55,6 +56,9 @@ public class FolderManager {
       case RANDOM_ON_DISK_USABLE_SPACE_STRATEGY:
         this.selectStrategy = new RandomOnDiskUsableSpaceStrategy();
         break;
+      case IO_AWARE_STRATEGY:
+        this.selectStrategy = new IOAwareDirectoryStrategy();
+        break;
       default:
         throw new RuntimeException();
     }
@@ -23,4 +23,5 @@ public enum DirectoryStrategyType {
   MAX_DISK_USABLE_SPACE_FIRST_STRATEGY,
   MIN_FOLDER_OCCUPIED_SPACE_FIRST_STRATEGY,
   RANDOM_ON_DISK_USABLE_SPACE_STRATEGY,
+  IO_AWARE_STRATEGY,
 }
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.conf.directories.strategy;
+
+import org.apache.iotdb.commons.utils.JVMCommonUtils;
+import org.apache.iotdb.db.conf.directories.DirectoryIOMonitor;
+import org.apache.iotdb.db.conf.directories.DirectoryIOStatistics;
+import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Choose the folder with available space whose disk is expected to take the new write fastest,
+ * according to the recent write throughput and the in-flight writes of each folder collected by
+ * {@link DirectoryIOMonitor}. Folders with the same score are chosen in turn.
+ */
+public class IOAwareDirectoryStrategy extends DirectoryStrategy {
+
+  private List<DirectoryIOStatistics> statisticsList = new ArrayList<>();
+
+  /** the folder to start searching from, used to break ties in round-robin */
+  private int startIndex = 0;
+
+  @Override
+  public synchronized void setFolders(List<String> folders) throws DiskSpaceInsufficientException {
+    super.setFolders(folders);
+    List<DirectoryIOStatistics> newStatisticsList = new ArrayList<>(folders.size());
+    for (String folder : folders) {
+      newStatisticsList.add(DirectoryIOMonitor.getInstance().register(folder));
+    }
+    this.statisticsList = newStatisticsList;
+    this.startIndex = 0;
+  }
+
+  @Override
+  public synchronized int nextFolderIndex() throws DiskSpaceInsufficientException {
+    int size = folders.size();
+    int bestIndex = -1;
+    double bestScore = Double.MAX_VALUE;
+    int bestInFlightWriteNum = Integer.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      int index = (startIndex + i) % size;
+      if (!JVMCommonUtils.hasSpace(folders.get(index))) {
+        continue;
+      }
+      DirectoryIOStatistics statistics = statisticsList.get(index);
+      double score = statistics.getLoadScore();
+      int inFlightWriteNum = statistics.getInFlightWriteNum();
+      if (score < bestScore || (score == bestScore && inFlightWriteNum < bestInFlightWriteNum)) {
+        bestIndex = index;
+        bestScore = score;
+        bestInFlightWriteNum = inFlightWriteNum;
+      }
+    }
+
+    if (bestIndex == -1) {
+      throw new DiskSpaceInsufficientException(folders);
+    }
+    startIndex = (bestIndex + 1) % size;
+    return bestIndex;
+  }
+}
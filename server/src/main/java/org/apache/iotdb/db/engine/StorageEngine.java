@@ -128,6 +128,7 @@ public class StorageEngine implements IService {
   private ScheduledExecutorService ttlCheckThread;
   private ScheduledExecutorService seqMemtableTimedFlushCheckThread;
   private ScheduledExecutorService unseqMemtableTimedFlushCheckThread;
+  private ScheduledExecutorService tieredStorageMigrateThread;
 
   private TsFileFlushPolicy fileFlushPolicy = new DirectFlushPolicy();
   /** used to do short-lived asynchronous tasks */
@@ -363,6 +364,27 @@ public class StorageEngine implements IService {
           TimeUnit.MILLISECONDS);
       logger.info("start unsequence memtable timed flush check thread successfully.");
     }
+    // move old sealed tsfiles to the cold tier
+    if (config.isEnableTieredStorage()) {
+      tieredStorageMigrateThread =
+          IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+              ThreadName.TIERED_STORAGE_MIGRATE.getName());
+      ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+          tieredStorageMigrateThread,
+          this::migrateColdTsFiles,
+          config.getTieredStorageCheckIntervalInMs(),
+          config.getTieredStorageCheckIntervalInMs(),
+          TimeUnit.MILLISECONDS);
+      logger.info("start tiered storage migrate thread successfully.");
+    }
+  }
+
+  private void migrateColdTsFiles() {
+    for (DataRegion dataRegion : dataRegionMap.values()) {
+      if (dataRegion != null) {
+        dataRegion.migrateColdTsFiles();
+      }
+    }
   }
 
   private void timedFlushSeqMemTable() {
@@ -395,6 +417,7 @@ public class StorageEngine implements IService {
         seqMemtableTimedFlushCheckThread, ThreadName.TIMED_FLUSH_SEQ_MEMTABLE);
     ThreadUtils.stopThreadPool(
         unseqMemtableTimedFlushCheckThread, ThreadName.TIMED_FLUSH_UNSEQ_MEMTABLE);
+    ThreadUtils.stopThreadPool(tieredStorageMigrateThread, ThreadName.TIERED_STORAGE_MIGRATE);
     if (cachedThreadPool != null) {
       cachedThreadPool.shutdownNow();
     }
@@ -415,6 +438,7 @@ public class StorageEngine implements IService {
     shutdownTimedService(ttlCheckThread, "TTlCheckThread");
     shutdownTimedService(seqMemtableTimedFlushCheckThread, "SeqMemtableTimedFlushCheckThread");
     shutdownTimedService(unseqMemtableTimedFlushCheckThread, "UnseqMemtableTimedFlushCheckThread");
+    shutdownTimedService(tieredStorageMigrateThread, "TieredStorageMigrateThread");
     cachedThreadPool.shutdownNow();
     dataRegionMap.clear();
   }
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.metric.ChunkCacheMetrics;
 import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
+import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
@@ -109,6 +110,20 @@ public class ChunkCache {
     return get(chunkMetaData, false);
   }
 
+  /**
+   * Same as {@link #get(ChunkMetadata, boolean)}, but records the bytes of the chunk in the context
+   * if the query collects runtime statistics.
+   */
+  public Chunk get(ChunkMetadata chunkMetaData, QueryContext context) throws IOException {
+    if (!context.isCollectStatistics()) {
+      return get(chunkMetaData, context.isDebug());
+    }
+    boolean fromCache = CACHE_ENABLE && lruCache.getIfPresent(chunkMetaData) != null;
+    Chunk chunk = get(chunkMetaData, context.isDebug());
+    context.recordChunkRead(chunk.getHeader().getDataSize(), fromCache);
+    return chunk;
+  }
+
   public Chunk get(ChunkMetadata chunkMetaData, boolean debug) throws IOException {
     long startTime = System.nanoTime();
     try {
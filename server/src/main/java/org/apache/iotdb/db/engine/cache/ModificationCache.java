@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+
+/**
+ * This class caches the parsed and indexed modifications of ModificationFiles, so that queries and
+ * compactions do not read and match all modifications of a TsFile again and again. The caching
+ * strategy is LRU bounded by memory. An entry is invalidated when its ModificationFile is written,
+ * and is also checked against the length of the file in case the file is changed elsewhere.
+ */
+public class ModificationCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(ModificationCache.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final long MEMORY_THRESHOLD_IN_MODIFICATION_CACHE =
+      config.getModificationCacheMemoryInByte();
+
+  /** path of ModificationFile -> indexed modifications */
+  private final Cache<String, CachedModifications> lruCache;
+
+  private ModificationCache() {
+    logger.info("ModificationCache size = {}", MEMORY_THRESHOLD_IN_MODIFICATION_CACHE);
+    lruCache =
+        Caffeine.newBuilder()
+            .maximumWeight(MEMORY_THRESHOLD_IN_MODIFICATION_CACHE)
+            .weigher(
+                (Weigher<String, CachedModifications>)
+                    (filePath, modifications) ->
+                        (int)
+                            Math.min(
+                                Integer.MAX_VALUE,
+                                2L * filePath.length() + modifications.index.getRamSize()))
+            .recordStats()
+            .build();
+  }
+
+  public static ModificationCache getInstance() {
+    return ModificationCacheHolder.INSTANCE;
+  }
+
+  /** Get the indexed modifications of the given ModificationFile, read it if necessary. */
+  public ModificationIndex get(ModificationFile modFile) {
+    String filePath = modFile.getFilePath();
+    // the length is got before reading, so that a concurrent append makes the entry out of date
+    long fileLength = new File(filePath).length();
+    if (fileLength == 0) {
+      return ModificationIndex.EMPTY;
+    }
+    CachedModifications cached = lruCache.getIfPresent(filePath);
+    if (cached != null && cached.fileLength == fileLength) {
+      return cached.index;
+    }
+    ModificationIndex index = new ModificationIndex(modFile.getModifications());
+    lruCache.put(filePath, new CachedModifications(fileLength, index));
+    return index;
+  }
+
+  public void invalidate(String modFilePath) {
+    lruCache.invalidate(modFilePath);
+  }
+
+  public double getHitRate() {
+    return lruCache.stats().hitRate() * 100;
+  }
+
+  @TestOnly
+  public void clear() {
+    lruCache.invalidateAll();
+  }
+
+  private static class CachedModifications {
+    private final long fileLength;
+    private final ModificationIndex index;
+
+    private CachedModifications(long fileLength, ModificationIndex index) {
+      this.fileLength = fileLength;
+      this.index = index;
+    }
+  }
+
+  /** singleton pattern. */
+  private static class ModificationCacheHolder {
+
+    private static final ModificationCache INSTANCE = new ModificationCache();
+  }
+}
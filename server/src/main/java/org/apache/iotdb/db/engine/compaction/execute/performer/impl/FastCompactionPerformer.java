@@ -34,20 +34,27 @@ import org.apache.iotdb.db.engine.compaction.execute.utils.MultiTsFileDeviceIter
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.AbstractCompactionWriter;
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.FastCrossCompactionWriter;
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.FastInnerCompactionWriter;
+import org.apache.iotdb.db.engine.compaction.schedule.CompactionIOThrottler;
 import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
-import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.StorageEngineException;
 import org.apache.iotdb.db.exception.WriteProcessException;
+import org.apache.iotdb.db.rescon.SystemInfo;
+import org.apache.iotdb.tsfile.common.constant.TsFileConstant;
 import org.apache.iotdb.tsfile.exception.write.PageException;
+import org.apache.iotdb.tsfile.file.header.ChunkHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -55,9 +62,13 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.TIME_COLUMN_ID;
 
@@ -81,12 +92,18 @@ public class FastCompactionPerformer
 
   private List<TsFileResource> targetFiles;
 
-  public Map<TsFileResource, List<Modification>> modificationCache = new ConcurrentHashMap<>();
+  public Map<TsFileResource, ModificationIndex> modificationCache = new ConcurrentHashMap<>();
 
   private boolean isCrossCompaction;
 
   private long tempFileSize = 0L;
 
+  // compaction memory reserved by each device lane beyond the first one
+  private long laneMemoryCost = 0L;
+
+  // the max number of devices waiting in the queue of a device lane
+  private static final int LANE_QUEUE_CAPACITY = 4;
+
   public FastCompactionPerformer(
       List<TsFileResource> seqFiles,
       List<TsFileResource> unseqFiles,
@@ -111,12 +128,33 @@ public class FastCompactionPerformer
       throws IOException, MetadataException, StorageEngineException, InterruptedException {
     TsFileMetricManager.getInstance()
         .addCompactionTempFileNum(!isCrossCompaction, !seqFiles.isEmpty(), targetFiles.size());
+    int laneNum = reserveDeviceLanes();
     try (MultiTsFileDeviceIterator deviceIterator =
-            new MultiTsFileDeviceIterator(seqFiles, unseqFiles, readerCacheMap);
-        AbstractCompactionWriter compactionWriter =
-            isCrossCompaction
-                ? new FastCrossCompactionWriter(targetFiles, seqFiles, readerCacheMap)
-                : new FastInnerCompactionWriter(targetFiles.get(0))) {
+        new MultiTsFileDeviceIterator(seqFiles, unseqFiles, readerCacheMap)) {
+      if (laneNum > 1) {
+        compactDevicesInParallel(deviceIterator, laneNum);
+      } else {
+        compactDevices(deviceIterator);
+      }
+      CompactionUtils.updatePlanIndexes(targetFiles, seqFiles, unseqFiles);
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    } finally {
+      SystemInfo.getInstance().resetCompactionMemoryCost(laneMemoryCost * (laneNum - 1));
+      // readers of source files have been closed in MultiTsFileDeviceIterator
+      // clean cache
+      sortedSourceFiles = null;
+      readerCacheMap = null;
+      modificationCache = null;
+      TsFileMetricManager.getInstance()
+          .addCompactionTempFileNum(!isCrossCompaction, !seqFiles.isEmpty(), -targetFiles.size());
+      TsFileMetricManager.getInstance()
+          .addCompactionTempFileSize(!isCrossCompaction, !seqFiles.isEmpty(), -tempFileSize);
+    }
+  }
+
+  private void compactDevices(MultiTsFileDeviceIterator deviceIterator) throws Exception {
+    try (AbstractCompactionWriter compactionWriter = createCompactionWriter(targetFiles)) {
       while (deviceIterator.hasNextDevice()) {
         checkThreadInterrupted();
         Pair<String, Boolean> deviceInfo = deviceIterator.nextDevice();
@@ -151,19 +189,227 @@ public class FastCompactionPerformer
         sortedSourceFiles.clear();
       }
       compactionWriter.endFile();
-      CompactionUtils.updatePlanIndexes(targetFiles, seqFiles, unseqFiles);
-    } catch (Exception e) {
-      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Compact devices in several lanes concurrently. The i-th device is compacted by lane (i %
+   * laneNum) into the lane files of the lane, so that every lane still writes devices in ascending
+   * order. After all devices are compacted, chunks in lane files are appended to the target files
+   * device by device without being decoded again.
+   */
+  private void compactDevicesInParallel(MultiTsFileDeviceIterator deviceIterator, int laneNum)
+      throws Exception {
+    List<CompactionLane> lanes = new ArrayList<>();
+    // device -> whether the device is aligned, in the order of devices
+    List<Pair<String, Boolean>> devices = new ArrayList<>();
+    try {
+      for (int i = 0; i < laneNum; i++) {
+        lanes.add(new CompactionLane(i));
+      }
+      while (deviceIterator.hasNextDevice()) {
+        checkThreadInterrupted();
+        Pair<String, Boolean> deviceInfo = deviceIterator.nextDevice();
+        String device = deviceInfo.left;
+        // see the comments in compactDevices
+        List<TsFileResource> sourceFiles = new ArrayList<>(seqFiles);
+        sourceFiles.addAll(unseqFiles);
+        sourceFiles.removeIf(x -> !x.mayContainsDevice(device));
+        sourceFiles.sort(Comparator.comparingLong(x -> x.getStartTime(device)));
+
+        DeviceTask deviceTask;
+        if (deviceInfo.right) {
+          Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap =
+              new HashMap<>();
+          List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
+          collectAlignedSchemasAndOffsets(
+              deviceIterator, timeseriesMetadataOffsetMap, measurementSchemas);
+          deviceTask = new DeviceTask(device, true, timeseriesMetadataOffsetMap, sourceFiles);
+          deviceTask.measurementSchemas = measurementSchemas;
+        } else {
+          Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap =
+              deviceIterator.getTimeseriesMetadataOffsetOfCurrentDevice();
+          deviceTask = new DeviceTask(device, false, timeseriesMetadataOffsetMap, sourceFiles);
+          deviceTask.measurements = new ArrayList<>(timeseriesMetadataOffsetMap.keySet());
+        }
+        lanes.get(devices.size() % laneNum).submit(deviceTask);
+        devices.add(deviceInfo);
+      }
+      for (CompactionLane lane : lanes) {
+        lane.finish();
+      }
+      for (int i = 0; i < targetFiles.size(); i++) {
+        checkThreadInterrupted();
+        concatenateLaneFiles(lanes, devices, i);
+      }
     } finally {
-      // readers of source files have been closed in MultiTsFileDeviceIterator
-      // clean cache
-      sortedSourceFiles = null;
-      readerCacheMap = null;
-      modificationCache = null;
-      TsFileMetricManager.getInstance()
-          .addCompactionTempFileNum(!isCrossCompaction, !seqFiles.isEmpty(), -targetFiles.size());
-      TsFileMetricManager.getInstance()
-          .addCompactionTempFileSize(!isCrossCompaction, !seqFiles.isEmpty(), -tempFileSize);
+      for (CompactionLane lane : lanes) {
+        lane.close();
+      }
+    }
+  }
+
+  /**
+   * Append the chunks of all lane files of the target file to the target file device by device.
+   * Chunks are copied as they are serialized in the lane files, together with their chunk metadata.
+   */
+  private void concatenateLaneFiles(
+      List<CompactionLane> lanes, List<Pair<String, Boolean>> devices, int targetIndex)
+      throws IOException {
+    TsFileResource targetResource = targetFiles.get(targetIndex);
+    TsFileSequenceReader[] laneReaders = new TsFileSequenceReader[lanes.size()];
+    TsFileIOWriter targetWriter =
+        new TsFileIOWriter(
+            targetResource.getTsFile(),
+            IoTDBDescriptor.getInstance().getConfig().isEnableMemControl(),
+            getMemorySizeForEachWriter());
+    try {
+      for (int i = 0; i < lanes.size(); i++) {
+        File laneFile = lanes.get(i).laneFiles.get(targetIndex).getTsFile();
+        // empty lane files have been deleted when the lane ends
+        if (laneFile.exists()) {
+          laneReaders[i] = new TsFileSequenceReader(laneFile.getPath());
+        }
+      }
+      boolean isEmptyFile = true;
+      for (int deviceIndex = 0; deviceIndex < devices.size(); deviceIndex++) {
+        // the i-th device is compacted by lane (i % laneNum)
+        TsFileSequenceReader laneReader = laneReaders[deviceIndex % lanes.size()];
+        if (laneReader == null) {
+          continue;
+        }
+        String device = devices.get(deviceIndex).left;
+        List<ChunkMetadata> chunkMetadataList =
+            readChunkMetadataOfLaneDevice(laneReader, device, devices.get(deviceIndex).right);
+        if (chunkMetadataList.isEmpty()) {
+          continue;
+        }
+        targetWriter.startChunkGroup(device);
+        // chunks of a device are written one after another in a lane file, so a chunk ends where
+        // the next chunk starts
+        long chunkGroupEnd =
+            getEndOfChunk(laneReader, chunkMetadataList.get(chunkMetadataList.size() - 1));
+        for (int i = 0; i < chunkMetadataList.size(); i++) {
+          ChunkMetadata chunkMetadata = chunkMetadataList.get(i);
+          long chunkEnd =
+              i + 1 < chunkMetadataList.size()
+                  ? chunkMetadataList.get(i + 1).getOffsetOfChunkHeader()
+                  : chunkGroupEnd;
+          int chunkSize = (int) (chunkEnd - chunkMetadata.getOffsetOfChunkHeader());
+          CompactionTaskManager.mergeRateLimiterAcquire(
+              CompactionTaskManager.getInstance().getMergeWriteRateLimiter(), chunkSize);
+          CompactionIOThrottler.getInstance().acquireWrite(targetWriter.getFile(), chunkSize);
+          targetWriter.writeSerializedChunk(
+              laneReader.readChunk(chunkMetadata.getOffsetOfChunkHeader(), chunkSize),
+              chunkMetadata);
+        }
+        CompactionUtils.updateResource(targetResource, targetWriter, device);
+        targetWriter.endChunkGroup();
+        targetWriter.checkMetadataSizeAndMayFlush();
+        isEmptyFile = false;
+      }
+      targetWriter.endFile();
+      if (isEmptyFile) {
+        targetWriter.getFile().delete();
+      }
+    } finally {
+      if (targetWriter.canWrite()) {
+        targetWriter.close();
+      }
+      for (TsFileSequenceReader laneReader : laneReaders) {
+        if (laneReader != null) {
+          laneReader.close();
+        }
+      }
+    }
+  }
+
+  /**
+   * Read the chunk metadata of a device in a lane file, sorted by the offsets of chunks. The masks
+   * of aligned chunks are not serialized in the chunk metadata, so they are set by the measurement.
+   */
+  private List<ChunkMetadata> readChunkMetadataOfLaneDevice(
+      TsFileSequenceReader laneReader, String device, boolean isAligned) throws IOException {
+    List<ChunkMetadata> chunkMetadataList = new ArrayList<>();
+    for (Map.Entry<String, List<ChunkMetadata>> entry :
+        laneReader.readChunkMetadataInDevice(device).entrySet()) {
+      byte mask = 0;
+      if (isAligned) {
+        mask =
+            entry.getKey().equals(TIME_COLUMN_ID)
+                ? TsFileConstant.TIME_COLUMN_MASK
+                : TsFileConstant.VALUE_COLUMN_MASK;
+      }
+      for (ChunkMetadata chunkMetadata : entry.getValue()) {
+        chunkMetadata.setMask(mask);
+        chunkMetadataList.add(chunkMetadata);
+      }
+    }
+    chunkMetadataList.sort(Comparator.comparingLong(ChunkMetadata::getOffsetOfChunkHeader));
+    return chunkMetadataList;
+  }
+
+  private long getEndOfChunk(TsFileSequenceReader reader, ChunkMetadata chunkMetadata)
+      throws IOException {
+    reader.position(chunkMetadata.getOffsetOfChunkHeader());
+    ChunkHeader chunkHeader = reader.readChunkHeader(reader.readMarker());
+    return chunkMetadata.getOffsetOfChunkHeader()
+        + chunkHeader.getSerializedSize()
+        + chunkHeader.getDataSize();
+  }
+
+  /**
+   * Reserve compaction memory for extra device lanes. Lanes beyond the first are only used while
+   * the compaction memory in SystemInfo is enough, and return the number of lanes to use.
+   */
+  private int reserveDeviceLanes() {
+    int maxLaneNum =
+        Math.min(
+            IoTDBDescriptor.getInstance().getConfig().getCompactionDeviceParallelism(), subTaskNum);
+    // the chunk metadata of each lane writer is bounded by this
+    laneMemoryCost =
+        IoTDBDescriptor.getInstance().getConfig().isEnableMemControl()
+            ? getMemorySizeForEachWriter()
+            : 0L;
+    int laneNum = 1;
+    while (laneNum < maxLaneNum
+        && SystemInfo.getInstance().tryAddCompactionMemoryCost(laneMemoryCost)) {
+      laneNum++;
+    }
+    if (laneNum < maxLaneNum) {
+      LOGGER.info(
+          "[Compaction] Compaction memory is not enough, compact devices in {} lanes instead of {}",
+          laneNum,
+          maxLaneNum);
+    }
+    return laneNum;
+  }
+
+  private long getMemorySizeForEachWriter() {
+    return (long)
+        (SystemInfo.getInstance().getMemorySizeForCompaction()
+            / IoTDBDescriptor.getInstance().getConfig().getCompactionThreadCount()
+            * IoTDBDescriptor.getInstance().getConfig().getChunkMetadataSizeProportion());
+  }
+
+  private AbstractCompactionWriter createCompactionWriter(List<TsFileResource> files)
+      throws IOException {
+    return isCrossCompaction
+        ? new FastCrossCompactionWriter(files, seqFiles, readerCacheMap)
+        : new FastInnerCompactionWriter(files.get(0));
+  }
+
+  private void collectAlignedSchemasAndOffsets(
+      MultiTsFileDeviceIterator deviceIterator,
+      Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
+      List<IMeasurementSchema> measurementSchemas)
+      throws IOException {
+    for (Map.Entry<String, Pair<MeasurementSchema, Map<TsFileResource, Pair<Long, Long>>>> entry :
+        deviceIterator.getTimeseriesSchemaAndMetadataOffsetOfCurrentDevice().entrySet()) {
+      if (!entry.getKey().equals(TIME_COLUMN_ID)) {
+        measurementSchemas.add(entry.getValue().left);
+      }
+      timeseriesMetadataOffsetMap.put(entry.getKey(), entry.getValue().right);
     }
   }
 
@@ -184,13 +430,8 @@ public class FastCompactionPerformer
     // should get schemas of all value measurement to startMeasruement() and compaction process is
     // to read a batch of overlapped files each time, and we cannot make sure if the first batch of
     // overlapped tsfiles contain all the value measurements.
-    for (Map.Entry<String, Pair<MeasurementSchema, Map<TsFileResource, Pair<Long, Long>>>> entry :
-        deviceIterator.getTimeseriesSchemaAndMetadataOffsetOfCurrentDevice().entrySet()) {
-      if (!entry.getKey().equals(TIME_COLUMN_ID)) {
-        measurementSchemas.add(entry.getValue().left);
-      }
-      timeseriesMetadataOffsetMap.put(entry.getKey(), entry.getValue().right);
-    }
+    collectAlignedSchemasAndOffsets(
+        deviceIterator, timeseriesMetadataOffsetMap, measurementSchemas);
 
     SubCompactionTaskSummary taskSummary = new SubCompactionTaskSummary();
     new FastCompactionPerformerSubTask(
@@ -305,4 +546,169 @@ public class FastCompactionPerformer
   public void setSourceFiles(List<TsFileResource> unseqFiles) {
     this.seqFiles = unseqFiles;
   }
+
+  /** The metadata a device lane needs to compact one device. */
+  private static class DeviceTask {
+    private final String device;
+    private final boolean isAligned;
+    private final Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap;
+    private final List<TsFileResource> sortedSourceFiles;
+    // only used for aligned device
+    private List<IMeasurementSchema> measurementSchemas;
+    // only used for non aligned device
+    private List<String> measurements;
+
+    private DeviceTask(
+        String device,
+        boolean isAligned,
+        Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
+        List<TsFileResource> sortedSourceFiles) {
+      this.device = device;
+      this.isAligned = isAligned;
+      this.timeseriesMetadataOffsetMap = timeseriesMetadataOffsetMap;
+      this.sortedSourceFiles = sortedSourceFiles;
+    }
+  }
+
+  /**
+   * A device lane compacts the devices submitted to it one by one in a sub compaction thread,
+   * writing them into lane files with a compaction writer of its own. Lanes do not submit sub
+   * tasks themselves, so that a lane never waits for the thread pool it runs in.
+   */
+  private class CompactionLane {
+    // a device task without device marks the end of devices
+    private final DeviceTask endOfDevices = new DeviceTask(null, false, null, null);
+
+    private final List<TsFileResource> laneFiles = new ArrayList<>();
+    private final AbstractCompactionWriter laneWriter;
+    private final BlockingQueue<DeviceTask> deviceQueue =
+        new LinkedBlockingQueue<>(LANE_QUEUE_CAPACITY);
+    private final SubCompactionTaskSummary taskSummary = new SubCompactionTaskSummary();
+    private final Future<Void> future;
+    // counted down when the lane task exits, the lane files can be deleted only after that
+    private final CountDownLatch laneTerminated = new CountDownLatch(1);
+    // guarded by this, the lane task does not start after the lane is closed
+    private boolean isStarted = false;
+    private boolean isClosed = false;
+
+    private CompactionLane(int laneIndex) throws IOException {
+      for (TsFileResource targetFile : targetFiles) {
+        laneFiles.add(
+            new TsFileResource(CompactionUtils.getLaneFile(targetFile.getTsFile(), laneIndex)));
+      }
+      laneWriter = createCompactionWriter(laneFiles);
+      future = CompactionTaskManager.getInstance().submitSubTask(this::compactLaneDevices);
+      if (future == null) {
+        throw new IOException("[Compaction] Sub compaction thread pool has been shut down");
+      }
+    }
+
+    private Void compactLaneDevices() throws Exception {
+      synchronized (this) {
+        if (isClosed) {
+          return null;
+        }
+        isStarted = true;
+      }
+      try {
+        compactDevicesInLane();
+      } finally {
+        laneTerminated.countDown();
+      }
+      return null;
+    }
+
+    private void compactDevicesInLane() throws Exception {
+      DeviceTask deviceTask;
+      while ((deviceTask = deviceQueue.take()) != endOfDevices) {
+        laneWriter.startChunkGroup(deviceTask.device, deviceTask.isAligned);
+        if (deviceTask.isAligned) {
+          new FastCompactionPerformerSubTask(
+                  laneWriter,
+                  deviceTask.timeseriesMetadataOffsetMap,
+                  readerCacheMap,
+                  modificationCache,
+                  deviceTask.sortedSourceFiles,
+                  deviceTask.measurementSchemas,
+                  deviceTask.device,
+                  taskSummary)
+              .call();
+        } else {
+          new FastCompactionPerformerSubTask(
+                  laneWriter,
+                  deviceTask.timeseriesMetadataOffsetMap,
+                  readerCacheMap,
+                  modificationCache,
+                  deviceTask.sortedSourceFiles,
+                  deviceTask.measurements,
+                  deviceTask.device,
+                  taskSummary,
+                  0)
+              .call();
+        }
+        laneWriter.endChunkGroup();
+        laneWriter.checkAndMayFlushChunkMetadata();
+      }
+      laneWriter.endFile();
+    }
+
+    /** Submit a device to this lane, waiting if too many devices are queued. */
+    private void submit(DeviceTask deviceTask) throws IOException, InterruptedException {
+      while (!deviceQueue.offer(deviceTask, 100, TimeUnit.MILLISECONDS)) {
+        if (future.isDone()) {
+          // the lane has failed and will never take the device
+          waitForLane();
+          throw new IOException("[Compaction] Device lane exits unexpectedly");
+        }
+      }
+    }
+
+    /** Wait for the lane to compact all submitted devices and close its lane files. */
+    private void finish() throws IOException, InterruptedException {
+      submit(endOfDevices);
+      waitForLane();
+      subTaskSummary.increase(taskSummary);
+    }
+
+    private void waitForLane() throws IOException, InterruptedException {
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        LOGGER.error("[Compaction] Device lane meet errors ", e);
+        throw new IOException(e);
+      }
+    }
+
+    private void close() throws Exception {
+      boolean isLaneTaskStarted;
+      synchronized (this) {
+        isClosed = true;
+        isLaneTaskStarted = isStarted;
+      }
+      future.cancel(true);
+      if (isLaneTaskStarted) {
+        // the cancelled lane task may still be writing the lane files until it sees the interrupt
+        awaitLaneTermination();
+      }
+      laneWriter.close();
+      for (TsFileResource laneFile : laneFiles) {
+        CompactionUtils.deleteLaneFiles(laneFile.getTsFile());
+      }
+    }
+
+    private void awaitLaneTermination() {
+      boolean isInterrupted = false;
+      while (true) {
+        try {
+          laneTerminated.await();
+          break;
+        } catch (InterruptedException e) {
+          isInterrupted = true;
+        }
+      }
+      if (isInterrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
 }
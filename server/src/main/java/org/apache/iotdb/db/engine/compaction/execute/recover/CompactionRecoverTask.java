@@ -99,6 +99,9 @@ public class CompactionRecoverTask {
           return;
         }
 
+        // lane files of a fast compaction task are useless once the task is interrupted
+        deleteLaneFiles(targetFileIdentifiers);
+
         // check is all source files existed
         boolean isAllSourcesFileExisted = true;
         for (TsFileIdentifier sourceFileIdentifier : sourceFileIdentifiers) {
@@ -270,6 +273,18 @@ public class CompactionRecoverTask {
     return handleSuccess;
   }
 
+  private void deleteLaneFiles(List<TsFileIdentifier> targetFileIdentifiers) {
+    String[] dataDirs = IoTDBDescriptor.getInstance().getConfig().getDataDirs();
+    for (TsFileIdentifier targetFileIdentifier : targetFileIdentifiers) {
+      for (String dataDir : dataDirs) {
+        File tmpTargetFile = new File(dataDir, targetFileIdentifier.getFilePath());
+        if (tmpTargetFile.getParentFile().exists()) {
+          CompactionUtils.deleteLaneFiles(tmpTargetFile);
+        }
+      }
+    }
+  }
+
   /**
    * This method find the File object of given filePath by searching it in every data directory. If
    * the file is not found, it will return null.
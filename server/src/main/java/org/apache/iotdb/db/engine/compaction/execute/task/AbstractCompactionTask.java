@@ -20,13 +20,18 @@
 package org.apache.iotdb.db.engine.compaction.execute.task;
 
 import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.directories.DirectoryIOMonitor;
+import org.apache.iotdb.db.conf.directories.DirectoryIOStatistics;
 import org.apache.iotdb.db.engine.compaction.execute.performer.ICompactionPerformer;
 import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -94,6 +99,24 @@ public abstract class AbstractCompactionTask {
     return timePartition;
   }
 
+  /**
+   * Carry out the compaction by the performer. Meanwhile, the target files are counted as in-flight
+   * writes of their folders, so that new files are steered away from disks busy with compaction.
+   */
+  protected void performCompaction(List<TsFileResource> targetFiles) throws Exception {
+    List<DirectoryIOStatistics> ioStatisticsList = new ArrayList<>(targetFiles.size());
+    for (TsFileResource targetFile : targetFiles) {
+      ioStatisticsList.add(DirectoryIOMonitor.getInstance().startWrite(targetFile.getTsFile()));
+    }
+    try {
+      performer.perform();
+    } finally {
+      for (DirectoryIOStatistics ioStatistics : ioStatisticsList) {
+        DirectoryIOMonitor.getInstance().finishWrite(ioStatistics, 0, 0);
+      }
+    }
+  }
+
   public abstract boolean equalsOtherTask(AbstractCompactionTask otherTask);
 
   /**
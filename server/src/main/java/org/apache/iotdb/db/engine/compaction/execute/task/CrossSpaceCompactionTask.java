@@ -28,12 +28,14 @@ import org.apache.iotdb.db.engine.compaction.execute.performer.impl.FastCompacti
 import org.apache.iotdb.db.engine.compaction.execute.task.subtask.SubCompactionTaskSummary;
 import org.apache.iotdb.db.engine.compaction.execute.utils.CompactionUtils;
 import org.apache.iotdb.db.engine.compaction.execute.utils.log.CompactionLogger;
+import org.apache.iotdb.db.engine.compaction.selector.utils.CompactionAmplificationEstimator;
 import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
 import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceList;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
 import org.apache.iotdb.db.rescon.SystemInfo;
+import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsRecorder;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -153,7 +155,7 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
         performer.setSourceFiles(selectedSequenceFiles, selectedUnsequenceFiles);
         performer.setTargetFiles(targetTsfileResourceList);
         performer.setSummary(summary);
-        performer.perform();
+        performCompaction(targetTsfileResourceList);
 
         CompactionUtils.moveTargetFile(
             targetTsfileResourceList, false, storageGroupName + "-" + dataRegionId);
@@ -205,8 +207,10 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
         }
 
         // update the metrics finally in case of any exception occurs
+        long targetFileSize = 0L;
         for (TsFileResource targetResource : targetTsfileResourceList) {
           if (targetResource != null) {
+            targetFileSize += targetResource.getTsFileSize();
             TsFileMetricManager.getInstance().addFile(targetResource.getTsFileSize(), true);
 
             // set target resources to CLOSED, so that they can be selected to compact
@@ -217,6 +221,10 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
             .deleteFile(sequenceFileSize, true, selectedSequenceFiles.size());
         TsFileMetricManager.getInstance()
             .deleteFile(unsequenceFileSize, false, selectedUnsequenceFiles.size());
+        CompactionMetricsRecorder.recordActualWriteAmplification(
+            "cross",
+            CompactionAmplificationEstimator.writeAmplification(
+                targetFileSize, (long) selectedUnseqFileSize));
         long costTime = (System.currentTimeMillis() - startTime) / 1000;
         LOGGER.info(
             "{}-{} [Compaction] CrossSpaceCompaction task finishes successfully, time cost is {} s, compaction speed is {} MB/s",
@@ -28,11 +28,13 @@ import org.apache.iotdb.db.engine.compaction.execute.performer.impl.FastCompacti
 import org.apache.iotdb.db.engine.compaction.execute.task.subtask.SubCompactionTaskSummary;
 import org.apache.iotdb.db.engine.compaction.execute.utils.CompactionUtils;
 import org.apache.iotdb.db.engine.compaction.execute.utils.log.CompactionLogger;
+import org.apache.iotdb.db.engine.compaction.selector.utils.CompactionAmplificationEstimator;
 import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
 import org.apache.iotdb.db.engine.storagegroup.TsFileNameGenerator;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceList;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsRecorder;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.exception.write.TsFileNotCompleteException;
 
@@ -55,6 +57,7 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
   protected TsFileResource targetTsFileResource;
   protected boolean sequence;
   protected long selectedFileSize;
+  protected long maxSelectedFileSize;
   protected int sumOfCompactionCount;
   protected long maxFileVersion;
   protected int maxCompactionCount;
@@ -144,7 +147,7 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
       // mutable list instead of Collections.singletonList()
       performer.setTargetFiles(targetTsFileList);
       performer.setSummary(summary);
-      performer.perform();
+      performCompaction(targetTsFileList);
 
       CompactionUtils.moveTargetFile(targetTsFileList, true, storageGroupName + "-" + dataRegionId);
 
@@ -249,6 +252,10 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
 
         // set target resources to CLOSED, so that they can be selected to compact
         targetTsFileList.get(0).setStatus(TsFileResourceStatus.CLOSED);
+        CompactionMetricsRecorder.recordActualWriteAmplification(
+            "inner",
+            CompactionAmplificationEstimator.writeAmplification(
+                targetTsFileList.get(0).getTsFileSize(), selectedFileSize - maxSelectedFileSize));
       }
       TsFileMetricManager.getInstance()
           .deleteFile(totalSizeOfDeletedFile, sequence, selectedTsFileResourceList.size());
@@ -322,6 +329,7 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
 
   private void collectSelectedFilesInfo() {
     selectedFileSize = 0L;
+    maxSelectedFileSize = 0L;
     sumOfCompactionCount = 0;
     maxFileVersion = -1L;
     maxCompactionCount = -1;
@@ -331,6 +339,7 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     for (TsFileResource resource : selectedTsFileResourceList) {
       try {
         selectedFileSize += resource.getTsFileSize();
+        maxSelectedFileSize = Math.max(maxSelectedFileSize, resource.getTsFileSize());
         TsFileNameGenerator.TsFileName fileName =
             TsFileNameGenerator.getTsFileName(resource.getTsFile().getName());
         sumOfCompactionCount += fileName.getInnerCompactionCnt();
@@ -22,7 +22,7 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.AlignedSeriesCompactionExecutor;
 import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.NonAlignedSeriesCompactionExecutor;
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.AbstractCompactionWriter;
-import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.tsfile.exception.write.PageException;
@@ -49,7 +49,7 @@ public class FastCompactionPerformerSubTask implements Callable<Void> {
 
   private Map<TsFileResource, TsFileSequenceReader> readerCacheMap;
 
-  private final Map<TsFileResource, List<Modification>> modificationCacheMap;
+  private final Map<TsFileResource, ModificationIndex> modificationCacheMap;
 
   // source files which are sorted by the start time of current device from old to new. Notice: If
   // the type of timeIndex is FileTimeIndex, it may contain resources in which the current device
@@ -69,7 +69,7 @@ public class FastCompactionPerformerSubTask implements Callable<Void> {
       AbstractCompactionWriter compactionWriter,
       Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
       Map<TsFileResource, TsFileSequenceReader> readerCacheMap,
-      Map<TsFileResource, List<Modification>> modificationCacheMap,
+      Map<TsFileResource, ModificationIndex> modificationCacheMap,
       List<TsFileResource> sortedSourceFiles,
       List<String> measurements,
       String deviceId,
@@ -92,7 +92,7 @@ public class FastCompactionPerformerSubTask implements Callable<Void> {
       AbstractCompactionWriter compactionWriter,
       Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
       Map<TsFileResource, TsFileSequenceReader> readerCacheMap,
-      Map<TsFileResource, List<Modification>> modificationCacheMap,
+      Map<TsFileResource, ModificationIndex> modificationCacheMap,
       List<TsFileResource> sortedSourceFiles,
       List<IMeasurementSchema> measurementSchemas,
       String deviceId,
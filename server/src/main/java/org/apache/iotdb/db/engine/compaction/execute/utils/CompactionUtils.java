@@ -50,6 +50,9 @@ public class CompactionUtils {
   private static final Logger logger =
       LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
 
+  /** Suffix of the files a device lane of a fast compaction task writes before concatenation. */
+  public static final String LANE_FILE_SUFFIX = ".lane";
+
   /**
    * Update the targetResource. Move tmp target file to target file and serialize
    * xxx.tsfile.resource.
@@ -171,6 +174,28 @@ public class CompactionUtils {
     }
   }
 
+  /** Get the file which the given lane writes the part of the target file into. */
+  public static File getLaneFile(File targetFile, int laneIndex) {
+    return FSFactoryProducer.getFSFactory()
+        .getFile(targetFile.getPath() + LANE_FILE_SUFFIX + laneIndex);
+  }
+
+  /** Delete all lane files of the target file, including their chunk metadata temp files. */
+  public static void deleteLaneFiles(File targetFile) {
+    File[] laneFiles =
+        targetFile
+            .getParentFile()
+            .listFiles((dir, name) -> name.startsWith(targetFile.getName() + LANE_FILE_SUFFIX));
+    if (laneFiles == null) {
+      return;
+    }
+    for (File laneFile : laneFiles) {
+      if (!laneFile.delete()) {
+        logger.warn("[Compaction] Failed to delete lane file {}", laneFile);
+      }
+    }
+  }
+
   public static boolean deleteTsFilesInDisk(
       Collection<TsFileResource> mergeTsFiles, String storageGroupName) {
     logger.info("{} [Compaction] Compaction starts to delete real file ", storageGroupName);
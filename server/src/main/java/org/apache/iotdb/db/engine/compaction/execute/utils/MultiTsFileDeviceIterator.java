@@ -20,8 +20,10 @@ package org.apache.iotdb.db.engine.compaction.execute.utils;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.cache.ModificationCache;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.utils.ModificationUtils;
@@ -50,7 +52,7 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
   private final List<TsFileResource> tsFileResources;
   private Map<TsFileResource, TsFileSequenceReader> readerMap = new HashMap<>();
   private final Map<TsFileResource, TsFileDeviceIterator> deviceIteratorMap = new HashMap<>();
-  private final Map<TsFileResource, List<Modification>> modificationCache = new HashMap<>();
+  private final Map<TsFileResource, ModificationIndex> modificationCache = new HashMap<>();
   private Pair<String, Boolean> currentDevice = null;
 
   /** Used for inner space compaction. */
@@ -327,27 +329,19 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
     if (!modificationFile.exists()) {
       return;
     }
-    List<Modification> modifications =
+    ModificationIndex modifications =
         modificationCache.computeIfAbsent(
-            tsFileResource, r -> new ArrayList<>(modificationFile.getModifications()));
+            tsFileResource, r -> ModificationCache.getInstance().get(modificationFile));
 
     // construct the input params List<List<Modification>> for QueryUtils.modifyAlignedChunkMetaData
     AlignedChunkMetadata alignedChunkMetadata = alignedChunkMetadataList.get(0);
     List<IChunkMetadata> valueChunkMetadataList = alignedChunkMetadata.getValueChunkMetadataList();
     List<List<Modification>> modificationForCurDevice = new ArrayList<>();
-    for (int i = 0; i < valueChunkMetadataList.size(); ++i) {
-      modificationForCurDevice.add(new ArrayList<>());
-    }
-
-    for (Modification modification : modifications) {
-      if (modification.getDevice().equals(currentDevice.left)) {
-        for (int i = 0; i < valueChunkMetadataList.size(); ++i) {
-          IChunkMetadata chunkMetadata = valueChunkMetadataList.get(i);
-          if (modification.getMeasurement().equals(chunkMetadata.getMeasurementUid())) {
-            modificationForCurDevice.get(i).add(modification);
-          }
-        }
-      }
+    for (IChunkMetadata chunkMetadata : valueChunkMetadataList) {
+      modificationForCurDevice.add(
+          chunkMetadata == null
+              ? new ArrayList<>()
+              : modifications.getExact(currentDevice.left, chunkMetadata.getMeasurementUid()));
     }
 
     ModificationUtils.modifyAlignedChunkMetaData(
@@ -500,17 +494,13 @@ public class MultiTsFileDeviceIterator implements AutoCloseable {
               chunkMetadataListMap.get(currentCompactingSeries);
           chunkMetadataListMap.remove(currentCompactingSeries);
 
-          List<Modification> modificationsInThisResource =
+          ModificationIndex modificationsInThisResource =
               modificationCache.computeIfAbsent(
                   resource,
-                  r -> new LinkedList<>(ModificationFile.getNormalMods(r).getModifications()));
-          LinkedList<Modification> modificationForCurrentSeries = new LinkedList<>();
+                  r -> ModificationCache.getInstance().get(ModificationFile.getNormalMods(r)));
           // collect the modifications for current series
-          for (Modification modification : modificationsInThisResource) {
-            if (modification.getPath().matchFullPath(path)) {
-              modificationForCurrentSeries.add(modification);
-            }
-          }
+          List<Modification> modificationForCurrentSeries =
+              modificationsInThisResource.getOverlapped(path);
 
           // if there are modifications of current series, apply them to the chunk metadata
           if (modificationForCurrentSeries.size() != 0) {
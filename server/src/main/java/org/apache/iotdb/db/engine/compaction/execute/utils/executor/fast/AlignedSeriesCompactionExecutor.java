@@ -26,6 +26,7 @@ import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element
 import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element.PageElement;
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.AbstractCompactionWriter;
 import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.db.utils.ModificationUtils;
@@ -61,7 +62,7 @@ public class AlignedSeriesCompactionExecutor extends SeriesCompactionExecutor {
       AbstractCompactionWriter compactionWriter,
       Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
       Map<TsFileResource, TsFileSequenceReader> readerCacheMap,
-      Map<TsFileResource, List<Modification>> modificationCacheMap,
+      Map<TsFileResource, ModificationIndex> modificationCacheMap,
       List<TsFileResource> sortedSourceFiles,
       String deviceId,
       int subTaskId,
@@ -288,6 +289,7 @@ public class AlignedSeriesCompactionExecutor extends SeriesCompactionExecutor {
         readerCacheMap
             .get(chunkMetadataElement.fileElement.resource)
             .readMemChunk((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata());
+    acquireRead(chunkMetadataElement, chunkMetadataElement.chunk);
     List<Chunk> valueChunks = new ArrayList<>();
     for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
       if (valueChunkMetadata == null) {
@@ -300,6 +302,9 @@ public class AlignedSeriesCompactionExecutor extends SeriesCompactionExecutor {
               .get(chunkMetadataElement.fileElement.resource)
               .readMemChunk((ChunkMetadata) valueChunkMetadata));
     }
+    for (Chunk valueChunk : valueChunks) {
+      acquireRead(chunkMetadataElement, valueChunk);
+    }
     chunkMetadataElement.valueChunks = valueChunks;
   }
 
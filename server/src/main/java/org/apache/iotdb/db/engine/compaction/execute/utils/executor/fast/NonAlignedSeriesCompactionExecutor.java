@@ -25,7 +25,7 @@ import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element
 import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element.FileElement;
 import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element.PageElement;
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.AbstractCompactionWriter;
-import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.db.utils.ModificationUtils;
@@ -60,7 +60,7 @@ public class NonAlignedSeriesCompactionExecutor extends SeriesCompactionExecutor
   public NonAlignedSeriesCompactionExecutor(
       AbstractCompactionWriter compactionWriter,
       Map<TsFileResource, TsFileSequenceReader> readerCacheMap,
-      Map<TsFileResource, List<Modification>> modificationCacheMap,
+      Map<TsFileResource, ModificationIndex> modificationCacheMap,
       List<TsFileResource> sortedSourceFiles,
       String deviceId,
       int subTaskId,
@@ -178,6 +178,7 @@ public class NonAlignedSeriesCompactionExecutor extends SeriesCompactionExecutor
         readerCacheMap
             .get(chunkMetadataElement.fileElement.resource)
             .readMemChunk((ChunkMetadata) chunkMetadataElement.chunkMetadata);
+    acquireRead(chunkMetadataElement, chunkMetadataElement.chunk);
 
     if (!hasStartMeasurement) {
       // for nonAligned sensors, only after getting chunkMetadatas can we create schema to start
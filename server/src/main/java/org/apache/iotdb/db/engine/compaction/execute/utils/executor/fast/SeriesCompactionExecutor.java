@@ -20,19 +20,24 @@ package org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.cache.ModificationCache;
 import org.apache.iotdb.db.engine.compaction.execute.task.subtask.SubCompactionTaskSummary;
 import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element.ChunkMetadataElement;
 import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element.FileElement;
 import org.apache.iotdb.db.engine.compaction.execute.utils.executor.fast.element.PageElement;
 import org.apache.iotdb.db.engine.compaction.execute.utils.reader.PointPriorityReader;
 import org.apache.iotdb.db.engine.compaction.execute.utils.writer.AbstractCompactionWriter;
+import org.apache.iotdb.db.engine.compaction.schedule.CompactionIOThrottler;
 import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.exception.WriteProcessException;
+import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsRecorder;
 import org.apache.iotdb.tsfile.exception.write.PageException;
 import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.reader.chunk.AlignedChunkReader;
 
@@ -40,7 +45,6 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
@@ -75,7 +79,7 @@ public abstract class SeriesCompactionExecutor {
 
   protected Map<TsFileResource, TsFileSequenceReader> readerCacheMap;
 
-  private final Map<TsFileResource, List<Modification>> modificationCacheMap;
+  private final Map<TsFileResource, ModificationIndex> modificationCacheMap;
 
   private final PointPriorityReader pointPriorityReader = new PointPriorityReader(this::removePage);
 
@@ -90,7 +94,7 @@ public abstract class SeriesCompactionExecutor {
   protected SeriesCompactionExecutor(
       AbstractCompactionWriter compactionWriter,
       Map<TsFileResource, TsFileSequenceReader> readerCacheMap,
-      Map<TsFileResource, List<Modification>> modificationCacheMap,
+      Map<TsFileResource, ModificationIndex> modificationCacheMap,
       String deviceId,
       int subTaskId,
       SubCompactionTaskSummary summary) {
@@ -199,6 +203,17 @@ public abstract class SeriesCompactionExecutor {
 
   abstract void readChunk(ChunkMetadataElement chunkMetadataElement) throws IOException;
 
+  /** Record the read chunk and wait by the io throttle of its data directory. */
+  protected void acquireRead(ChunkMetadataElement chunkMetadataElement, Chunk chunk) {
+    if (chunk == null) {
+      return;
+    }
+    long chunkSize = (long) chunk.getHeader().getSerializedSize() + chunk.getHeader().getDataSize();
+    CompactionMetricsRecorder.recordReadInfo(chunkSize);
+    CompactionIOThrottler.getInstance()
+        .acquireRead(chunkMetadataElement.fileElement.resource.getTsFile(), chunkSize);
+  }
+
   /** Deserialize files into chunk metadatas and put them into the chunk metadata queue. */
   abstract void deserializeFileIntoQueue(List<FileElement> fileElements)
       throws IOException, IllegalPathException;
@@ -573,18 +588,10 @@ public abstract class SeriesCompactionExecutor {
    */
   protected List<Modification> getModificationsFromCache(
       TsFileResource tsFileResource, PartialPath path) {
-    // copy from TsFileResource so queries are not affected
-    List<Modification> modifications =
+    // the index is immutable, so the modifications seen by this compaction stay the same
+    ModificationIndex modifications =
         modificationCacheMap.computeIfAbsent(
-            tsFileResource, resource -> new ArrayList<>(resource.getModFile().getModifications()));
-    List<Modification> pathModifications = new ArrayList<>();
-    Iterator<Modification> modificationIterator = modifications.iterator();
-    while (modificationIterator.hasNext()) {
-      Modification modification = modificationIterator.next();
-      if (modification.getPath().matchFullPath(path)) {
-        pathModifications.add(modification);
-      }
-    }
-    return pathModifications;
+            tsFileResource, resource -> ModificationCache.getInstance().get(resource.getModFile()));
+    return modifications.getOverlapped(path);
   }
 }
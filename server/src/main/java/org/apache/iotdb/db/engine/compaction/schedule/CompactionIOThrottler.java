@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.schedule;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.flush.FlushManager;
+import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsRecorder;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class throttles compaction reads and writes of each data directory. Read rate is limited by
+ * compaction_read_throughput_mb_per_sec. When adaptive throttle is enabled, a factor in [0, 1] is
+ * adjusted periodically for each directory: it is halved when p99 query latency exceeds the
+ * threshold, flush tasks pile up or the disk is busy, it drops to 0 (compaction pauses) when p99
+ * query latency exceeds twice the threshold, and it grows back gradually otherwise.
+ */
+public class CompactionIOThrottler {
+  private static final Logger logger =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final double MIN_FACTOR = 1.0 / 16;
+  private static final double FACTOR_INCREMENT = 1.0 / 8;
+  private static final double DISK_UTILIZATION_THRESHOLD = 0.9;
+  /** rate used when no throughput has been observed in a directory yet */
+  private static final double MIN_REFERENCE_RATE = 1024.0 * 1024.0;
+  /** reference rates decay by this ratio in each unthrottled interval with meaningful io */
+  private static final double REFERENCE_RATE_DECAY = 0.9;
+
+  private static final int LATENCY_WINDOW_SIZE = 1024;
+  private static final String DISK_STATS_FILE = "/proc/diskstats";
+
+  /** data directory -> io state */
+  private final Map<String, DirectoryIOState> directoryStates = new ConcurrentHashMap<>();
+
+  private final long[] latencyWindow = new long[LATENCY_WINDOW_SIZE];
+  private final AtomicLong latencyCount = new AtomicLong();
+  private long lastLatencyCount = 0;
+
+  private ScheduledExecutorService adjustExecutor;
+
+  private CompactionIOThrottler() {}
+
+  public static CompactionIOThrottler getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  public synchronized void start() {
+    if (adjustExecutor != null || !config.isEnableAdaptiveCompactionThrottle()) {
+      return;
+    }
+    adjustExecutor =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.COMPACTION_IO_THROTTLE.getName());
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        adjustExecutor,
+        this::adjust,
+        config.getCompactionThrottleAdjustIntervalInMs(),
+        config.getCompactionThrottleAdjustIntervalInMs(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  public synchronized void stop() {
+    if (adjustExecutor != null) {
+      adjustExecutor.shutdownNow();
+      adjustExecutor = null;
+    }
+    // never leave compaction paused
+    for (DirectoryIOState state : directoryStates.values()) {
+      state.setFactor(1);
+    }
+  }
+
+  /** Record the latency of a finished foreground query. */
+  public void recordQueryLatency(long latencyInMs) {
+    if (!config.isEnableAdaptiveCompactionThrottle()) {
+      return;
+    }
+    long index = latencyCount.getAndIncrement();
+    latencyWindow[(int) (index % LATENCY_WINDOW_SIZE)] = latencyInMs;
+  }
+
+  /** Wait until the data directory of the given TsFile allows reading the given bytes. */
+  public void acquireRead(File tsFile, long bytesLength) {
+    DirectoryIOState state = getState(tsFile);
+    state.waitIfPaused();
+    state.readBytes.addAndGet(bytesLength);
+    CompactionTaskManager.mergeRateLimiterAcquire(state.readLimiter, bytesLength);
+  }
+
+  /** Wait until the data directory of the given TsFile allows writing the given bytes. */
+  public void acquireWrite(File tsFile, long bytesLength) {
+    DirectoryIOState state = getState(tsFile);
+    state.waitIfPaused();
+    state.writeBytes.addAndGet(bytesLength);
+    CompactionTaskManager.mergeRateLimiterAcquire(state.writeLimiter, bytesLength);
+  }
+
+  private DirectoryIOState getState(File tsFile) {
+    return directoryStates.computeIfAbsent(getDataDirectory(tsFile), DirectoryIOState::new);
+  }
+
+  /** TsFiles are in {data dir}/{sequence|unsequence}/{database}/{region}/{partition}/ */
+  private static String getDataDirectory(File tsFile) {
+    File dir = tsFile.getAbsoluteFile().getParentFile();
+    for (int i = 0; i < 4 && dir != null && dir.getParentFile() != null; i++) {
+      dir = dir.getParentFile();
+    }
+    return dir == null ? "" : dir.getPath();
+  }
+
+  @TestOnly
+  double getFactor(File tsFile) {
+    return getState(tsFile).factor;
+  }
+
+  @TestOnly
+  double getReferenceReadRate(File tsFile) {
+    return getState(tsFile).referenceReadRate;
+  }
+
+  /** Adjust the factor and rates of each data directory according to current pressure. */
+  void adjust() {
+    long p99Latency = getP99QueryLatency();
+    long latencyThreshold = config.getCompactionThrottleQueryLatencyThresholdInMs();
+    boolean flushBacklog =
+        FlushManager.getInstance().getNumberOfPendingTasks() > config.getFlushThreadCount();
+    long now = System.currentTimeMillis();
+    for (DirectoryIOState state : directoryStates.values()) {
+      double utilization = state.getDiskUtilization(now);
+      double factor;
+      if (config.isEnableAdaptiveCompactionThrottle() && p99Latency >= 2 * latencyThreshold) {
+        factor = 0;
+      } else if (config.isEnableAdaptiveCompactionThrottle()
+          && (p99Latency > latencyThreshold
+              || flushBacklog
+              || utilization > DISK_UTILIZATION_THRESHOLD)) {
+        factor = Math.max(MIN_FACTOR, state.factor / 2);
+      } else {
+        factor = Math.min(1, state.factor + FACTOR_INCREMENT);
+      }
+      state.updateRates(factor, now);
+      CompactionMetricsRecorder.recordIOThrottleInfo(
+          state.directory,
+          factor,
+          state.readLimiter.getRate(),
+          state.writeLimiter.getRate(),
+          utilization);
+      if (factor != state.factor) {
+        logger.debug(
+            "Compaction io factor of {} changes to {}, p99 query latency {}ms, flush backlog {}, "
+                + "disk utilization {}",
+            state.directory,
+            factor,
+            p99Latency,
+            flushBacklog,
+            utilization);
+      }
+      state.setFactor(factor);
+    }
+  }
+
+  /** @return p99 latency of the queries finished since last call, 0 if there is none */
+  private long getP99QueryLatency() {
+    long count = latencyCount.get();
+    int num = (int) Math.min(count - lastLatencyCount, LATENCY_WINDOW_SIZE);
+    lastLatencyCount = count;
+    if (num <= 0) {
+      return 0;
+    }
+    long[] latencies = new long[num];
+    for (int i = 0; i < num; i++) {
+      latencies[i] = latencyWindow[(int) ((count - 1 - i) % LATENCY_WINDOW_SIZE)];
+    }
+    Arrays.sort(latencies);
+    return latencies[Math.min(num - 1, (int) Math.ceil(num * 0.99) - 1)];
+  }
+
+  private static class DirectoryIOState {
+    private final String directory;
+    private final RateLimiter readLimiter = RateLimiter.create(Double.MAX_VALUE);
+    private final RateLimiter writeLimiter = RateLimiter.create(Double.MAX_VALUE);
+    private final AtomicLong readBytes = new AtomicLong();
+    private final AtomicLong writeBytes = new AtomicLong();
+    private volatile double factor = 1;
+
+    /**
+     * decaying maximum of the throughput observed when the directory was not throttled, used as
+     * base of throttling
+     */
+    private double referenceReadRate = MIN_REFERENCE_RATE;
+
+    private double referenceWriteRate = MIN_REFERENCE_RATE;
+    private long lastAdjustTime = System.currentTimeMillis();
+
+    /** name of the block device in /proc/diskstats, null if unknown */
+    private final String deviceName;
+
+    private long lastIOTicks = -1;
+
+    private DirectoryIOState(String directory) {
+      this.directory = directory;
+      this.deviceName = getDeviceName(directory);
+      updateRates(1, lastAdjustTime);
+    }
+
+    private synchronized void waitIfPaused() {
+      while (factor == 0) {
+        try {
+          wait(config.getCompactionThrottleAdjustIntervalInMs());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+
+    private synchronized void setFactor(double factor) {
+      this.factor = factor;
+      if (factor > 0) {
+        notifyAll();
+      }
+    }
+
+    private void updateRates(double newFactor, long now) {
+      long interval = Math.max(1, now - lastAdjustTime);
+      lastAdjustTime = now;
+      double readRate = readBytes.getAndSet(0) * 1000.0 / interval;
+      double writeRate = writeBytes.getAndSet(0) * 1000.0 / interval;
+      if (factor >= 1) {
+        referenceReadRate = refreshReferenceRate(referenceReadRate, readRate);
+        referenceWriteRate = refreshReferenceRate(referenceWriteRate, writeRate);
+      }
+      double configuredReadRate = config.getCompactionReadThroughputMbPerSec() * 1024.0 * 1024.0;
+      double configuredWriteRate = config.getCompactionWriteThroughputMbPerSec() * 1024.0 * 1024.0;
+      setRate(readLimiter, newFactor, configuredReadRate, referenceReadRate);
+      // the total write throughput is limited by CompactionTaskManager, so write is only throttled
+      // here when the factor drops
+      setRate(
+          writeLimiter, newFactor, newFactor >= 1 ? 0 : configuredWriteRate, referenceWriteRate);
+    }
+
+    private static double refreshReferenceRate(double referenceRate, double observedRate) {
+      // an idle interval tells nothing about what the disk can sustain, keep the reference
+      if (observedRate < MIN_REFERENCE_RATE) {
+        return referenceRate;
+      }
+      return Math.max(observedRate, referenceRate * REFERENCE_RATE_DECAY);
+    }
+
+    private static void setRate(
+        RateLimiter limiter, double factor, double configuredRate, double referenceRate) {
+      double rate;
+      if (factor >= 1 || factor == 0) {
+        // when paused, callers wait in waitIfPaused() instead
+        rate = configuredRate > 0 ? configuredRate : Double.MAX_VALUE;
+      } else {
+        double baseRate =
+            configuredRate > 0 ? Math.min(configuredRate, referenceRate) : referenceRate;
+        rate = baseRate * factor;
+      }
+      if (limiter.getRate() != rate) {
+        limiter.setRate(rate);
+      }
+    }
+
+    /** @return the fraction of time the disk was busy since last call, -1 if unknown */
+    private double getDiskUtilization(long now) {
+      if (deviceName == null) {
+        return -1;
+      }
+      long ioTicks = readIOTicks(deviceName);
+      long interval = now - lastAdjustTime;
+      double utilization =
+          lastIOTicks < 0 || ioTicks < 0 || interval <= 0
+              ? -1
+              : (double) (ioTicks - lastIOTicks) / interval;
+      lastIOTicks = ioTicks;
+      return utilization;
+    }
+
+    private static String getDeviceName(String directory) {
+      try {
+        Path path = Paths.get(directory);
+        while (path != null && !Files.exists(path)) {
+          path = path.getParent();
+        }
+        if (path == null || !Files.exists(Paths.get(DISK_STATS_FILE))) {
+          return null;
+        }
+        String name = Files.getFileStore(path).name();
+        String deviceName = name.substring(name.lastIndexOf('/') + 1);
+        return readIOTicks(deviceName) < 0 ? null : deviceName;
+      } catch (IOException | RuntimeException e) {
+        logger.debug("Cannot get the block device of {}", directory, e);
+        return null;
+      }
+    }
+
+    /** @return milliseconds spent doing I/Os of the device, -1 if unknown */
+    private static long readIOTicks(String deviceName) {
+      try {
+        List<String> lines = Files.readAllLines(Paths.get(DISK_STATS_FILE));
+        for (String line : lines) {
+          String[] fields = line.trim().split("\\s+");
+          if (fields.length > 12 && fields[2].equals(deviceName)) {
+            return Long.parseLong(fields[12]);
+          }
+        }
+      } catch (IOException | RuntimeException e) {
+        logger.debug("Cannot read {}", DISK_STATS_FILE, e);
+      }
+      return -1;
+    }
+  }
+
+  private static class InstanceHolder {
+    private static final CompactionIOThrottler INSTANCE = new CompactionIOThrottler();
+
+    private InstanceHolder() {}
+  }
+}
@@ -100,6 +100,7 @@ public class CompactionTaskManager implements IService {
               CompactionMetricsRecorder.recordTaskInfo(
                   x, CompactionTaskStatus.POLL_FROM_QUEUE, candidateCompactionTaskQueue.size()));
       init = true;
+      CompactionIOThrottler.getInstance().start();
     }
     logger.info("Compaction task manager started.");
   }
@@ -123,6 +124,7 @@ public class CompactionTaskManager implements IService {
 
   @Override
   public void stop() {
+    CompactionIOThrottler.getInstance().stop();
     if (taskExecutionPool != null) {
       subCompactionTaskExecutionPool.shutdownNow();
       taskExecutionPool.shutdownNow();
@@ -135,6 +137,7 @@ public class CompactionTaskManager implements IService {
 
   @Override
   public void waitAndStop(long milliseconds) {
+    CompactionIOThrottler.getInstance().stop();
     if (taskExecutionPool != null) {
       awaitTermination(subCompactionTaskExecutionPool, milliseconds);
       awaitTermination(taskExecutionPool, milliseconds);
@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.selector.impl;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.selector.IInnerSeqSpaceSelector;
+import org.apache.iotdb.db.engine.compaction.selector.utils.CompactionAmplificationEstimator;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
+import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsRecorder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * LeveledCompactionSelector treats the sequence files of one time partition as a single time
+ * window ordered by version, and considers every run of consecutive closed files in it (at most
+ * {@link IoTDBConfig#getMaxInnerCompactionCandidateFileNum()} files and {@link
+ * IoTDBConfig#getTargetCompactionFileSize()} bytes) as a candidate task, regardless of the inner
+ * compaction level of the files. Each candidate is assigned a cost by {@link
+ * CompactionAmplificationEstimator}, and non-overlapping candidates are chosen greedily from the
+ * cheapest one. Candidates whose cost exceeds {@link
+ * IoTDBConfig#getCompactionMaxWriteAmplification()} are postponed, so a large file is not
+ * rewritten again just to absorb a small one; once a newer time partition exists, the window will
+ * receive no more files and all candidates are accepted.
+ */
+public class LeveledCompactionSelector implements IInnerSeqSpaceSelector {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  protected String storageGroupName;
+  protected String dataRegionId;
+  protected long timePartition;
+  protected TsFileManager tsFileManager;
+  protected boolean hasNextTimePartition;
+
+  public LeveledCompactionSelector(
+      String storageGroupName,
+      String dataRegionId,
+      long timePartition,
+      TsFileManager tsFileManager) {
+    this.storageGroupName = storageGroupName;
+    this.dataRegionId = dataRegionId;
+    this.timePartition = timePartition;
+    this.tsFileManager = tsFileManager;
+    hasNextTimePartition = tsFileManager.hasNextTimePartition(timePartition, true);
+  }
+
+  @Override
+  public List<List<TsFileResource>> selectInnerSpaceTask(List<TsFileResource> tsFileResources) {
+    try {
+      List<Candidate> candidates = enumerateCandidates(tsFileResources);
+      candidates.sort(Comparator.comparingDouble(candidate -> candidate.cost));
+      double maxCost = config.getCompactionMaxWriteAmplification();
+      boolean[] selected = new boolean[tsFileResources.size()];
+      List<List<TsFileResource>> taskList = new ArrayList<>();
+      for (Candidate candidate : candidates) {
+        if (!hasNextTimePartition && candidate.cost > maxCost) {
+          // candidates are sorted by cost, the rest are too expensive as well
+          break;
+        }
+        if (isOverlapped(selected, candidate)) {
+          continue;
+        }
+        for (int i = candidate.start; i < candidate.end; i++) {
+          selected[i] = true;
+        }
+        List<TsFileResource> files =
+            new ArrayList<>(tsFileResources.subList(candidate.start, candidate.end));
+        LOGGER.debug(
+            "{}-{} [Compaction] Leveled selector chooses {} files, write amplification {}, cost {}",
+            storageGroupName,
+            dataRegionId,
+            files.size(),
+            candidate.writeAmplification,
+            candidate.cost);
+        CompactionMetricsRecorder.recordSelectedAmplification(
+            "inner",
+            candidate.writeAmplification,
+            CompactionAmplificationEstimator.innerReadAmplificationReduction(files));
+        taskList.add(files);
+      }
+      return taskList;
+    } catch (Exception e) {
+      LOGGER.error("Exception occurs while selecting files", e);
+    }
+    return Collections.emptyList();
+  }
+
+  /** Enumerate every run of consecutive closed files that fits in one inner compaction task. */
+  private List<Candidate> enumerateCandidates(List<TsFileResource> tsFileResources) {
+    List<Candidate> candidates = new ArrayList<>();
+    long targetCompactionFileSize = config.getTargetCompactionFileSize();
+    int maxFileNum = config.getMaxInnerCompactionCandidateFileNum();
+    for (int start = 0; start < tsFileResources.size(); start++) {
+      long totalSize = 0L;
+      long maxSize = 0L;
+      for (int end = start; end < tsFileResources.size() && end - start < maxFileNum; end++) {
+        TsFileResource resource = tsFileResources.get(end);
+        if (resource.getStatus() != TsFileResourceStatus.CLOSED) {
+          break;
+        }
+        long size = resource.getTsFileSize();
+        if (end > start && totalSize + size > targetCompactionFileSize) {
+          break;
+        }
+        totalSize += size;
+        maxSize = Math.max(maxSize, size);
+        int fileNum = end - start + 1;
+        if (fileNum > 1) {
+          double writeAmplification =
+              CompactionAmplificationEstimator.writeAmplification(totalSize, totalSize - maxSize);
+          double cost = CompactionAmplificationEstimator.cost(writeAmplification, fileNum - 1);
+          candidates.add(new Candidate(start, end + 1, writeAmplification, cost));
+        }
+      }
+    }
+    return candidates;
+  }
+
+  private boolean isOverlapped(boolean[] selected, Candidate candidate) {
+    for (int i = candidate.start; i < candidate.end; i++) {
+      if (selected[i]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static class Candidate {
+    // the candidate covers files in [start, end)
+    private final int start;
+    private final int end;
+    private final double writeAmplification;
+    private final double cost;
+
+    private Candidate(int start, int end, double writeAmplification, double cost) {
+      this.start = start;
+      this.end = end;
+      this.writeAmplification = writeAmplification;
+      this.cost = cost;
+    }
+  }
+}
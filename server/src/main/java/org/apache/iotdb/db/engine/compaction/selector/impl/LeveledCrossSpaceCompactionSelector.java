@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.selector.impl;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.selector.utils.CompactionAmplificationEstimator;
+import org.apache.iotdb.db.engine.compaction.selector.utils.CrossCompactionTaskResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.service.metrics.recorder.CompactionMetricsRecorder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LeveledCrossSpaceCompactionSelector selects candidate tasks the same way as {@link
+ * RewriteCrossSpaceCompactionSelector}, then evaluates each of them with {@link
+ * CompactionAmplificationEstimator}. A task that would rewrite a lot of sequence data to absorb
+ * little unsequence data is postponed, so that more unsequence files overlapping the same sequence
+ * files accumulate and are merged by a single rewrite. Tasks are never postponed once a newer time
+ * partition exists.
+ */
+public class LeveledCrossSpaceCompactionSelector extends RewriteCrossSpaceCompactionSelector {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+
+  public LeveledCrossSpaceCompactionSelector(
+      String logicalStorageGroupName,
+      String dataRegionId,
+      long timePartition,
+      TsFileManager tsFileManager) {
+    super(logicalStorageGroupName, dataRegionId, timePartition, tsFileManager);
+  }
+
+  @Override
+  public List<CrossCompactionTaskResource> selectCrossSpaceTask(
+      List<TsFileResource> sequenceFileList, List<TsFileResource> unsequenceFileList) {
+    List<CrossCompactionTaskResource> candidates =
+        super.selectCrossSpaceTask(sequenceFileList, unsequenceFileList);
+    if (candidates.isEmpty()) {
+      return candidates;
+    }
+    boolean hasNextTimePartition = tsFileManager.hasNextTimePartition(timePartition, true);
+    double maxCost = IoTDBDescriptor.getInstance().getConfig().getCompactionMaxWriteAmplification();
+    List<CrossCompactionTaskResource> taskList = new ArrayList<>();
+    for (CrossCompactionTaskResource candidate : candidates) {
+      double writeAmplification =
+          CompactionAmplificationEstimator.estimateCrossWriteAmplification(
+              candidate.getSeqFiles(), candidate.getUnseqFiles());
+      int readAmplificationReduction =
+          CompactionAmplificationEstimator.crossReadAmplificationReduction(
+              candidate.getUnseqFiles());
+      double cost =
+          CompactionAmplificationEstimator.cost(writeAmplification, readAmplificationReduction);
+      if (!hasNextTimePartition && cost > maxCost) {
+        LOGGER.info(
+            "{}-{} [Compaction] Postpone a cross space task with {} seq files and {} unseq files, "
+                + "write amplification {} and cost {} exceed the limit {}",
+            logicalStorageGroupName,
+            dataRegionId,
+            candidate.getSeqFiles().size(),
+            candidate.getUnseqFiles().size(),
+            writeAmplification,
+            cost,
+            maxCost);
+        continue;
+      }
+      CompactionMetricsRecorder.recordSelectedAmplification(
+          "cross", writeAmplification, readAmplificationReduction);
+      taskList.add(candidate);
+    }
+    return taskList;
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.selector.utils;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+
+import java.util.List;
+
+/**
+ * Estimates the write amplification (WA) and read amplification reduction of a candidate
+ * compaction task from the sizes of its source files. WA is the number of bytes rewritten divided
+ * by the number of bytes that actually get merged into a larger file: compacting a 1 GB file with
+ * a 1 MB file has a WA of about 1000, while compacting ten files of equal size has a WA of about
+ * 1.1. The read amplification reduction is the number of files a query no longer has to open
+ * after the task finishes.
+ */
+public class CompactionAmplificationEstimator {
+
+  private CompactionAmplificationEstimator() {}
+
+  /**
+   * For inner space compaction the largest source file is the one being "extended", so the bytes
+   * merged are the sizes of all other files.
+   */
+  public static double estimateInnerWriteAmplification(List<TsFileResource> selectedFiles) {
+    long totalSize = 0L;
+    long maxSize = 0L;
+    for (TsFileResource resource : selectedFiles) {
+      long size = resource.getTsFileSize();
+      totalSize += size;
+      maxSize = Math.max(maxSize, size);
+    }
+    return writeAmplification(totalSize, totalSize - maxSize);
+  }
+
+  /** For cross space compaction every sequence file is rewritten to absorb the unseq files. */
+  public static double estimateCrossWriteAmplification(
+      List<TsFileResource> seqFiles, List<TsFileResource> unseqFiles) {
+    long unseqSize = totalSize(unseqFiles);
+    return writeAmplification(totalSize(seqFiles) + unseqSize, unseqSize);
+  }
+
+  public static int innerReadAmplificationReduction(List<TsFileResource> selectedFiles) {
+    return Math.max(selectedFiles.size() - 1, 0);
+  }
+
+  public static int crossReadAmplificationReduction(List<TsFileResource> unseqFiles) {
+    return unseqFiles.size();
+  }
+
+  /** The cost the leveled selectors minimize. Lower is better. */
+  public static double cost(double writeAmplification, int readAmplificationReduction) {
+    return writeAmplification
+        - IoTDBDescriptor.getInstance().getConfig().getCompactionReadAmplificationWeight()
+            * readAmplificationReduction;
+  }
+
+  public static double writeAmplification(long writtenSize, long mergedSize) {
+    if (mergedSize <= 0) {
+      return writtenSize <= 0 ? 1.0 : Double.MAX_VALUE;
+    }
+    return (double) writtenSize / mergedSize;
+  }
+
+  private static long totalSize(List<TsFileResource> resources) {
+    long size = 0L;
+    for (TsFileResource resource : resources) {
+      size += resource.getTsFileSize();
+    }
+    return size;
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.flush;
+
+import org.apache.iotdb.db.engine.memtable.IMemTable;
+import org.apache.iotdb.db.engine.storagegroup.DataRegion;
+import org.apache.iotdb.db.engine.storagegroup.TsFileProcessor;
+import org.apache.iotdb.db.wal.node.IWALNode;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MemTableFlushSelector decides which working memTables to flush first when the memory of
+ * memTables is insufficient. A memTable is preferred if flushing it frees much memory and wal disk
+ * space per byte written, so small memTables pinning large .wal files are flushed early. Old
+ * memTables and memTables of old time partitions, which are unlikely to grow much larger, are
+ * further preferred.
+ */
+public class MemTableFlushSelector {
+
+  /** fixed cost of a flush in byte, so that tiny memTables are not preferred only for being tiny */
+  private static final long FLUSH_FIXED_COST_IN_BYTE = 1024L * 1024;
+
+  /** the priority of a memTable grows by its initial value every period it stays in memory */
+  private static final long AGE_PERIOD_IN_MS = TimeUnit.MINUTES.toMillis(10);
+
+  /** weight of memTables belonging to a time partition older than the latest one of its region */
+  private static final double OLD_TIME_PARTITION_WEIGHT = 2;
+
+  private MemTableFlushSelector() {}
+
+  /**
+   * Sort the processors with working memTables by flush priority, the first should be flushed
+   * first. Processors without data in their working memTables are excluded.
+   */
+  public static List<TsFileProcessor> sortByFlushPriority(Collection<TsFileProcessor> processors) {
+    Map<IWALNode, Map<Long, Long>> walNode2PinnedWALSize = new HashMap<>();
+    Map<DataRegion, Long> dataRegion2LatestTimePartition = new HashMap<>();
+    Map<TsFileProcessor, Double> processor2Priority = new HashMap<>();
+    long currentTime = System.currentTimeMillis();
+    for (TsFileProcessor processor : processors) {
+      IMemTable memTable = processor.getWorkMemTable();
+      long memCost = processor.getWorkMemTableRamCost();
+      if (memTable == null || memCost == 0) {
+        continue;
+      }
+      long pinnedWALSize = 0;
+      if (processor.getWalNode() != null) {
+        pinnedWALSize =
+            walNode2PinnedWALSize
+                .computeIfAbsent(processor.getWalNode(), IWALNode::getMemTablePinnedWALSize)
+                .getOrDefault(memTable.getMemTableId(), 0L);
+      }
+      double priority = (double) (memCost + pinnedWALSize) / (memCost + FLUSH_FIXED_COST_IN_BYTE);
+      priority *=
+          1 + (double) Math.max(currentTime - memTable.getCreatedTime(), 0) / AGE_PERIOD_IN_MS;
+      DataRegion dataRegion =
+          processor.getDataRegionInfo() == null
+              ? null
+              : processor.getDataRegionInfo().getDataRegion();
+      if (dataRegion != null
+          && processor.getTimeRangeId()
+              < dataRegion2LatestTimePartition.computeIfAbsent(
+                  dataRegion, DataRegion::getLatestTimePartition)) {
+        priority *= OLD_TIME_PARTITION_WEIGHT;
+      }
+      processor2Priority.put(processor, priority);
+    }
+    List<TsFileProcessor> sortedProcessors = new ArrayList<>(processor2Priority.keySet());
+    sortedProcessors.sort(
+        (o1, o2) -> Double.compare(processor2Priority.get(o2), processor2Priority.get(o1)));
+    return sortedProcessors;
+  }
+}
@@ -23,6 +23,8 @@ import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.conf.directories.DirectoryIOMonitor;
+import org.apache.iotdb.db.conf.directories.DirectoryIOStatistics;
 import org.apache.iotdb.db.engine.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
@@ -75,6 +77,8 @@ public class MemTableFlushTask {
 
   private volatile long memSerializeTime = 0L;
   private volatile long ioTime = 0L;
+  // the same as ioTime, but in nanoseconds so that short flushes still get a write cost
+  private volatile long ioTimeInNanos = 0L;
 
   /**
    * @param memTable the memTable to flush
@@ -281,41 +285,23 @@ public class MemTableFlushTask {
       };
 
   /** io task (third task of pipeline) */
-  @SuppressWarnings("squid:S135")
   private Runnable ioTask =
       () -> {
         LOGGER.debug(
             "Database {} memtable flushing to file {} start io.",
             storageGroup,
             writer.getFile().getName());
-        while (true) {
-          Object ioMessage = null;
-          try {
-            ioMessage = ioTaskQueue.take();
-          } catch (InterruptedException e1) {
-            LOGGER.error("take task from ioTaskQueue Interrupted");
-            Thread.currentThread().interrupt();
-            break;
-          }
-          long starTime = System.currentTimeMillis();
-          try {
-            if (ioMessage instanceof StartFlushGroupIOTask) {
-              this.writer.startChunkGroup(((StartFlushGroupIOTask) ioMessage).deviceId);
-            } else if (ioMessage instanceof TaskEnd) {
-              break;
-            } else if (ioMessage instanceof EndChunkGroupIoTask) {
-              this.writer.setMinPlanIndex(memTable.getMinPlanIndex());
-              this.writer.setMaxPlanIndex(memTable.getMaxPlanIndex());
-              this.writer.endChunkGroup();
-            } else {
-              ((IChunkWriter) ioMessage).writeToFileWriter(this.writer);
-            }
-          } catch (IOException e) {
-            LOGGER.error(
-                "Database {} memtable {}, io task meets error.", storageGroup, memTable, e);
-            throw new FlushRunTimeException(e);
-          }
-          ioTime += System.currentTimeMillis() - starTime;
+        DirectoryIOStatistics ioStatistics =
+            DirectoryIOMonitor.getInstance().startWrite(writer.getFile());
+        long startPos = getWriterPosition();
+        try {
+          doIOTask();
+        } finally {
+          DirectoryIOMonitor.getInstance()
+              .finishWrite(
+                  ioStatistics,
+                  getWriterPosition() - startPos,
+                  ioTimeInNanos);
         }
         LOGGER.debug(
             "flushing a memtable to file {} in database {}, io cost {}ms",
@@ -324,6 +310,48 @@ public class MemTableFlushTask {
             ioTime);
       };
 
+  @SuppressWarnings("squid:S135")
+  private void doIOTask() {
+    while (true) {
+      Object ioMessage = null;
+      try {
+        ioMessage = ioTaskQueue.take();
+      } catch (InterruptedException e1) {
+        LOGGER.error("take task from ioTaskQueue Interrupted");
+        Thread.currentThread().interrupt();
+        break;
+      }
+      long starTime = System.currentTimeMillis();
+      long startTimeInNanos = System.nanoTime();
+      try {
+        if (ioMessage instanceof StartFlushGroupIOTask) {
+          this.writer.startChunkGroup(((StartFlushGroupIOTask) ioMessage).deviceId);
+        } else if (ioMessage instanceof TaskEnd) {
+          break;
+        } else if (ioMessage instanceof EndChunkGroupIoTask) {
+          this.writer.setMinPlanIndex(memTable.getMinPlanIndex());
+          this.writer.setMaxPlanIndex(memTable.getMaxPlanIndex());
+          this.writer.endChunkGroup();
+        } else {
+          ((IChunkWriter) ioMessage).writeToFileWriter(this.writer);
+        }
+      } catch (IOException e) {
+        LOGGER.error("Database {} memtable {}, io task meets error.", storageGroup, memTable, e);
+        throw new FlushRunTimeException(e);
+      }
+      ioTime += System.currentTimeMillis() - starTime;
+      ioTimeInNanos += System.nanoTime() - startTimeInNanos;
+    }
+  }
+
+  private long getWriterPosition() {
+    try {
+      return writer.getPos();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+
   static class TaskEnd {
 
     TaskEnd() {}
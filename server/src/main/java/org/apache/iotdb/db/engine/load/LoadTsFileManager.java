@@ -99,24 +99,26 @@ public class LoadTsFileManager {
 
   public void writeToDataRegion(DataRegion dataRegion, LoadTsFilePieceNode pieceNode, String uuid)
       throws PageException, IOException {
-    if (!uuid2WriterManager.containsKey(uuid)) {
-      uuid2Future.put(
-          uuid,
-          cleanupExecutors.schedule(
-              () -> forceCloseWriterManager(uuid),
-              LoadTsFileScheduler.LOAD_TASK_MAX_TIME_IN_SECOND,
-              TimeUnit.SECONDS));
-    }
+    // pieces of one loading TsFile for different data regions may arrive concurrently
+    uuid2Future.computeIfAbsent(
+        uuid,
+        o ->
+            cleanupExecutors.schedule(
+                () -> forceCloseWriterManager(uuid),
+                LoadTsFileScheduler.LOAD_TASK_MAX_TIME_IN_SECOND,
+                TimeUnit.SECONDS));
     TsFileWriterManager writerManager =
         uuid2WriterManager.computeIfAbsent(
             uuid, o -> new TsFileWriterManager(SystemFileFactory.INSTANCE.getFile(loadDir, uuid)));
-    for (TsFileData tsFileData : pieceNode.getAllTsFileData()) {
-      if (!tsFileData.isModification()) {
-        ChunkData chunkData = (ChunkData) tsFileData;
-        writerManager.write(
-            new DataPartitionInfo(dataRegion, chunkData.getTimePartitionSlot()), chunkData);
-      } else {
-        writerManager.writeDeletion(tsFileData);
+    synchronized (writerManager) {
+      for (TsFileData tsFileData : pieceNode.getAllTsFileData()) {
+        if (!tsFileData.isModification()) {
+          ChunkData chunkData = (ChunkData) tsFileData;
+          writerManager.write(
+              new DataPartitionInfo(dataRegion, chunkData.getTimePartitionSlot()), chunkData);
+        } else {
+          writerManager.writeDeletion(dataRegion, tsFileData);
+        }
       }
     }
   }
@@ -209,12 +211,20 @@ public class LoadTsFileManager {
       chunkData.writeToFileWriter(writer);
     }
 
-    private void writeDeletion(TsFileData deletionData) throws IOException {
+    /**
+     * Deletions are carried by the piece of every data region, so only apply them to the writers of
+     * the piece's own region. Otherwise a deletion could land at a wrong offset of another region's
+     * TsFile when pieces of different regions are written concurrently.
+     */
+    private void writeDeletion(DataRegion dataRegion, TsFileData deletionData)
+        throws IOException {
       if (isClosed) {
         throw new IOException(String.format("%s TsFileWriterManager has been closed.", taskDir));
       }
       for (Map.Entry<DataPartitionInfo, TsFileIOWriter> entry : dataPartition2Writer.entrySet()) {
-        deletionData.writeToFileWriter(entry.getValue());
+        if (entry.getKey().getDataRegion().equals(dataRegion)) {
+          deletionData.writeToFileWriter(entry.getValue());
+        }
       }
     }
 
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
 import org.apache.iotdb.db.utils.datastructure.AlignedTVList;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.db.wal.buffer.IWALByteBufferView;
@@ -228,6 +229,17 @@ public class AlignedWritableMemChunk implements IWritableMemChunk {
     return (long) list.rowCount() * measurementIndexMap.size();
   }
 
+  /**
+   * Whether putting a non-null value of the measurement into the given row allocates a new value
+   * array, as the value arrays of a column are allocated when it has the first non-null value in
+   * their rows.
+   */
+  public boolean needValueArray(String measurementId, int rowIndex) {
+    Integer columnIndex = measurementIndexMap.get(measurementId);
+    return columnIndex == null
+        || !list.isValueArrayAllocated(columnIndex, rowIndex / PrimitiveArrayManager.ARRAY_SIZE);
+  }
+
   public long alignedListSize() {
     return list.rowCount();
   }
@@ -378,31 +390,35 @@ public class AlignedWritableMemChunk implements IWritableMemChunk {
             originRowIndex = list.getValueIndex(sortedRowIndex);
           }
 
-          boolean isNull = list.isNullValue(originRowIndex, columnIndex);
+          if (list.isNullValue(originRowIndex, columnIndex)) {
+            // the value may not be stored for sparse null rows
+            alignedChunkWriter.writeNullByColumn();
+            continue;
+          }
           switch (dataTypes.get(columnIndex)) {
             case BOOLEAN:
               alignedChunkWriter.writeByColumn(
-                  time, list.getBooleanByValueIndex(originRowIndex, columnIndex), isNull);
+                  time, list.getBooleanByValueIndex(originRowIndex, columnIndex), false);
               break;
             case INT32:
               alignedChunkWriter.writeByColumn(
-                  time, list.getIntByValueIndex(originRowIndex, columnIndex), isNull);
+                  time, list.getIntByValueIndex(originRowIndex, columnIndex), false);
               break;
             case INT64:
               alignedChunkWriter.writeByColumn(
-                  time, list.getLongByValueIndex(originRowIndex, columnIndex), isNull);
+                  time, list.getLongByValueIndex(originRowIndex, columnIndex), false);
               break;
             case FLOAT:
               alignedChunkWriter.writeByColumn(
-                  time, list.getFloatByValueIndex(originRowIndex, columnIndex), isNull);
+                  time, list.getFloatByValueIndex(originRowIndex, columnIndex), false);
               break;
             case DOUBLE:
               alignedChunkWriter.writeByColumn(
-                  time, list.getDoubleByValueIndex(originRowIndex, columnIndex), isNull);
+                  time, list.getDoubleByValueIndex(originRowIndex, columnIndex), false);
               break;
             case TEXT:
               alignedChunkWriter.writeByColumn(
-                  time, list.getBinaryByValueIndex(originRowIndex, columnIndex), isNull);
+                  time, list.getBinaryByValueIndex(originRowIndex, columnIndex), false);
               break;
             default:
               break;
@@ -274,7 +274,11 @@ public class WritableMemChunk implements IWritableMemChunk {
   }
 
   @Override
-  public int delete(long lowerBound, long upperBound) {
+  public synchronized int delete(long lowerBound, long upperBound) {
+    // queries read the pages of a referenced list lazily, so never modify it in place
+    if (list.getReferenceCount() > 0) {
+      list = list.clone();
+    }
     return list.delete(lowerBound, upperBound);
   }
 
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.engine.modification;
 
+import org.apache.iotdb.db.engine.cache.ModificationCache;
 import org.apache.iotdb.db.engine.modification.io.LocalTextModificationAccessor;
 import org.apache.iotdb.db.engine.modification.io.ModificationReader;
 import org.apache.iotdb.db.engine.modification.io.ModificationWriter;
@@ -95,6 +96,7 @@ public class ModificationFile implements AutoCloseable {
       if (modifications != null && !modifications.isEmpty()) {
         modifications.remove(modifications.size() - 1);
       }
+      ModificationCache.getInstance().invalidate(filePath);
     }
   }
 
@@ -111,6 +113,7 @@ public class ModificationFile implements AutoCloseable {
       if (modifications != null) {
         modifications.add(mod);
       }
+      ModificationCache.getInstance().invalidate(filePath);
     }
   }
 
@@ -137,6 +140,7 @@ public class ModificationFile implements AutoCloseable {
   public void remove() throws IOException {
     close();
     FSFactoryProducer.getFSFactory().getFile(filePath).delete();
+    ModificationCache.getInstance().invalidate(filePath);
   }
 
   public boolean exists() {
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of the modifications in one ModificationFile. Modifications of exact
+ * timeseries are grouped by device and measurement with their delete intervals merged in advance,
+ * while modifications of path patterns are grouped by the prefix before their first wildcard, so
+ * that finding the modifications of a timeseries does not need to check every modification.
+ */
+public class ModificationIndex {
+
+  public static final ModificationIndex EMPTY = new ModificationIndex(Collections.emptyList());
+
+  private static final char PATH_SEPARATOR = '.';
+  private static final long DELETION_OVERHEAD_IN_BYTE = 160;
+
+  /** device -> measurement -> sorted and merged modifications */
+  private final Map<String, Map<String, List<Modification>>> exactModifications = new HashMap<>();
+  /** prefix before the first wildcard -> modifications */
+  private final Map<String, List<Modification>> patternModifications = new HashMap<>();
+
+  private final int modificationNum;
+  private long ramSize = RamUsageEstimator.shallowSizeOfInstance(ModificationIndex.class);
+
+  public ModificationIndex(Collection<Modification> modifications) {
+    for (Modification modification : modifications) {
+      PartialPath path = modification.getPath();
+      if (path.hasWildcard()) {
+        patternModifications
+            .computeIfAbsent(getPrefixBeforeWildcard(path), k -> new ArrayList<>())
+            .add(modification);
+      } else {
+        exactModifications
+            .computeIfAbsent(path.getDevice(), k -> new HashMap<>())
+            .computeIfAbsent(path.getMeasurement(), k -> new ArrayList<>())
+            .add(modification);
+      }
+      // path string and nodes, time range and object headers of a deletion
+      ramSize += 4L * modification.getPathString().length() + DELETION_OVERHEAD_IN_BYTE;
+    }
+    for (Map<String, List<Modification>> measurementModifications : exactModifications.values()) {
+      measurementModifications.replaceAll((measurement, list) -> sortAndMerge(list));
+    }
+    this.modificationNum = modifications.size();
+  }
+
+  /**
+   * Get the modifications of the given timeseries, including those of matched path patterns.
+   * Deletions on the same path with the same file offset are merged. The returned modifications
+   * are copies which can be modified by the caller.
+   */
+  public List<Modification> getOverlapped(PartialPath fullPath) {
+    if (modificationNum == 0) {
+      return Collections.emptyList();
+    }
+    List<Modification> result = new ArrayList<>();
+    Map<String, List<Modification>> measurementModifications =
+        exactModifications.get(fullPath.getDevice());
+    if (measurementModifications != null) {
+      List<Modification> modifications = measurementModifications.get(fullPath.getMeasurement());
+      if (modifications != null) {
+        result.addAll(modifications);
+      }
+    }
+
+    boolean patternMatched = false;
+    if (!patternModifications.isEmpty()) {
+      String[] nodes = fullPath.getNodes();
+      StringBuilder prefix = new StringBuilder();
+      for (int i = 0; i <= nodes.length; i++) {
+        if (i > 0) {
+          if (i > 1) {
+            prefix.append(PATH_SEPARATOR);
+          }
+          prefix.append(nodes[i - 1]);
+        }
+        List<Modification> candidates = patternModifications.get(prefix.toString());
+        if (candidates == null) {
+          continue;
+        }
+        for (Modification modification : candidates) {
+          if (modification.getPath().matchFullPath(fullPath)) {
+            result.add(modification);
+            patternMatched = true;
+          }
+        }
+      }
+    }
+
+    if (patternMatched) {
+      return sortAndMerge(result);
+    }
+    List<Modification> copies = new ArrayList<>(result.size());
+    for (Modification modification : result) {
+      copies.add(((Deletion) modification).clone());
+    }
+    return copies;
+  }
+
+  /**
+   * Get the modifications whose path is exactly the given timeseries, path patterns are not
+   * considered. The returned modifications are copies which can be modified by the caller.
+   */
+  public List<Modification> getExact(String device, String measurement) {
+    Map<String, List<Modification>> measurementModifications = exactModifications.get(device);
+    List<Modification> modifications =
+        measurementModifications == null ? null : measurementModifications.get(measurement);
+    if (modifications == null) {
+      return new ArrayList<>();
+    }
+    List<Modification> copies = new ArrayList<>(modifications.size());
+    for (Modification modification : modifications) {
+      copies.add(((Deletion) modification).clone());
+    }
+    return copies;
+  }
+
+  public int getModificationNum() {
+    return modificationNum;
+  }
+
+  public long getRamSize() {
+    return ramSize;
+  }
+
+  private static String getPrefixBeforeWildcard(PartialPath path) {
+    StringBuilder prefix = new StringBuilder();
+    String[] nodes = path.getNodes();
+    for (int i = 0; i < nodes.length && !nodes[i].contains("*"); i++) {
+      if (i > 0) {
+        prefix.append(PATH_SEPARATOR);
+      }
+      prefix.append(nodes[i]);
+    }
+    return prefix.toString();
+  }
+
+  /**
+   * Sort the modifications and merge the intersected deletions on the same path with the same file
+   * offset. The result consists of new deletions, so the given modifications are not changed.
+   */
+  public static List<Modification> sortAndMerge(List<Modification> modifications) {
+    modifications.sort(
+        (o1, o2) -> {
+          if (!o1.getType().equals(o2.getType())) {
+            return o1.getType().compareTo(o2.getType());
+          } else if (!o1.getPath().equals(o2.getPath())) {
+            return o1.getPath().compareTo(o2.getPath());
+          } else if (o1.getFileOffset() != o2.getFileOffset()) {
+            return Long.compare(o1.getFileOffset(), o2.getFileOffset());
+          } else {
+            if (o1.getType() == Modification.Type.DELETION) {
+              Deletion del1 = (Deletion) o1;
+              Deletion del2 = (Deletion) o2;
+              return del1.getTimeRange().compareTo(del2.getTimeRange());
+            }
+            throw new IllegalArgumentException();
+          }
+        });
+    List<Modification> result = new ArrayList<>();
+    if (!modifications.isEmpty()) {
+      Deletion current = ((Deletion) modifications.get(0)).clone();
+      for (int i = 1; i < modifications.size(); i++) {
+        Deletion del = (Deletion) modifications.get(i);
+        if (current.intersects(del)) {
+          current.merge(del);
+        } else {
+          result.add(current);
+          current = del.clone();
+        }
+      }
+      result.add(current);
+    }
+    return result;
+  }
+}
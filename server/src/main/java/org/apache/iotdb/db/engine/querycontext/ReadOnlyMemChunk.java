@@ -20,7 +20,9 @@ package org.apache.iotdb.db.engine.querycontext;
 
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.query.reader.chunk.MemChunkLoader;
+import org.apache.iotdb.db.query.reader.chunk.MemPageReader;
 import org.apache.iotdb.db.utils.datastructure.TVList;
+import org.apache.iotdb.db.utils.datastructure.TVListBlockStatistics;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
@@ -30,18 +32,27 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
  * ReadOnlyMemChunk is a snapshot of the working MemTable and flushing memtable in the memory used
- * for querying
+ * for querying.
+ *
+ * <p>If the TVList maintains running block statistics, every block becomes a page whose statistics
+ * are taken from the memtable and whose data is only materialized when the page is really read, so
+ * aggregations can skip unflushed data in the same way as sealed pages. Blocks that are invalidated
+ * by out-of-order writes or touched by deletions are scanned once to compute their statistics.
  */
 public class ReadOnlyMemChunk {
 
@@ -53,8 +64,18 @@ public class ReadOnlyMemChunk {
 
   protected IChunkMetadata cachedMetaData;
 
+  /** the whole chunk, built on demand when pages are used */
   protected TsBlock tsBlock;
 
+  private TVList tvList;
+  private int rowCount;
+  private int floatPrecision;
+  private TSEncoding encoding;
+  private List<TimeRange> deletionList;
+
+  /** pages backed by memtable blocks, null if the TVList has no block statistics */
+  private List<MemChunkPage> pages;
+
   protected ReadOnlyMemChunk() {}
 
   public ReadOnlyMemChunk(
@@ -84,53 +105,137 @@ public class ReadOnlyMemChunk {
         floatPrecision = TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
       }
     }
-    this.tsBlock = tvList.buildTsBlock(floatPrecision, encoding, deletionList);
-    initChunkMetaFromTsBlock();
+    this.tvList = tvList;
+    this.rowCount = tvList.rowCount();
+    this.floatPrecision = floatPrecision;
+    this.encoding = encoding;
+    this.deletionList = deletionList;
+
+    TVListBlockStatistics blockStatistics = tvList.getBlockStatisticsSnapshot();
+    if (blockStatistics == null || blockStatistics.getBlockNum() == 0) {
+      this.tsBlock = tvList.buildTsBlock(0, rowCount, floatPrecision, encoding, deletionList);
+      initChunkMetaFromTsBlock();
+    } else {
+      initChunkMetaFromBlockStatistics(blockStatistics);
+    }
   }
 
   private void initChunkMetaFromTsBlock() throws IOException, QueryProcessException {
-    Statistics statsByType = Statistics.getStatsByType(dataType);
+    Statistics statsByType = computeStatistics(tsBlock);
     IChunkMetadata metaData = new ChunkMetadata(measurementUid, dataType, 0, statsByType);
-    if (!isEmpty()) {
+    statsByType.setEmpty(isEmpty());
+    metaData.setChunkLoader(new MemChunkLoader(this));
+    metaData.setVersion(Long.MAX_VALUE);
+    cachedMetaData = metaData;
+  }
+
+  /**
+   * Split the sorted TVList into pages by the time ranges of its blocks. The statistics of a valid
+   * block are used directly, others are computed from the data of the block.
+   */
+  private void initChunkMetaFromBlockStatistics(TVListBlockStatistics blockStatistics)
+      throws QueryProcessException {
+    Statistics chunkStatistics = Statistics.getStatsByType(dataType);
+    pages = new ArrayList<>(blockStatistics.getBlockNum());
+    int startRow = 0;
+    for (int i = 0; i < blockStatistics.getBlockNum() && startRow < rowCount; i++) {
+      int endRow =
+          i + 1 < blockStatistics.getBlockNum()
+              ? lowerBound(startRow, blockStatistics.getBlockStartTime(i + 1))
+              : rowCount;
+      if (startRow == endRow) {
+        continue;
+      }
+
+      Statistics<? extends Serializable> pageStatistics = blockStatistics.getStatistics(i);
+      TsBlock pageTsBlock = null;
+      // count mismatch means the block contains duplicated timestamps
+      if (pageStatistics == null
+          || pageStatistics.getCount() != endRow - startRow
+          || isDeleted(tvList.getTime(startRow), tvList.getTime(endRow - 1))) {
+        pageTsBlock = tvList.buildTsBlock(startRow, endRow, floatPrecision, encoding, deletionList);
+        pageStatistics = computeStatistics(pageTsBlock);
+      }
+      if (!pageStatistics.isEmpty()) {
+        pages.add(new MemChunkPage(startRow, endRow, pageStatistics, pageTsBlock));
+        chunkStatistics.mergeStatistics(pageStatistics);
+      }
+      startRow = endRow;
+    }
+
+    IChunkMetadata metaData = new ChunkMetadata(measurementUid, dataType, 0, chunkStatistics);
+    chunkStatistics.setEmpty(pages.isEmpty());
+    metaData.setChunkLoader(new MemChunkLoader(this));
+    metaData.setVersion(Long.MAX_VALUE);
+    cachedMetaData = metaData;
+  }
+
+  /** @return the first row in [fromRow, rowCount) whose time is not less than the given time */
+  private int lowerBound(int fromRow, long time) {
+    int low = fromRow;
+    int high = rowCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (tvList.getTime(mid) < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private boolean isDeleted(long startTime, long endTime) {
+    if (deletionList == null) {
+      return false;
+    }
+    for (TimeRange range : deletionList) {
+      if (range.getMin() <= endTime && range.getMax() >= startTime) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Statistics computeStatistics(TsBlock block) throws QueryProcessException {
+    Statistics statsByType = Statistics.getStatsByType(dataType);
+    if (!block.isEmpty()) {
       switch (dataType) {
         case BOOLEAN:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getBoolean(i));
+          for (int i = 0; i < block.getPositionCount(); i++) {
+            statsByType.update(block.getTimeByIndex(i), block.getColumn(0).getBoolean(i));
           }
           break;
         case TEXT:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getBinary(i));
+          for (int i = 0; i < block.getPositionCount(); i++) {
+            statsByType.update(block.getTimeByIndex(i), block.getColumn(0).getBinary(i));
           }
           break;
         case FLOAT:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getFloat(i));
+          for (int i = 0; i < block.getPositionCount(); i++) {
+            statsByType.update(block.getTimeByIndex(i), block.getColumn(0).getFloat(i));
           }
           break;
         case INT32:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getInt(i));
+          for (int i = 0; i < block.getPositionCount(); i++) {
+            statsByType.update(block.getTimeByIndex(i), block.getColumn(0).getInt(i));
           }
           break;
         case INT64:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getLong(i));
+          for (int i = 0; i < block.getPositionCount(); i++) {
+            statsByType.update(block.getTimeByIndex(i), block.getColumn(0).getLong(i));
           }
           break;
         case DOUBLE:
-          for (int i = 0; i < tsBlock.getPositionCount(); i++) {
-            statsByType.update(tsBlock.getTimeByIndex(i), tsBlock.getColumn(0).getDouble(i));
+          for (int i = 0; i < block.getPositionCount(); i++) {
+            statsByType.update(block.getTimeByIndex(i), block.getColumn(0).getDouble(i));
           }
           break;
         default:
           throw new QueryProcessException("Unsupported data type:" + dataType);
       }
     }
-    statsByType.setEmpty(isEmpty());
-    metaData.setChunkLoader(new MemChunkLoader(this));
-    metaData.setVersion(Long.MAX_VALUE);
-    cachedMetaData = metaData;
+    return statsByType;
   }
 
   public TSDataType getDataType() {
@@ -138,7 +243,7 @@ public class ReadOnlyMemChunk {
   }
 
   public boolean isEmpty() throws IOException {
-    return tsBlock.isEmpty();
+    return pages != null ? pages.isEmpty() : tsBlock.isEmpty();
   }
 
   public IChunkMetadata getChunkMetaData() {
@@ -146,10 +251,51 @@ public class ReadOnlyMemChunk {
   }
 
   public IPointReader getPointReader() {
-    return tsBlock.getTsBlockSingleColumnIterator();
+    return getTsBlock().getTsBlockSingleColumnIterator();
   }
 
   public TsBlock getTsBlock() {
+    if (tsBlock == null) {
+      tsBlock = tvList.buildTsBlock(0, rowCount, floatPrecision, encoding, deletionList);
+    }
     return tsBlock;
   }
+
+  /** @return one page reader per memtable block, or a single page over the whole chunk */
+  public List<IPageReader> getPageReaderList(Filter filter) {
+    List<IPageReader> pageReaderList = new ArrayList<>();
+    if (pages == null) {
+      pageReaderList.add(new MemPageReader(getTsBlock(), getChunkMetaData(), filter));
+      return pageReaderList;
+    }
+    for (MemChunkPage page : pages) {
+      pageReaderList.add(
+          new MemPageReader(() -> page.getTsBlock(this), getDataType(), page.statistics, filter));
+    }
+    return pageReaderList;
+  }
+
+  private static class MemChunkPage {
+    private final int startRow;
+    private final int endRow;
+    private final Statistics<? extends Serializable> statistics;
+    private TsBlock tsBlock;
+
+    private MemChunkPage(
+        int startRow, int endRow, Statistics<? extends Serializable> statistics, TsBlock tsBlock) {
+      this.startRow = startRow;
+      this.endRow = endRow;
+      this.statistics = statistics;
+      this.tsBlock = tsBlock;
+    }
+
+    private TsBlock getTsBlock(ReadOnlyMemChunk chunk) {
+      if (tsBlock == null) {
+        tsBlock =
+            chunk.tvList.buildTsBlock(
+                startRow, endRow, chunk.floatPrecision, chunk.encoding, chunk.deletionList);
+      }
+      return tsBlock;
+    }
+  }
 }
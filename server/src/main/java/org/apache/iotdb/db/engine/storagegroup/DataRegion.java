@@ -225,6 +225,8 @@ public class DataRegion implements IDataRegionForQuery {
 
   /** manage tsFileResource degrade */
   private TsFileResourceManager tsFileResourceManager = TsFileResourceManager.getInstance();
+  /** snapshot of sealed TsFileResources, null if resource manifest is disabled */
+  private DataRegionResourceManifest resourceManifest;
 
   /**
    * time partition id -> version controller which assigns a version for each MemTable and
@@ -297,6 +299,9 @@ public class DataRegion implements IDataRegionForQuery {
     } else if (!storageGroupSysDir.exists()) {
       logger.error("create database system Directory {} failed", storageGroupSysDir.getPath());
     }
+    if (config.isEnableResourceManifest()) {
+      resourceManifest = new DataRegionResourceManifest(storageGroupSysDir);
+    }
 
     // if use id table, we use id table flush time manager
     if (config.isEnableIDTable()) {
@@ -429,6 +434,9 @@ public class DataRegion implements IDataRegionForQuery {
     }
 
     try {
+      if (resourceManifest != null) {
+        resourceManifest.load();
+      }
       // collect candidate TsFiles from sequential and unsequential data directory
       Pair<List<TsFileResource>, List<TsFileResource>> seqTsFilesPair =
           getAllFiles(DirectoryManager.getInstance().getAllSequenceFileFolders());
@@ -560,6 +568,9 @@ public class DataRegion implements IDataRegionForQuery {
     } catch (IOException e) {
       throw new DataRegionException(e);
     }
+    persistResourceManifest();
+    // from now on, the manifest is updated when sealed TsFiles are replaced or removed
+    tsFileManager.setResourceManifest(resourceManifest);
 
     // recover and start timed compaction thread
     initCompaction();
@@ -685,6 +696,7 @@ public class DataRegion implements IDataRegionForQuery {
             // such
             // resources
             continueFailedRenames(partitionFolder, TEMP_SUFFIX);
+            TieredStorageMigrator.removeUnfinishedMigrations(partitionFolder);
 
             Collections.addAll(
                 tsFiles,
@@ -699,6 +711,9 @@ public class DataRegion implements IDataRegionForQuery {
       }
     }
 
+    // the cold folders are scanned even if tiered storage is disabled now, so a TsFile committed to
+    // the cold tier before a crash may still have its source in the hot tier
+    tsFiles = TieredStorageMigrator.removeDuplicatedFiles(tsFiles);
     tsFiles.sort(this::compareFileName);
     if (!tsFiles.isEmpty()) {
       checkTsFileTime(tsFiles.get(tsFiles.size() - 1));
@@ -826,16 +841,19 @@ public class DataRegion implements IDataRegionForQuery {
       TsFileResource sealedTsFile, DataRegionRecoveryContext context, boolean isSeq) {
     try (SealedTsFileRecoverPerformer recoverPerformer =
         new SealedTsFileRecoverPerformer(sealedTsFile)) {
-      recoverPerformer.recover();
-      // pick up crashed compaction target files
-      if (recoverPerformer.hasCrashed()) {
-        if (TsFileResource.getInnerCompactionCount(sealedTsFile.getTsFile().getName()) > 0) {
-          tsFileManager.addForRecover(sealedTsFile, isSeq);
-          return;
-        } else {
-          logger.warn(
-              "Sealed TsFile {} has crashed at zero level, truncate and recover it.",
-              sealedTsFile.getTsFilePath());
+      // the resource manifest saves reading .resource file of unchanged TsFiles one by one
+      if (resourceManifest == null || !resourceManifest.restore(sealedTsFile)) {
+        recoverPerformer.recover();
+        // pick up crashed compaction target files
+        if (recoverPerformer.hasCrashed()) {
+          if (TsFileResource.getInnerCompactionCount(sealedTsFile.getTsFile().getName()) > 0) {
+            tsFileManager.addForRecover(sealedTsFile, isSeq);
+            return;
+          } else {
+            logger.warn(
+                "Sealed TsFile {} has crashed at zero level, truncate and recover it.",
+                sealedTsFile.getTsFilePath());
+          }
         }
       }
       sealedTsFile.close();
@@ -1542,6 +1560,98 @@ public class DataRegion implements IDataRegionForQuery {
     }
   }
 
+  /** Move sealed TsFiles whose data are all older than the threshold to the cold data dirs. */
+  public void migrateColdTsFiles() {
+    long migrateLowerBound =
+        DateTimeUtils.currentTime()
+            - DateTimeUtils.convertMilliTimeWithPrecision(
+                config.getTieredStorageMigrateThresholdInMs(), config.getTimestampPrecision());
+
+    // copy to avoid concurrent modification of deletion
+    List<TsFileResource> seqFiles = new ArrayList<>(tsFileManager.getTsFileList(true));
+    List<TsFileResource> unseqFiles = new ArrayList<>(tsFileManager.getTsFileList(false));
+
+    for (TsFileResource tsFileResource : seqFiles) {
+      migrateColdTsFile(tsFileResource, migrateLowerBound, true);
+    }
+    for (TsFileResource tsFileResource : unseqFiles) {
+      migrateColdTsFile(tsFileResource, migrateLowerBound, false);
+    }
+  }
+
+  private void migrateColdTsFile(TsFileResource resource, long migrateLowerBound, boolean isSeq) {
+    if (resource.getStatus() != TsFileResourceStatus.CLOSED
+        || resource.stillLives(migrateLowerBound)
+        || DirectoryManager.getInstance().isInColdFolder(resource.getTsFile())) {
+      return;
+    }
+    // mark the file as compacting so that it is not selected by compaction, and deletions on it
+    // are applied regardless of chunk offsets
+    try {
+      resource.setStatus(TsFileResourceStatus.COMPACTION_CANDIDATE);
+      resource.setStatus(TsFileResourceStatus.COMPACTING);
+    } catch (RuntimeException e) {
+      // selected by compaction or removed concurrently
+      return;
+    }
+
+    TieredStorageMigrator migrator = TieredStorageMigrator.getInstance();
+    File targetTsFile = null;
+    boolean replaced = false;
+    // the read lock prevents the file from being removed by ttl during the migration
+    resource.readLock();
+    try {
+      String folder =
+          isSeq
+              ? DirectoryManager.getInstance().getNextFolderForColdSequenceFile()
+              : DirectoryManager.getInstance().getNextFolderForColdUnSequenceFile();
+      targetTsFile = migrator.copy(resource, folder);
+
+      // block deletions, so that the mods file is not written during the switch-over
+      writeLock("migrateColdTsFile");
+      try {
+        TsFileResource targetResource = migrator.commit(resource, targetTsFile);
+        replaced = tsFileManager.replace(resource, targetResource, isSeq);
+      } finally {
+        writeUnlock();
+      }
+    } catch (IOException | DiskSpaceInsufficientException e) {
+      logger.error(
+          "{}: failed to move {} to the cold tier",
+          databaseName + "-" + dataRegionId,
+          resource.getTsFilePath(),
+          e);
+    } finally {
+      resource.readUnlock();
+    }
+
+    if (!replaced) {
+      if (targetTsFile != null) {
+        migrator.abort(targetTsFile);
+      }
+      resource.setStatus(TsFileResourceStatus.CLOSED);
+      return;
+    }
+    // wait for the queries on the old file to finish
+    resource.writeLock();
+    try {
+      resource.remove();
+      ModificationFile compactionModFile = ModificationFile.getCompactionMods(resource);
+      if (compactionModFile.exists()) {
+        compactionModFile.remove();
+      }
+    } catch (IOException e) {
+      logger.warn("Failed to remove the compaction mods of {}", resource.getTsFilePath(), e);
+    } finally {
+      resource.writeUnlock();
+    }
+    logger.info(
+        "{}: moved {} to {}",
+        databaseName + "-" + dataRegionId,
+        resource.getTsFilePath(),
+        targetTsFile);
+  }
+
   public void timedFlushSeqMemTable() {
     writeLock("timedFlushSeqMemTable");
     try {
@@ -1615,6 +1725,27 @@ public class DataRegion implements IDataRegionForQuery {
     }
   }
 
+  /**
+   * Rebuild the resource manifest from the recovered sealed TsFiles, only new or changed .resource
+   * files are read. After that the manifest is updated incrementally.
+   */
+  private void persistResourceManifest() {
+    if (resourceManifest == null) {
+      return;
+    }
+    List<TsFileResource> resources = new ArrayList<>(tsFileManager.getTsFileList(true));
+    resources.addAll(tsFileManager.getTsFileList(false));
+    try {
+      resourceManifest.persist(resources);
+    } catch (IOException e) {
+      logger.warn(
+          "Fail to persist resource manifest of data region {}[{}]",
+          databaseName,
+          dataRegionId,
+          e);
+    }
+  }
+
   /** close all working tsfile processors */
   public void asyncCloseAllWorkingTsFileProcessors() {
     writeLock("asyncCloseAllWorkingTsFileProcessors");
@@ -2081,6 +2212,10 @@ public class DataRegion implements IDataRegionForQuery {
     } finally {
       closeQueryLock.writeLock().unlock();
     }
+    if (resourceManifest != null && !tsFileProcessor.isEmpty()) {
+      // the .resource file has been written when the processor is closed
+      resourceManifest.add(tsFileProcessor.getTsFileResource());
+    }
     // closingSequenceTsFileProcessor is a thread safety class.
     if (closingSequenceTsFileProcessor.contains(tsFileProcessor)) {
       closingSequenceTsFileProcessor.remove(tsFileProcessor);
@@ -2695,6 +2830,9 @@ public class DataRegion implements IDataRegionForQuery {
               targetResourceFile.getAbsolutePath(),
               e.getMessage()));
     }
+    if (resourceManifest != null) {
+      resourceManifest.add(tsFileResource);
+    }
 
     File modFileToLoad =
         fsFactory.getFile(tsFileToLoad.getAbsolutePath() + ModificationFile.FILE_SUFFIX);
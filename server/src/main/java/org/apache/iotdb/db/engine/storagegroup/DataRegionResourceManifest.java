@@ -0,0 +1,387 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+import static org.apache.iotdb.db.engine.storagegroup.TsFileResource.RESOURCE_SUFFIX;
+import static org.apache.iotdb.db.engine.storagegroup.TsFileResource.TEMP_SUFFIX;
+
+/**
+ * This class keeps a checksummed snapshot of the .resource files of all sealed TsFiles in one data
+ * region, so that the region can restore its TsFileResources with one sequential read on restart.
+ * <br>
+ * Each entry records the length of the TsFile and the length and last modified time of its
+ * .resource file when the snapshot was taken. An entry is only used when these are unchanged,
+ * otherwise the .resource file is read as before. <br>
+ * The manifest is maintained incrementally: sealing a TsFile, committing a compaction or a
+ * migration and removing a TsFile append a checksummed record to a log next to the snapshot. The
+ * snapshot is checkpointed from memory once the log grows as large as the snapshot, and the log is
+ * replayed on top of the snapshot when loading, up to its first incomplete record.
+ */
+public class DataRegionResourceManifest {
+  private static final Logger logger = LoggerFactory.getLogger(DataRegionResourceManifest.class);
+
+  public static final String MANIFEST_FILE_NAME = "resource.manifest";
+  public static final String LOG_FILE_NAME = "resource.manifest.log";
+  private static final byte MANIFEST_VERSION = 0;
+
+  private static final byte ADD_RECORD = 0;
+  private static final byte REMOVE_RECORD = 1;
+  // the log is not checkpointed before it has this many records, even if the snapshot is smaller
+  private static final int MIN_LOG_RECORD_NUM_TO_CHECKPOINT = 1024;
+
+  private final File manifestFile;
+  private final File logFile;
+  /** absolute path of TsFile -> entry */
+  private Map<String, Entry> entries = new HashMap<>();
+  /** number of records in the log since the last checkpoint */
+  private int logRecordNum = 0;
+
+  public DataRegionResourceManifest(File dataRegionSysDir) {
+    this.manifestFile = new File(dataRegionSysDir, MANIFEST_FILE_NAME);
+    this.logFile = new File(dataRegionSysDir, LOG_FILE_NAME);
+  }
+
+  /**
+   * Load the manifest file and replay its log, entries are dropped when the manifest file is
+   * missing or corrupted.
+   */
+  public synchronized void load() {
+    entries = new HashMap<>();
+    logRecordNum = 0;
+    loadSnapshot();
+    replayLog();
+  }
+
+  private void loadSnapshot() {
+    if (!manifestFile.exists()) {
+      return;
+    }
+    try {
+      byte[] content = Files.readAllBytes(manifestFile.toPath());
+      if (content.length < Long.BYTES) {
+        throw new IOException("manifest is truncated");
+      }
+      int bodyLength = content.length - Long.BYTES;
+      CRC32 crc32 = new CRC32();
+      crc32.update(content, 0, bodyLength);
+      ByteBuffer buffer = ByteBuffer.wrap(content);
+      if (buffer.getLong(bodyLength) != crc32.getValue()) {
+        throw new IOException("checksum mismatch");
+      }
+      buffer.limit(bodyLength);
+      if (buffer.get() != MANIFEST_VERSION) {
+        throw new IOException("unknown manifest version");
+      }
+      int size = buffer.getInt();
+      Map<String, Entry> loadedEntries = new HashMap<>(size * 4 / 3 + 1);
+      for (int i = 0; i < size; i++) {
+        String tsFilePath = ReadWriteIOUtils.readString(buffer);
+        loadedEntries.put(tsFilePath, Entry.deserialize(buffer));
+      }
+      entries = loadedEntries;
+      logger.info("Load {} entries from resource manifest {}", size, manifestFile);
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Resource manifest {} is invalid, ignore it.", manifestFile, e);
+    }
+  }
+
+  private void replayLog() {
+    if (!logFile.exists()) {
+      return;
+    }
+    byte[] content;
+    try {
+      content = Files.readAllBytes(logFile.toPath());
+    } catch (IOException e) {
+      logger.warn("Cannot read resource manifest log {}, ignore it.", logFile, e);
+      return;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(content);
+    int validLength = 0;
+    try {
+      while (buffer.remaining() >= Integer.BYTES) {
+        int bodyLength = buffer.getInt();
+        if (bodyLength <= 0 || buffer.remaining() < bodyLength + Long.BYTES) {
+          break;
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(content, buffer.position(), bodyLength);
+        if (buffer.getLong(buffer.position() + bodyLength) != crc32.getValue()) {
+          break;
+        }
+        ByteBuffer body = ByteBuffer.wrap(content, buffer.position(), bodyLength).slice();
+        buffer.position(buffer.position() + bodyLength + Long.BYTES);
+        applyRecord(body);
+        logRecordNum++;
+        validLength = buffer.position();
+      }
+    } catch (RuntimeException e) {
+      logger.warn("Resource manifest log {} has an invalid record.", logFile, e);
+    }
+    if (validLength < content.length) {
+      // the tail is written partially when the system crashed, records are appended after the
+      // last complete one
+      logger.info(
+          "Truncate the incomplete tail of resource manifest log {} from {} to {}",
+          logFile,
+          content.length,
+          validLength);
+      try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.WRITE)) {
+        channel.truncate(validLength);
+      } catch (IOException e) {
+        logger.warn("Cannot truncate resource manifest log {}.", logFile, e);
+      }
+    }
+    logger.info("Replay {} records from resource manifest log {}", logRecordNum, logFile);
+  }
+
+  private void applyRecord(ByteBuffer body) {
+    byte type = body.get();
+    String tsFilePath = ReadWriteIOUtils.readString(body);
+    if (type == ADD_RECORD) {
+      entries.put(tsFilePath, Entry.deserialize(body));
+    } else if (type == REMOVE_RECORD) {
+      entries.remove(tsFilePath);
+    } else {
+      throw new IllegalArgumentException("unknown record type " + type);
+    }
+  }
+
+  /**
+   * Add the entry of a TsFile whose .resource file is just written, e.g. sealed or compacted. The
+   * TsFile is skipped if it has no .resource file.
+   */
+  public synchronized void add(TsFileResource resource) {
+    File tsFile = resource.getTsFile();
+    Entry entry = Entry.read(tsFile);
+    if (entry == null) {
+      return;
+    }
+    String tsFilePath = tsFile.getAbsolutePath();
+    entries.put(tsFilePath, entry);
+    appendRecord(ADD_RECORD, tsFilePath, entry);
+  }
+
+  /** Remove the entry of a TsFile that is removed from the data region. */
+  public synchronized void remove(TsFileResource resource) {
+    String tsFilePath = resource.getTsFile().getAbsolutePath();
+    if (entries.remove(tsFilePath) != null) {
+      appendRecord(REMOVE_RECORD, tsFilePath, null);
+    }
+  }
+
+  private void appendRecord(byte type, String tsFilePath, Entry entry) {
+    try {
+      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+      DataOutputStream bodyStream = new DataOutputStream(byteArrayOutputStream);
+      bodyStream.writeByte(type);
+      ReadWriteIOUtils.write(tsFilePath, bodyStream);
+      if (entry != null) {
+        entry.serialize(bodyStream);
+      }
+      bodyStream.flush();
+      byte[] body = byteArrayOutputStream.toByteArray();
+      CRC32 crc32 = new CRC32();
+      crc32.update(body, 0, body.length);
+      // the log is only a hint, an entry lost on crash makes its .resource file read on restart
+      try (DataOutputStream outputStream =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile, true)))) {
+        outputStream.writeInt(body.length);
+        outputStream.write(body);
+        outputStream.writeLong(crc32.getValue());
+      }
+      logRecordNum++;
+    } catch (IOException e) {
+      logger.warn("Fail to append to resource manifest log {}", logFile, e);
+      return;
+    }
+    if (logRecordNum > Math.max(MIN_LOG_RECORD_NUM_TO_CHECKPOINT, entries.size())) {
+      try {
+        writeSnapshot(entries);
+      } catch (IOException e) {
+        logger.warn("Fail to checkpoint resource manifest {}", manifestFile, e);
+      }
+    }
+  }
+
+  /**
+   * Restore the given resource from its entry in the manifest.
+   *
+   * @return true if the entry exists and is up to date, false if the .resource file should be read
+   */
+  public synchronized boolean restore(TsFileResource resource) {
+    Entry entry = entries.get(resource.getTsFile().getAbsolutePath());
+    if (entry == null || !entry.isUpToDate(resource.getTsFile())) {
+      return false;
+    }
+    try {
+      resource.deserialize(new ByteArrayInputStream(entry.resourceContent));
+      return true;
+    } catch (IOException | RuntimeException e) {
+      logger.warn(
+          "Cannot restore {} from resource manifest, read its .resource file instead.",
+          resource.getTsFile(),
+          e);
+      return false;
+    }
+  }
+
+  /**
+   * Rebuild the manifest from the given sealed resources and persist it, only new or changed
+   * .resource files are read.
+   */
+  public synchronized void persist(List<TsFileResource> resources) throws IOException {
+    Map<String, Entry> newEntries = new HashMap<>(resources.size() * 4 / 3 + 1);
+    for (TsFileResource resource : resources) {
+      if (!resource.isClosed()) {
+        continue;
+      }
+      File tsFile = resource.getTsFile();
+      String tsFilePath = tsFile.getAbsolutePath();
+      Entry entry = entries.get(tsFilePath);
+      if (entry == null || !entry.isUpToDate(tsFile)) {
+        entry = Entry.read(tsFile);
+      }
+      if (entry != null) {
+        newEntries.put(tsFilePath, entry);
+      }
+    }
+    writeSnapshot(newEntries);
+  }
+
+  /** Write the given entries as the snapshot and clear the log, which is included in them. */
+  private void writeSnapshot(Map<String, Entry> newEntries) throws IOException {
+    File tmpFile = new File(manifestFile.getPath() + TEMP_SUFFIX);
+    CRC32 crc32 = new CRC32();
+    try (OutputStream fileOutputStream = new FileOutputStream(tmpFile);
+        DataOutputStream outputStream =
+            new DataOutputStream(
+                new CheckedOutputStream(new BufferedOutputStream(fileOutputStream), crc32))) {
+      outputStream.writeByte(MANIFEST_VERSION);
+      outputStream.writeInt(newEntries.size());
+      for (Map.Entry<String, Entry> entry : newEntries.entrySet()) {
+        ReadWriteIOUtils.write(entry.getKey(), outputStream);
+        entry.getValue().serialize(outputStream);
+      }
+      // the checksum covers everything before it
+      outputStream.flush();
+      outputStream.writeLong(crc32.getValue());
+      outputStream.flush();
+      fileOutputStream.getFD().sync();
+    }
+    Files.move(tmpFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    entries = newEntries;
+    // replaying the log again on the new snapshot is harmless if the system crashes before this
+    Files.deleteIfExists(logFile.toPath());
+    logRecordNum = 0;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private static class Entry {
+    private final long tsFileLength;
+    private final long resourceFileLength;
+    private final long resourceFileLastModified;
+    /** content of the .resource file */
+    private final byte[] resourceContent;
+
+    private Entry(
+        long tsFileLength,
+        long resourceFileLength,
+        long resourceFileLastModified,
+        byte[] resourceContent) {
+      this.tsFileLength = tsFileLength;
+      this.resourceFileLength = resourceFileLength;
+      this.resourceFileLastModified = resourceFileLastModified;
+      this.resourceContent = resourceContent;
+    }
+
+    /** read the .resource file of the given TsFile, return null if it doesn't exist */
+    private static Entry read(File tsFile) {
+      File resourceFile = new File(tsFile.getPath() + RESOURCE_SUFFIX);
+      // get file attributes before reading the content, so that a concurrent rewrite of the
+      // .resource file makes this entry out of date instead of silently accepted
+      long resourceFileLastModified = resourceFile.lastModified();
+      long resourceFileLength = resourceFile.length();
+      long tsFileLength = tsFile.length();
+      if (resourceFileLastModified == 0 || tsFileLength == 0) {
+        return null;
+      }
+      byte[] resourceContent;
+      try {
+        resourceContent = Files.readAllBytes(resourceFile.toPath());
+      } catch (IOException e) {
+        logger.warn("Cannot read {}, skip it in resource manifest.", resourceFile, e);
+        return null;
+      }
+      return new Entry(
+          tsFileLength, resourceFileLength, resourceFileLastModified, resourceContent);
+    }
+
+    private boolean isUpToDate(File tsFile) {
+      File resourceFile = new File(tsFile.getPath() + RESOURCE_SUFFIX);
+      return tsFile.length() == tsFileLength
+          && resourceFile.length() == resourceFileLength
+          && resourceFile.lastModified() == resourceFileLastModified;
+    }
+
+    private static Entry deserialize(ByteBuffer buffer) {
+      long tsFileLength = buffer.getLong();
+      long resourceFileLength = buffer.getLong();
+      long resourceFileLastModified = buffer.getLong();
+      byte[] resourceContent = new byte[buffer.getInt()];
+      buffer.get(resourceContent);
+      return new Entry(tsFileLength, resourceFileLength, resourceFileLastModified, resourceContent);
+    }
+
+    private void serialize(DataOutputStream outputStream) throws IOException {
+      outputStream.writeLong(tsFileLength);
+      outputStream.writeLong(resourceFileLength);
+      outputStream.writeLong(resourceFileLastModified);
+      outputStream.writeInt(resourceContent.length);
+      outputStream.write(resourceContent);
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.conf.directories.DirectoryManager;
+import org.apache.iotdb.db.engine.compaction.schedule.CompactionTaskManager;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.iotdb.db.engine.storagegroup.TsFileResource.RESOURCE_SUFFIX;
+
+/**
+ * This class copies sealed TsFiles to the cold storage tier. A migration is done in two steps:
+ *
+ * <p>1. {@link #copy} copies the TsFile and its .resource file to the target folder with a
+ * temporary suffix, rate limited. The source is still used by queries during the copy.
+ *
+ * <p>2. {@link #commit} copies the .mods file and renames the TsFile and then the .resource file to
+ * their final names. Its caller should block deletions, and then replace the source in the {@link
+ * TsFileManager} with the returned resource.
+ *
+ * <p>A target whose .resource file exists is complete, so if the system crashes after a commit
+ * while the source still exists, {@link #removeDuplicatedFiles} keeps the target on recovery.
+ */
+public class TieredStorageMigrator {
+
+  private static final Logger logger = LoggerFactory.getLogger(TieredStorageMigrator.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  public static final String MIGRATING_SUFFIX = ".migrating";
+  private static final long COPY_BLOCK_SIZE = 1024 * 1024L;
+
+  private final RateLimiter migrateRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+
+  private TieredStorageMigrator() {}
+
+  public static TieredStorageMigrator getInstance() {
+    return TieredStorageMigratorHolder.INSTANCE;
+  }
+
+  /**
+   * Copy the TsFile and its .resource file of the given resource to the given folder with {@link
+   * #MIGRATING_SUFFIX}.
+   *
+   * @param folder the sequence or unsequence folder of the target tier
+   * @return the final path of the target TsFile
+   */
+  public File copy(TsFileResource resource, String folder) throws IOException {
+    File tsFile = resource.getTsFile();
+    File partitionDir = tsFile.getParentFile();
+    File regionDir = partitionDir.getParentFile();
+    File databaseDir = regionDir.getParentFile();
+    File targetDir =
+        new File(
+            folder
+                + File.separator
+                + databaseDir.getName()
+                + File.separator
+                + regionDir.getName()
+                + File.separator
+                + partitionDir.getName());
+    if (!targetDir.exists() && !targetDir.mkdirs() && !targetDir.exists()) {
+      throw new IOException("Failed to create folder " + targetDir);
+    }
+    File targetTsFile = new File(targetDir, tsFile.getName());
+    if (targetTsFile.exists()) {
+      throw new IOException(targetTsFile + " already exists");
+    }
+    copyWithRateLimit(tsFile, new File(targetTsFile.getPath() + MIGRATING_SUFFIX));
+    copyWithRateLimit(
+        new File(tsFile.getPath() + RESOURCE_SUFFIX),
+        new File(targetTsFile.getPath() + RESOURCE_SUFFIX + MIGRATING_SUFFIX));
+    return targetTsFile;
+  }
+
+  /**
+   * Make the copied target visible. The .mods file of the source must not be written concurrently.
+   *
+   * @return the resource of the target TsFile
+   */
+  public TsFileResource commit(TsFileResource source, File targetTsFile) throws IOException {
+    File sourceModFile = new File(source.getTsFilePath() + ModificationFile.FILE_SUFFIX);
+    if (sourceModFile.exists()) {
+      Files.copy(
+          sourceModFile.toPath(),
+          new File(targetTsFile.getPath() + ModificationFile.FILE_SUFFIX).toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    Files.move(
+        new File(targetTsFile.getPath() + MIGRATING_SUFFIX).toPath(),
+        targetTsFile.toPath(),
+        StandardCopyOption.ATOMIC_MOVE);
+    // the .resource file is renamed at last, it marks the target as complete
+    Files.move(
+        new File(targetTsFile.getPath() + RESOURCE_SUFFIX + MIGRATING_SUFFIX).toPath(),
+        new File(targetTsFile.getPath() + RESOURCE_SUFFIX).toPath(),
+        StandardCopyOption.ATOMIC_MOVE);
+
+    TsFileResource target = new TsFileResource(targetTsFile);
+    target.deserialize();
+    target.setStatus(TsFileResourceStatus.CLOSED);
+    return target;
+  }
+
+  /** Remove all files of a failed migration. */
+  public void abort(File targetTsFile) {
+    for (String suffix :
+        new String[] {
+          MIGRATING_SUFFIX,
+          RESOURCE_SUFFIX + MIGRATING_SUFFIX,
+          "",
+          RESOURCE_SUFFIX,
+          ModificationFile.FILE_SUFFIX
+        }) {
+      try {
+        Files.deleteIfExists(new File(targetTsFile.getPath() + suffix).toPath());
+      } catch (IOException e) {
+        logger.warn("Failed to delete {}{}", targetTsFile, suffix, e);
+      }
+    }
+  }
+
+  private void copyWithRateLimit(File source, File target) throws IOException {
+    double throughput = config.getTieredStorageMigrateThroughputMbPerSec() * 1024.0 * 1024.0;
+    // if throughput = 0, disable rate limiting
+    if (throughput == 0) {
+      throughput = Double.MAX_VALUE;
+    }
+    if (migrateRateLimiter.getRate() != throughput) {
+      migrateRateLimiter.setRate(throughput);
+    }
+    try (FileChannel sourceChannel = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+        FileChannel targetChannel =
+            FileChannel.open(
+                target.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+      long size = sourceChannel.size();
+      long position = 0;
+      while (position < size) {
+        long blockSize = Math.min(COPY_BLOCK_SIZE, size - position);
+        CompactionTaskManager.mergeRateLimiterAcquire(migrateRateLimiter, blockSize);
+        position += sourceChannel.transferTo(position, blockSize, targetChannel);
+      }
+      targetChannel.force(true);
+    }
+  }
+
+  /** Remove the temporary files of unfinished migrations in the given partition folder. */
+  public static void removeUnfinishedMigrations(File partitionFolder) {
+    File[] files = partitionFolder.listFiles((dir, name) -> name.endsWith(MIGRATING_SUFFIX));
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      logger.info("Remove the file {} of an unfinished migration", file);
+      try {
+        Files.deleteIfExists(file.toPath());
+      } catch (IOException e) {
+        logger.warn("Failed to delete {}", file, e);
+      }
+    }
+  }
+
+  /**
+   * If the system crashes during a commit, a TsFile may exist in both tiers. The target in the cold
+   * tier is kept if its .resource file exists, otherwise the source is kept. The files of the other
+   * one are removed.
+   *
+   * @return the TsFiles without duplication
+   */
+  public static List<File> removeDuplicatedFiles(List<File> tsFiles) {
+    Map<String, File> partitionAndNameToFile = new HashMap<>();
+    for (File tsFile : tsFiles) {
+      String key = tsFile.getParentFile().getName() + File.separator + tsFile.getName();
+      File existing = partitionAndNameToFile.putIfAbsent(key, tsFile);
+      if (existing == null) {
+        continue;
+      }
+      File cold = DirectoryManager.getInstance().isInColdFolder(tsFile) ? tsFile : existing;
+      File hot = cold == tsFile ? existing : tsFile;
+      boolean keepCold = new File(cold.getPath() + RESOURCE_SUFFIX).exists();
+      File removed = keepCold ? hot : cold;
+      logger.info("{} is migrated to another tier, remove the duplicated {}", key, removed);
+      deleteTsFileAndAttachments(removed);
+      partitionAndNameToFile.put(key, keepCold ? cold : hot);
+    }
+    return new ArrayList<>(partitionAndNameToFile.values());
+  }
+
+  private static void deleteTsFileAndAttachments(File tsFile) {
+    for (String suffix : new String[] {"", RESOURCE_SUFFIX, ModificationFile.FILE_SUFFIX}) {
+      try {
+        Files.deleteIfExists(new File(tsFile.getPath() + suffix).toPath());
+      } catch (IOException e) {
+        logger.warn("Failed to delete {}{}", tsFile, suffix, e);
+      }
+    }
+  }
+
+  private static class TieredStorageMigratorHolder {
+    private static final TieredStorageMigrator INSTANCE = new TieredStorageMigrator();
+  }
+}
@@ -61,6 +61,8 @@ public class TsFileManager {
   private List<TsFileResource> unsequenceRecoverTsFileResources = new ArrayList<>();
 
   private boolean allowCompaction = true;
+  // updated when sealed TsFiles are replaced or removed, null if the manifest is disabled
+  private DataRegionResourceManifest resourceManifest;
   private AtomicLong currentCompactionTaskSerialId = new AtomicLong(0);
 
   public TsFileManager(String storageGroupName, String dataRegionId, String storageGroupDir) {
@@ -120,6 +122,9 @@ public class TsFileManager {
         if (entry.getValue().contains(tsFileResource)) {
           entry.getValue().remove(tsFileResource);
           TsFileResourceManager.getInstance().removeTsFileResource(tsFileResource);
+          if (resourceManifest != null) {
+            resourceManifest.remove(tsFileResource);
+          }
           break;
         }
       }
@@ -241,6 +246,43 @@ public class TsFileManager {
     } finally {
       writeUnlock();
     }
+    if (resourceManifest != null) {
+      seqFileResources.forEach(resourceManifest::remove);
+      unseqFileResources.forEach(resourceManifest::remove);
+      for (TsFileResource resource : targetFileResources) {
+        if (resource != null) {
+          resourceManifest.add(resource);
+        }
+      }
+    }
+  }
+
+  /**
+   * This method is called after a TsFile is moved to another directory to update memory, the new
+   * resource is in the same position as the old one.
+   *
+   * @return false if the old resource has been removed
+   */
+  public boolean replace(TsFileResource oldResource, TsFileResource newResource, boolean sequence) {
+    writeLock("replace");
+    try {
+      Map<Long, TsFileResourceList> selectedMap = sequence ? sequenceFiles : unsequenceFiles;
+      TsFileResourceList tsFileResources = selectedMap.get(oldResource.getTimePartition());
+      if (tsFileResources == null || !tsFileResources.contains(oldResource)) {
+        return false;
+      }
+      tsFileResources.insertBefore(oldResource, newResource);
+      tsFileResources.remove(oldResource);
+      TsFileResourceManager.getInstance().removeTsFileResource(oldResource);
+      TsFileResourceManager.getInstance().registerSealedTsFileResource(newResource);
+    } finally {
+      writeUnlock();
+    }
+    if (resourceManifest != null) {
+      resourceManifest.remove(oldResource);
+      resourceManifest.add(newResource);
+    }
+    return true;
   }
 
   public boolean contains(TsFileResource tsFileResource, boolean sequence) {
@@ -352,6 +394,10 @@ public class TsFileManager {
     }
   }
 
+  public void setResourceManifest(DataRegionResourceManifest resourceManifest) {
+    this.resourceManifest = resourceManifest;
+  }
+
   public boolean isAllowCompaction() {
     return allowCompaction;
   }
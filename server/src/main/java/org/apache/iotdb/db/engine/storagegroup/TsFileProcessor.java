@@ -69,6 +69,7 @@ import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.iotdb.tsfile.write.writer.RestorableTsFileIOWriter;
 
@@ -309,6 +310,7 @@ public class TsFileProcessor {
                   insertTabletNode.getMeasurements(),
                   insertTabletNode.getDataTypes(),
                   insertTabletNode.getColumns(),
+                  insertTabletNode.getBitMaps(),
                   start,
                   end);
         } else {
@@ -421,40 +423,41 @@ public class TsFileProcessor {
     // get device id
     IDeviceID deviceID = getDeviceID(deviceId);
 
+    int currentChunkPointNum = 0;
     if (workMemTable.checkIfChunkDoesNotExist(deviceID, AlignedPath.VECTOR_PLACEHOLDER)) {
       // ChunkMetadataIncrement
       chunkMetadataIncrement +=
           ChunkMetadata.calculateRamSize(AlignedPath.VECTOR_PLACEHOLDER, TSDataType.VECTOR)
               * dataTypes.length;
-      memTableIncrement += AlignedTVList.alignedTvListArrayMemCost(dataTypes);
     } else {
       // here currentChunkPointNum >= 1
-      long currentChunkPointNum =
-          workMemTable.getCurrentTVListSize(deviceID, AlignedPath.VECTOR_PLACEHOLDER);
-      memTableIncrement +=
-          (currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE) == 0
-              ? AlignedTVList.alignedTvListArrayMemCost(dataTypes)
-              : 0;
+      currentChunkPointNum =
+          (int) workMemTable.getCurrentTVListSize(deviceID, AlignedPath.VECTOR_PLACEHOLDER);
       alignedMemChunk =
           ((AlignedWritableMemChunkGroup) workMemTable.getMemTableMap().get(deviceID))
               .getAlignedMemChunk();
     }
+    boolean hasValidMeasurement = false;
     for (int i = 0; i < dataTypes.length; i++) {
       // skip failed Measurements
       if (dataTypes[i] == null || measurements[i] == null) {
         continue;
       }
-      // extending the column of aligned mem chunk
-      if (alignedMemChunk != null && !alignedMemChunk.containsMeasurement(measurements[i])) {
-        memTableIncrement +=
-            (alignedMemChunk.alignedListSize() / PrimitiveArrayManager.ARRAY_SIZE + 1)
-                * dataTypes[i].getDataTypeSize();
+      hasValidMeasurement = true;
+      // value arrays are allocated only for the rows that have non-null values in the column
+      if (values[i] != null
+          && (alignedMemChunk == null
+              || alignedMemChunk.needValueArray(measurements[i], currentChunkPointNum))) {
+        memTableIncrement += AlignedTVList.alignedTvListValueArrayMemCost(dataTypes[i]);
       }
       // TEXT data mem size
       if (dataTypes[i] == TSDataType.TEXT && values[i] != null) {
         textDataIncrement += MemUtils.getBinarySize((Binary) values[i]);
       }
     }
+    if (hasValidMeasurement && currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE == 0) {
+      memTableIncrement += AlignedTVList.alignedTvListTimeArrayMemCost();
+    }
     updateMemoryInfo(memTableIncrement, chunkMetadataIncrement, textDataIncrement);
     return new long[] {memTableIncrement, textDataIncrement, chunkMetadataIncrement};
   }
@@ -494,6 +497,7 @@ public class TsFileProcessor {
       String[] measurements,
       TSDataType[] dataTypes,
       Object[] columns,
+      BitMap[] bitMaps,
       int start,
       int end)
       throws WriteProcessException {
@@ -505,7 +509,8 @@ public class TsFileProcessor {
     // get device id
     IDeviceID deviceID = getDeviceID(deviceId);
 
-    updateAlignedMemCost(dataTypes, deviceID, measurements, start, end, memIncrements, columns);
+    updateAlignedMemCost(
+        dataTypes, deviceID, measurements, start, end, memIncrements, columns, bitMaps);
     long memTableIncrement = memIncrements[0];
     long textDataIncrement = memIncrements[1];
     long chunkMetadataIncrement = memIncrements[2];
@@ -557,37 +562,33 @@ public class TsFileProcessor {
       int start,
       int end,
       long[] memIncrements,
-      Object[] columns) {
+      Object[] columns,
+      BitMap[] bitMaps) {
     AlignedWritableMemChunk vectorMemChunk = null;
+    int currentChunkPointNum = 0;
+    int acquireArray;
     // memIncrements = [memTable, text, chunk metadata] respectively
     if (workMemTable.checkIfChunkDoesNotExist(deviceId, AlignedPath.VECTOR_PLACEHOLDER)) {
       // ChunkMetadataIncrement
       memIncrements[2] +=
           dataTypes.length
               * ChunkMetadata.calculateRamSize(AlignedPath.VECTOR_PLACEHOLDER, TSDataType.VECTOR);
-      memIncrements[0] +=
-          ((end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1)
-              * AlignedTVList.alignedTvListArrayMemCost(dataTypes);
+      acquireArray = (end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1;
     } else {
-      int currentChunkPointNum =
+      currentChunkPointNum =
           (int) workMemTable.getCurrentTVListSize(deviceId, AlignedPath.VECTOR_PLACEHOLDER);
       if (currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE == 0) {
-        memIncrements[0] +=
-            ((end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1)
-                * AlignedTVList.alignedTvListArrayMemCost(dataTypes);
+        acquireArray = (end - start) / PrimitiveArrayManager.ARRAY_SIZE + 1;
       } else {
-        int acquireArray =
+        acquireArray =
             (end - start - 1 + (currentChunkPointNum % PrimitiveArrayManager.ARRAY_SIZE))
                 / PrimitiveArrayManager.ARRAY_SIZE;
-        memIncrements[0] +=
-            acquireArray == 0
-                ? 0
-                : acquireArray * AlignedTVList.alignedTvListArrayMemCost(dataTypes);
       }
       vectorMemChunk =
           ((AlignedWritableMemChunkGroup) workMemTable.getMemTableMap().get(deviceId))
               .getAlignedMemChunk();
     }
+    boolean hasValidMeasurement = false;
     for (int i = 0; i < dataTypes.length; i++) {
       TSDataType dataType = dataTypes[i];
       String measurement = measurementIds[i];
@@ -595,18 +596,71 @@ public class TsFileProcessor {
       if (dataType == null || column == null || measurement == null) {
         continue;
       }
-      // extending the column of aligned mem chunk
-      if (vectorMemChunk != null && !vectorMemChunk.containsMeasurement(measurementIds[i])) {
-        memIncrements[0] +=
-            (vectorMemChunk.alignedListSize() / PrimitiveArrayManager.ARRAY_SIZE + 1)
-                * dataType.getDataTypeSize();
-      }
+      hasValidMeasurement = true;
+      // value arrays are allocated only for the rows that have non-null values in the column
+      memIncrements[0] +=
+          alignedValueArrayMemCost(
+              dataType,
+              measurement,
+              vectorMemChunk,
+              currentChunkPointNum,
+              bitMaps == null ? null : bitMaps[i],
+              start,
+              end);
       // TEXT data size
       if (dataType == TSDataType.TEXT) {
         Binary[] binColumn = (Binary[]) columns[i];
         memIncrements[1] += MemUtils.getBinaryColumnSize(binColumn, start, end);
       }
     }
+    if (hasValidMeasurement) {
+      memIncrements[0] += acquireArray * AlignedTVList.alignedTvListTimeArrayMemCost();
+    }
+  }
+
+  /**
+   * Mem cost of the value arrays of a column that will be allocated when putting the rows in
+   * [start, end) after the first currentChunkPointNum rows of the aligned mem chunk.
+   */
+  private long alignedValueArrayMemCost(
+      TSDataType dataType,
+      String measurement,
+      AlignedWritableMemChunk memChunk,
+      int currentChunkPointNum,
+      BitMap bitMap,
+      int start,
+      int end) {
+    long cost = 0;
+    int rowIndex = currentChunkPointNum;
+    int arrayStart = start;
+    while (arrayStart < end) {
+      // rows in [arrayStart, arrayEnd) are put into the same array
+      int arrayEnd =
+          Math.min(
+              end,
+              arrayStart
+                  + PrimitiveArrayManager.ARRAY_SIZE
+                  - rowIndex % PrimitiveArrayManager.ARRAY_SIZE);
+      if (hasNonNullValue(bitMap, arrayStart, arrayEnd)
+          && (memChunk == null || memChunk.needValueArray(measurement, rowIndex))) {
+        cost += AlignedTVList.alignedTvListValueArrayMemCost(dataType);
+      }
+      rowIndex += arrayEnd - arrayStart;
+      arrayStart = arrayEnd;
+    }
+    return cost;
+  }
+
+  private static boolean hasNonNullValue(BitMap bitMap, int start, int end) {
+    if (bitMap == null) {
+      return true;
+    }
+    for (int i = start; i < end; i++) {
+      if (!bitMap.isMarked(i)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   private void updateMemoryInfo(
@@ -1425,6 +1479,14 @@ public class TsFileProcessor {
     return timeRangeId;
   }
 
+  public DataRegionInfo getDataRegionInfo() {
+    return dataRegionInfo;
+  }
+
+  public IWALNode getWalNode() {
+    return walNode;
+  }
+
   public void setTimeRangeId(long timeRangeId) {
     this.timeRangeId = timeRangeId;
   }
@@ -253,20 +253,36 @@ public class TsFileResource {
   /** deserialize from disk */
   public void deserialize() throws IOException {
     try (InputStream inputStream = fsFactory.getBufferedInputStream(file + RESOURCE_SUFFIX)) {
-      // The first byte is VERSION_NUMBER, second byte is timeIndexType.
-      ReadWriteIOUtils.readByte(inputStream);
-      timeIndex = ITimeIndex.createTimeIndex(inputStream);
-      maxPlanIndex = ReadWriteIOUtils.readLong(inputStream);
-      minPlanIndex = ReadWriteIOUtils.readLong(inputStream);
-      if (inputStream.available() > 0) {
-        String modFileName = ReadWriteIOUtils.readString(inputStream);
-        if (modFileName != null) {
-          File modF = new File(file.getParentFile(), modFileName);
-          modFile = new ModificationFile(modF.getPath());
-        }
+      deserializeContent(inputStream);
+    }
+    upgradeV012TimeIndex();
+  }
+
+  /**
+   * deserialize from a copy of the .resource file content, e.g. the one kept in {@link
+   * DataRegionResourceManifest}
+   */
+  public void deserialize(InputStream inputStream) throws IOException {
+    deserializeContent(inputStream);
+    upgradeV012TimeIndex();
+  }
+
+  private void deserializeContent(InputStream inputStream) throws IOException {
+    // The first byte is VERSION_NUMBER, second byte is timeIndexType.
+    ReadWriteIOUtils.readByte(inputStream);
+    timeIndex = ITimeIndex.createTimeIndex(inputStream);
+    maxPlanIndex = ReadWriteIOUtils.readLong(inputStream);
+    minPlanIndex = ReadWriteIOUtils.readLong(inputStream);
+    if (inputStream.available() > 0) {
+      String modFileName = ReadWriteIOUtils.readString(inputStream);
+      if (modFileName != null) {
+        File modF = new File(file.getParentFile(), modFileName);
+        modFile = new ModificationFile(modF.getPath());
       }
     }
+  }
 
+  private void upgradeV012TimeIndex() throws IOException {
     // upgrade from v0.12 to v0.13, we need to rewrite the TsFileResource if the previous time index
     // is file time index
     if (timeIndex.getTimeIndexType() == ITimeIndex.V012_FILE_TIME_INDEX_TYPE) {
@@ -618,7 +634,7 @@ public class TsFileResource {
     return this.status == TsFileResourceStatus.COMPACTION_CANDIDATE;
   }
 
-  public void setStatus(TsFileResourceStatus status) {
+  public synchronized void setStatus(TsFileResourceStatus status) {
     switch (status) {
       case CLOSED:
         this.status = TsFileResourceStatus.CLOSED;
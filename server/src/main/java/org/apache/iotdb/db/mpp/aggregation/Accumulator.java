@@ -37,7 +37,12 @@ public interface Accumulator {
    * For aggregation function like COUNT, SUM, partialResult should be single; But for AVG,
    * last_value, it should be double column with dictionary order.
    */
-  void addIntermediate(Column[] partialResult);
+  default void addIntermediate(Column[] partialResult) {
+    addIntermediate(partialResult, 0);
+  }
+
+  /** Same as {@link #addIntermediate(Column[])}, but reads the partial result at position. */
+  void addIntermediate(Column[] partialResult, int position);
 
   /**
    * This method can only be used in seriesAggregateScanOperator, it will use different statistics
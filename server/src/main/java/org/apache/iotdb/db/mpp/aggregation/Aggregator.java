@@ -44,6 +44,8 @@ public class Aggregator {
   // In some intermediate result input, inputLocation[] should include two columns
   protected List<InputLocation[]> inputLocationList;
   protected final AggregationStep step;
+  // reused input columns of each partial result, only used when processing rows by positions
+  private Column[][] intermediateColumns;
 
   protected IWindow curWindow;
 
@@ -117,6 +119,44 @@ public class Aggregator {
     }
   }
 
+  /**
+   * Used for TagAggregationOperator. Same as {@link #processTsBlocks(TsBlock[])}, but only the row
+   * at positions[i] of tsBlock[i] is aggregated, so that no single-row region has to be built.
+   */
+  public void processTsBlocks(TsBlock[] tsBlock, int[] positions) {
+    long startTime = System.nanoTime();
+    try {
+      checkArgument(!step.isInputRaw(), "Step in AggregateOperator cannot process raw input");
+      if (step.isInputFinal()) {
+        checkArgument(inputLocationList.size() == 1, "Final output can only be single column");
+        int tsBlockIndex = inputLocationList.get(0)[0].getTsBlockIndex();
+        Column finalResult =
+            tsBlock[tsBlockIndex].getColumn(inputLocationList.get(0)[0].getValueColumnIndex());
+        accumulator.setFinal(finalResult.getRegion(positions[tsBlockIndex], 1));
+      } else {
+        if (intermediateColumns == null) {
+          intermediateColumns = new Column[inputLocationList.size()][];
+        }
+        for (int i = 0; i < inputLocationList.size(); i++) {
+          InputLocation[] inputLocations = inputLocationList.get(i);
+          if (intermediateColumns[i] == null) {
+            intermediateColumns[i] = new Column[inputLocations.length];
+          }
+          // the columns of one partial result always come from the same tsBlock
+          Column[] columns = intermediateColumns[i];
+          for (int j = 0; j < inputLocations.length; j++) {
+            columns[j] =
+                tsBlock[inputLocations[j].getTsBlockIndex()].getColumn(
+                    inputLocations[j].getValueColumnIndex());
+          }
+          accumulator.addIntermediate(columns, positions[inputLocations[0].getTsBlockIndex()]);
+        }
+      }
+    } finally {
+      QUERY_METRICS.recordExecutionCost(AGGREGATION_FROM_RAW_DATA, System.nanoTime() - startTime);
+    }
+  }
+
   public void outputResult(ColumnBuilder[] columnBuilder) {
     if (step.isOutputPartial()) {
       accumulator.outputIntermediate(columnBuilder);
@@ -26,6 +26,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.IntegerStatistics;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -61,14 +62,14 @@ public class AvgAccumulator implements Accumulator {
 
   // partialResult should be like: | countValue1 | sumValue1 |
   @Override
-  public void addIntermediate(Column[] partialResult) {
+  public void addIntermediate(Column[] partialResult, int position) {
     checkArgument(partialResult.length == 2, "partialResult of Avg should be 2");
-    if (partialResult[0].isNull(0)) {
+    if (partialResult[0].isNull(position)) {
       return;
     }
     initResult = true;
-    countValue += partialResult[0].getLong(0);
-    sumValue += partialResult[1].getDouble(0);
+    countValue += partialResult[0].getLong(position);
+    sumValue += partialResult[1].getDouble(position);
     if (countValue == 0) {
       initResult = false;
     }
@@ -148,6 +149,11 @@ public class AvgAccumulator implements Accumulator {
 
   private int addIntInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addIntValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -167,8 +173,40 @@ public class AvgAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addIntValues(Column valueColumn, int length) {
+    int[] values = valueColumn.getInts();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    double sum = sumValue;
+    long count = countValue;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        sum += values[i];
+      }
+      count += length;
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          count++;
+          sum += values[i];
+        }
+      }
+    }
+    if (count > countValue) {
+      initResult = true;
+    }
+    countValue = count;
+    sumValue = sum;
+  }
+
   private int addLongInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addLongValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -188,8 +226,40 @@ public class AvgAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addLongValues(Column valueColumn, int length) {
+    long[] values = valueColumn.getLongs();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    double sum = sumValue;
+    long count = countValue;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        sum += values[i];
+      }
+      count += length;
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          count++;
+          sum += values[i];
+        }
+      }
+    }
+    if (count > countValue) {
+      initResult = true;
+    }
+    countValue = count;
+    sumValue = sum;
+  }
+
   private int addFloatInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addFloatValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -209,8 +279,40 @@ public class AvgAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addFloatValues(Column valueColumn, int length) {
+    float[] values = valueColumn.getFloats();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    double sum = sumValue;
+    long count = countValue;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        sum += values[i];
+      }
+      count += length;
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          count++;
+          sum += values[i];
+        }
+      }
+    }
+    if (count > countValue) {
+      initResult = true;
+    }
+    countValue = count;
+    sumValue = sum;
+  }
+
   private int addDoubleInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addDoubleValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -229,4 +331,31 @@ public class AvgAccumulator implements Accumulator {
     }
     return curPositionCount;
   }
+
+  private void addDoubleValues(Column valueColumn, int length) {
+    double[] values = valueColumn.getDoubles();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    double sum = sumValue;
+    long count = countValue;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        sum += values[i];
+      }
+      count += length;
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          count++;
+          sum += values[i];
+        }
+      }
+    }
+    if (count > countValue) {
+      initResult = true;
+    }
+    countValue = count;
+    sumValue = sum;
+  }
 }
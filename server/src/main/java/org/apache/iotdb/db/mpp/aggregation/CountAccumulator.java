@@ -37,36 +37,53 @@ public class CountAccumulator implements Accumulator {
   @Override
   public int addInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0) {
+      addValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
-    if (!column[2].mayHaveNull() && curWindow.contains(column[0])) {
-      countValue += curPositionCount;
-    } else {
-      for (int i = 0; i < curPositionCount; i++) {
-        // skip null value in control column
-        if (column[0].isNull(i)) {
-          continue;
-        }
-        if (!curWindow.satisfy(column[0], i)) {
-          return i;
-        }
-        curWindow.mergeOnePoint(column, i);
-        if (!column[2].isNull(i)) {
-          countValue++;
-        }
+    for (int i = 0; i < curPositionCount; i++) {
+      // skip null value in control column
+      if (column[0].isNull(i)) {
+        continue;
+      }
+      if (!curWindow.satisfy(column[0], i)) {
+        return i;
+      }
+      curWindow.mergeOnePoint(column, i);
+      if (!column[2].isNull(i)) {
+        countValue++;
       }
     }
-
     return curPositionCount;
   }
 
+  private void addValues(Column valueColumn, int length) {
+    if (!valueColumn.mayHaveNull()) {
+      countValue += length;
+      return;
+    }
+    boolean[] isNull = valueColumn.isNull();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    long count = countValue;
+    for (int i = from; i < to; i++) {
+      if (!isNull[i]) {
+        count++;
+      }
+    }
+    countValue = count;
+  }
+
   // partialResult should be like: | partialCountValue1 |
   @Override
-  public void addIntermediate(Column[] partialResult) {
+  public void addIntermediate(Column[] partialResult, int position) {
     checkArgument(partialResult.length == 1, "partialResult of Count should be 1");
-    if (partialResult[0].isNull(0)) {
+    if (partialResult[0].isNull(position)) {
       return;
     }
-    countValue += partialResult[0].getLong(0);
+    countValue += partialResult[0].getLong(position);
   }
 
   @Override
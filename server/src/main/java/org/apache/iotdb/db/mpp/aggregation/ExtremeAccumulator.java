@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -61,23 +62,23 @@ public class ExtremeAccumulator implements Accumulator {
 
   // partialResult should be like: | PartialExtremeValue |
   @Override
-  public void addIntermediate(Column[] partialResult) {
+  public void addIntermediate(Column[] partialResult, int position) {
     checkArgument(partialResult.length == 1, "partialResult of ExtremeValue should be 1");
-    if (partialResult[0].isNull(0)) {
+    if (partialResult[0].isNull(position)) {
       return;
     }
     switch (seriesDataType) {
       case INT32:
-        updateIntResult(partialResult[0].getInt(0));
+        updateIntResult(partialResult[0].getInt(position));
         break;
       case INT64:
-        updateLongResult(partialResult[0].getLong(0));
+        updateLongResult(partialResult[0].getLong(position));
         break;
       case FLOAT:
-        updateFloatResult(partialResult[0].getFloat(0));
+        updateFloatResult(partialResult[0].getFloat(position));
         break;
       case DOUBLE:
-        updateDoubleResult(partialResult[0].getDouble(0));
+        updateDoubleResult(partialResult[0].getDouble(position));
         break;
       case TEXT:
       case BOOLEAN:
@@ -223,6 +224,11 @@ public class ExtremeAccumulator implements Accumulator {
 
   private int addIntInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addIntValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -240,6 +246,24 @@ public class ExtremeAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addIntValues(Column valueColumn, int length) {
+    int[] values = valueColumn.getInts();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        updateIntResult(values[i]);
+      }
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          updateIntResult(values[i]);
+        }
+      }
+    }
+  }
+
   private void updateIntResult(int extVal) {
     int absExtVal = Math.abs(extVal);
     int candidateResult = extremeResult.getInt();
@@ -255,6 +279,11 @@ public class ExtremeAccumulator implements Accumulator {
 
   private int addLongInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addLongValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -272,6 +301,24 @@ public class ExtremeAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addLongValues(Column valueColumn, int length) {
+    long[] values = valueColumn.getLongs();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        updateLongResult(values[i]);
+      }
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          updateLongResult(values[i]);
+        }
+      }
+    }
+  }
+
   private void updateLongResult(long extVal) {
     long absExtVal = Math.abs(extVal);
     long candidateResult = extremeResult.getLong();
@@ -287,6 +334,11 @@ public class ExtremeAccumulator implements Accumulator {
 
   private int addFloatInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addFloatValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -304,6 +356,24 @@ public class ExtremeAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addFloatValues(Column valueColumn, int length) {
+    float[] values = valueColumn.getFloats();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        updateFloatResult(values[i]);
+      }
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          updateFloatResult(values[i]);
+        }
+      }
+    }
+  }
+
   private void updateFloatResult(float extVal) {
     float absExtVal = Math.abs(extVal);
     float candidateResult = extremeResult.getFloat();
@@ -319,6 +389,11 @@ public class ExtremeAccumulator implements Accumulator {
 
   private int addDoubleInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addDoubleValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -336,6 +411,24 @@ public class ExtremeAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addDoubleValues(Column valueColumn, int length) {
+    double[] values = valueColumn.getDoubles();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        updateDoubleResult(values[i]);
+      }
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          updateDoubleResult(values[i]);
+        }
+      }
+    }
+  }
+
   private void updateDoubleResult(double extVal) {
     double absExtVal = Math.abs(extVal);
     double candidateResult = extremeResult.getDouble();
@@ -66,29 +66,34 @@ public class FirstValueAccumulator implements Accumulator {
 
   // partialResult should be like: | FirstValue | MinTime |
   @Override
-  public void addIntermediate(Column[] partialResult) {
+  public void addIntermediate(Column[] partialResult, int position) {
     checkArgument(partialResult.length == 2, "partialResult of FirstValue should be 2");
-    if (partialResult[0].isNull(0)) {
+    if (partialResult[0].isNull(position)) {
       return;
     }
     switch (seriesDataType) {
       case INT32:
-        updateIntFirstValue(partialResult[0].getInt(0), partialResult[1].getLong(0));
+        updateIntFirstValue(partialResult[0].getInt(position), partialResult[1].getLong(position));
         break;
       case INT64:
-        updateLongFirstValue(partialResult[0].getLong(0), partialResult[1].getLong(0));
+        updateLongFirstValue(
+            partialResult[0].getLong(position), partialResult[1].getLong(position));
         break;
       case FLOAT:
-        updateFloatFirstValue(partialResult[0].getFloat(0), partialResult[1].getLong(0));
+        updateFloatFirstValue(
+            partialResult[0].getFloat(position), partialResult[1].getLong(position));
         break;
       case DOUBLE:
-        updateDoubleFirstValue(partialResult[0].getDouble(0), partialResult[1].getLong(0));
+        updateDoubleFirstValue(
+            partialResult[0].getDouble(position), partialResult[1].getLong(position));
         break;
       case TEXT:
-        updateBinaryFirstValue(partialResult[0].getBinary(0), partialResult[1].getLong(0));
+        updateBinaryFirstValue(
+            partialResult[0].getBinary(position), partialResult[1].getLong(position));
         break;
       case BOOLEAN:
-        updateBooleanFirstValue(partialResult[0].getBoolean(0), partialResult[1].getLong(0));
+        updateBooleanFirstValue(
+            partialResult[0].getBoolean(position), partialResult[1].getLong(position));
         break;
       default:
         throw new UnSupportedDataTypeException(
@@ -66,29 +66,33 @@ public class LastValueAccumulator implements Accumulator {
 
   // partialResult should be like: | LastValue | MaxTime |
   @Override
-  public void addIntermediate(Column[] partialResult) {
+  public void addIntermediate(Column[] partialResult, int position) {
     checkArgument(partialResult.length == 2, "partialResult of LastValue should be 2");
-    if (partialResult[0].isNull(0)) {
+    if (partialResult[0].isNull(position)) {
       return;
     }
     switch (seriesDataType) {
       case INT32:
-        updateIntLastValue(partialResult[0].getInt(0), partialResult[1].getLong(0));
+        updateIntLastValue(partialResult[0].getInt(position), partialResult[1].getLong(position));
         break;
       case INT64:
-        updateLongLastValue(partialResult[0].getLong(0), partialResult[1].getLong(0));
+        updateLongLastValue(partialResult[0].getLong(position), partialResult[1].getLong(position));
         break;
       case FLOAT:
-        updateFloatLastValue(partialResult[0].getFloat(0), partialResult[1].getLong(0));
+        updateFloatLastValue(
+            partialResult[0].getFloat(position), partialResult[1].getLong(position));
         break;
       case DOUBLE:
-        updateDoubleLastValue(partialResult[0].getDouble(0), partialResult[1].getLong(0));
+        updateDoubleLastValue(
+            partialResult[0].getDouble(position), partialResult[1].getLong(position));
         break;
       case TEXT:
-        updateBinaryLastValue(partialResult[0].getBinary(0), partialResult[1].getLong(0));
+        updateBinaryLastValue(
+            partialResult[0].getBinary(position), partialResult[1].getLong(position));
         break;
       case BOOLEAN:
-        updateBooleanLastValue(partialResult[0].getBoolean(0), partialResult[1].getLong(0));
+        updateBooleanLastValue(
+            partialResult[0].getBoolean(position), partialResult[1].getLong(position));
         break;
       default:
         throw new UnSupportedDataTypeException(
@@ -58,12 +58,12 @@ public class MaxTimeAccumulator implements Accumulator {
 
   // partialResult should be like: | partialMaxTimeValue |
   @Override
-  public void addIntermediate(Column[] partialResult) {
+  public void addIntermediate(Column[] partialResult, int position) {
     checkArgument(partialResult.length == 1, "partialResult of MaxTime should be 1");
-    if (partialResult[0].isNull(0)) {
+    if (partialResult[0].isNull(position)) {
       return;
     }
-    updateMaxTime(partialResult[0].getLong(0));
+    updateMaxTime(partialResult[0].getLong(position));
   }
 
   @Override
@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
 import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -62,23 +63,23 @@ public class MaxValueAccumulator implements Accumulator {
 
   // partialResult should be like: | partialMaxValue1 |
   @Override
-  public void addIntermediate(Column[] partialResult) {
+  public void addIntermediate(Column[] partialResult, int position) {
     checkArgument(partialResult.length == 1, "partialResult of MaxValue should be 1");
-    if (partialResult[0].isNull(0)) {
+    if (partialResult[0].isNull(position)) {
       return;
     }
     switch (seriesDataType) {
       case INT32:
-        updateIntResult(partialResult[0].getInt(0));
+        updateIntResult(partialResult[0].getInt(position));
         break;
       case INT64:
-        updateLongResult(partialResult[0].getLong(0));
+        updateLongResult(partialResult[0].getLong(position));
         break;
       case FLOAT:
-        updateFloatResult(partialResult[0].getFloat(0));
+        updateFloatResult(partialResult[0].getFloat(position));
         break;
       case DOUBLE:
-        updateDoubleResult(partialResult[0].getDouble(0));
+        updateDoubleResult(partialResult[0].getDouble(position));
         break;
       case TEXT:
       case BOOLEAN:
@@ -221,6 +222,11 @@ public class MaxValueAccumulator implements Accumulator {
 
   private int addIntInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addIntValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -238,6 +244,34 @@ public class MaxValueAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addIntValues(Column valueColumn, int length) {
+    int[] values = valueColumn.getInts();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    boolean hasResult = initResult;
+    int result = hasResult ? maxResult.getInt() : 0;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        if (!hasResult || values[i] > result) {
+          hasResult = true;
+          result = values[i];
+        }
+      }
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i] && (!hasResult || values[i] > result)) {
+          hasResult = true;
+          result = values[i];
+        }
+      }
+    }
+    if (hasResult) {
+      initResult = true;
+      maxResult.setInt(result);
+    }
+  }
+
   private void updateIntResult(int maxVal) {
     if (!initResult || maxVal > maxResult.getInt()) {
       initResult = true;
@@ -247,6 +281,11 @@ public class MaxValueAccumulator implements Accumulator {
 
   private int addLongInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addLongValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -264,6 +303,34 @@ public class MaxValueAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addLongValues(Column valueColumn, int length) {
+    long[] values = valueColumn.getLongs();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    boolean hasResult = initResult;
+    long result = hasResult ? maxResult.getLong() : 0;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        if (!hasResult || values[i] > result) {
+          hasResult = true;
+          result = values[i];
+        }
+      }
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i] && (!hasResult || values[i] > result)) {
+          hasResult = true;
+          result = values[i];
+        }
+      }
+    }
+    if (hasResult) {
+      initResult = true;
+      maxResult.setLong(result);
+    }
+  }
+
   private void updateLongResult(long maxVal) {
     if (!initResult || maxVal > maxResult.getLong()) {
       initResult = true;
@@ -273,6 +340,11 @@ public class MaxValueAccumulator implements Accumulator {
 
   private int addFloatInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addFloatValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -290,6 +362,34 @@ public class MaxValueAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addFloatValues(Column valueColumn, int length) {
+    float[] values = valueColumn.getFloats();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    boolean hasResult = initResult;
+    float result = hasResult ? maxResult.getFloat() : 0;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        if (!hasResult || values[i] > result) {
+          hasResult = true;
+          result = values[i];
+        }
+      }
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i] && (!hasResult || values[i] > result)) {
+          hasResult = true;
+          result = values[i];
+        }
+      }
+    }
+    if (hasResult) {
+      initResult = true;
+      maxResult.setFloat(result);
+    }
+  }
+
   private void updateFloatResult(float maxVal) {
     if (!initResult || maxVal > maxResult.getFloat()) {
       initResult = true;
@@ -299,6 +399,11 @@ public class MaxValueAccumulator implements Accumulator {
 
   private int addDoubleInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addDoubleValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -316,6 +421,34 @@ public class MaxValueAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addDoubleValues(Column valueColumn, int length) {
+    double[] values = valueColumn.getDoubles();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    boolean hasResult = initResult;
+    double result = hasResult ? maxResult.getDouble() : 0;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        if (!hasResult || values[i] > result) {
+          hasResult = true;
+          result = values[i];
+        }
+      }
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i] && (!hasResult || values[i] > result)) {
+          hasResult = true;
+          result = values[i];
+        }
+      }
+    }
+    if (hasResult) {
+      initResult = true;
+      maxResult.setDouble(result);
+    }
+  }
+
   private void updateDoubleResult(double maxVal) {
     if (!initResult || maxVal > maxResult.getDouble()) {
       initResult = true;
@@ -60,12 +60,12 @@ public class MinTimeAccumulator implements Accumulator {
 
   // partialResult should be like: | partialMinTimeValue |
   @Override
-  public void addIntermediate(Column[] partialResult) {
+  public void addIntermediate(Column[] partialResult, int position) {
     checkArgument(partialResult.length == 1, "partialResult of MinTime should be 1");
-    if (partialResult[0].isNull(0)) {
+    if (partialResult[0].isNull(position)) {
       return;
     }
-    updateMinTime(partialResult[0].getLong(0));
+    updateMinTime(partialResult[0].getLong(position));
   }
 
   @Override
@@ -26,6 +26,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.IntegerStatistics;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnEncoding;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -61,13 +62,13 @@ public class SumAccumulator implements Accumulator {
 
   // partialResult should be like: | partialSumValue1 |
   @Override
-  public void addIntermediate(Column[] partialResult) {
+  public void addIntermediate(Column[] partialResult, int position) {
     checkArgument(partialResult.length == 1, "partialResult of Sum should be 1");
-    if (partialResult[0].isNull(0)) {
+    if (partialResult[0].isNull(position)) {
       return;
     }
     initResult = true;
-    sumValue += partialResult[0].getDouble(0);
+    sumValue += partialResult[0].getDouble(position);
   }
 
   @Override
@@ -137,6 +138,11 @@ public class SumAccumulator implements Accumulator {
 
   private int addIntInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addIntValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -155,8 +161,37 @@ public class SumAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addIntValues(Column valueColumn, int length) {
+    int[] values = valueColumn.getInts();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    double sum = sumValue;
+    boolean hasValue = initResult;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        sum += values[i];
+      }
+      hasValue |= length > 0;
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          hasValue = true;
+          sum += values[i];
+        }
+      }
+    }
+    initResult = hasValue;
+    sumValue = sum;
+  }
+
   private int addLongInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addLongValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -175,8 +210,37 @@ public class SumAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addLongValues(Column valueColumn, int length) {
+    long[] values = valueColumn.getLongs();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    double sum = sumValue;
+    boolean hasValue = initResult;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        sum += values[i];
+      }
+      hasValue |= length > 0;
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          hasValue = true;
+          sum += values[i];
+        }
+      }
+    }
+    initResult = hasValue;
+    sumValue = sum;
+  }
+
   private int addFloatInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addFloatValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -195,8 +259,37 @@ public class SumAccumulator implements Accumulator {
     return curPositionCount;
   }
 
+  private void addFloatValues(Column valueColumn, int length) {
+    float[] values = valueColumn.getFloats();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    double sum = sumValue;
+    boolean hasValue = initResult;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        sum += values[i];
+      }
+      hasValue |= length > 0;
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          hasValue = true;
+          sum += values[i];
+        }
+      }
+    }
+    initResult = hasValue;
+    sumValue = sum;
+  }
+
   private int addDoubleInput(Column[] column, IWindow curWindow) {
     int curPositionCount = column[0].getPositionCount();
+    int satisfiedCount = curWindow.getSatisfiedPrefixLength(column[0]);
+    if (satisfiedCount >= 0 && column[2].getEncoding() != ColumnEncoding.RLE) {
+      addDoubleValues(column[2], satisfiedCount);
+      return satisfiedCount;
+    }
 
     for (int i = 0; i < curPositionCount; i++) {
       // skip null value in control column
@@ -214,4 +307,28 @@ public class SumAccumulator implements Accumulator {
     }
     return curPositionCount;
   }
+
+  private void addDoubleValues(Column valueColumn, int length) {
+    double[] values = valueColumn.getDoubles();
+    int from = valueColumn.getArrayOffset();
+    int to = from + length;
+    double sum = sumValue;
+    boolean hasValue = initResult;
+    if (!valueColumn.mayHaveNull()) {
+      for (int i = from; i < to; i++) {
+        sum += values[i];
+      }
+      hasValue |= length > 0;
+    } else {
+      boolean[] isNull = valueColumn.isNull();
+      for (int i = from; i < to; i++) {
+        if (!isNull[i]) {
+          hasValue = true;
+          sum += values[i];
+        }
+      }
+    }
+    initResult = hasValue;
+    sumValue = sum;
+  }
 }
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.mpp.execution.driver;
 
 import org.apache.iotdb.db.mpp.execution.exchange.ISinkHandle;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.execution.operator.Operator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskId;
@@ -355,10 +356,16 @@ public abstract class Driver implements IDriver {
 
     try {
       root.close();
+
+      // hand the runtime statistics over before the downstream could see the end of data
+      List<OperatorContext> operatorContexts = driverContext.getOperatorContexts();
+      FragmentInstanceContext instanceContext = driverContext.getFragmentInstanceContext();
+      if (instanceContext.isCollectStatistics()) {
+        instanceContext.addOperatorStatistics(operatorContexts);
+      }
       sinkHandle.setNoMoreTsBlocks();
 
       // record operator execution statistics to metrics
-      List<OperatorContext> operatorContexts = driverContext.getOperatorContexts();
       for (OperatorContext operatorContext : operatorContexts) {
         String operatorType = operatorContext.getOperatorType();
         QUERY_METRICS.recordOperatorExecutionCost(
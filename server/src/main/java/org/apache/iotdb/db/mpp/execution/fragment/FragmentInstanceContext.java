@@ -26,6 +26,8 @@ import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.idtable.IDTable;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.SessionInfo;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorStatistics;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
@@ -35,7 +37,9 @@ import org.slf4j.LoggerFactory;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
@@ -67,6 +71,12 @@ public class FragmentInstanceContext extends QueryContext {
   // session info
   private SessionInfo sessionInfo;
 
+  // estimated memory reserved for the operators of this fragment instance
+  private long reservedMemoryInBytes;
+
+  // PlanNodeId -> runtime statistics, only collected for EXPLAIN ANALYZE
+  private final Map<String, OperatorStatistics> operatorStatistics = new LinkedHashMap<>();
+
   //    private final GcMonitor gcMonitor;
   //    private final AtomicLong startNanos = new AtomicLong();
   //    private final AtomicLong startFullGcCount = new AtomicLong(-1);
@@ -229,8 +239,38 @@ public class FragmentInstanceContext extends QueryContext {
   }
 
   public FragmentInstanceInfo getInstanceInfo() {
-    return new FragmentInstanceInfo(
-        stateMachine.getState(), getEndTime(), getFailedCause(), getFailureInfoList());
+    FragmentInstanceInfo instanceInfo =
+        new FragmentInstanceInfo(
+            stateMachine.getState(), getEndTime(), getFailedCause(), getFailureInfoList());
+    if (isCollectStatistics()) {
+      instanceInfo.setStatistics(getStatistics());
+    }
+    return instanceInfo;
+  }
+
+  public void setReservedMemoryInBytes(long reservedMemoryInBytes) {
+    this.reservedMemoryInBytes = reservedMemoryInBytes;
+  }
+
+  /** Merge the runtime statistics of the operators of one finished driver into this instance. */
+  public synchronized void addOperatorStatistics(List<OperatorContext> operatorContexts) {
+    for (OperatorContext operatorContext : operatorContexts) {
+      operatorStatistics
+          .computeIfAbsent(
+              operatorContext.getPlanNodeId().getId(),
+              planNodeId -> new OperatorStatistics(planNodeId, operatorContext.getOperatorType()))
+          .merge(operatorContext);
+    }
+  }
+
+  private synchronized FragmentInstanceStatistics getStatistics() {
+    long endTime = endNanos.get();
+    return new FragmentInstanceStatistics(
+        (endTime == 0 ? System.nanoTime() : endTime) - startNanos.get(),
+        reservedMemoryInBytes,
+        getDiskReadBytes(),
+        getCacheReadBytes(),
+        new LinkedHashMap<>(operatorStatistics));
   }
 
   public FragmentInstanceStateMachine getStateMachine() {
@@ -29,6 +29,9 @@ public class FragmentInstanceInfo implements DataSet {
 
   private List<FragmentInstanceFailureInfo> failureInfoList;
 
+  // only present when the instance collects runtime statistics for EXPLAIN ANALYZE
+  private FragmentInstanceStatistics statistics;
+
   public FragmentInstanceInfo(FragmentInstanceState state) {
     this.state = state;
   }
@@ -63,4 +66,12 @@ public class FragmentInstanceInfo implements DataSet {
   public List<FragmentInstanceFailureInfo> getFailureInfoList() {
     return failureInfoList;
   }
+
+  public FragmentInstanceStatistics getStatistics() {
+    return statistics;
+  }
+
+  public void setStatistics(FragmentInstanceStatistics statistics) {
+    this.statistics = statistics;
+  }
 }
@@ -130,6 +130,7 @@ public class FragmentInstanceManager {
                                 instance.getSessionInfo(),
                                 dataRegion,
                                 instance.getTimeFilter()));
+                context.setCollectStatistics(instance.isCollectStatistics());
 
                 try {
                   List<PipelineDriverFactory> driverFactories =
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.fragment;
+
+import org.apache.iotdb.db.mpp.execution.operator.OperatorStatistics;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Runtime statistics of one fragment instance, which are reported by EXPLAIN ANALYZE. */
+public class FragmentInstanceStatistics {
+
+  private final long wallTimeInNanos;
+  private final long reservedMemoryInBytes;
+  private final long diskReadBytes;
+  private final long cacheReadBytes;
+
+  // PlanNodeId -> statistics of the operators generated from this plan node
+  private final Map<String, OperatorStatistics> operatorStatistics;
+
+  public FragmentInstanceStatistics(
+      long wallTimeInNanos,
+      long reservedMemoryInBytes,
+      long diskReadBytes,
+      long cacheReadBytes,
+      Map<String, OperatorStatistics> operatorStatistics) {
+    this.wallTimeInNanos = wallTimeInNanos;
+    this.reservedMemoryInBytes = reservedMemoryInBytes;
+    this.diskReadBytes = diskReadBytes;
+    this.cacheReadBytes = cacheReadBytes;
+    this.operatorStatistics = operatorStatistics;
+  }
+
+  public long getWallTimeInNanos() {
+    return wallTimeInNanos;
+  }
+
+  public long getReservedMemoryInBytes() {
+    return reservedMemoryInBytes;
+  }
+
+  public long getDiskReadBytes() {
+    return diskReadBytes;
+  }
+
+  public long getCacheReadBytes() {
+    return cacheReadBytes;
+  }
+
+  public Map<String, OperatorStatistics> getOperatorStatistics() {
+    return operatorStatistics;
+  }
+
+  // region serialize && deserialize
+
+  public ByteBuffer serialize() throws IOException {
+    PublicBAOS byteArrayOutputStream = new PublicBAOS();
+    DataOutputStream outputStream = new DataOutputStream(byteArrayOutputStream);
+    ReadWriteIOUtils.write(wallTimeInNanos, outputStream);
+    ReadWriteIOUtils.write(reservedMemoryInBytes, outputStream);
+    ReadWriteIOUtils.write(diskReadBytes, outputStream);
+    ReadWriteIOUtils.write(cacheReadBytes, outputStream);
+    ReadWriteIOUtils.write(operatorStatistics.size(), outputStream);
+    for (OperatorStatistics statistics : operatorStatistics.values()) {
+      statistics.serialize(outputStream);
+    }
+    return ByteBuffer.wrap(byteArrayOutputStream.getBuf(), 0, byteArrayOutputStream.size());
+  }
+
+  public static FragmentInstanceStatistics deserialize(ByteBuffer byteBuffer) {
+    long wallTimeInNanos = ReadWriteIOUtils.readLong(byteBuffer);
+    long reservedMemoryInBytes = ReadWriteIOUtils.readLong(byteBuffer);
+    long diskReadBytes = ReadWriteIOUtils.readLong(byteBuffer);
+    long cacheReadBytes = ReadWriteIOUtils.readLong(byteBuffer);
+    int size = ReadWriteIOUtils.readInt(byteBuffer);
+    Map<String, OperatorStatistics> operatorStatistics = new LinkedHashMap<>();
+    for (int i = 0; i < size; i++) {
+      OperatorStatistics statistics = OperatorStatistics.deserialize(byteBuffer);
+      operatorStatistics.put(statistics.getPlanNodeId(), statistics);
+    }
+    return new FragmentInstanceStatistics(
+        wallTimeInNanos, reservedMemoryInBytes, diskReadBytes, cacheReadBytes, operatorStatistics);
+  }
+
+  // end region
+}
@@ -40,13 +40,21 @@ public interface Operator extends AutoCloseable {
 
   default TsBlock nextWithTimer() {
     OperatorContext context = getOperatorContext();
+    boolean statisticsEnabled = context.isStatisticsEnabled();
     long startTime = System.nanoTime();
+    long startCpuTime = statisticsEnabled ? OperatorContext.getCurrentThreadCpuTime() : 0L;
+    TsBlock tsBlock = null;
 
     try {
-      return next();
+      tsBlock = next();
+      return tsBlock;
     } finally {
       context.recordExecutionTime(System.nanoTime() - startTime);
       context.recordNextCalled();
+      if (statisticsEnabled) {
+        context.recordCpuTime(OperatorContext.getCurrentThreadCpuTime() - startCpuTime);
+        context.recordOutput(tsBlock);
+      }
     }
   }
 
@@ -55,12 +63,17 @@ public interface Operator extends AutoCloseable {
 
   default boolean hasNextWithTimer() {
     OperatorContext context = getOperatorContext();
+    boolean statisticsEnabled = context.isStatisticsEnabled();
     long startTime = System.nanoTime();
+    long startCpuTime = statisticsEnabled ? OperatorContext.getCurrentThreadCpuTime() : 0L;
 
     try {
       return hasNext();
     } finally {
       context.recordExecutionTime(System.nanoTime() - startTime);
+      if (statisticsEnabled) {
+        context.recordCpuTime(OperatorContext.getCurrentThreadCpuTime() - startCpuTime);
+      }
     }
   }
 
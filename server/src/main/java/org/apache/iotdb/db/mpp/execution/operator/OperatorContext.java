@@ -23,9 +23,12 @@ import org.apache.iotdb.db.mpp.common.SessionInfo;
 import org.apache.iotdb.db.mpp.execution.driver.DriverContext;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 
 import io.airlift.units.Duration;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.Objects;
 
 /**
@@ -35,8 +38,9 @@ import java.util.Objects;
  */
 public class OperatorContext {
 
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
   private final int operatorId;
-  // It seems it's never used.
   private final PlanNodeId planNodeId;
   private final String operatorType;
   private DriverContext driverContext;
@@ -45,12 +49,24 @@ public class OperatorContext {
   private long totalExecutionTimeInNanos = 0L;
   private long nextCalledCount = 0L;
 
+  // the following statistics are only recorded when the query is run by EXPLAIN ANALYZE
+  private boolean statisticsEnabled;
+  private long cpuTimeInNanos = 0L;
+  private long outputRowCount = 0L;
+  private long outputTsBlockCount = 0L;
+  // updated by the callback of the blocked future, which is never run concurrently with itself
+  private volatile long blockedTimeInNanos = 0L;
+  private long loadedChunkCount = 0L;
+  private long skippedChunkCount = 0L;
+  private long loadedPageCount = 0L;
+  private long skippedPageCount = 0L;
+
   public OperatorContext(
       int operatorId, PlanNodeId planNodeId, String operatorType, DriverContext driverContext) {
     this.operatorId = operatorId;
     this.planNodeId = planNodeId;
     this.operatorType = operatorType;
-    this.driverContext = driverContext;
+    setDriverContext(driverContext);
   }
 
   @TestOnly
@@ -62,13 +78,17 @@ public class OperatorContext {
     this.operatorId = operatorId;
     this.planNodeId = planNodeId;
     this.operatorType = operatorType;
-    this.driverContext = new DriverContext(fragmentInstanceContext, 0);
+    setDriverContext(new DriverContext(fragmentInstanceContext, 0));
   }
 
   public int getOperatorId() {
     return operatorId;
   }
 
+  public PlanNodeId getPlanNodeId() {
+    return planNodeId;
+  }
+
   public String getOperatorType() {
     return operatorType;
   }
@@ -79,6 +99,8 @@ public class OperatorContext {
 
   public void setDriverContext(DriverContext driverContext) {
     this.driverContext = driverContext;
+    this.statisticsEnabled =
+        driverContext != null && driverContext.getFragmentInstanceContext().isCollectStatistics();
   }
 
   // TODO forbid get instance context from operator directly
@@ -114,6 +136,77 @@ public class OperatorContext {
     return nextCalledCount;
   }
 
+  public boolean isStatisticsEnabled() {
+    return statisticsEnabled;
+  }
+
+  /** @return cpu time of current thread, or 0 if it is not supported by the JVM */
+  public static long getCurrentThreadCpuTime() {
+    return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+        ? THREAD_MX_BEAN.getCurrentThreadCpuTime()
+        : 0L;
+  }
+
+  public void recordCpuTime(long cpuTimeInNanos) {
+    this.cpuTimeInNanos += cpuTimeInNanos;
+  }
+
+  public void recordOutput(TsBlock tsBlock) {
+    if (tsBlock != null) {
+      outputRowCount += tsBlock.getPositionCount();
+      outputTsBlockCount++;
+    }
+  }
+
+  public void recordBlockedTime(long blockedTimeInNanos) {
+    this.blockedTimeInNanos += blockedTimeInNanos;
+  }
+
+  public void recordLoadedChunk(int loadedPageCount) {
+    this.loadedChunkCount++;
+    this.loadedPageCount += loadedPageCount;
+  }
+
+  public void recordSkippedChunk() {
+    this.skippedChunkCount++;
+  }
+
+  public void recordSkippedPage() {
+    this.skippedPageCount++;
+  }
+
+  public long getCpuTimeInNanos() {
+    return cpuTimeInNanos;
+  }
+
+  public long getOutputRowCount() {
+    return outputRowCount;
+  }
+
+  public long getOutputTsBlockCount() {
+    return outputTsBlockCount;
+  }
+
+  public long getBlockedTimeInNanos() {
+    return blockedTimeInNanos;
+  }
+
+  public long getLoadedChunkCount() {
+    return loadedChunkCount;
+  }
+
+  public long getSkippedChunkCount() {
+    return skippedChunkCount;
+  }
+
+  public long getLoadedPageCount() {
+    return loadedPageCount;
+  }
+
+  public long getSkippedPageCount() {
+    return skippedPageCount;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
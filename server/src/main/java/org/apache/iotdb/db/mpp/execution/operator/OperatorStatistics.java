@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Runtime statistics of the operators generated from one plan node in a fragment instance. It is
+ * collected from {@link OperatorContext} when the query is run by EXPLAIN ANALYZE. The operators of
+ * the same plan node in different pipelines are merged into one.
+ */
+public class OperatorStatistics {
+
+  private final String planNodeId;
+  private final String operatorType;
+
+  private long totalExecutionTimeInNanos;
+  private long cpuTimeInNanos;
+  private long nextCalledCount;
+  private long outputRowCount;
+  private long outputTsBlockCount;
+  private long blockedTimeInNanos;
+
+  private long loadedChunkCount;
+  private long skippedChunkCount;
+  private long loadedPageCount;
+  private long skippedPageCount;
+
+  public OperatorStatistics(String planNodeId, String operatorType) {
+    this.planNodeId = planNodeId;
+    this.operatorType = operatorType;
+  }
+
+  public void merge(OperatorContext operatorContext) {
+    totalExecutionTimeInNanos += operatorContext.getTotalExecutionTimeInNanos();
+    cpuTimeInNanos += operatorContext.getCpuTimeInNanos();
+    nextCalledCount += operatorContext.getNextCalledCount();
+    outputRowCount += operatorContext.getOutputRowCount();
+    outputTsBlockCount += operatorContext.getOutputTsBlockCount();
+    blockedTimeInNanos += operatorContext.getBlockedTimeInNanos();
+    loadedChunkCount += operatorContext.getLoadedChunkCount();
+    skippedChunkCount += operatorContext.getSkippedChunkCount();
+    loadedPageCount += operatorContext.getLoadedPageCount();
+    skippedPageCount += operatorContext.getSkippedPageCount();
+  }
+
+  public String getPlanNodeId() {
+    return planNodeId;
+  }
+
+  public String getOperatorType() {
+    return operatorType;
+  }
+
+  public long getTotalExecutionTimeInNanos() {
+    return totalExecutionTimeInNanos;
+  }
+
+  public long getCpuTimeInNanos() {
+    return cpuTimeInNanos;
+  }
+
+  public long getNextCalledCount() {
+    return nextCalledCount;
+  }
+
+  public long getOutputRowCount() {
+    return outputRowCount;
+  }
+
+  public long getOutputTsBlockCount() {
+    return outputTsBlockCount;
+  }
+
+  public long getBlockedTimeInNanos() {
+    return blockedTimeInNanos;
+  }
+
+  public long getLoadedChunkCount() {
+    return loadedChunkCount;
+  }
+
+  public long getSkippedChunkCount() {
+    return skippedChunkCount;
+  }
+
+  public long getLoadedPageCount() {
+    return loadedPageCount;
+  }
+
+  public long getSkippedPageCount() {
+    return skippedPageCount;
+  }
+
+  public void serialize(DataOutputStream outputStream) throws IOException {
+    ReadWriteIOUtils.write(planNodeId, outputStream);
+    ReadWriteIOUtils.write(operatorType, outputStream);
+    ReadWriteIOUtils.write(totalExecutionTimeInNanos, outputStream);
+    ReadWriteIOUtils.write(cpuTimeInNanos, outputStream);
+    ReadWriteIOUtils.write(nextCalledCount, outputStream);
+    ReadWriteIOUtils.write(outputRowCount, outputStream);
+    ReadWriteIOUtils.write(outputTsBlockCount, outputStream);
+    ReadWriteIOUtils.write(blockedTimeInNanos, outputStream);
+    ReadWriteIOUtils.write(loadedChunkCount, outputStream);
+    ReadWriteIOUtils.write(skippedChunkCount, outputStream);
+    ReadWriteIOUtils.write(loadedPageCount, outputStream);
+    ReadWriteIOUtils.write(skippedPageCount, outputStream);
+  }
+
+  public static OperatorStatistics deserialize(ByteBuffer byteBuffer) {
+    OperatorStatistics statistics =
+        new OperatorStatistics(
+            ReadWriteIOUtils.readString(byteBuffer), ReadWriteIOUtils.readString(byteBuffer));
+    statistics.totalExecutionTimeInNanos = ReadWriteIOUtils.readLong(byteBuffer);
+    statistics.cpuTimeInNanos = ReadWriteIOUtils.readLong(byteBuffer);
+    statistics.nextCalledCount = ReadWriteIOUtils.readLong(byteBuffer);
+    statistics.outputRowCount = ReadWriteIOUtils.readLong(byteBuffer);
+    statistics.outputTsBlockCount = ReadWriteIOUtils.readLong(byteBuffer);
+    statistics.blockedTimeInNanos = ReadWriteIOUtils.readLong(byteBuffer);
+    statistics.loadedChunkCount = ReadWriteIOUtils.readLong(byteBuffer);
+    statistics.skippedChunkCount = ReadWriteIOUtils.readLong(byteBuffer);
+    statistics.loadedPageCount = ReadWriteIOUtils.readLong(byteBuffer);
+    statistics.skippedPageCount = ReadWriteIOUtils.readLong(byteBuffer);
+    return statistics;
+  }
+}
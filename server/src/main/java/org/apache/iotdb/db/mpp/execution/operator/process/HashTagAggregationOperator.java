@@ -0,0 +1,432 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process;
+
+import org.apache.iotdb.db.mpp.aggregation.Accumulator;
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.utils.datastructure.LongIntHashMap;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.commons.lang3.Validate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.util.concurrent.Futures.successfulAsList;
+
+/**
+ * HashTagAggregationOperator merges the partial results of GROUP BY TAG computed by {@link
+ * TagAggregationOperator}s of different data regions.
+ *
+ * <p>Each row of its children is like: | Time | TagValue1 | ... | TagValueN | Intermediate1 | ...
+ * |. The tag values of the rows of an input tsBlock are interned into group ids once the tsBlock
+ * arrives, and all the rows of one time window are merged by their positions into the accumulators
+ * of their groups before the final results of each group are output in the order of the given
+ * groups.
+ *
+ * <p>Since a child outputs its groups in the same order in every window, the group following the
+ * previous row of the child is tried first, which only needs a comparison of the tag values.
+ */
+public class HashTagAggregationOperator implements ProcessOperator {
+
+  private static final int ROOT_STATE = 0;
+  private static final int ABSENT = -1;
+
+  private final OperatorContext operatorContext;
+  private final List<Operator> children;
+  private final boolean ascending;
+
+  private final int tagKeyCount;
+  private final Binary[][] groupTagValues;
+  private final Accumulator[][] groupedAccumulators;
+  // index of the first column of each aggregation in the children's output
+  private final int[] aggregationColumnIndexes;
+  private final int[] aggregationColumnCounts;
+
+  // ids of each tag key's values
+  private final List<Map<Binary, Integer>> tagValueIds;
+  // transitions of a trie on value ids of the tag keys, from (state << 32 | valueId) to the next
+  // state, whose leaves are group ids
+  private final LongIntHashMap groupIdTrie;
+
+  private final TsBlock[] inputTsBlocks;
+  private final int[] consumedIndices;
+  // group id of each row of the input tsBlocks
+  private final int[][] inputGroupIds;
+  // partial result columns of each aggregation in the input tsBlocks
+  private final Column[][][] inputAggregationColumns;
+  // the group observed after a group of each child, indexed by the group id + 1, and the group of
+  // the last interned row of each child
+  private final int[][] successorGroupIds;
+  private final int[] lastGroupIds;
+  // Indicate whether a child operator's next() can be called
+  private final boolean[] canCallNext;
+
+  // time of the window being merged
+  private long curTime;
+  private boolean curWindowStarted = false;
+
+  private final TsBlockBuilder tsBlockBuilder;
+  private final long maxRetainedSize;
+  private final long childrenRetainedSize;
+  private final long maxReturnSize;
+
+  public HashTagAggregationOperator(
+      OperatorContext operatorContext,
+      List<List<String>> groups,
+      List<List<Accumulator>> groupedAccumulators,
+      List<Operator> children,
+      boolean ascending,
+      long maxReturnSize) {
+    this.operatorContext = Validate.notNull(operatorContext);
+    this.children = Validate.notNull(children);
+    this.ascending = ascending;
+    Validate.isTrue(!groups.isEmpty() && groups.size() == groupedAccumulators.size());
+
+    this.tagKeyCount = groups.get(0).size();
+    int aggregationCount = groupedAccumulators.get(0).size();
+    this.groupTagValues = new Binary[groups.size()][];
+    this.groupedAccumulators = new Accumulator[groups.size()][];
+    this.tagValueIds = new ArrayList<>(tagKeyCount);
+    for (int i = 0; i < tagKeyCount; i++) {
+      tagValueIds.add(new HashMap<>());
+    }
+    this.groupIdTrie = new LongIntHashMap(groups.size() * tagKeyCount);
+    int nextState = ROOT_STATE + 1;
+    for (int groupId = 0; groupId < groups.size(); groupId++) {
+      List<String> group = groups.get(groupId);
+      groupTagValues[groupId] = new Binary[tagKeyCount];
+      int state = ROOT_STATE;
+      for (int i = 0; i < tagKeyCount; i++) {
+        Binary tagValue = new Binary(group.get(i) == null ? "NULL" : group.get(i));
+        groupTagValues[groupId][i] = tagValue;
+        Map<Binary, Integer> valueIds = tagValueIds.get(i);
+        Integer valueId = valueIds.computeIfAbsent(tagValue, k -> valueIds.size());
+        long transition = transitionOf(state, valueId);
+        if (i == tagKeyCount - 1) {
+          groupIdTrie.put(transition, groupId);
+        } else {
+          int next = groupIdTrie.get(transition, ABSENT);
+          if (next == ABSENT) {
+            next = nextState++;
+            groupIdTrie.put(transition, next);
+          }
+          state = next;
+        }
+      }
+      this.groupedAccumulators[groupId] =
+          groupedAccumulators.get(groupId).toArray(new Accumulator[aggregationCount]);
+    }
+
+    List<TSDataType> outputDataTypes = new ArrayList<>();
+    for (int i = 0; i < tagKeyCount; i++) {
+      outputDataTypes.add(TSDataType.TEXT);
+    }
+    this.aggregationColumnIndexes = new int[aggregationCount];
+    this.aggregationColumnCounts = new int[aggregationCount];
+    int columnIndex = tagKeyCount;
+    for (int i = 0; i < aggregationCount; i++) {
+      Accumulator accumulator = findAccumulator(i);
+      aggregationColumnIndexes[i] = columnIndex;
+      aggregationColumnCounts[i] = accumulator.getIntermediateType().length;
+      columnIndex += aggregationColumnCounts[i];
+      outputDataTypes.add(accumulator.getFinalType());
+    }
+    this.tsBlockBuilder = new TsBlockBuilder(outputDataTypes);
+
+    this.inputTsBlocks = new TsBlock[children.size()];
+    this.consumedIndices = new int[children.size()];
+    this.inputGroupIds = new int[children.size()][];
+    this.inputAggregationColumns = new Column[children.size()][][];
+    this.successorGroupIds = new int[children.size()][groups.size() + 1];
+    for (int[] successors : successorGroupIds) {
+      Arrays.fill(successors, ABSENT);
+    }
+    this.lastGroupIds = new int[children.size()];
+    Arrays.fill(lastGroupIds, ABSENT);
+    this.canCallNext = new boolean[children.size()];
+    this.maxRetainedSize = children.stream().mapToLong(Operator::calculateMaxReturnSize).sum();
+    this.childrenRetainedSize =
+        children.stream().mapToLong(Operator::calculateRetainedSizeAfterCallingNext).sum();
+    this.maxReturnSize = maxReturnSize;
+  }
+
+  private Accumulator findAccumulator(int aggregationIndex) {
+    for (Accumulator[] accumulators : groupedAccumulators) {
+      if (accumulators[aggregationIndex] != null) {
+        return accumulators[aggregationIndex];
+      }
+    }
+    throw new IllegalArgumentException(
+        "There is no accumulator for aggregation " + aggregationIndex + " in any group");
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+
+  @Override
+  public TsBlock next() {
+    long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
+    long start = System.nanoTime();
+
+    while (System.nanoTime() - start < maxRuntime
+        && !tsBlockBuilder.isFull()
+        && mergeCurrentWindow()) {
+      outputCurrentWindow();
+    }
+    TsBlock tsBlock = null;
+    if (tsBlockBuilder.getPositionCount() > 0) {
+      tsBlock = tsBlockBuilder.build();
+    }
+    tsBlockBuilder.reset();
+    return tsBlock;
+  }
+
+  /**
+   * Merge the rows of current time window from all the children.
+   *
+   * @return true if all the rows of current window have been merged, false if more input is needed
+   *     or there are no more windows
+   */
+  private boolean mergeCurrentWindow() {
+    while (true) {
+      // The next rows of every unfinished child must be known, since they may belong to current
+      // window
+      for (int i = 0; i < children.size(); i++) {
+        while (dataUnavailable(i) && children.get(i).hasNextWithTimer()) {
+          if (!canCallNext[i]) {
+            return false;
+          }
+          inputTsBlocks[i] = children.get(i).nextWithTimer();
+          consumedIndices[i] = 0;
+          canCallNext[i] = false;
+          if (inputTsBlocks[i] != null) {
+            internInput(i);
+          }
+        }
+      }
+
+      if (!curWindowStarted) {
+        if (!startNextWindow()) {
+          return false;
+        }
+      }
+
+      boolean windowMayContinue = false;
+      for (int i = 0; i < children.size(); i++) {
+        if (dataUnavailable(i)) {
+          continue;
+        }
+        mergeRowsOfCurrentWindow(i);
+        // rows of current window may continue in next tsBlock of this child
+        windowMayContinue |= dataUnavailable(i);
+      }
+      if (!windowMayContinue) {
+        return true;
+      }
+    }
+  }
+
+  private boolean startNextWindow() {
+    for (int i = 0; i < children.size(); i++) {
+      if (dataUnavailable(i)) {
+        continue;
+      }
+      long time = inputTsBlocks[i].getTimeByIndex(consumedIndices[i]);
+      if (!curWindowStarted || (ascending ? time < curTime : time > curTime)) {
+        curTime = time;
+        curWindowStarted = true;
+      }
+    }
+    return curWindowStarted;
+  }
+
+  private void mergeRowsOfCurrentWindow(int childIndex) {
+    TsBlock tsBlock = inputTsBlocks[childIndex];
+    int[] groupIds = inputGroupIds[childIndex];
+    Column[][] aggregationColumns = inputAggregationColumns[childIndex];
+    int positionCount = tsBlock.getPositionCount();
+    int position = consumedIndices[childIndex];
+    for (; position < positionCount && tsBlock.getTimeByIndex(position) == curTime; position++) {
+      Accumulator[] accumulators = groupedAccumulators[groupIds[position]];
+      for (int i = 0; i < accumulators.length; i++) {
+        if (accumulators[i] != null) {
+          accumulators[i].addIntermediate(aggregationColumns[i], position);
+        }
+      }
+    }
+    consumedIndices[childIndex] = position;
+  }
+
+  /** Intern the tag values of all the rows of the new input tsBlock of the child into group ids. */
+  private void internInput(int childIndex) {
+    TsBlock tsBlock = inputTsBlocks[childIndex];
+    Column[] tagColumns = new Column[tagKeyCount];
+    for (int i = 0; i < tagKeyCount; i++) {
+      tagColumns[i] = tsBlock.getColumn(i);
+    }
+    int positionCount = tsBlock.getPositionCount();
+    int[] groupIds = new int[positionCount];
+    int[] successors = successorGroupIds[childIndex];
+    int previous = lastGroupIds[childIndex];
+    for (int position = 0; position < positionCount; position++) {
+      int groupId = successors[previous + 1];
+      if (groupId == ABSENT || !isGroupOf(tagColumns, position, groupId)) {
+        groupId = lookUpGroupId(tagColumns, position);
+        successors[previous + 1] = groupId;
+      }
+      groupIds[position] = groupId;
+      previous = groupId;
+    }
+    lastGroupIds[childIndex] = previous;
+    inputGroupIds[childIndex] = groupIds;
+
+    Column[][] aggregationColumns = new Column[aggregationColumnIndexes.length][];
+    for (int i = 0; i < aggregationColumns.length; i++) {
+      aggregationColumns[i] = new Column[aggregationColumnCounts[i]];
+      for (int j = 0; j < aggregationColumnCounts[i]; j++) {
+        aggregationColumns[i][j] = tsBlock.getColumn(aggregationColumnIndexes[i] + j);
+      }
+    }
+    inputAggregationColumns[childIndex] = aggregationColumns;
+  }
+
+  private boolean isGroupOf(Column[] tagColumns, int position, int groupId) {
+    Binary[] tagValues = groupTagValues[groupId];
+    for (int i = 0; i < tagKeyCount; i++) {
+      if (!tagValues[i].equals(tagColumns[i].getBinary(position))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int lookUpGroupId(Column[] tagColumns, int position) {
+    int state = ROOT_STATE;
+    for (int i = 0; i < tagKeyCount; i++) {
+      Integer valueId = tagValueIds.get(i).get(tagColumns[i].getBinary(position));
+      state = valueId == null ? ABSENT : groupIdTrie.get(transitionOf(state, valueId), ABSENT);
+      if (state == ABSENT) {
+        throw new IllegalStateException("Unknown group of tag aggregation");
+      }
+    }
+    return state;
+  }
+
+  private static long transitionOf(int state, int valueId) {
+    return ((long) state << 32) | valueId;
+  }
+
+  private void outputCurrentWindow() {
+    ColumnBuilder[] columnBuilders = tsBlockBuilder.getValueColumnBuilders();
+    for (int groupId = 0; groupId < groupTagValues.length; groupId++) {
+      tsBlockBuilder.getTimeColumnBuilder().writeLong(curTime);
+      for (int i = 0; i < tagKeyCount; i++) {
+        columnBuilders[i].writeBinary(groupTagValues[groupId][i]);
+      }
+      Accumulator[] accumulators = groupedAccumulators[groupId];
+      for (int i = 0; i < accumulators.length; i++) {
+        ColumnBuilder columnBuilder = columnBuilders[tagKeyCount + i];
+        if (accumulators[i] == null) {
+          columnBuilder.appendNull();
+        } else {
+          accumulators[i].outputFinal(columnBuilder);
+          accumulators[i].reset();
+        }
+      }
+      tsBlockBuilder.declarePosition();
+    }
+    curWindowStarted = false;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (curWindowStarted) {
+      return true;
+    }
+    for (int i = 0; i < children.size(); i++) {
+      if (!dataUnavailable(i) || children.get(i).hasNextWithTimer()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean isFinished() {
+    return !this.hasNextWithTimer();
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    List<ListenableFuture<?>> listenableFutures = new ArrayList<>();
+    for (int i = 0, size = children.size(); i < size; i++) {
+      ListenableFuture<?> blocked = children.get(i).isBlocked();
+      if (blocked.isDone()) {
+        canCallNext[i] = true;
+      } else {
+        if (dataUnavailable(i)) {
+          listenableFutures.add(blocked);
+          canCallNext[i] = true;
+        }
+      }
+    }
+    return listenableFutures.isEmpty() ? NOT_BLOCKED : successfulAsList(listenableFutures);
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    return maxReturnSize + maxRetainedSize + childrenRetainedSize;
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return maxReturnSize;
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    return maxRetainedSize + childrenRetainedSize;
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (Operator child : children) {
+      child.close();
+    }
+  }
+
+  private boolean dataUnavailable(int index) {
+    return inputTsBlocks[index] == null
+        || consumedIndices[index] == inputTsBlocks[index].getPositionCount();
+  }
+}
@@ -20,12 +20,13 @@ package org.apache.iotdb.db.mpp.execution.operator.process;
 
 import org.apache.iotdb.db.mpp.execution.operator.Operator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
-import org.apache.iotdb.db.utils.datastructure.MergeSortHeap;
+import org.apache.iotdb.db.utils.datastructure.LoserTree;
 import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 
@@ -46,9 +47,18 @@ public class MergeSortOperator implements ProcessOperator {
   private final int inputOperatorsCount;
   private final TsBlock[] inputTsBlocks;
   private final boolean[] noMoreTsBlocks;
-  private final MergeSortHeap mergeSortHeap;
+  /** current key of each input, null if the TsBlock of the input has been consumed up */
+  private final MergeSortKey[] currentKeys;
+
+  private final LoserTree loserTree;
   private final Comparator<MergeSortKey> comparator;
 
+  /** whether the inputs have been refilled since the loser tree was built */
+  private boolean loserTreeOutdated = true;
+
+  /** reused to compare rows that are not the current key of any input */
+  private final MergeSortKey probeKey = new MergeSortKey(null, 0);
+
   private boolean finished;
 
   public MergeSortOperator(
@@ -60,7 +70,8 @@ public class MergeSortOperator implements ProcessOperator {
     this.inputOperators = inputOperators;
     this.dataTypes = dataTypes;
     this.inputOperatorsCount = inputOperators.size();
-    this.mergeSortHeap = new MergeSortHeap(inputOperatorsCount, comparator);
+    this.currentKeys = new MergeSortKey[inputOperatorsCount];
+    this.loserTree = new LoserTree(inputOperatorsCount, comparator);
     this.comparator = comparator;
     this.inputTsBlocks = new TsBlock[inputOperatorsCount];
     this.noMoreTsBlocks = new boolean[inputOperatorsCount];
@@ -101,54 +112,83 @@ public class MergeSortOperator implements ProcessOperator {
         if (inputTsBlocks[i] == null || inputTsBlocks[i].isEmpty()) {
           return null;
         }
-        mergeSortHeap.push(new MergeSortKey(inputTsBlocks[i], 0, i));
+        currentKeys[i] = new MergeSortKey(inputTsBlocks[i], 0, i);
+        loserTreeOutdated = true;
       }
     }
+    if (loserTreeOutdated) {
+      loserTree.init(currentKeys);
+      loserTreeOutdated = false;
+    }
+    if (loserTree.isEmpty()) {
+      return null;
+    }
 
     // 2. check if we can directly return the original TsBlock instead of merging way
-    MergeSortKey minMergeSortKey = mergeSortHeap.poll();
-    if (mergeSortHeap.isEmpty()
-        || comparator.compare(
-                new MergeSortKey(
-                    minMergeSortKey.tsBlock, minMergeSortKey.tsBlock.getPositionCount() - 1),
-                mergeSortHeap.peek())
-            < 0) {
-      inputTsBlocks[minMergeSortKey.columnIndex] = null;
-      return minMergeSortKey.rowIndex == 0
-          ? minMergeSortKey.tsBlock
-          : minMergeSortKey.tsBlock.subTsBlock(minMergeSortKey.rowIndex);
-    }
-    mergeSortHeap.push(minMergeSortKey);
-
-    // 3. do merge sort until one TsBlock is consumed up
+    MergeSortKey winner = loserTree.peek();
+    MergeSortKey runnerUp = loserTree.peekRunnerUp();
+    probeKey.tsBlock = winner.tsBlock;
+    probeKey.rowIndex = winner.tsBlock.getPositionCount() - 1;
+    if (runnerUp == null || comparator.compare(probeKey, runnerUp) < 0) {
+      consumeUpWinner();
+      return winner.rowIndex == 0 ? winner.tsBlock : winner.tsBlock.subTsBlock(winner.rowIndex);
+    }
+
+    // 3. do merge sort until one TsBlock is consumed up, the rows of the winner that are strictly
+    // ahead of the runner-up are appended at once
     tsBlockBuilder.reset();
+    while (!loserTree.isEmpty() && !tsBlockBuilder.isFull()) {
+      winner = loserTree.peek();
+      runnerUp = loserTree.peekRunnerUp();
+      TsBlock targetBlock = winner.tsBlock;
+      int positionCount = targetBlock.getPositionCount();
+      int end = winner.rowIndex + 1;
+      if (runnerUp == null) {
+        end = positionCount;
+      } else {
+        probeKey.tsBlock = targetBlock;
+        for (probeKey.rowIndex = end;
+            probeKey.rowIndex < positionCount && comparator.compare(probeKey, runnerUp) < 0;
+            probeKey.rowIndex++) {
+          end++;
+        }
+      }
+      appendRows(targetBlock, winner.rowIndex, end);
+      if (end == positionCount) {
+        // the next TsBlock of this input may be ahead of the others
+        consumeUpWinner();
+        break;
+      }
+      winner.rowIndex = end;
+      loserTree.replaceWinner(winner);
+    }
+    return tsBlockBuilder.build();
+  }
+
+  private void consumeUpWinner() {
+    int inputIndex = loserTree.getWinner();
+    inputTsBlocks[inputIndex] = null;
+    currentKeys[inputIndex] = null;
+    loserTree.replaceWinner(null);
+  }
+
+  private void appendRows(TsBlock targetBlock, int start, int end) {
     TimeColumnBuilder timeBuilder = tsBlockBuilder.getTimeColumnBuilder();
-    ColumnBuilder[] valueColumnBuilders = tsBlockBuilder.getValueColumnBuilders();
-    while (!mergeSortHeap.isEmpty()) {
-      MergeSortKey mergeSortKey = mergeSortHeap.poll();
-      TsBlock targetBlock = mergeSortKey.tsBlock;
-      int rowIndex = mergeSortKey.rowIndex;
+    for (int rowIndex = start; rowIndex < end; rowIndex++) {
       timeBuilder.writeLong(targetBlock.getTimeByIndex(rowIndex));
-      for (int i = 0; i < valueColumnBuilders.length; i++) {
-        if (targetBlock.getColumn(i).isNull(rowIndex)) {
+    }
+    ColumnBuilder[] valueColumnBuilders = tsBlockBuilder.getValueColumnBuilders();
+    for (int i = 0; i < valueColumnBuilders.length; i++) {
+      Column column = targetBlock.getColumn(i);
+      for (int rowIndex = start; rowIndex < end; rowIndex++) {
+        if (column.isNull(rowIndex)) {
           valueColumnBuilders[i].appendNull();
-          continue;
-        }
-        valueColumnBuilders[i].write(targetBlock.getColumn(i), rowIndex);
-      }
-      tsBlockBuilder.declarePosition();
-      if (mergeSortKey.rowIndex == mergeSortKey.tsBlock.getPositionCount() - 1) {
-        inputTsBlocks[mergeSortKey.columnIndex] = null;
-        if (!mergeSortHeap.isEmpty()
-            && comparator.compare(mergeSortHeap.peek(), mergeSortKey) > 0) {
-          break;
+        } else {
+          valueColumnBuilders[i].write(column, rowIndex);
         }
-      } else {
-        mergeSortKey.rowIndex++;
-        mergeSortHeap.push(mergeSortKey);
       }
     }
-    return tsBlockBuilder.build();
+    tsBlockBuilder.declarePositions(end - start);
   }
 
   @Override
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process;
+
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.List;
+
+/**
+ * Restores the device order of a device view whose devices are executed by several pipelines
+ * concurrently.
+ *
+ * <p>The devices are assigned to the children round-robin, i.e. the i-th device is processed by
+ * the (i % childrenCount)-th child, which is a DeviceViewOperator over its own devices running in
+ * another pipeline. So each child returns its devices in the expected order, and the TsBlocks of
+ * one device never mix with those of another device. This operator reads the child of the current
+ * device until the child returns a TsBlock of another device (which is kept until its device is
+ * reached) or has no more data, then moves to the next device.
+ *
+ * <p>While the current device is being consumed, the children of the following devices keep
+ * working ahead until their output buffers are full, so the number of concurrently processed
+ * devices is bounded by the number of children and the memory of the exchange buffers.
+ */
+public class ParallelDeviceViewOperator implements ProcessOperator {
+
+  private final OperatorContext operatorContext;
+  // devices in the order of output
+  private final List<String> devices;
+  private final List<Operator> children;
+  // Column dataTypes that includes device column
+  private final List<TSDataType> dataTypes;
+
+  // TsBlocks that have been read from the children but belong to a following device
+  private final TsBlock[] pendingTsBlocks;
+  private final boolean[] noMoreTsBlocks;
+
+  private int deviceIndex = 0;
+
+  public ParallelDeviceViewOperator(
+      OperatorContext operatorContext,
+      List<String> devices,
+      List<Operator> children,
+      List<TSDataType> dataTypes) {
+    this.operatorContext = operatorContext;
+    this.devices = devices;
+    this.children = children;
+    this.dataTypes = dataTypes;
+    this.pendingTsBlocks = new TsBlock[children.size()];
+    this.noMoreTsBlocks = new boolean[children.size()];
+  }
+
+  private int getCurChildIndex() {
+    return deviceIndex % children.size();
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    if (deviceIndex >= devices.size()) {
+      return NOT_BLOCKED;
+    }
+    int childIndex = getCurChildIndex();
+    if (pendingTsBlocks[childIndex] != null || noMoreTsBlocks[childIndex]) {
+      return NOT_BLOCKED;
+    }
+    ListenableFuture<?> blocked = children.get(childIndex).isBlocked();
+    return blocked.isDone() ? NOT_BLOCKED : blocked;
+  }
+
+  @Override
+  public TsBlock next() {
+    while (deviceIndex < devices.size()) {
+      int childIndex = getCurChildIndex();
+      TsBlock tsBlock = pendingTsBlocks[childIndex];
+      pendingTsBlocks[childIndex] = null;
+      if (tsBlock == null) {
+        Operator child = children.get(childIndex);
+        if (noMoreTsBlocks[childIndex]) {
+          deviceIndex++;
+          continue;
+        }
+        if (!child.isBlocked().isDone()) {
+          return null;
+        }
+        if (!child.hasNextWithTimer()) {
+          noMoreTsBlocks[childIndex] = true;
+          deviceIndex++;
+          continue;
+        }
+        tsBlock = child.nextWithTimer();
+        if (tsBlock == null || tsBlock.isEmpty()) {
+          return null;
+        }
+      }
+
+      // the first column is the device column
+      String device = tsBlock.getColumn(0).getBinary(0).getStringValue();
+      if (device.equals(devices.get(deviceIndex))) {
+        return tsBlock;
+      }
+      // the child has moved to its next device, so the current device is finished
+      pendingTsBlocks[childIndex] = tsBlock;
+      deviceIndex++;
+    }
+    return null;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return deviceIndex < devices.size();
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (Operator child : children) {
+      child.close();
+    }
+  }
+
+  @Override
+  public boolean isFinished() {
+    return !this.hasNextWithTimer();
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    long maxPeekMemory = calculateMaxReturnSize() + calculateRetainedSizeAfterCallingNext();
+    for (Operator child : children) {
+      maxPeekMemory = Math.max(maxPeekMemory, child.calculateMaxPeekMemory());
+    }
+    return maxPeekMemory;
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return (long) (dataTypes.size())
+        * TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    // one pending TsBlock may be kept for each child
+    long retainedSize = 0;
+    for (Operator child : children) {
+      retainedSize +=
+          child.calculateMaxReturnSize() + child.calculateRetainedSizeAfterCallingNext();
+    }
+    return retainedSize;
+  }
+}
@@ -18,22 +18,47 @@
  */
 package org.apache.iotdb.db.mpp.execution.operator.process;
 
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.execution.memory.MemoryPool;
 import org.apache.iotdb.db.mpp.execution.operator.Operator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.MemorySortedRun;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.SortedRun;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.SpilledSortedRun;
+import org.apache.iotdb.db.utils.datastructure.LoserTree;
 import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.iotdb.tsfile.utils.Pair;
 
 import com.google.common.util.concurrent.ListenableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
+/**
+ * Sorts all rows of its child. Input TsBlocks are buffered as they are and only referenced by
+ * {@link MergeSortKey}s, the memory they take is reserved from the query {@link MemoryPool}. Once
+ * the reservation of this operator is exhausted, the buffered rows are sorted and spilled to a
+ * local temporary file as a sorted run of TsBlocks. After the child is consumed, all sorted runs
+ * and the rows still in memory are merged by a {@link LoserTree}.
+ */
 public class SortOperator implements ProcessOperator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SortOperator.class);
+
+  /** Estimated size of one {@link MergeSortKey} together with its slot in the buffer. */
+  private static final long SORT_KEY_SIZE_IN_BYTES = 32L;
+
   private final OperatorContext operatorContext;
   private final Operator inputOperator;
   private final TsBlockBuilder tsBlockBuilder;
@@ -41,16 +66,45 @@ public class SortOperator implements ProcessOperator {
   private List<MergeSortKey> cachedData;
   private final Comparator<MergeSortKey> comparator;
 
+  /** Null means that the memory of this operator is not accounted and it never spills. */
+  private final MemoryPool memoryPool;
+
+  private final long maxBytesCanReserve;
+  private final String spillDirectory;
+  private long reservedBytes = 0L;
+
+  private final List<SpilledSortedRun> spilledRuns = new ArrayList<>();
+  private TsBlockSerde serde;
+
+  private boolean noMoreInput = false;
+  private List<SortedRun> sortedRuns;
+  private LoserTree loserTree;
+  private boolean finished = false;
+
   public SortOperator(
       OperatorContext operatorContext,
       Operator inputOperator,
       List<TSDataType> dataTypes,
       Comparator<MergeSortKey> comparator) {
+    this(operatorContext, inputOperator, dataTypes, comparator, null, Long.MAX_VALUE, null);
+  }
+
+  public SortOperator(
+      OperatorContext operatorContext,
+      Operator inputOperator,
+      List<TSDataType> dataTypes,
+      Comparator<MergeSortKey> comparator,
+      MemoryPool memoryPool,
+      long maxBytesCanReserve,
+      String spillDirectory) {
     this.operatorContext = operatorContext;
     this.inputOperator = inputOperator;
     this.tsBlockBuilder = new TsBlockBuilder(dataTypes);
     this.cachedData = new ArrayList<>();
     this.comparator = comparator;
+    this.memoryPool = memoryPool;
+    this.maxBytesCanReserve = maxBytesCanReserve;
+    this.spillDirectory = spillDirectory;
   }
 
   @Override
@@ -60,61 +114,216 @@ public class SortOperator implements ProcessOperator {
 
   @Override
   public ListenableFuture<?> isBlocked() {
-    return inputOperator.isBlocked();
+    return noMoreInput ? NOT_BLOCKED : inputOperator.isBlocked();
   }
 
   @Override
   public TsBlock next() {
-    TsBlock tsBlock = inputOperator.nextWithTimer();
-    if (tsBlock == null) {
-      return null;
+    try {
+      if (!noMoreInput) {
+        if (inputOperator.hasNextWithTimer()) {
+          TsBlock tsBlock = inputOperator.nextWithTimer();
+          if (tsBlock != null && !tsBlock.isEmpty()) {
+            cacheTsBlock(tsBlock);
+          }
+          // child has more data, can't calculate
+          if (inputOperator.hasNextWithTimer()) {
+            return null;
+          }
+        }
+        noMoreInput = true;
+        prepareSortedRuns();
+      }
+      return mergeSortedRuns();
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while spilling sorted runs to disk", e);
     }
+  }
+
+  private void cacheTsBlock(TsBlock tsBlock) throws IOException {
+    long bytes =
+        tsBlock.getRetainedSizeInBytes() + tsBlock.getPositionCount() * SORT_KEY_SIZE_IN_BYTES;
+    if (memoryPool != null && !tryReserve(bytes)) {
+      spillCachedData();
+      if (!tryReserve(bytes)) {
+        // even this TsBlock alone can't be held in memory, spill it as a run of its own
+        addToCache(tsBlock);
+        spillCachedData();
+        return;
+      }
+    }
+    addToCache(tsBlock);
+  }
+
+  private void addToCache(TsBlock tsBlock) {
     // add data of each TsBlock from child into list
     for (int i = 0; i < tsBlock.getPositionCount(); i++) {
       cachedData.add(new MergeSortKey(tsBlock, i));
     }
-    // child has more data, can't calculate
-    if (inputOperator.hasNextWithTimer()) {
-      return null;
+  }
+
+  private boolean tryReserve(long bytes) {
+    if (reservedBytes + bytes > maxBytesCanReserve) {
+      return false;
+    }
+    FragmentInstanceId instanceId = operatorContext.getInstanceContext().getId();
+    Pair<ListenableFuture<Void>, Boolean> reserveResult =
+        memoryPool.reserve(
+            instanceId.getQueryId().getId(),
+            instanceId.getInstanceId(),
+            operatorContext.getPlanNodeId().getId(),
+            bytes,
+            maxBytesCanReserve);
+    // the pool is exhausted, spill instead of waiting for other queries to free memory. If the
+    // future has been completed in between, the memory is reserved anyway.
+    if (!reserveResult.right && memoryPool.tryCancel(reserveResult.left) != 0) {
+      return false;
+    }
+    reservedBytes += bytes;
+    return true;
+  }
+
+  private void releaseReservedMemory() {
+    if (reservedBytes > 0) {
+      FragmentInstanceId instanceId = operatorContext.getInstanceContext().getId();
+      memoryPool.free(
+          instanceId.getQueryId().getId(),
+          instanceId.getInstanceId(),
+          operatorContext.getPlanNodeId().getId(),
+          reservedBytes);
+      reservedBytes = 0L;
     }
+  }
 
+  /** Sort the buffered rows and write them to a new spill file as one sorted run. */
+  private void spillCachedData() throws IOException {
+    if (cachedData.isEmpty()) {
+      return;
+    }
     if (cachedData.size() > 1) {
       cachedData.sort(comparator);
     }
-    TsBlock result = buildTsBlock();
-    cachedData = null;
-    return result;
+    if (serde == null) {
+      serde = new TsBlockSerde();
+      File directory = new File(spillDirectory);
+      if (!directory.exists() && !directory.mkdirs()) {
+        throw new IOException("Failed to create sort spill directory " + spillDirectory);
+      }
+    }
+    File file =
+        new File(
+            spillDirectory,
+            String.format(
+                "%s_%d_%d.sort",
+                operatorContext.getInstanceContext().getId().getFullId(),
+                operatorContext.getOperatorId(),
+                spilledRuns.size()));
+    SpilledSortedRun.Writer writer = new SpilledSortedRun.Writer(file, serde);
+    try {
+      tsBlockBuilder.reset();
+      for (MergeSortKey mergeSortKey : cachedData) {
+        appendRow(mergeSortKey);
+        if (tsBlockBuilder.isFull()) {
+          writer.write(tsBlockBuilder.build());
+          tsBlockBuilder.reset();
+        }
+      }
+      if (!tsBlockBuilder.isEmpty()) {
+        writer.write(tsBlockBuilder.build());
+      }
+      spilledRuns.add(writer.finish());
+    } catch (IOException e) {
+      writer.abort();
+      throw e;
+    }
+    LOGGER.debug("Spilled a sorted run of {} rows into {}", cachedData.size(), file);
+    cachedData = new ArrayList<>();
+    releaseReservedMemory();
+  }
+
+  private void prepareSortedRuns() throws IOException {
+    if (cachedData.size() > 1) {
+      cachedData.sort(comparator);
+    }
+    sortedRuns = new ArrayList<>(spilledRuns.size() + 1);
+    for (SpilledSortedRun spilledRun : spilledRuns) {
+      spilledRun.open();
+      sortedRuns.add(spilledRun);
+    }
+    // the rows left in memory form the last run, they don't need to be spilled
+    sortedRuns.add(new MemorySortedRun(cachedData));
+
+    MergeSortKey[] keys = new MergeSortKey[sortedRuns.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = sortedRuns.get(i).current();
+    }
+    loserTree = new LoserTree(keys.length, comparator);
+    loserTree.init(keys);
   }
 
-  private TsBlock buildTsBlock() {
+  private TsBlock mergeSortedRuns() throws IOException {
+    if (finished) {
+      return null;
+    }
+    tsBlockBuilder.reset();
+    while (!loserTree.isEmpty() && !tsBlockBuilder.isFull()) {
+      appendRow(loserTree.peek());
+      SortedRun winner = sortedRuns.get(loserTree.getWinner());
+      winner.advance();
+      loserTree.replaceWinner(winner.current());
+    }
+    if (loserTree.isEmpty()) {
+      finished = true;
+      releaseResources();
+    }
+    return tsBlockBuilder.isEmpty() ? null : tsBlockBuilder.build();
+  }
+
+  private void appendRow(MergeSortKey mergeSortKey) {
     TimeColumnBuilder timeColumnBuilder = tsBlockBuilder.getTimeColumnBuilder();
     ColumnBuilder[] valueColumnBuilders = tsBlockBuilder.getValueColumnBuilders();
-    cachedData.forEach(
-        mergeSortKey -> {
-          TsBlock tsBlock = mergeSortKey.tsBlock;
-          int row = mergeSortKey.rowIndex;
-          timeColumnBuilder.writeLong(tsBlock.getTimeByIndex(row));
-          for (int i = 0; i < valueColumnBuilders.length; i++) {
-            valueColumnBuilders[i].write(tsBlock.getColumn(i), row);
-          }
-          tsBlockBuilder.declarePosition();
-        });
-    return tsBlockBuilder.build();
+    TsBlock tsBlock = mergeSortKey.tsBlock;
+    int row = mergeSortKey.rowIndex;
+    timeColumnBuilder.writeLong(tsBlock.getTimeByIndex(row));
+    for (int i = 0; i < valueColumnBuilders.length; i++) {
+      valueColumnBuilders[i].write(tsBlock.getColumn(i), row);
+    }
+    tsBlockBuilder.declarePosition();
+  }
+
+  private void releaseResources() throws IOException {
+    cachedData = null;
+    IOException exception = null;
+    for (SpilledSortedRun spilledRun : spilledRuns) {
+      try {
+        spilledRun.close();
+      } catch (IOException e) {
+        exception = e;
+      }
+    }
+    spilledRuns.clear();
+    if (memoryPool != null) {
+      releaseReservedMemory();
+    }
+    if (exception != null) {
+      throw exception;
+    }
   }
 
   @Override
   public boolean hasNext() {
-    return inputOperator.hasNextWithTimer();
+    return !finished;
   }
 
   @Override
   public void close() throws Exception {
+    releaseResources();
     inputOperator.close();
   }
 
   @Override
   public boolean isFinished() {
-    return cachedData == null;
+    return finished;
   }
 
   @Override
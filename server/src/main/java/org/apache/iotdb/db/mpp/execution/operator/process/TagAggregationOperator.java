@@ -42,8 +42,11 @@ import static com.google.common.util.concurrent.Futures.successfulAsList;
 public class TagAggregationOperator implements ProcessOperator {
 
   private final OperatorContext operatorContext;
-  private final List<List<String>> groups;
-  private final List<List<Aggregator>> groupedAggregators;
+  private final Aggregator[][] groupedAggregators;
+  private final Binary[][] groupTagValues;
+  // number of output columns of each aggregation, which is more than one for the partial results
+  // of some aggregations, like avg
+  private final int[] aggregationColumnCounts;
   private final List<Operator> children;
   private final TsBlock[] inputTsBlocks;
 
@@ -64,13 +67,25 @@ public class TagAggregationOperator implements ProcessOperator {
       List<Operator> children,
       long maxReturnSize) {
     this.operatorContext = Validate.notNull(operatorContext);
-    this.groups = Validate.notNull(groups);
-    this.groupedAggregators = Validate.notNull(groupedAggregators);
+    Validate.isTrue(!groups.isEmpty() && groups.size() == groupedAggregators.size());
     this.children = Validate.notNull(children);
+    this.groupTagValues = new Binary[groups.size()][];
+    this.groupedAggregators = new Aggregator[groups.size()][];
+    for (int groupIdx = 0; groupIdx < groups.size(); groupIdx++) {
+      List<String> group = groups.get(groupIdx);
+      Binary[] tagValues = new Binary[group.size()];
+      for (int i = 0; i < group.size(); i++) {
+        tagValues[i] = new Binary(group.get(i) == null ? "NULL" : group.get(i));
+      }
+      groupTagValues[groupIdx] = tagValues;
+      this.groupedAggregators[groupIdx] =
+          groupedAggregators.get(groupIdx).toArray(new Aggregator[0]);
+    }
     List<TSDataType> actualOutputColumnTypes = new ArrayList<>();
     for (String ignored : groups.get(0)) {
       actualOutputColumnTypes.add(TSDataType.TEXT);
     }
+    this.aggregationColumnCounts = new int[groupedAggregators.get(0).size()];
     for (int outputColumnIdx = 0;
         outputColumnIdx < groupedAggregators.get(0).size();
         outputColumnIdx++) {
@@ -78,6 +93,7 @@ public class TagAggregationOperator implements ProcessOperator {
         Aggregator aggregator = aggregators.get(outputColumnIdx);
         if (aggregator != null) {
           actualOutputColumnTypes.addAll(Arrays.asList(aggregator.getOutputType()));
+          aggregationColumnCounts[outputColumnIdx] = aggregator.getOutputType().length;
           break;
         }
       }
@@ -104,9 +120,10 @@ public class TagAggregationOperator implements ProcessOperator {
     long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
     long start = System.nanoTime();
 
+    ColumnBuilder[][] aggregationColumnBuilders = getAggregationColumnBuilders();
     boolean successful = true;
     while (System.nanoTime() - start < maxRuntime && !tsBlockBuilder.isFull() && successful) {
-      successful = processOneRow();
+      successful = processOneRow(aggregationColumnBuilders);
     }
     TsBlock tsBlock = null;
     if (tsBlockBuilder.getPositionCount() > 0) {
@@ -116,7 +133,7 @@ public class TagAggregationOperator implements ProcessOperator {
     return tsBlock;
   }
 
-  private boolean processOneRow() {
+  private boolean processOneRow(ColumnBuilder[][] aggregationColumnBuilders) {
     for (int i = 0; i < children.size(); i++) {
       if (!dataUnavailable(i)) {
         continue;
@@ -137,40 +154,35 @@ public class TagAggregationOperator implements ProcessOperator {
       }
     }
 
-    TsBlock[] rowBlocks = new TsBlock[children.size()];
-    for (int i = 0; i < children.size(); i++) {
-      rowBlocks[i] = inputTsBlocks[i].getRegion(consumedIndices[i], 1);
-    }
-    for (int groupIdx = 0; groupIdx < groups.size(); groupIdx++) {
-      List<String> group = groups.get(groupIdx);
-      List<Aggregator> aggregators = groupedAggregators.get(groupIdx);
+    // the rows are aggregated in place by their positions instead of being copied into regions
+    long time = inputTsBlocks[0].getTimeByIndex(consumedIndices[0]);
+    for (int groupIdx = 0; groupIdx < groupedAggregators.length; groupIdx++) {
+      Binary[] tagValues = groupTagValues[groupIdx];
+      Aggregator[] aggregators = groupedAggregators[groupIdx];
 
       for (Aggregator aggregator : aggregators) {
         if (aggregator == null) {
           continue;
         }
         aggregator.reset();
-        aggregator.processTsBlocks(rowBlocks);
+        aggregator.processTsBlocks(inputTsBlocks, consumedIndices);
       }
 
       TimeColumnBuilder timeColumnBuilder = tsBlockBuilder.getTimeColumnBuilder();
-      timeColumnBuilder.writeLong(rowBlocks[0].getStartTime());
+      timeColumnBuilder.writeLong(time);
       ColumnBuilder[] columnBuilders = tsBlockBuilder.getValueColumnBuilders();
 
-      for (int i = 0; i < group.size(); i++) {
-        if (group.get(i) == null) {
-          columnBuilders[i].writeBinary(new Binary("NULL"));
-        } else {
-          columnBuilders[i].writeBinary(new Binary(group.get(i)));
-        }
+      for (int i = 0; i < tagValues.length; i++) {
+        columnBuilders[i].writeBinary(tagValues[i]);
       }
-      for (int i = 0; i < aggregators.size(); i++) {
-        Aggregator aggregator = aggregators.get(i);
-        ColumnBuilder columnBuilder = columnBuilders[i + group.size()];
+      for (int i = 0; i < aggregators.length; i++) {
+        Aggregator aggregator = aggregators[i];
         if (aggregator == null) {
-          columnBuilder.appendNull();
+          for (ColumnBuilder columnBuilder : aggregationColumnBuilders[i]) {
+            columnBuilder.appendNull();
+          }
         } else {
-          aggregator.outputResult(new ColumnBuilder[] {columnBuilder});
+          aggregator.outputResult(aggregationColumnBuilders[i]);
         }
       }
       tsBlockBuilder.declarePosition();
@@ -183,6 +195,20 @@ public class TagAggregationOperator implements ProcessOperator {
     return true;
   }
 
+  /** Split the value column builders into the output columns of each aggregation. */
+  private ColumnBuilder[][] getAggregationColumnBuilders() {
+    ColumnBuilder[] columnBuilders = tsBlockBuilder.getValueColumnBuilders();
+    ColumnBuilder[][] aggregationColumnBuilders =
+        new ColumnBuilder[aggregationColumnCounts.length][];
+    int columnIdx = groupTagValues[0].length;
+    for (int i = 0; i < aggregationColumnCounts.length; i++) {
+      aggregationColumnBuilders[i] =
+          Arrays.copyOfRange(columnBuilders, columnIdx, columnIdx + aggregationColumnCounts[i]);
+      columnIdx += aggregationColumnCounts[i];
+    }
+    return aggregationColumnBuilders;
+  }
+
   @Override
   public boolean hasNext() {
     for (int i = 0; i < children.size(); i++) {
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process;
+
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import static com.google.common.util.concurrent.Futures.successfulAsList;
+
+/**
+ * Returns the first topValue rows of all the children in the order of the comparator. The rows
+ * kept so far are held in a bounded heap whose top is the last of them, so a new row only enters
+ * the heap if it is ahead of the top. Children don't need to be sorted, and the result is only
+ * returned after all of them are consumed.
+ *
+ * <p>The kept rows reference the input TsBlocks they come from. To keep the memory proportional
+ * to topValue instead of to the input, they are copied into a compact TsBlock once too many input
+ * TsBlocks are referenced.
+ */
+public class TopKOperator implements ProcessOperator {
+
+  /** How many input TsBlocks the kept rows can reference before they are compacted. */
+  private static final int MAX_REFERENCED_TSBLOCK_NUM = 8;
+
+  private final OperatorContext operatorContext;
+  private final List<Operator> inputOperators;
+  private final List<TSDataType> dataTypes;
+  private final TsBlockBuilder tsBlockBuilder;
+  private final int inputOperatorsCount;
+  private final boolean[] noMoreTsBlocks;
+  private final int topValue;
+  private final Comparator<MergeSortKey> comparator;
+
+  /** The top of the heap is the last of the kept rows. */
+  private final PriorityQueue<MergeSortKey> topKHeap;
+
+  private int referencedTsBlockNum = 0;
+
+  private MergeSortKey[] sortedResult;
+  private int resultIndex = 0;
+
+  public TopKOperator(
+      OperatorContext operatorContext,
+      List<Operator> inputOperators,
+      List<TSDataType> dataTypes,
+      Comparator<MergeSortKey> comparator,
+      int topValue) {
+    this.operatorContext = operatorContext;
+    this.inputOperators = inputOperators;
+    this.dataTypes = dataTypes;
+    this.inputOperatorsCount = inputOperators.size();
+    this.noMoreTsBlocks = new boolean[inputOperatorsCount];
+    this.tsBlockBuilder = new TsBlockBuilder(dataTypes);
+    this.topValue = topValue;
+    this.comparator = comparator;
+    this.topKHeap = new PriorityQueue<>(Math.max(1, topValue), comparator.reversed());
+  }
+
+  @Override
+  public OperatorContext getOperatorContext() {
+    return operatorContext;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    List<ListenableFuture<?>> listenableFutures = new ArrayList<>();
+    for (int i = 0; i < inputOperatorsCount; i++) {
+      if (!noMoreTsBlocks[i]) {
+        ListenableFuture<?> blocked = inputOperators.get(i).isBlocked();
+        if (!blocked.isDone()) {
+          listenableFutures.add(blocked);
+        } else {
+          // any child that can make progress is enough
+          return NOT_BLOCKED;
+        }
+      }
+    }
+    return listenableFutures.isEmpty() ? NOT_BLOCKED : successfulAsList(listenableFutures);
+  }
+
+  @Override
+  public TsBlock next() {
+    if (sortedResult == null) {
+      for (int i = 0; i < inputOperatorsCount; i++) {
+        if (noMoreTsBlocks[i] || !inputOperators.get(i).isBlocked().isDone()) {
+          continue;
+        }
+        if (!inputOperators.get(i).hasNextWithTimer()) {
+          noMoreTsBlocks[i] = true;
+          continue;
+        }
+        TsBlock tsBlock = inputOperators.get(i).nextWithTimer();
+        if (tsBlock != null && !tsBlock.isEmpty()) {
+          processTsBlock(tsBlock);
+        }
+      }
+      if (!allInputConsumed()) {
+        return null;
+      }
+      buildSortedResult();
+    }
+    return buildResultTsBlock();
+  }
+
+  private void processTsBlock(TsBlock tsBlock) {
+    if (topValue <= 0) {
+      return;
+    }
+    boolean referenced = false;
+    MergeSortKey candidate = new MergeSortKey(tsBlock, 0);
+    for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+      candidate.rowIndex = i;
+      if (topKHeap.size() < topValue) {
+        topKHeap.add(candidate);
+        candidate = new MergeSortKey(tsBlock, 0);
+        referenced = true;
+      } else if (comparator.compare(candidate, topKHeap.peek()) < 0) {
+        // reuse the evicted key for the next candidate
+        MergeSortKey evicted = topKHeap.poll();
+        topKHeap.add(candidate);
+        candidate = evicted;
+        candidate.tsBlock = tsBlock;
+        referenced = true;
+      }
+    }
+    if (referenced && ++referencedTsBlockNum > MAX_REFERENCED_TSBLOCK_NUM) {
+      compactTopKHeap();
+    }
+  }
+
+  /** Copy the kept rows into one TsBlock, so that the input TsBlocks can be released. */
+  private void compactTopKHeap() {
+    tsBlockBuilder.reset();
+    for (MergeSortKey mergeSortKey : topKHeap) {
+      appendRow(mergeSortKey);
+    }
+    TsBlock compacted = tsBlockBuilder.build();
+    // the order of the rows doesn't change, so the keys can be updated in place
+    int row = 0;
+    for (MergeSortKey mergeSortKey : topKHeap) {
+      mergeSortKey.tsBlock = compacted;
+      mergeSortKey.rowIndex = row++;
+    }
+    referencedTsBlockNum = 1;
+  }
+
+  private boolean allInputConsumed() {
+    for (int i = 0; i < inputOperatorsCount; i++) {
+      if (!noMoreTsBlocks[i]) {
+        if (inputOperators.get(i).isBlocked().isDone()
+            && !inputOperators.get(i).hasNextWithTimer()) {
+          noMoreTsBlocks[i] = true;
+        } else {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private void buildSortedResult() {
+    sortedResult = new MergeSortKey[topKHeap.size()];
+    for (int i = sortedResult.length - 1; i >= 0; i--) {
+      sortedResult[i] = topKHeap.poll();
+    }
+  }
+
+  private TsBlock buildResultTsBlock() {
+    if (resultIndex >= sortedResult.length) {
+      return null;
+    }
+    tsBlockBuilder.reset();
+    while (resultIndex < sortedResult.length && !tsBlockBuilder.isFull()) {
+      appendRow(sortedResult[resultIndex]);
+      // release the reference as soon as the row is returned
+      sortedResult[resultIndex++] = null;
+    }
+    return tsBlockBuilder.build();
+  }
+
+  private void appendRow(MergeSortKey mergeSortKey) {
+    TimeColumnBuilder timeColumnBuilder = tsBlockBuilder.getTimeColumnBuilder();
+    ColumnBuilder[] valueColumnBuilders = tsBlockBuilder.getValueColumnBuilders();
+    TsBlock tsBlock = mergeSortKey.tsBlock;
+    int row = mergeSortKey.rowIndex;
+    timeColumnBuilder.writeLong(tsBlock.getTimeByIndex(row));
+    for (int i = 0; i < valueColumnBuilders.length; i++) {
+      valueColumnBuilders[i].write(tsBlock.getColumn(i), row);
+    }
+    tsBlockBuilder.declarePosition();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return sortedResult == null || resultIndex < sortedResult.length;
+  }
+
+  @Override
+  public void close() throws Exception {
+    for (Operator operator : inputOperators) {
+      operator.close();
+    }
+  }
+
+  @Override
+  public boolean isFinished() {
+    return !hasNext();
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    // the kept rows are held in at most MAX_REFERENCED_TSBLOCK_NUM TsBlocks of the children and
+    // one compacted TsBlock
+    long maxPeekMemory = calculateMaxReturnSize() + calculateRetainedSizeAfterCallingNext();
+    for (Operator operator : inputOperators) {
+      maxPeekMemory += operator.calculateMaxReturnSize();
+    }
+    for (Operator operator : inputOperators) {
+      maxPeekMemory = Math.max(maxPeekMemory, operator.calculateMaxPeekMemory());
+    }
+    return maxPeekMemory;
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return (1L + dataTypes.size()) * TSFileDescriptor.getInstance().getConfig().getPageSizeInByte();
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    long maxChildReturnSize = 0;
+    for (Operator child : inputOperators) {
+      maxChildReturnSize = Math.max(maxChildReturnSize, child.calculateMaxReturnSize());
+    }
+    return MAX_REFERENCED_TSBLOCK_NUM * maxChildReturnSize + calculateMaxReturnSize();
+  }
+}
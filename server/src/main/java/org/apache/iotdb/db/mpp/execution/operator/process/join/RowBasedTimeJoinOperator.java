@@ -24,11 +24,15 @@ import org.apache.iotdb.db.mpp.execution.operator.process.AbstractProcessOperato
 import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.ColumnMerger;
 import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.TimeComparator;
 import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
-import org.apache.iotdb.db.utils.datastructure.TimeSelector;
+import org.apache.iotdb.db.utils.datastructure.TimeLoserTree;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.NullColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 
 import com.google.common.util.concurrent.ListenableFuture;
@@ -61,7 +65,11 @@ public class RowBasedTimeJoinOperator extends AbstractProcessOperator {
    */
   private final boolean[] noMoreTsBlocks;
 
-  private final TimeSelector timeSelector;
+  /** current time of each input, only valid while loserTreeOutdated is false */
+  private final TimeLoserTree loserTree;
+
+  /** whether the inputs have been refilled since the loser tree was built */
+  private boolean loserTreeOutdated = true;
 
   private final int outputColumnCount;
 
@@ -96,7 +104,7 @@ public class RowBasedTimeJoinOperator extends AbstractProcessOperator {
     this.inputIndex = new int[this.inputOperatorsCount];
     this.shadowInputIndex = new int[this.inputOperatorsCount];
     this.noMoreTsBlocks = new boolean[this.inputOperatorsCount];
-    this.timeSelector = new TimeSelector(this.inputOperatorsCount << 1, Ordering.ASC == mergeOrder);
+    this.loserTree = new TimeLoserTree(this.inputOperatorsCount, Ordering.ASC == mergeOrder);
     this.outputColumnCount = dataTypes.size();
     this.dataTypes = dataTypes;
     this.tsBlockBuilder = new TsBlockBuilder(dataTypes);
@@ -134,16 +142,16 @@ public class RowBasedTimeJoinOperator extends AbstractProcessOperator {
     long currentEndTime = 0;
     boolean init = false;
 
-    // get TsBlock for each input, put their time stamp into TimeSelector and then use the min Time
-    // among all the input TsBlock as the current output TsBlock's endTime.
+    // get TsBlock for each input, put their current time into the loser tree and then use the min
+    // end time among all the input TsBlock as the current output TsBlock's endTime.
     for (int i = 0; i < inputOperatorsCount; i++) {
       if (!noMoreTsBlocks[i] && empty(i)) {
         if (children.get(i).hasNextWithTimer()) {
           inputIndex[i] = 0;
+          shadowInputIndex[i] = 0;
           inputTsBlocks[i] = children.get(i).nextWithTimer();
-          if (!empty(i)) {
-            updateTimeSelector(i);
-          } else {
+          loserTreeOutdated = true;
+          if (empty(i)) {
             // child operator has next but return an empty TsBlock which means that it may not
             // finish calculation in given time slice.
             // In such case, TimeJoinOperator can't go on calculating, so we just return null.
@@ -168,42 +176,153 @@ public class RowBasedTimeJoinOperator extends AbstractProcessOperator {
       }
     }
 
-    if (timeSelector.isEmpty()) {
+    if (loserTreeOutdated) {
+      rebuildLoserTree();
+    }
+    if (loserTree.isEmpty()) {
       // return empty TsBlock
       TsBlockBuilder tsBlockBuilder = new TsBlockBuilder(0, dataTypes);
       return tsBlockBuilder.build();
     }
 
-    TimeColumnBuilder timeBuilder = tsBlockBuilder.getTimeColumnBuilder();
-    long currentTime;
-    do {
-      currentTime = timeSelector.pollFirst();
-      timeBuilder.writeLong(currentTime);
-      for (int i = 0; i < outputColumnCount; i++) {
-        ColumnMerger merger = mergers.get(i);
-        merger.mergeColumn(
-            inputTsBlocks,
-            inputIndex,
-            shadowInputIndex,
-            currentTime,
-            tsBlockBuilder.getColumnBuilder(i));
-      }
+    int runnerUp = loserTree.getRunnerUp();
+    if (runnerUp == -1
+        || !comparator.satisfyCurEndTime(loserTree.getTime(runnerUp), currentEndTime)) {
+      // the rest of the winner's TsBlock doesn't overlap with any other input, so it can be
+      // returned without being copied. It is no larger than the child's TsBlock except for null
+      // columns, which are run-length encoded, so its size isn't checked again.
+      return wrapRestOfTsBlock(loserTree.getWinner());
+    }
 
-      for (int i = 0; i < inputOperatorsCount; i++) {
-        if (inputIndex[i] != shadowInputIndex[i]) {
-          inputIndex[i] = shadowInputIndex[i];
-          if (!empty(i)) {
-            updateTimeSelector(i);
-          }
-        }
+    while (!loserTree.isEmpty()
+        && comparator.satisfyCurEndTime(loserTree.getWinnerTime(), currentEndTime)) {
+      runnerUp = loserTree.getRunnerUp();
+      if (runnerUp == -1 || loserTree.getTime(runnerUp) != loserTree.getWinnerTime()) {
+        appendRun(loserTree.getWinner(), runnerUp, currentEndTime);
+      } else {
+        appendRowOfSameTime(loserTree.getWinnerTime());
       }
-      tsBlockBuilder.declarePosition();
-    } while (currentTime < currentEndTime && !timeSelector.isEmpty());
+    }
 
     resultTsBlock = tsBlockBuilder.build();
     return checkTsBlockSizeAndGetResult();
   }
 
+  private void rebuildLoserTree() {
+    for (int i = 0; i < inputOperatorsCount; i++) {
+      if (empty(i)) {
+        loserTree.clearTime(i);
+      } else {
+        loserTree.setTime(i, inputTsBlocks[i].getTimeByIndex(inputIndex[i]));
+      }
+    }
+    loserTree.rebuild();
+    loserTreeOutdated = false;
+  }
+
+  /** Wrap the rest rows of the TsBlock at tsBlockIndex, whose value columns are merged as is. */
+  private TsBlock wrapRestOfTsBlock(int tsBlockIndex) {
+    TsBlock tsBlock = inputTsBlocks[tsBlockIndex];
+    int positionCount = tsBlock.getPositionCount() - inputIndex[tsBlockIndex];
+    TsBlock rest = tsBlock.getRegion(inputIndex[tsBlockIndex], positionCount);
+    Column[] valueColumns = new Column[outputColumnCount];
+    for (int i = 0; i < outputColumnCount; i++) {
+      int valueColumnIndex = mergers.get(i).getValueColumnIndex(tsBlockIndex);
+      valueColumns[i] =
+          valueColumnIndex == -1
+              ? NullColumn.create(dataTypes.get(i), positionCount)
+              : rest.getColumn(valueColumnIndex);
+    }
+    inputIndex[tsBlockIndex] = tsBlock.getPositionCount();
+    shadowInputIndex[tsBlockIndex] = tsBlock.getPositionCount();
+    loserTree.removeWinner();
+    return new TsBlock(positionCount, rest.getTimeColumn(), valueColumns);
+  }
+
+  /**
+   * Append the rows of the winner input that are strictly ahead of the runner-up input and satisfy
+   * currentEndTime. No other input has rows at these times, so they are copied column by column.
+   */
+  private void appendRun(int winner, int runnerUp, long currentEndTime) {
+    TsBlock tsBlock = inputTsBlocks[winner];
+    TimeColumn timeColumn = tsBlock.getTimeColumn();
+    long[] times = timeColumn.getTimes();
+    int arrayOffset = timeColumn.getArrayOffset();
+    int positionCount = tsBlock.getPositionCount();
+    int start = inputIndex[winner];
+    int end = start + 1;
+    if (runnerUp == -1) {
+      while (end < positionCount
+          && comparator.satisfyCurEndTime(times[end + arrayOffset], currentEndTime)) {
+        end++;
+      }
+    } else {
+      long runnerUpTime = loserTree.getTime(runnerUp);
+      while (end < positionCount
+          && times[end + arrayOffset] != runnerUpTime
+          && comparator.satisfyCurEndTime(times[end + arrayOffset], runnerUpTime)
+          && comparator.satisfyCurEndTime(times[end + arrayOffset], currentEndTime)) {
+        end++;
+      }
+    }
+
+    TimeColumnBuilder timeBuilder = tsBlockBuilder.getTimeColumnBuilder();
+    for (int row = start; row < end; row++) {
+      timeBuilder.writeLong(times[row + arrayOffset]);
+    }
+    for (int i = 0; i < outputColumnCount; i++) {
+      ColumnBuilder columnBuilder = tsBlockBuilder.getColumnBuilder(i);
+      int valueColumnIndex = mergers.get(i).getValueColumnIndex(winner);
+      if (valueColumnIndex == -1) {
+        columnBuilder.appendNull(end - start);
+        continue;
+      }
+      Column valueColumn = tsBlock.getColumn(valueColumnIndex);
+      for (int row = start; row < end; row++) {
+        if (valueColumn.isNull(row)) {
+          columnBuilder.appendNull();
+        } else {
+          columnBuilder.write(valueColumn, row);
+        }
+      }
+    }
+    tsBlockBuilder.declarePositions(end - start);
+
+    inputIndex[winner] = end;
+    shadowInputIndex[winner] = end;
+    if (end == positionCount) {
+      loserTree.removeWinner();
+    } else {
+      loserTree.replaceWinnerTime(times[end + arrayOffset]);
+    }
+  }
+
+  /** Append one row merged from all the inputs whose current time is currentTime. */
+  private void appendRowOfSameTime(long currentTime) {
+    tsBlockBuilder.getTimeColumnBuilder().writeLong(currentTime);
+    for (int i = 0; i < outputColumnCount; i++) {
+      ColumnMerger merger = mergers.get(i);
+      merger.mergeColumn(
+          inputTsBlocks,
+          inputIndex,
+          shadowInputIndex,
+          currentTime,
+          tsBlockBuilder.getColumnBuilder(i));
+    }
+    System.arraycopy(shadowInputIndex, 0, inputIndex, 0, inputOperatorsCount);
+    tsBlockBuilder.declarePosition();
+
+    // every input at currentTime has been moved forward by the mergers
+    while (!loserTree.isEmpty() && loserTree.getWinnerTime() == currentTime) {
+      int winner = loserTree.getWinner();
+      if (empty(winner)) {
+        loserTree.removeWinner();
+      } else {
+        loserTree.replaceWinnerTime(inputTsBlocks[winner].getTimeByIndex(inputIndex[winner]));
+      }
+    }
+  }
+
   @Override
   public boolean hasNext() {
     if (finished) {
@@ -286,10 +405,6 @@ public class RowBasedTimeJoinOperator extends AbstractProcessOperator {
     return currentRetainedSize - minChildReturnSize;
   }
 
-  private void updateTimeSelector(int index) {
-    timeSelector.add(inputTsBlocks[index].getTimeByIndex(inputIndex[index]));
-  }
-
   /**
    * If the tsBlock of columnIndex is null or has no more data in the tsBlock, return true; else
    * return false;
@@ -18,10 +18,13 @@
  */
 package org.apache.iotdb.db.mpp.execution.operator.process.join.merge;
 
+import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.InputLocation;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.TimeColumnBuilder;
 
+import java.util.List;
+
 /** used to merge columns belonging to same series into one column */
 public interface ColumnMerger {
 
@@ -37,6 +40,26 @@ public interface ColumnMerger {
         || inputTsBlocks[tsBlockIndex].getPositionCount() == inputIndex[tsBlockIndex];
   }
 
+  /**
+   * @param tsBlockIndex index of an input TsBlock
+   * @param inputLocations locations of the columns merged into one column
+   * @return index of the value column read from the TsBlock at tsBlockIndex, or -1 if none is read
+   */
+  static int getValueColumnIndex(int tsBlockIndex, List<InputLocation> inputLocations) {
+    for (InputLocation location : inputLocations) {
+      if (location.getTsBlockIndex() == tsBlockIndex) {
+        return location.getValueColumnIndex();
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return index of the value column this merger reads from the input TsBlock at tsBlockIndex, or
+   *     -1 if this merger doesn't read that TsBlock
+   */
+  int getValueColumnIndex(int tsBlockIndex);
+
   /**
    * merge columns belonging to same series into one column, merge until each input column's time is
    * larger than currentEndTime
@@ -36,6 +36,11 @@ public class MultiColumnMerger implements ColumnMerger {
     this.inputLocations = inputLocations;
   }
 
+  @Override
+  public int getValueColumnIndex(int tsBlockIndex) {
+    return ColumnMerger.getValueColumnIndex(tsBlockIndex, inputLocations);
+  }
+
   @Override
   public void mergeColumn(
       TsBlock[] inputTsBlocks,
@@ -49,6 +49,11 @@ public class NonOverlappedMultiColumnMerger implements ColumnMerger {
     this.index = 0;
   }
 
+  @Override
+  public int getValueColumnIndex(int tsBlockIndex) {
+    return ColumnMerger.getValueColumnIndex(tsBlockIndex, inputLocations);
+  }
+
   @Override
   public void mergeColumn(
       TsBlock[] inputTsBlocks,
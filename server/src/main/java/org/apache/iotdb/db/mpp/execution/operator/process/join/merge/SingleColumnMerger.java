@@ -37,6 +37,11 @@ public class SingleColumnMerger implements ColumnMerger {
     this.comparator = comparator;
   }
 
+  @Override
+  public int getValueColumnIndex(int tsBlockIndex) {
+    return location.getTsBlockIndex() == tsBlockIndex ? location.getValueColumnIndex() : -1;
+  }
+
   @Override
   public void mergeColumn(
       TsBlock[] inputTsBlocks,
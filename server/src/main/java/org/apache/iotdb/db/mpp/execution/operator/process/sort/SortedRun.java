@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process.sort;
+
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+
+import java.io.IOException;
+
+/** A run of rows that are already sorted, consumed one row at a time during the final merge. */
+public interface SortedRun extends AutoCloseable {
+
+  /** @return the current row of this run, or null if the run has been exhausted */
+  MergeSortKey current();
+
+  /** Move to the next row. The key returned by {@link #current()} may be reused. */
+  void advance() throws IOException;
+
+  @Override
+  void close() throws IOException;
+}
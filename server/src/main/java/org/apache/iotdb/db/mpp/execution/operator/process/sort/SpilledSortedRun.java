@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process.sort;
+
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * A sorted run that has been spilled to a local temporary file. The file is a sequence of
+ * serialized {@link TsBlock}s, each prefixed with its length:
+ *
+ * <pre>
+ * +--------+-----------------+--------+-----------------+-----
+ * | int32  | TsBlock bytes   | int32  | TsBlock bytes   | ...
+ * +--------+-----------------+--------+-----------------+-----
+ * </pre>
+ *
+ * Only one TsBlock of the run is held in memory while it is merged.
+ */
+public class SpilledSortedRun implements SortedRun {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SpilledSortedRun.class);
+
+  private final File file;
+  private final int blockCount;
+  private final TsBlockSerde serde;
+
+  private DataInputStream inputStream;
+  private int readBlockCount;
+  private MergeSortKey currentKey;
+
+  private SpilledSortedRun(File file, int blockCount, TsBlockSerde serde) {
+    this.file = file;
+    this.blockCount = blockCount;
+    this.serde = serde;
+  }
+
+  @Override
+  public MergeSortKey current() {
+    return currentKey;
+  }
+
+  /** Open the file and load the first TsBlock of the run. */
+  public void open() throws IOException {
+    inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())));
+    currentKey = new MergeSortKey(null, 0);
+    loadNextBlock();
+  }
+
+  @Override
+  public void advance() throws IOException {
+    if (currentKey == null) {
+      return;
+    }
+    currentKey.rowIndex++;
+    if (currentKey.rowIndex >= currentKey.tsBlock.getPositionCount()) {
+      loadNextBlock();
+    }
+  }
+
+  private void loadNextBlock() throws IOException {
+    while (readBlockCount < blockCount) {
+      byte[] bytes = new byte[inputStream.readInt()];
+      inputStream.readFully(bytes);
+      readBlockCount++;
+      TsBlock tsBlock = serde.deserialize(ByteBuffer.wrap(bytes));
+      if (!tsBlock.isEmpty()) {
+        currentKey.tsBlock = tsBlock;
+        currentKey.rowIndex = 0;
+        return;
+      }
+    }
+    currentKey = null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    currentKey = null;
+    try {
+      if (inputStream != null) {
+        inputStream.close();
+      }
+    } finally {
+      if (!file.delete() && file.exists()) {
+        LOGGER.warn("Failed to delete spilled sort file {}", file);
+      }
+    }
+  }
+
+  /** Writes the TsBlocks of one sorted run into a spill file in order. */
+  public static class Writer {
+
+    private final File file;
+    private final TsBlockSerde serde;
+    private final DataOutputStream outputStream;
+    private int blockCount;
+
+    public Writer(File file, TsBlockSerde serde) throws IOException {
+      this.file = file;
+      this.serde = serde;
+      this.outputStream =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath())));
+    }
+
+    public void write(TsBlock tsBlock) throws IOException {
+      ByteBuffer buffer = serde.serialize(tsBlock);
+      outputStream.writeInt(buffer.remaining());
+      outputStream.write(buffer.array(), buffer.arrayOffset(), buffer.remaining());
+      blockCount++;
+    }
+
+    /** Flush and close the file, the returned run must be opened before it is read. */
+    public SpilledSortedRun finish() throws IOException {
+      outputStream.close();
+      return new SpilledSortedRun(file, blockCount, serde);
+    }
+
+    /** Close and remove a partially written file. */
+    public void abort() {
+      try {
+        outputStream.close();
+      } catch (IOException e) {
+        LOGGER.warn("Failed to close spilled sort file {}", file, e);
+      }
+      if (!file.delete() && file.exists()) {
+        LOGGER.warn("Failed to delete spilled sort file {}", file);
+      }
+    }
+  }
+}
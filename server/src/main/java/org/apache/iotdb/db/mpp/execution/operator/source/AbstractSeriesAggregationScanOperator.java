@@ -22,6 +22,7 @@ package org.apache.iotdb.db.mpp.execution.operator.source;
 import org.apache.iotdb.db.mpp.aggregation.Aggregator;
 import org.apache.iotdb.db.mpp.aggregation.timerangeiterator.ITimeRangeIterator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.execution.operator.window.TimeWindow;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.GroupByTimeParameter;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
@@ -54,6 +55,9 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
   protected final ITimeRangeIterator timeRangeIterator;
   // current interval of aggregation window [curStartTime, curEndTime)
   protected TimeRange curTimeRange;
+  // window of curTimeRange shared by all the aggregators, so that the points of an input tsBlock
+  // belonging to it are only searched once
+  private final TimeWindow curWindow = new TimeWindow();
 
   // We still think aggregator in SeriesAggregateScanOperator is a inputRaw step.
   // But in facing of statistics, it will invoke another method processStatistics()
@@ -82,6 +86,7 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
     this.ascending = ascending;
     this.isGroupByQuery = groupByTimeParameter != null;
     this.seriesScanUtil = seriesScanUtil;
+    this.seriesScanUtil.setOperatorContext(context);
     this.subSensorSize = subSensorSize;
     this.aggregators = aggregators;
     this.timeRangeIterator = timeRangeIterator;
@@ -130,8 +135,9 @@ public abstract class AbstractSeriesAggregationScanOperator extends AbstractData
       curTimeRange = timeRangeIterator.nextTimeRange();
 
       // clear previous aggregation result
+      curWindow.update(curTimeRange);
       for (Aggregator aggregator : aggregators) {
-        aggregator.updateTimeRange(curTimeRange);
+        aggregator.updateWindow(curWindow);
       }
 
       // calculate aggregation result on current time window
@@ -38,6 +38,7 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
 
   private final TsBlockBuilder builder;
   private final int valueColumnCount;
+  private final PaginationController paginationController;
   private boolean finished = false;
 
   public AlignedSeriesScanOperator(
@@ -47,6 +48,18 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
       Filter timeFilter,
       Filter valueFilter,
       boolean ascending) {
+    this(sourceId, seriesPath, context, timeFilter, valueFilter, ascending, 0, 0);
+  }
+
+  public AlignedSeriesScanOperator(
+      PlanNodeId sourceId,
+      AlignedPath seriesPath,
+      OperatorContext context,
+      Filter timeFilter,
+      Filter valueFilter,
+      boolean ascending,
+      int limit,
+      int offset) {
     this.sourceId = sourceId;
     this.operatorContext = context;
     this.seriesScanUtil =
@@ -57,9 +70,11 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
             timeFilter,
             valueFilter,
             ascending);
+    this.seriesScanUtil.setOperatorContext(context);
     // time + all value columns
     this.builder = new TsBlockBuilder(seriesScanUtil.getTsDataTypeList());
     this.valueColumnCount = seriesPath.getColumnNum();
+    this.paginationController = new PaginationController(limit, offset);
     this.maxReturnSize =
         Math.min(
             maxReturnSize,
@@ -90,6 +105,11 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
 
       // here use do-while to promise doing this at least once
       do {
+        // enough rows have been read for the pushed down limit
+        if (!paginationController.hasCurLimit()) {
+          break;
+        }
+
         /*
          * consume page data firstly
          */
@@ -164,7 +184,7 @@ public class AlignedSeriesScanOperator extends AbstractDataSourceOperator {
 
   private boolean readPageData() throws IOException {
     while (seriesScanUtil.hasNextPage()) {
-      TsBlock tsBlock = seriesScanUtil.nextPage();
+      TsBlock tsBlock = paginationController.applyTsBlock(seriesScanUtil.nextPage());
       if (!isEmpty(tsBlock)) {
         appendToBuilder(tsBlock);
         return true;
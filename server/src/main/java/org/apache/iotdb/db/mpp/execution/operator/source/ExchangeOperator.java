@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static org.apache.iotdb.tsfile.read.common.block.TsBlockBuilderStatus.DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES;
 
 public class ExchangeOperator implements SourceOperator {
@@ -95,6 +96,11 @@ public class ExchangeOperator implements SourceOperator {
       isBlocked = sourceHandle.isBlocked();
       if (isBlocked.isDone()) {
         isBlocked = NOT_BLOCKED;
+      } else if (operatorContext.isStatisticsEnabled()) {
+        long blockedStartTime = System.nanoTime();
+        isBlocked.addListener(
+            () -> operatorContext.recordBlockedTime(System.nanoTime() - blockedStartTime),
+            directExecutor());
       }
     }
     return isBlocked;
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.source;
+
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+
+/**
+ * Apply the row limit and offset pushed down into a scan operator. The offset is consumed first,
+ * then at most limit rows are returned. A limit of 0 means no limit, which is consistent with
+ * {@link org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesScanNode}.
+ */
+public class PaginationController {
+
+  private final boolean hasLimit;
+  private long curLimit;
+  private long curOffset;
+
+  public PaginationController(long limit, long offset) {
+    this.hasLimit = limit > 0;
+    this.curLimit = limit;
+    this.curOffset = offset;
+  }
+
+  public boolean hasCurOffset() {
+    return curOffset > 0;
+  }
+
+  /** Return true if all the rows in a unit of the given size should be skipped. */
+  public boolean hasCurOffset(long rowCount) {
+    return curOffset >= rowCount;
+  }
+
+  public void consumeOffset(long rowCount) {
+    curOffset -= rowCount;
+  }
+
+  /** Return false if enough rows have been returned. */
+  public boolean hasCurLimit() {
+    return !hasLimit || curLimit > 0;
+  }
+
+  /** Cut the rows to skip and the rows beyond the limit off the tsBlock. */
+  public TsBlock applyTsBlock(TsBlock tsBlock) {
+    if (tsBlock == null || (curOffset == 0 && !hasLimit)) {
+      return tsBlock;
+    }
+    int positionCount = tsBlock.getPositionCount();
+    int startIndex = (int) Math.min(curOffset, positionCount);
+    curOffset -= startIndex;
+    int length = positionCount - startIndex;
+    if (hasLimit) {
+      length = (int) Math.min(length, curLimit);
+      curLimit -= length;
+    }
+    return startIndex == 0 && length == positionCount
+        ? tsBlock
+        : tsBlock.getRegion(startIndex, length);
+  }
+}
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.mpp.execution.operator.factory.SourceOperatorFactory;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
@@ -112,6 +113,10 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
   }
 
   private final TsBlockBuilder builder;
+  private final PaginationController paginationController;
+  /** row counts in statistics can be used to skip data for offset only without value filter */
+  private final boolean canSkipByStatistics;
+
   private boolean finished = false;
 
   public SeriesScanOperator(
@@ -123,6 +128,30 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
       Filter timeFilter,
       Filter valueFilter,
       boolean ascending) {
+    this(
+        context,
+        sourceId,
+        seriesPath,
+        allSensors,
+        dataType,
+        timeFilter,
+        valueFilter,
+        ascending,
+        0,
+        0);
+  }
+
+  public SeriesScanOperator(
+      OperatorContext context,
+      PlanNodeId sourceId,
+      PartialPath seriesPath,
+      Set<String> allSensors,
+      TSDataType dataType,
+      Filter timeFilter,
+      Filter valueFilter,
+      boolean ascending,
+      int limit,
+      int offset) {
     this.sourceId = sourceId;
     this.operatorContext = context;
     this.seriesScanUtil =
@@ -134,9 +163,12 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
             timeFilter,
             valueFilter,
             ascending);
+    this.seriesScanUtil.setOperatorContext(context);
     this.maxReturnSize =
         Math.min(maxReturnSize, TSFileDescriptor.getInstance().getConfig().getPageSizeInByte());
     this.builder = new TsBlockBuilder(seriesScanUtil.getTsDataTypeList());
+    this.paginationController = new PaginationController(limit, offset);
+    this.canSkipByStatistics = valueFilter == null;
   }
 
   @Override
@@ -162,6 +194,11 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
 
       // here use do-while to promise doing this at least once
       do {
+        // enough rows have been read for the pushed down limit
+        if (!paginationController.hasCurLimit()) {
+          break;
+        }
+
         /*
          * consume page data firstly
          */
@@ -216,6 +253,11 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
 
   private boolean readFileData() throws IOException {
     while (seriesScanUtil.hasNextFile()) {
+      if (canSkipCurrentFile()) {
+        paginationController.consumeOffset(seriesScanUtil.currentFileStatistics().getCount());
+        seriesScanUtil.skipCurrentFile();
+        continue;
+      }
       if (readChunkData()) {
         return true;
       }
@@ -225,6 +267,11 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
 
   private boolean readChunkData() throws IOException {
     while (seriesScanUtil.hasNextChunk()) {
+      if (canSkipCurrentChunk()) {
+        paginationController.consumeOffset(seriesScanUtil.currentChunkStatistics().getCount());
+        seriesScanUtil.skipCurrentChunk();
+        continue;
+      }
       if (readPageData()) {
         return true;
       }
@@ -234,7 +281,12 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
 
   private boolean readPageData() throws IOException {
     while (seriesScanUtil.hasNextPage()) {
-      TsBlock tsBlock = seriesScanUtil.nextPage();
+      if (canSkipCurrentPage()) {
+        paginationController.consumeOffset(seriesScanUtil.currentPageStatistics().getCount());
+        seriesScanUtil.skipCurrentPage();
+        continue;
+      }
+      TsBlock tsBlock = paginationController.applyTsBlock(seriesScanUtil.nextPage());
 
       if (!isEmpty(tsBlock)) {
         appendToBuilder(tsBlock);
@@ -269,6 +321,40 @@ public class SeriesScanOperator extends AbstractDataSourceOperator {
     }
   }
 
+  private boolean canSkipCurrentFile() throws IOException {
+    if (!canSkipByStatistics || !paginationController.hasCurOffset()) {
+      return false;
+    }
+    Statistics fileStatistics = seriesScanUtil.currentFileStatistics();
+    return paginationController.hasCurOffset(fileStatistics.getCount())
+        && !seriesScanUtil.isFileOverlapped()
+        && fileStatistics.containedByTimeFilter(seriesScanUtil.getTimeFilter())
+        && !seriesScanUtil.currentFileModified();
+  }
+
+  private boolean canSkipCurrentChunk() throws IOException {
+    if (!canSkipByStatistics || !paginationController.hasCurOffset()) {
+      return false;
+    }
+    Statistics chunkStatistics = seriesScanUtil.currentChunkStatistics();
+    return paginationController.hasCurOffset(chunkStatistics.getCount())
+        && !seriesScanUtil.isChunkOverlapped()
+        && chunkStatistics.containedByTimeFilter(seriesScanUtil.getTimeFilter())
+        && !seriesScanUtil.currentChunkModified();
+  }
+
+  private boolean canSkipCurrentPage() throws IOException {
+    if (!canSkipByStatistics || !paginationController.hasCurOffset()) {
+      return false;
+    }
+    Statistics pageStatistics = seriesScanUtil.currentPageStatistics();
+    return pageStatistics != null
+        && paginationController.hasCurOffset(pageStatistics.getCount())
+        && !seriesScanUtil.isPageOverlapped()
+        && pageStatistics.containedByTimeFilter(seriesScanUtil.getTimeFilter())
+        && !seriesScanUtil.currentPageModified();
+  }
+
   private boolean isEmpty(TsBlock tsBlock) {
     return tsBlock == null || tsBlock.isEmpty();
   }
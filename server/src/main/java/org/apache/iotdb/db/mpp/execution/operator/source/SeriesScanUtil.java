@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.db.metadata.idtable.IDTable;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
 import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
 import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.db.query.reader.chunk.MemAlignedPageReader;
@@ -69,6 +70,9 @@ public class SeriesScanUtil {
 
   private final QueryContext context;
 
+  // only set when the runtime statistics of the scan operator are collected
+  private OperatorContext operatorContext;
+
   // The path of the target series which will be scanned.
   private final PartialPath seriesPath;
   protected boolean isAligned = false;
@@ -168,6 +172,10 @@ public class SeriesScanUtil {
                 versionPageReader -> orderUtils.getOrderTime(versionPageReader.getStatistics())));
   }
 
+  public void setOperatorContext(OperatorContext operatorContext) {
+    this.operatorContext = operatorContext.isStatisticsEnabled() ? operatorContext : null;
+  }
+
   public void initQueryDataSource(QueryDataSource dataSource) {
     dataSource.fillOrderIndexes(seriesPath.getDevice(), orderUtils.getAscending());
     this.dataSource = dataSource;
@@ -398,6 +406,9 @@ public class SeriesScanUtil {
 
   void skipCurrentChunk() {
     firstChunkMetadata = null;
+    if (operatorContext != null) {
+      operatorContext.recordSkippedChunk();
+    }
   }
 
   /**
@@ -526,6 +537,9 @@ public class SeriesScanUtil {
   private void unpackOneChunkMetaData(IChunkMetadata chunkMetaData) throws IOException {
     List<IPageReader> pageReaderList =
         FileLoaderUtils.loadPageReaderList(chunkMetaData, timeFilter);
+    if (operatorContext != null) {
+      operatorContext.recordLoadedChunk(pageReaderList.size());
+    }
 
     // init TsBlockBuilder for each page reader
     pageReaderList.forEach(p -> p.initTsBlockBuilder(getTsDataTypeList()));
@@ -621,6 +635,9 @@ public class SeriesScanUtil {
 
   void skipCurrentPage() {
     firstPageReader = null;
+    if (operatorContext != null) {
+      operatorContext.recordSkippedPage();
+    }
   }
 
   /** This method should only be used when the method isPageOverlapped() return true. */
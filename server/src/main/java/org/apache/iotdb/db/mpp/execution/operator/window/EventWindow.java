@@ -53,6 +53,12 @@ public abstract class EventWindow implements IWindow {
     return false;
   }
 
+  @Override
+  public int getSatisfiedPrefixLength(Column column) {
+    // event windows update their status in mergeOnePoint, so points must be merged one by one
+    return -1;
+  }
+
   public abstract void updatePreviousEventValue();
 
   public long getStartTime() {
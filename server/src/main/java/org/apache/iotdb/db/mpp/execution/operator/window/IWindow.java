@@ -63,4 +63,14 @@ public interface IWindow {
    * @return
    */
   boolean contains(Column column);
+
+  /**
+   * Used to get the number of leading points of the control column that belong to this window, so
+   * that accumulators can consume them in a tight loop instead of judging them one by one.
+   *
+   * @param column the control column
+   * @return the number of leading points belonging to this window, or -1 if points must be judged
+   *     and merged one by one via {@link #satisfy} and {@link #mergeOnePoint}
+   */
+  int getSatisfiedPrefixLength(Column column);
 }
@@ -29,6 +29,11 @@ public class TimeWindow implements IWindow {
 
   private TimeRange curTimeRange;
 
+  // cache of getSatisfiedPrefixLength(), since all the aggregators of a window ask for the same
+  // control column
+  private Column lastControlColumn;
+  private int lastSatisfiedPrefixLength;
+
   public TimeWindow() {}
 
   public TimeWindow(TimeRange curTimeRange) {
@@ -78,7 +83,41 @@ public class TimeWindow implements IWindow {
     return curTimeRange.contains(minTime, maxTime);
   }
 
+  @Override
+  public int getSatisfiedPrefixLength(Column column) {
+    if (column != lastControlColumn) {
+      lastSatisfiedPrefixLength = searchSatisfiedPrefixLength((TimeColumn) column);
+      lastControlColumn = column;
+    }
+    return lastSatisfiedPrefixLength;
+  }
+
+  private int searchSatisfiedPrefixLength(TimeColumn timeColumn) {
+    int positionCount = timeColumn.getPositionCount();
+    if (positionCount == 0 || !satisfy(timeColumn, 0)) {
+      return 0;
+    }
+    if (contains(timeColumn)) {
+      return positionCount;
+    }
+    // time column is ordered and its first point is in current window, so the points belonging to
+    // current window are a prefix of it and the first point out of window can be binary searched
+    int left = 1;
+    int right = positionCount - 1;
+    while (left <= right) {
+      int mid = (left + right) >>> 1;
+      long time = timeColumn.getLongWithoutCheck(mid);
+      if (time <= getCurMaxTime() && time >= getCurMinTime()) {
+        left = mid + 1;
+      } else {
+        right = mid - 1;
+      }
+    }
+    return left;
+  }
+
   public void update(TimeRange curTimeRange) {
     this.curTimeRange = curTimeRange;
+    this.lastControlColumn = null;
   }
 }
@@ -30,7 +30,7 @@ import org.apache.iotdb.db.mpp.execution.exchange.IMPPDataExchangeManager;
 import org.apache.iotdb.db.mpp.execution.exchange.MPPDataExchangeService;
 import org.apache.iotdb.db.mpp.execution.schedule.queue.IndexedBlockingQueue;
 import org.apache.iotdb.db.mpp.execution.schedule.queue.L1PriorityQueue;
-import org.apache.iotdb.db.mpp.execution.schedule.queue.L2PriorityQueue;
+import org.apache.iotdb.db.mpp.execution.schedule.queue.WorkStealingPriorityQueue;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTask;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskId;
 import org.apache.iotdb.db.mpp.execution.schedule.task.DriverTaskStatus;
@@ -82,12 +82,15 @@ public class DriverScheduler implements IDriverScheduler, IService {
 
   private DriverScheduler() {
     this.readyQueue =
-        new L2PriorityQueue<>(
-            MAX_CAPACITY, new DriverTask.SchedulePriorityComparator(), new DriverTask());
+        new WorkStealingPriorityQueue<>(
+            MAX_CAPACITY,
+            WORKER_THREAD_NUM,
+            new DriverTask.SchedulePriorityComparator(),
+            new DriverTask());
     this.timeoutQueue =
         new L1PriorityQueue<>(MAX_CAPACITY, new DriverTask.TimeoutComparator(), new DriverTask());
     this.queryMap = new ConcurrentHashMap<>();
-    this.blockedTasks = Collections.synchronizedSet(new HashSet<>());
+    this.blockedTasks = ConcurrentHashMap.newKeySet();
     this.scheduler = new Scheduler();
     this.workerGroups = new ThreadGroup("ScheduleThreads");
     this.threads = new ArrayList<>();
@@ -336,21 +339,17 @@ public class DriverScheduler implements IDriverScheduler, IService {
   private class Scheduler implements ITaskScheduler {
     @Override
     public void blockedToReady(DriverTask task) {
-      task.lock();
-      try {
-        if (task.getStatus() != DriverTaskStatus.BLOCKED) {
-          return;
-        }
-
-        task.setStatus(DriverTaskStatus.READY);
-        QUERY_METRICS.recordTaskQueueTime(
-            BLOCK_QUEUED_TIME, System.nanoTime() - task.getLastEnterBlockQueueTime());
-        task.setLastEnterReadyQueueTime(System.nanoTime());
-        readyQueue.push(task);
-        blockedTasks.remove(task);
-      } finally {
-        task.unlock();
+      // This is called by the listeners of blocked futures for every blocked task, so it doesn't
+      // take the lock of the task. If the task is aborted concurrently, it may still be pushed into
+      // the ready queue, and it will be dropped by readyToRunning() later.
+      if (!task.compareAndSetStatus(DriverTaskStatus.BLOCKED, DriverTaskStatus.READY)) {
+        return;
       }
+      QUERY_METRICS.recordTaskQueueTime(
+          BLOCK_QUEUED_TIME, System.nanoTime() - task.getLastEnterBlockQueueTime());
+      task.setLastEnterReadyQueueTime(System.nanoTime());
+      blockedTasks.remove(task);
+      readyQueue.push(task);
     }
 
     @Override
@@ -0,0 +1,350 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule.queue;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A subclass of {@link IndexedBlockingQueue} which spreads the elements among several local queues
+ * instead of guarding all of them by one monitor.
+ *
+ * <p>Each thread polling from this queue is bound to one local queue. It polls from its own local
+ * queue first, and steals from the other local queues when its own one is empty. Every {@link
+ * #STEAL_INTERVAL} polls it also looks at the other local queues first, so that elements in a busy
+ * local queue are not delayed too long. An element pushed by a polling thread goes to its own local
+ * queue, otherwise the local queues are chosen in turn.
+ *
+ * <p>Every local queue keeps the 2-level priority groups of {@link L2PriorityQueue}, so an element
+ * will not be starved by its low order.
+ *
+ * <p>The time complexity of operations are:
+ *
+ * <ul>
+ *   <li><b>{@link #remove(ID)}: </b> O(logN).
+ *   <li><b>{@link #push(IDIndexedAccessible)}: </b> O(logN).
+ *   <li><b>{@link #poll()}: </b> O(logN) if the local queue is not empty.
+ *   <li><b>{@link #get(ID)}: </b> O(1).
+ * </ul>
+ */
+public class WorkStealingPriorityQueue<E extends IDIndexedAccessible>
+    extends IndexedBlockingQueue<E> {
+
+  private static final int STEAL_INTERVAL = 32;
+
+  private final int maxCapacity;
+  private final LocalQueue[] localQueues;
+  // the local queue each element is in
+  private final Map<ID, LocalQueue> owners = new ConcurrentHashMap<>();
+  // may be a bit larger than the real size while an element is being pushed or polled
+  private final AtomicInteger size = new AtomicInteger(0);
+
+  private final AtomicInteger nextPushQueue = new AtomicInteger(0);
+  private final AtomicInteger nextWorkerIndex = new AtomicInteger(0);
+  // left is the index of the local queue, right is the count of polls
+  private final ThreadLocal<int[]> workerState = new ThreadLocal<>();
+
+  private final Object idleMonitor = new Object();
+  private final AtomicInteger idleWorkers = new AtomicInteger(0);
+
+  /**
+   * Init the queue with max capacity, the count of local queues and specified comparator.
+   *
+   * @see IndexedBlockingQueue
+   * @param maxCapacity the max capacity of the queue.
+   * @param localQueueNum the count of local queues, usually the count of polling threads.
+   * @param comparator the comparator for comparing the elements.
+   * @param queryHolder the query holder instance.
+   */
+  @SuppressWarnings("unchecked")
+  public WorkStealingPriorityQueue(
+      int maxCapacity, int localQueueNum, Comparator<E> comparator, E queryHolder) {
+    super(maxCapacity, queryHolder);
+    this.maxCapacity = maxCapacity;
+    this.localQueues = new WorkStealingPriorityQueue.LocalQueue[Math.max(1, localQueueNum)];
+    for (int i = 0; i < localQueues.length; i++) {
+      localQueues[i] = new LocalQueue(comparator);
+    }
+  }
+
+  @Override
+  public E poll() throws InterruptedException {
+    int[] state = getWorkerState();
+    while (true) {
+      E element = pollOrSteal(state);
+      if (element != null) {
+        return element;
+      }
+      // the count of idle workers must be increased before checking the size, see push()
+      idleWorkers.incrementAndGet();
+      try {
+        synchronized (idleMonitor) {
+          while (size.get() <= 0) {
+            idleMonitor.wait();
+          }
+        }
+      } finally {
+        idleWorkers.decrementAndGet();
+      }
+    }
+  }
+
+  @Override
+  public void push(E element) {
+    if (element == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    if (size.incrementAndGet() > maxCapacity) {
+      size.decrementAndGet();
+      throw new IllegalStateException("The queue is full");
+    }
+    if (!selectPushQueue().offer(element)) {
+      size.decrementAndGet();
+      throw new IllegalStateException(
+          "The queue has already contained the element: " + element.getDriverTaskId());
+    }
+    if (idleWorkers.get() > 0) {
+      synchronized (idleMonitor) {
+        idleMonitor.notifyAll();
+      }
+    }
+  }
+
+  @Override
+  public E remove(ID id) {
+    E output = removeById(id);
+    if (output != null) {
+      size.decrementAndGet();
+    }
+    return output;
+  }
+
+  @Override
+  public E get(ID id) {
+    LocalQueue owner = owners.get(id);
+    return owner == null ? null : owner.get(id);
+  }
+
+  @Override
+  public void clear() {
+    clearAllElements();
+    size.set(0);
+  }
+
+  @Override
+  public int size() {
+    return Math.max(0, size.get());
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return size.get() <= 0;
+  }
+
+  @Override
+  protected E pollFirst() {
+    for (LocalQueue localQueue : localQueues) {
+      E element = localQueue.poll();
+      if (element != null) {
+        return element;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  protected void pushToQueue(E element) {
+    selectPushQueue().offer(element);
+  }
+
+  @Override
+  protected E remove(E element) {
+    return removeById(element.getDriverTaskId());
+  }
+
+  @Override
+  protected boolean contains(E element) {
+    return owners.containsKey(element.getDriverTaskId());
+  }
+
+  @Override
+  protected E get(E element) {
+    return get(element.getDriverTaskId());
+  }
+
+  @Override
+  protected void clearAllElements() {
+    for (LocalQueue localQueue : localQueues) {
+      localQueue.clear();
+    }
+  }
+
+  private int[] getWorkerState() {
+    int[] state = workerState.get();
+    if (state == null) {
+      state = new int[] {nextWorkerIndex.getAndIncrement() % localQueues.length, 0};
+      workerState.set(state);
+    }
+    return state;
+  }
+
+  private E pollOrSteal(int[] state) {
+    int self = state[0];
+    boolean stealFirst = ++state[1] % STEAL_INTERVAL == 0;
+    E element;
+    if (!stealFirst) {
+      element = localQueues[self].poll();
+      if (element != null) {
+        size.decrementAndGet();
+        return element;
+      }
+    }
+    // the local queue itself is the last one to check
+    for (int i = 1; i <= localQueues.length; i++) {
+      element = localQueues[(self + i) % localQueues.length].poll();
+      if (element != null) {
+        size.decrementAndGet();
+        return element;
+      }
+    }
+    return null;
+  }
+
+  private LocalQueue selectPushQueue() {
+    int[] state = workerState.get();
+    if (state != null) {
+      return localQueues[state[0]];
+    }
+    return localQueues[Math.floorMod(nextPushQueue.getAndIncrement(), localQueues.length)];
+  }
+
+  private E removeById(ID id) {
+    LocalQueue owner = owners.get(id);
+    return owner == null ? null : owner.remove(id);
+  }
+
+  /** A local queue with 2-level priority groups guarded by its own lock. */
+  private class LocalQueue {
+
+    private final Lock lock = new ReentrantLock();
+    private SortedSet<E> workingSortedElements;
+    private SortedSet<E> idleSortedElements;
+    private Map<ID, E> workingKeyedElements;
+    private Map<ID, E> idleKeyedElements;
+
+    private LocalQueue(Comparator<E> comparator) {
+      this.workingSortedElements = new TreeSet<>(comparator);
+      this.idleSortedElements = new TreeSet<>(comparator);
+      this.workingKeyedElements = new HashMap<>();
+      this.idleKeyedElements = new HashMap<>();
+    }
+
+    /** Return false if an element with the same ID exists in any local queue. */
+    private boolean offer(E element) {
+      lock.lock();
+      try {
+        if (owners.putIfAbsent(element.getDriverTaskId(), this) != null) {
+          return false;
+        }
+        idleKeyedElements.put(element.getDriverTaskId(), element);
+        idleSortedElements.add(element);
+        return true;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private E poll() {
+      lock.lock();
+      try {
+        if (workingKeyedElements.isEmpty()) {
+          if (idleKeyedElements.isEmpty()) {
+            return null;
+          }
+          // Switch the two queues
+          Map<ID, E> tmp = workingKeyedElements;
+          workingKeyedElements = idleKeyedElements;
+          idleKeyedElements = tmp;
+          SortedSet<E> tmpSet = workingSortedElements;
+          workingSortedElements = idleSortedElements;
+          idleSortedElements = tmpSet;
+        }
+        E element = workingSortedElements.first();
+        workingSortedElements.remove(element);
+        workingKeyedElements.remove(element.getDriverTaskId());
+        owners.remove(element.getDriverTaskId(), this);
+        return element;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private E remove(ID id) {
+      lock.lock();
+      try {
+        E e = workingKeyedElements.remove(id);
+        if (e != null) {
+          workingSortedElements.remove(e);
+        } else {
+          e = idleKeyedElements.remove(id);
+          if (e != null) {
+            idleSortedElements.remove(e);
+          }
+        }
+        if (e != null) {
+          owners.remove(id, this);
+        }
+        return e;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private E get(ID id) {
+      lock.lock();
+      try {
+        E e = workingKeyedElements.get(id);
+        return e != null ? e : idleKeyedElements.get(id);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void clear() {
+      lock.lock();
+      try {
+        workingKeyedElements.keySet().forEach(id -> owners.remove(id, this));
+        idleKeyedElements.keySet().forEach(id -> owners.remove(id, this));
+        workingKeyedElements.clear();
+        workingSortedElements.clear();
+        idleKeyedElements.clear();
+        idleSortedElements.clear();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -33,14 +33,28 @@ import io.airlift.units.Duration;
 
 import java.util.Comparator;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 /** the scheduling element of {@link DriverTaskThread}. It wraps a single Driver. */
 public class DriverTask implements IDIndexedAccessible {
 
+  /**
+   * The thresholds of accumulated running time for the levels of multilevel feedback scheduling. A
+   * task running longer falls into a higher level and is scheduled after the tasks in lower levels
+   * of the same round.
+   */
+  private static final long[] LEVEL_THRESHOLD_NANOS = {
+    0L,
+    TimeUnit.SECONDS.toNanos(1),
+    TimeUnit.SECONDS.toNanos(10),
+    TimeUnit.SECONDS.toNanos(60),
+    TimeUnit.SECONDS.toNanos(300)
+  };
+
   private final IDriver driver;
-  private DriverTaskStatus status;
+  private final AtomicReference<DriverTaskStatus> status = new AtomicReference<>();
 
   // the higher this field is, the higher probability it will be scheduled.
   private volatile double schedulePriority;
@@ -49,6 +63,7 @@ public class DriverTask implements IDIndexedAccessible {
 
   // Running stats
   private long cpuWallNano;
+  private volatile int level;
 
   private String abortCause;
 
@@ -78,11 +93,12 @@ public class DriverTask implements IDIndexedAccessible {
   }
 
   public DriverTaskStatus getStatus() {
-    return status;
+    return status.get();
   }
 
   public boolean isEndState() {
-    return status == DriverTaskStatus.ABORTED || status == DriverTaskStatus.FINISHED;
+    DriverTaskStatus currentStatus = status.get();
+    return currentStatus == DriverTaskStatus.ABORTED || currentStatus == DriverTaskStatus.FINISHED;
   }
 
   public IDriver getDriver() {
@@ -90,7 +106,16 @@ public class DriverTask implements IDIndexedAccessible {
   }
 
   public void setStatus(DriverTaskStatus status) {
-    this.status = status;
+    this.status.set(status);
+  }
+
+  /**
+   * Atomically change the status without holding the lock of this task.
+   *
+   * @return false if the current status is not the expected one.
+   */
+  public boolean compareAndSetStatus(DriverTaskStatus expect, DriverTaskStatus update) {
+    return status.compareAndSet(expect, update);
   }
 
   /**
@@ -111,6 +136,15 @@ public class DriverTask implements IDIndexedAccessible {
 
     // 3. Now the final schedulePriority is out, this may not be so reasonable.
     this.schedulePriority = base * penaltyFactor;
+
+    // 4. Tasks having run for a long time fall into higher levels.
+    cpuWallNano += context.getCpuDuration().getWall().roundTo(TimeUnit.NANOSECONDS);
+    int newLevel = 0;
+    while (newLevel + 1 < LEVEL_THRESHOLD_NANOS.length
+        && cpuWallNano >= LEVEL_THRESHOLD_NANOS[newLevel + 1]) {
+      newLevel++;
+    }
+    this.level = newLevel;
   }
 
   public void lock() {
@@ -129,6 +163,10 @@ public class DriverTask implements IDIndexedAccessible {
     return ddl;
   }
 
+  public int getLevel() {
+    return level;
+  }
+
   @Override
   public int hashCode() {
     return driver.getDriverTaskId().hashCode();
@@ -181,7 +219,10 @@ public class DriverTask implements IDIndexedAccessible {
     }
   }
 
-  /** a comparator of ddl, the higher the schedulePriority is, the low order it has. */
+  /**
+   * a comparator of level and schedulePriority, the lower the level is and then the higher the
+   * schedulePriority is, the low order it has.
+   */
   public static class SchedulePriorityComparator implements Comparator<DriverTask> {
 
     @Override
@@ -189,6 +230,9 @@ public class DriverTask implements IDIndexedAccessible {
       if (o1.getDriverTaskId().equals(o2.getDriverTaskId())) {
         return 0;
       }
+      if (o1.getLevel() != o2.getLevel()) {
+        return Integer.compare(o1.getLevel(), o2.getLevel());
+      }
       if (o1.getSchedulePriority() > o2.getSchedulePriority()) {
         return -1;
       }
@@ -195,6 +195,13 @@ public class AnalyzeVisitor extends StatementVisitor<Analysis, MPPQueryContext>
   @Override
   public Analysis visitExplain(ExplainStatement explainStatement, MPPQueryContext context) {
     Analysis analysis = visitQuery(explainStatement.getQueryStatement(), context);
+    if (explainStatement.isAnalyze()
+        && !analysis.isFinishQueryAfterAnalyze()
+        && analysis.hasDataSource()) {
+      // EXPLAIN ANALYZE runs the query as usual, QueryExecution replaces its result with the plan
+      // annotated with runtime statistics
+      return analysis;
+    }
     analysis.setStatement(explainStatement);
     analysis.setFinishQueryAfterAnalyze(true);
     return analysis;
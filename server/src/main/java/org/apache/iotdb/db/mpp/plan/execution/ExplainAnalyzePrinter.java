@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.execution;
+
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceInfo;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStatistics;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorStatistics;
+import org.apache.iotdb.db.mpp.plan.planner.plan.FragmentInstance;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanGraphPrinter;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prints the fragment instances of a query run by EXPLAIN ANALYZE. Each instance is headed by its
+ * own statistics and the box of each plan node is annotated with the statistics of its operators.
+ */
+public class ExplainAnalyzePrinter {
+
+  private ExplainAnalyzePrinter() {
+    // util class
+  }
+
+  /**
+   * @param instanceInfos final info of the instances in the same order as instances, the info of an
+   *     unreachable instance is null
+   */
+  public static List<String> print(
+      long resultRowCount,
+      List<FragmentInstance> instances,
+      List<FragmentInstanceInfo> instanceInfos) {
+    List<String> lines = new ArrayList<>();
+    lines.add(String.format("Result Rows: %d", resultRowCount));
+    for (int i = 0; i < instances.size(); i++) {
+      FragmentInstance instance = instances.get(i);
+      PlanNode root = instance.getFragment().getPlanNodeTree();
+      FragmentInstanceInfo instanceInfo = i < instanceInfos.size() ? instanceInfos.get(i) : null;
+      FragmentInstanceStatistics statistics =
+          instanceInfo == null ? null : instanceInfo.getStatistics();
+
+      lines.add("");
+      lines.add(
+          String.format(
+              "FragmentInstance-%s, Host: %s, State: %s",
+              instance.getId(),
+              instance.getHostDataNode() == null
+                  ? "Not set"
+                  : instance.getHostDataNode().getInternalEndPoint(),
+              instanceInfo == null ? "Unknown" : instanceInfo.getState()));
+      if (statistics == null) {
+        lines.add("Statistics: Not available");
+        lines.addAll(PlanGraphPrinter.getGraph(root));
+        continue;
+      }
+      lines.add(
+          String.format(
+              "Wall Time: %s, Reserved Memory: %d B, Disk Read: %d B, Cache Read: %d B",
+              formatNanos(statistics.getWallTimeInNanos()),
+              statistics.getReservedMemoryInBytes(),
+              statistics.getDiskReadBytes(),
+              statistics.getCacheReadBytes()));
+      Map<PlanNodeId, List<String>> extraInfo = new HashMap<>();
+      collectOperatorInfo(root, statistics.getOperatorStatistics(), extraInfo);
+      lines.addAll(PlanGraphPrinter.getGraph(root, extraInfo));
+    }
+    return lines;
+  }
+
+  private static void collectOperatorInfo(
+      PlanNode node,
+      Map<String, OperatorStatistics> operatorStatistics,
+      Map<PlanNodeId, List<String>> extraInfo) {
+    for (PlanNode child : node.getChildren()) {
+      collectOperatorInfo(child, operatorStatistics, extraInfo);
+    }
+    OperatorStatistics statistics = operatorStatistics.get(node.getPlanNodeId().getId());
+    if (statistics == null) {
+      return;
+    }
+
+    // rows and TsBlocks flowing into an operator are the ones its children output
+    boolean hasInput = false;
+    long inputRowCount = 0;
+    long inputTsBlockCount = 0;
+    for (PlanNode child : node.getChildren()) {
+      OperatorStatistics childStatistics = operatorStatistics.get(child.getPlanNodeId().getId());
+      if (childStatistics != null) {
+        hasInput = true;
+        inputRowCount += childStatistics.getOutputRowCount();
+        inputTsBlockCount += childStatistics.getOutputTsBlockCount();
+      }
+    }
+
+    List<String> lines = new ArrayList<>();
+    lines.add(String.format("Operator: %s", statistics.getOperatorType()));
+    lines.add(
+        String.format(
+            "Wall: %s, CPU: %s",
+            formatNanos(statistics.getTotalExecutionTimeInNanos()),
+            formatNanos(statistics.getCpuTimeInNanos())));
+    if (hasInput) {
+      lines.add(
+          String.format("Rows: in %d, out %d", inputRowCount, statistics.getOutputRowCount()));
+      lines.add(
+          String.format(
+              "TsBlocks: in %d, out %d", inputTsBlockCount, statistics.getOutputTsBlockCount()));
+    } else {
+      lines.add(String.format("Rows: out %d", statistics.getOutputRowCount()));
+      lines.add(String.format("TsBlocks: out %d", statistics.getOutputTsBlockCount()));
+    }
+    if (statistics.getBlockedTimeInNanos() > 0) {
+      lines.add(String.format("Blocked: %s", formatNanos(statistics.getBlockedTimeInNanos())));
+    }
+    if (statistics.getLoadedChunkCount() > 0 || statistics.getSkippedChunkCount() > 0) {
+      lines.add(
+          String.format(
+              "Chunks: loaded %d, skipped %d",
+              statistics.getLoadedChunkCount(), statistics.getSkippedChunkCount()));
+      lines.add(
+          String.format(
+              "Pages: loaded %d, skipped %d",
+              statistics.getLoadedPageCount(), statistics.getSkippedPageCount()));
+    }
+    extraInfo.put(node.getPlanNodeId(), lines);
+  }
+
+  private static String formatNanos(long nanos) {
+    return String.format("%.3f ms", nanos / 1_000_000.0);
+  }
+}
@@ -22,17 +22,20 @@ import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.sync.SyncDataNodeInternalServiceClient;
+import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.IoTDBException;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.query.KilledByOthersException;
 import org.apache.iotdb.db.exception.query.QueryTimeoutRuntimeException;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.common.header.ColumnHeader;
 import org.apache.iotdb.db.mpp.common.header.DatasetHeader;
 import org.apache.iotdb.db.mpp.execution.QueryState;
 import org.apache.iotdb.db.mpp.execution.QueryStateMachine;
 import org.apache.iotdb.db.mpp.execution.exchange.ISourceHandle;
 import org.apache.iotdb.db.mpp.execution.exchange.MPPDataExchangeService;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceInfo;
 import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
 import org.apache.iotdb.db.mpp.plan.analyze.Analysis;
 import org.apache.iotdb.db.mpp.plan.analyze.Analyzer;
@@ -44,6 +47,7 @@ import org.apache.iotdb.db.mpp.plan.execution.memory.StatementMemorySource;
 import org.apache.iotdb.db.mpp.plan.execution.memory.StatementMemorySourceContext;
 import org.apache.iotdb.db.mpp.plan.execution.memory.StatementMemorySourceVisitor;
 import org.apache.iotdb.db.mpp.plan.optimization.PlanOptimizer;
+import org.apache.iotdb.db.mpp.plan.optimization.RuleBasedPlanOptimizer;
 import org.apache.iotdb.db.mpp.plan.planner.LogicalPlanner;
 import org.apache.iotdb.db.mpp.plan.planner.distribution.DistributionPlanner;
 import org.apache.iotdb.db.mpp.plan.planner.plan.DistributedQueryPlan;
@@ -58,10 +62,14 @@ import org.apache.iotdb.db.mpp.plan.statement.crud.InsertBaseStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.InsertMultiTabletsStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.InsertRowsStatement;
 import org.apache.iotdb.db.mpp.plan.statement.crud.LoadTsFileStatement;
+import org.apache.iotdb.db.mpp.plan.statement.sys.ExplainStatement;
 import org.apache.iotdb.db.utils.SetThreadName;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
@@ -70,6 +78,7 @@ import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CancellationException;
@@ -97,6 +106,7 @@ public class QueryExecution implements IQueryExecution {
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   private static final int MAX_RETRY_COUNT = 3;
   private static final long RETRY_INTERVAL_IN_MS = 2000;
+  private static final long WAIT_FOR_STATISTICS_TIMEOUT_IN_MS = 10_000;
   private int retryCount = 0;
   private final MPPQueryContext context;
   private IScheduler scheduler;
@@ -128,6 +138,10 @@ public class QueryExecution implements IQueryExecution {
 
   private long totalExecutionTime;
 
+  // For EXPLAIN ANALYZE, the result of the query is replaced by its plan with runtime statistics
+  private boolean explainAnalyzeResultPrepared = false;
+  private DatasetHeader explainAnalyzeHeader;
+
   private static final QueryMetricsManager QUERY_METRICS = QueryMetricsManager.getInstance();
 
   public QueryExecution(
@@ -145,6 +159,7 @@ public class QueryExecution implements IQueryExecution {
     this.scheduledExecutor = scheduledExecutor;
     this.context = context;
     this.planOptimizers = new ArrayList<>();
+    this.planOptimizers.add(RuleBasedPlanOptimizer.createDefault());
     this.analysis = analyze(statement, context, partitionFetcher, schemaFetcher);
     this.stateMachine = new QueryStateMachine(context.getQueryId(), executor);
     this.partitionFetcher = partitionFetcher;
@@ -205,6 +220,9 @@ public class QueryExecution implements IQueryExecution {
 
     doLogicalPlan();
     doDistributedPlan();
+    if (isExplainAnalyze()) {
+      distributedPlan.getInstances().forEach(instance -> instance.setCollectStatistics(true));
+    }
     stateMachine.transitionToPlanned();
     if (context.getQueryType() == QueryType.READ) {
       initResultHandle();
@@ -242,6 +260,12 @@ public class QueryExecution implements IQueryExecution {
     return getStatus();
   }
 
+  private boolean isExplainAnalyze() {
+    return rawStatement instanceof ExplainStatement
+        && ((ExplainStatement) rawStatement).isAnalyze()
+        && !skipExecute();
+  }
+
   private boolean skipExecute() {
     return analysis.isFinishQueryAfterAnalyze()
         || (context.getQueryType() == QueryType.READ && !analysis.hasDataSource());
@@ -454,8 +478,40 @@ public class QueryExecution implements IQueryExecution {
     }
   }
 
+  /**
+   * For EXPLAIN ANALYZE, drain the result of the query, wait for the runtime statistics of all the
+   * fragment instances and then replace the result handle with the annotated plan.
+   */
+  private void prepareExplainAnalyzeResult() throws IoTDBException {
+    if (explainAnalyzeResultPrepared || !isExplainAnalyze()) {
+      return;
+    }
+    explainAnalyzeResultPrepared = true;
+
+    long resultRowCount = 0;
+    Optional<TsBlock> tsBlock;
+    while ((tsBlock = getResult(this::getDeserializedTsBlock)).isPresent()) {
+      resultRowCount += tsBlock.get().getPositionCount();
+    }
+    List<FragmentInstanceInfo> instanceInfos =
+        scheduler == null
+            ? Collections.emptyList()
+            : scheduler.waitForFinalInstanceInfos(WAIT_FOR_STATISTICS_TIMEOUT_IN_MS);
+    List<String> lines =
+        ExplainAnalyzePrinter.print(resultRowCount, distributedPlan.getInstances(), instanceInfos);
+
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.TEXT));
+    for (String line : lines) {
+      builder.getTimeColumnBuilder().writeLong(0L);
+      builder.getColumnBuilder(0).writeBinary(new Binary(line));
+      builder.declarePosition();
+    }
+    this.resultHandle = new MemorySourceHandle(builder.build());
+  }
+
   @Override
   public Optional<TsBlock> getBatchResult() throws IoTDBException {
+    prepareExplainAnalyzeResult();
     return getResult(this::getDeserializedTsBlock);
   }
 
@@ -465,6 +521,7 @@ public class QueryExecution implements IQueryExecution {
 
   @Override
   public Optional<ByteBuffer> getByteBufferBatchResult() throws IoTDBException {
+    prepareExplainAnalyzeResult();
     return getResult(this::getSerializedTsBlock);
   }
 
@@ -475,17 +532,30 @@ public class QueryExecution implements IQueryExecution {
   /** @return true if there is more tsblocks, otherwise false */
   @Override
   public boolean hasNextResult() {
+    if (!explainAnalyzeResultPrepared && isExplainAnalyze()) {
+      return true;
+    }
     return resultHandle != null && !resultHandle.isFinished();
   }
 
   /** return the result column count without the time column */
   @Override
   public int getOutputValueColumnCount() {
-    return analysis.getRespDatasetHeader().getOutputValueColumnCount();
+    return getDatasetHeader().getOutputValueColumnCount();
   }
 
   @Override
   public DatasetHeader getDatasetHeader() {
+    if (isExplainAnalyze()) {
+      if (explainAnalyzeHeader == null) {
+        explainAnalyzeHeader =
+            new DatasetHeader(
+                Collections.singletonList(
+                    new ColumnHeader(IoTDBConstant.COLUMN_DISTRIBUTION_PLAN, TSDataType.TEXT)),
+                true);
+      }
+      return explainAnalyzeHeader;
+    }
     return analysis.getRespDatasetHeader();
   }
 
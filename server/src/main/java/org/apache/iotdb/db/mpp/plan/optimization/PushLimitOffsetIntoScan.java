@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.optimization;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.LimitNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.OffsetNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.AlignedSeriesScanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesScanNode;
+
+/**
+ * Push {@link LimitNode} and {@link OffsetNode} into the raw scans below them.
+ *
+ * <ul>
+ *   <li>Offset(Scan) and Limit(Scan) are replaced by the scan with the offset or limit set, so that
+ *       the scan stops early and skips the offset by statistics.
+ *   <li>For Limit(TimeJoin) and Limit(Offset(TimeJoin)), each scan under the TimeJoinNode returns
+ *       at most limit + offset rows, because the first n rows of the join only need the first n
+ *       rows of every series. The LimitNode and OffsetNode are kept.
+ * </ul>
+ *
+ * Nodes changing the number of rows, like FilterNode, block the push-down.
+ */
+public class PushLimitOffsetIntoScan implements Rule {
+
+  @Override
+  public PlanNode apply(PlanNode node, MPPQueryContext context) {
+    if (node instanceof OffsetNode) {
+      OffsetNode offsetNode = (OffsetNode) node;
+      return pushOffsetIntoScan(offsetNode.getChild(), offsetNode.getOffset());
+    }
+    if (node instanceof LimitNode) {
+      LimitNode limitNode = (LimitNode) node;
+      PlanNode child = limitNode.getChild();
+      if (child instanceof TimeJoinNode) {
+        return pushLimitIntoTimeJoin((TimeJoinNode) child, limitNode.getLimit()) ? node : null;
+      }
+      if (child instanceof OffsetNode && ((OffsetNode) child).getChild() instanceof TimeJoinNode) {
+        long limit = (long) limitNode.getLimit() + ((OffsetNode) child).getOffset();
+        return limit <= Integer.MAX_VALUE
+                && pushLimitIntoTimeJoin(
+                    (TimeJoinNode) ((OffsetNode) child).getChild(), (int) limit)
+            ? node
+            : null;
+      }
+      return pushLimitIntoScan(child, limitNode.getLimit());
+    }
+    return null;
+  }
+
+  private PlanNode pushOffsetIntoScan(PlanNode child, int offset) {
+    if (child instanceof SeriesScanNode) {
+      SeriesScanNode scanNode = (SeriesScanNode) child;
+      long newOffset = (long) scanNode.getOffset() + offset;
+      if (scanNode.getLimit() > 0 || newOffset > Integer.MAX_VALUE) {
+        return null;
+      }
+      scanNode.setOffset((int) newOffset);
+      return scanNode;
+    }
+    if (child instanceof AlignedSeriesScanNode) {
+      AlignedSeriesScanNode scanNode = (AlignedSeriesScanNode) child;
+      long newOffset = (long) scanNode.getOffset() + offset;
+      if (scanNode.getLimit() > 0 || newOffset > Integer.MAX_VALUE) {
+        return null;
+      }
+      scanNode.setOffset((int) newOffset);
+      return scanNode;
+    }
+    return null;
+  }
+
+  private PlanNode pushLimitIntoScan(PlanNode child, int limit) {
+    if (child instanceof SeriesScanNode) {
+      SeriesScanNode scanNode = (SeriesScanNode) child;
+      if ((long) limit + scanNode.getOffset() > Integer.MAX_VALUE) {
+        return null;
+      }
+      scanNode.setLimit(mergeLimit(scanNode.getLimit(), limit));
+      return scanNode;
+    }
+    if (child instanceof AlignedSeriesScanNode) {
+      AlignedSeriesScanNode scanNode = (AlignedSeriesScanNode) child;
+      if ((long) limit + scanNode.getOffset() > Integer.MAX_VALUE) {
+        return null;
+      }
+      scanNode.setLimit(mergeLimit(scanNode.getLimit(), limit));
+      return scanNode;
+    }
+    return null;
+  }
+
+  /** Return true if the limit of any scan under the TimeJoinNode is changed. */
+  private boolean pushLimitIntoTimeJoin(TimeJoinNode timeJoinNode, int limit) {
+    boolean changed = false;
+    for (PlanNode child : timeJoinNode.getChildren()) {
+      if (child instanceof SeriesScanNode) {
+        SeriesScanNode scanNode = (SeriesScanNode) child;
+        int newLimit = mergeLimit(scanNode.getLimit(), limit);
+        if (scanNode.getOffset() == 0 && newLimit != scanNode.getLimit()) {
+          scanNode.setLimit(newLimit);
+          changed = true;
+        }
+      } else if (child instanceof AlignedSeriesScanNode) {
+        AlignedSeriesScanNode scanNode = (AlignedSeriesScanNode) child;
+        int newLimit = mergeLimit(scanNode.getLimit(), limit);
+        if (scanNode.getOffset() == 0 && newLimit != scanNode.getLimit()) {
+          scanNode.setLimit(newLimit);
+          changed = true;
+        }
+      }
+    }
+    return changed;
+  }
+
+  /** 0 means no limit. */
+  private static int mergeLimit(int currentLimit, int limit) {
+    return currentLimit == 0 ? limit : Math.min(currentLimit, limit);
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.optimization;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.plan.analyze.ExpressionUtils;
+import org.apache.iotdb.db.mpp.plan.expression.Expression;
+import org.apache.iotdb.db.mpp.plan.expression.ExpressionType;
+import org.apache.iotdb.db.mpp.plan.expression.binary.CompareBinaryExpression;
+import org.apache.iotdb.db.mpp.plan.expression.binary.LogicAndExpression;
+import org.apache.iotdb.db.mpp.plan.expression.leaf.ConstantOperand;
+import org.apache.iotdb.db.mpp.plan.expression.leaf.TimeSeriesOperand;
+import org.apache.iotdb.db.mpp.plan.expression.leaf.TimestampOperand;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.FilterNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TransformNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Push the conjuncts of the predicate of a {@link FilterNode} comparing a series with a constant
+ * into the value filter of the {@link SeriesScanNode} reading that series, so that chunks and pages
+ * can be skipped by their statistics.
+ *
+ * <p>If the FilterNode reads a single series and all the conjuncts are pushed down, the FilterNode
+ * is removed. Otherwise it is kept to evaluate the whole predicate on the joined rows, which is
+ * still correct because the rows removed by the scans would have been filtered out anyway.
+ */
+public class PushPredicateIntoScan implements Rule {
+
+  @Override
+  public PlanNode apply(PlanNode node, MPPQueryContext context) {
+    if (!(node instanceof FilterNode)) {
+      return null;
+    }
+    FilterNode filterNode = (FilterNode) node;
+    // rows not satisfying the predicate are kept as null rows
+    if (filterNode.isKeepNull()) {
+      return null;
+    }
+
+    List<Expression> conjuncts = new ArrayList<>();
+    extractConjuncts(filterNode.getPredicate(), conjuncts);
+    PlanNode child = filterNode.getChild();
+    if (child instanceof SeriesScanNode) {
+      return pushIntoSingleScan(filterNode, (SeriesScanNode) child, conjuncts, context);
+    }
+    if (child instanceof TimeJoinNode) {
+      return pushIntoTimeJoin(filterNode, (TimeJoinNode) child, conjuncts);
+    }
+    return null;
+  }
+
+  private PlanNode pushIntoSingleScan(
+      FilterNode filterNode,
+      SeriesScanNode scanNode,
+      List<Expression> conjuncts,
+      MPPQueryContext context) {
+    if (scanNode.getValueFilter() != null || scanNode.getLimit() > 0 || scanNode.getOffset() > 0) {
+      return null;
+    }
+
+    Filter timeFilter = null;
+    Filter valueFilter = null;
+    for (Expression conjunct : conjuncts) {
+      Filter filter = toTimeFilter(conjunct);
+      if (filter != null) {
+        timeFilter = timeFilter == null ? filter : FilterFactory.and(timeFilter, filter);
+        continue;
+      }
+      filter = toValueFilter(conjunct, scanNode);
+      if (filter == null) {
+        // the FilterNode can't be removed, push nothing to keep the rule idempotent
+        return null;
+      }
+      valueFilter = valueFilter == null ? filter : FilterFactory.and(valueFilter, filter);
+    }
+
+    if (timeFilter != null) {
+      scanNode.setTimeFilter(
+          scanNode.getTimeFilter() == null
+              ? timeFilter
+              : FilterFactory.and(scanNode.getTimeFilter(), timeFilter));
+    }
+    scanNode.setValueFilter(valueFilter);
+
+    Expression[] outputExpressions = filterNode.getOutputExpressions();
+    if (outputExpressions.length == 1
+        && outputExpressions[0] instanceof TimeSeriesOperand
+        && filterNode.getOutputColumnNames().equals(scanNode.getOutputColumnNames())) {
+      return scanNode;
+    }
+    return new TransformNode(
+        context.getQueryId().genPlanNodeId(),
+        scanNode,
+        outputExpressions,
+        filterNode.isKeepNull(),
+        filterNode.getZoneId(),
+        filterNode.getScanOrder());
+  }
+
+  private PlanNode pushIntoTimeJoin(
+      FilterNode filterNode, TimeJoinNode timeJoinNode, List<Expression> conjuncts) {
+    boolean changed = false;
+    for (PlanNode child : timeJoinNode.getChildren()) {
+      if (!(child instanceof SeriesScanNode)) {
+        continue;
+      }
+      SeriesScanNode scanNode = (SeriesScanNode) child;
+      if (scanNode.getValueFilter() != null
+          || scanNode.getLimit() > 0
+          || scanNode.getOffset() > 0) {
+        continue;
+      }
+      Filter valueFilter = null;
+      for (Expression conjunct : conjuncts) {
+        Filter filter = toValueFilter(conjunct, scanNode);
+        if (filter != null) {
+          valueFilter = valueFilter == null ? filter : FilterFactory.and(valueFilter, filter);
+        }
+      }
+      if (valueFilter != null) {
+        scanNode.setValueFilter(valueFilter);
+        changed = true;
+      }
+    }
+    return changed ? filterNode : null;
+  }
+
+  private static void extractConjuncts(Expression predicate, List<Expression> conjuncts) {
+    if (predicate instanceof LogicAndExpression) {
+      extractConjuncts(((LogicAndExpression) predicate).getLeftExpression(), conjuncts);
+      extractConjuncts(((LogicAndExpression) predicate).getRightExpression(), conjuncts);
+    } else if (!isConstantTrue(predicate)) {
+      // time predicates are replaced by constant true after being extracted by the analyzer
+      conjuncts.add(predicate);
+    }
+  }
+
+  private static boolean isConstantTrue(Expression expression) {
+    return expression instanceof ConstantOperand
+        && ((ConstantOperand) expression).getDataType() == TSDataType.BOOLEAN
+        && Boolean.parseBoolean(((ConstantOperand) expression).getValueString());
+  }
+
+  private static Filter toTimeFilter(Expression conjunct) {
+    if (!(conjunct instanceof CompareBinaryExpression)) {
+      return null;
+    }
+    CompareBinaryExpression compare = (CompareBinaryExpression) conjunct;
+    Expression left = compare.getLeftExpression();
+    Expression right = compare.getRightExpression();
+    if (left instanceof TimestampOperand) {
+      return ExpressionUtils.constructTimeFilter(compare.getExpressionType(), left, right);
+    }
+    if (right instanceof TimestampOperand) {
+      return ExpressionUtils.constructTimeFilter(
+          reverse(compare.getExpressionType()), right, left);
+    }
+    return null;
+  }
+
+  private static Filter toValueFilter(Expression conjunct, SeriesScanNode scanNode) {
+    if (!(conjunct instanceof CompareBinaryExpression)) {
+      return null;
+    }
+    CompareBinaryExpression compare = (CompareBinaryExpression) conjunct;
+    Expression left = compare.getLeftExpression();
+    Expression right = compare.getRightExpression();
+    ExpressionType type = compare.getExpressionType();
+    if (left instanceof ConstantOperand) {
+      Expression tmp = left;
+      left = right;
+      right = tmp;
+      type = reverse(type);
+    }
+    if (!(left instanceof TimeSeriesOperand)
+        || !(right instanceof ConstantOperand)
+        || !((TimeSeriesOperand) left)
+            .getPath()
+            .getFullPath()
+            .equals(scanNode.getSeriesPath().getFullPath())) {
+      return null;
+    }
+
+    ConstantOperand constant = (ConstantOperand) right;
+    String valueString = constant.getValueString();
+    switch (scanNode.getSeriesPath().getSeriesType()) {
+      case INT32:
+        if (constant.getDataType() != TSDataType.INT64) {
+          return null;
+        }
+        long longValue = Long.parseLong(valueString);
+        if (longValue < Integer.MIN_VALUE || longValue > Integer.MAX_VALUE) {
+          return null;
+        }
+        return constructValueFilter(type, (int) longValue);
+      case INT64:
+        return constant.getDataType() == TSDataType.INT64
+            ? constructValueFilter(type, Long.parseLong(valueString))
+            : null;
+      case DOUBLE:
+        return constant.getDataType() == TSDataType.INT64
+                || constant.getDataType() == TSDataType.DOUBLE
+            ? constructValueFilter(type, Double.parseDouble(valueString))
+            : null;
+      case BOOLEAN:
+        return constant.getDataType() == TSDataType.BOOLEAN
+                && (type == ExpressionType.EQUAL_TO || type == ExpressionType.NON_EQUAL)
+            ? constructValueFilter(type, Boolean.parseBoolean(valueString))
+            : null;
+      default:
+        // FLOAT and TEXT are compared in a different way by the transformer
+        return null;
+    }
+  }
+
+  private static <T extends Comparable<T>> Filter constructValueFilter(
+      ExpressionType type, T value) {
+    switch (type) {
+      case LESS_THAN:
+        return ValueFilter.lt(value);
+      case LESS_EQUAL:
+        return ValueFilter.ltEq(value);
+      case GREATER_THAN:
+        return ValueFilter.gt(value);
+      case GREATER_EQUAL:
+        return ValueFilter.gtEq(value);
+      case EQUAL_TO:
+        return ValueFilter.eq(value);
+      case NON_EQUAL:
+        return ValueFilter.notEq(value);
+      default:
+        return null;
+    }
+  }
+
+  /** Return the comparison to use after swapping the operands. */
+  private static ExpressionType reverse(ExpressionType type) {
+    switch (type) {
+      case LESS_THAN:
+        return ExpressionType.GREATER_THAN;
+      case LESS_EQUAL:
+        return ExpressionType.GREATER_EQUAL;
+      case GREATER_THAN:
+        return ExpressionType.LESS_THAN;
+      case GREATER_EQUAL:
+        return ExpressionType.LESS_EQUAL;
+      default:
+        return type;
+    }
+  }
+}
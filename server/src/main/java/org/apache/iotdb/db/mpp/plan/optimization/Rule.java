@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.optimization;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+
+/** A local rewrite of the logical plan applied by {@link RuleBasedPlanOptimizer}. */
+public interface Rule {
+
+  /**
+   * Try to rewrite the given node, whose children have been rewritten already.
+   *
+   * @return the rewritten node, which may be the given node modified in place, or null if the rule
+   *     does not apply to the node
+   */
+  PlanNode apply(PlanNode node, MPPQueryContext context);
+
+  default String getName() {
+    return getClass().getSimpleName();
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.optimization;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.MultiChildProcessNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SingleChildProcessNode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rewrite the logical plan bottom-up with a list of {@link Rule}s until no rule applies anymore or
+ * the iteration limit is reached. Every rewrite is traced in the debug log.
+ */
+public class RuleBasedPlanOptimizer implements PlanOptimizer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RuleBasedPlanOptimizer.class);
+
+  private static final int MAX_ITERATIONS = 10;
+
+  private final List<Rule> rules;
+
+  public RuleBasedPlanOptimizer(List<Rule> rules) {
+    this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+  }
+
+  /** The rules applied to query plans by default. */
+  public static RuleBasedPlanOptimizer createDefault() {
+    return new RuleBasedPlanOptimizer(
+        Arrays.asList(
+            new RemoveSingleChildTimeJoin(),
+            new PushPredicateIntoScan(),
+            new PushLimitOffsetIntoScan(),
+            new TransformSortToTopK()));
+  }
+
+  @Override
+  public PlanNode optimize(PlanNode plan, MPPQueryContext context) {
+    PlanNode root = plan;
+    for (int i = 0; i < MAX_ITERATIONS; i++) {
+      boolean[] changed = new boolean[1];
+      root = rewrite(root, context, changed);
+      if (!changed[0]) {
+        break;
+      }
+    }
+    return root;
+  }
+
+  private PlanNode rewrite(PlanNode node, MPPQueryContext context, boolean[] changed) {
+    List<PlanNode> children = node.getChildren();
+    boolean childChanged = false;
+    List<PlanNode> newChildren = new ArrayList<>(children.size());
+    for (PlanNode child : children) {
+      PlanNode newChild = rewrite(child, context, changed);
+      childChanged |= newChild != child;
+      newChildren.add(newChild);
+    }
+    PlanNode current = childChanged ? replaceChildren(node, newChildren) : node;
+
+    for (Rule rule : rules) {
+      PlanNode result = rule.apply(current, context);
+      if (result == null) {
+        continue;
+      }
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "[{}] rule {} rewrote {} into {}",
+            context.getQueryId(),
+            rule.getName(),
+            current,
+            result);
+      }
+      changed[0] = true;
+      current = result;
+    }
+    return current;
+  }
+
+  private PlanNode replaceChildren(PlanNode node, List<PlanNode> children) {
+    if (node instanceof SingleChildProcessNode) {
+      ((SingleChildProcessNode) node).setChild(children.get(0));
+      return node;
+    }
+    if (node instanceof MultiChildProcessNode) {
+      ((MultiChildProcessNode) node).setChildren(children);
+      return node;
+    }
+    return node.cloneWithChildren(children);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.optimization;
+
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.LimitNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.MergeSortNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.OffsetNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SortNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replace a {@link SortNode} below a {@link LimitNode} with a {@link TopKNode}, which only keeps
+ * limit rows instead of the whole input.
+ *
+ * <ul>
+ *   <li>Limit(Sort) is replaced by TopK(limit).
+ *   <li>Limit(Offset(Sort)) is replaced by Offset(TopK(limit + offset)).
+ *   <li>Limit(MergeSort) and Limit(Offset(MergeSort)) are kept, since the MergeSortOperator streams
+ *       its sorted inputs and stops after limit rows, while a TopKOperator would drain all of them.
+ *       Only the SortNodes under the MergeSortNode are replaced by TopKNodes, so that each of them
+ *       only returns the rows that may be in the final result.
+ * </ul>
+ */
+public class TransformSortToTopK implements Rule {
+
+  @Override
+  public PlanNode apply(PlanNode node, MPPQueryContext context) {
+    if (!(node instanceof LimitNode) || ((LimitNode) node).getLimit() <= 0) {
+      return null;
+    }
+    LimitNode limitNode = (LimitNode) node;
+    PlanNode child = limitNode.getChild();
+    long topValue = limitNode.getLimit();
+    OffsetNode offsetNode = null;
+    if (child instanceof OffsetNode) {
+      offsetNode = (OffsetNode) child;
+      topValue += offsetNode.getOffset();
+      child = offsetNode.getChild();
+    }
+    if (topValue > Integer.MAX_VALUE) {
+      return null;
+    }
+
+    if (child instanceof SortNode) {
+      TopKNode topKNode = transformToTopK((SortNode) child, (int) topValue, context);
+      if (offsetNode == null) {
+        return topKNode;
+      }
+      offsetNode.setChild(topKNode);
+      return offsetNode;
+    }
+    if (child instanceof MergeSortNode
+        && pushTopKIntoMergeSort((MergeSortNode) child, (int) topValue, context)) {
+      return limitNode;
+    }
+    return null;
+  }
+
+  /** @return true if any child of the MergeSortNode is replaced */
+  private boolean pushTopKIntoMergeSort(
+      MergeSortNode mergeSortNode, int topValue, MPPQueryContext context) {
+    boolean changed = false;
+    List<PlanNode> children = new ArrayList<>(mergeSortNode.getChildren().size());
+    for (PlanNode child : mergeSortNode.getChildren()) {
+      if (child instanceof SortNode) {
+        children.add(transformToTopK((SortNode) child, topValue, context));
+        changed = true;
+      } else {
+        children.add(child);
+      }
+    }
+    if (changed) {
+      mergeSortNode.setChildren(children);
+    }
+    return changed;
+  }
+
+  private TopKNode transformToTopK(SortNode sortNode, int topValue, MPPQueryContext context) {
+    TopKNode topKNode =
+        new TopKNode(
+            context.getQueryId().genPlanNodeId(),
+            topValue,
+            sortNode.getOrderByParameter(),
+            new ArrayList<>(sortNode.getOutputColumnNames()));
+    topKNode.addChild(sortNode.getChild());
+    return topKNode;
+  }
+}
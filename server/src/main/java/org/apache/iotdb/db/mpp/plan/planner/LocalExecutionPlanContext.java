@@ -64,6 +64,8 @@ public class LocalExecutionPlanContext {
   private List<PipelineDriverFactory> pipelineDriverFactories;
   private List<ExchangeOperator> exchangeOperatorList = new ArrayList<>();
   private int exchangeSumNum = 0;
+  // how many pipelines the operators planned in this context can be split into
+  private int degreeOfParallelism;
 
   private final long dataRegionTTL;
 
@@ -87,6 +89,7 @@ public class LocalExecutionPlanContext {
     this.nextPipelineId = new AtomicInteger(0);
     this.driverContext = new DataDriverContext(instanceContext, getNextPipelineId());
     this.pipelineDriverFactories = new ArrayList<>();
+    this.degreeOfParallelism = IoTDBDescriptor.getInstance().getConfig().getDegreeOfParallelism();
   }
 
   // For creating subContext, differ from parent context mainly in driver context
@@ -100,6 +103,7 @@ public class LocalExecutionPlanContext {
     this.exchangeSumNum = parentContext.exchangeSumNum;
     this.exchangeOperatorList = parentContext.exchangeOperatorList;
     this.cachedDataTypes = parentContext.cachedDataTypes;
+    this.degreeOfParallelism = parentContext.degreeOfParallelism;
     this.driverContext =
         parentContext.getDriverContext().createSubDriverContext(getNextPipelineId());
   }
@@ -114,6 +118,7 @@ public class LocalExecutionPlanContext {
     // there is no ttl in schema region, so we don't care this field
     this.dataRegionTTL = Long.MAX_VALUE;
     this.driverContext = new SchemaDriverContext(instanceContext, schemaRegion);
+    this.degreeOfParallelism = 1;
   }
 
   public void addPipelineDriverFactory(Operator operation, DriverContext driverContext) {
@@ -162,6 +167,14 @@ public class LocalExecutionPlanContext {
     this.exchangeSumNum = exchangeSumNum;
   }
 
+  public int getDegreeOfParallelism() {
+    return degreeOfParallelism;
+  }
+
+  public void setDegreeOfParallelism(int degreeOfParallelism) {
+    this.degreeOfParallelism = degreeOfParallelism;
+  }
+
   public long getMaxBytesOneHandleCanReserve() {
     long maxBytesPerFI = IoTDBDescriptor.getInstance().getConfig().getMaxBytesPerFragmentInstance();
     return exchangeSumNum == 0 ? maxBytesPerFI : maxBytesPerFI / exchangeSumNum;
@@ -42,9 +42,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Used to plan a fragment instance. Currently, we simply change it from PlanNode to executable
- * Operator tree, but in the future, we may split one fragment instance into multiple pipeline to
- * run a fragment instance parallel and take full advantage of multi-cores
+ * Used to plan a fragment instance. The PlanNode tree is changed into executable Operator trees, and
+ * the fragment instance is split into at most degree_of_query_parallelism pipelines connected by
+ * local exchange, so that it can run in parallel and take full advantage of multi-cores.
  */
 public class LocalExecutionPlanner {
 
@@ -68,7 +68,7 @@ public class LocalExecutionPlanner {
     Operator root = plan.accept(new OperatorTreeGenerator(), context);
 
     // check whether current free memory is enough to execute current query
-    checkMemory(root, instanceContext.getStateMachine());
+    checkMemory(root, instanceContext);
 
     context.addPipelineDriverFactory(root, context.getDriverContext());
 
@@ -90,7 +90,7 @@ public class LocalExecutionPlanner {
     Operator root = plan.accept(new OperatorTreeGenerator(), context);
 
     // check whether current free memory is enough to execute current query
-    checkMemory(root, instanceContext.getStateMachine());
+    checkMemory(root, instanceContext);
 
     // set maxBytes one SourceHandle can reserve after visiting the whole tree
     context.setMaxBytesOneHandleCanReserve();
@@ -106,7 +106,7 @@ public class LocalExecutionPlanner {
     return new SchemaDriver(root, (SchemaDriverContext) context.getDriverContext());
   }
 
-  private void checkMemory(Operator root, FragmentInstanceStateMachine stateMachine)
+  private void checkMemory(Operator root, FragmentInstanceContext instanceContext)
       throws MemoryNotEnoughException {
 
     // if it is disabled, just return
@@ -133,7 +133,9 @@ public class LocalExecutionPlanner {
         }
       }
     }
+    instanceContext.setReservedMemoryInBytes(estimatedMemorySize);
 
+    FragmentInstanceStateMachine stateMachine = instanceContext.getStateMachine();
     stateMachine.addStateChangeListener(
         newState -> {
           if (newState.isDone()) {
@@ -19,12 +19,15 @@
 package org.apache.iotdb.db.mpp.plan.planner;
 
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.path.AlignedPath;
 import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.metadata.cache.DataNodeSchemaCache;
+import org.apache.iotdb.db.mpp.aggregation.Accumulator;
 import org.apache.iotdb.db.mpp.aggregation.AccumulatorFactory;
 import org.apache.iotdb.db.mpp.aggregation.Aggregator;
 import org.apache.iotdb.db.mpp.aggregation.slidingwindow.SlidingWindowAggregatorFactory;
@@ -48,17 +51,20 @@ import org.apache.iotdb.db.mpp.execution.operator.process.DeviceViewIntoOperator
 import org.apache.iotdb.db.mpp.execution.operator.process.DeviceViewOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.FillOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.FilterAndProjectOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.HashTagAggregationOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.IntoOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.LimitOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.LinearFillOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.MergeSortOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.OffsetOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.ParallelDeviceViewOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.ProcessOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.RawDataAggregationOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.SingleDeviceViewOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.SlidingWindowAggregationOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.SortOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.TagAggregationOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.TopKOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.TransformOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.fill.IFill;
 import org.apache.iotdb.db.mpp.execution.operator.process.fill.ILinearFill;
@@ -127,6 +133,7 @@ import org.apache.iotdb.db.mpp.plan.expression.Expression;
 import org.apache.iotdb.db.mpp.plan.expression.leaf.TimeSeriesOperand;
 import org.apache.iotdb.db.mpp.plan.expression.visitor.ColumnTransformerVisitor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanVisitor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.read.CountSchemaMergeNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.metedata.read.DevicesCountNode;
@@ -162,6 +169,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SingleDeviceViewNo
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SlidingWindowAggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SortNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TransformNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.VerticallyConcatNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryCollectNode;
@@ -206,6 +214,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import org.apache.commons.lang3.Validate;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -274,7 +283,9 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             seriesPath.getSeriesType(),
             timeFilter != null ? timeFilter.copy() : null,
             valueFilter != null ? valueFilter.copy() : null,
-            ascending);
+            ascending,
+            node.getLimit(),
+            node.getOffset());
 
     ((DataDriverContext) context.getDriverContext()).addSourceOperator(seriesScanOperator);
     ((DataDriverContext) context.getDriverContext()).addPath(seriesPath);
@@ -305,7 +316,9 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             operatorContext,
             timeFilter != null ? timeFilter.copy() : null,
             valueFilter != null ? valueFilter.copy() : null,
-            ascending);
+            ascending,
+            node.getLimit(),
+            node.getOffset());
 
     ((DataDriverContext) context.getDriverContext()).addSourceOperator(seriesScanOperator);
     ((DataDriverContext) context.getDriverContext()).addPath(seriesPath);
@@ -699,6 +712,9 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
 
   @Override
   public Operator visitDeviceView(DeviceViewNode node, LocalExecutionPlanContext context) {
+    if (context.getDegreeOfParallelism() > 1 && node.getChildren().size() > 1) {
+      return generateParallelDeviceView(node, context);
+    }
     OperatorContext operatorContext =
         context
             .getDriverContext()
@@ -718,6 +734,43 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
         operatorContext, node.getDevices(), children, deviceColumnIndex, outputColumnTypes);
   }
 
+  /**
+   * Assign the devices to at most degreeOfParallelism DeviceViewNodes round-robin, and execute each
+   * of them in its own pipeline. The ParallelDeviceViewOperator above them restores the device
+   * order.
+   */
+  private Operator generateParallelDeviceView(
+      DeviceViewNode node, LocalExecutionPlanContext context) {
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                ParallelDeviceViewOperator.class.getSimpleName());
+    int groupNum = Math.min(context.getDegreeOfParallelism(), node.getChildren().size());
+    List<PlanNode> partialDeviceViewNodes = new ArrayList<>(groupNum);
+    for (int i = 0; i < groupNum; i++) {
+      partialDeviceViewNodes.add(
+          new DeviceViewNode(
+              new PlanNodeId(String.format("%s_%d", node.getPlanNodeId().getId(), i)),
+              node.getMergeOrderParameter(),
+              node.getOutputColumnNames(),
+              node.getDeviceToMeasurementIndexesMap()));
+    }
+    for (int i = 0; i < node.getDevices().size(); i++) {
+      ((DeviceViewNode) partialDeviceViewNodes.get(i % groupNum))
+          .addChildDeviceNode(node.getDevices().get(i), node.getChildren().get(i));
+    }
+    List<Operator> children =
+        dealWithConsumeAllChildrenPipelineBreaker(partialDeviceViewNodes, context);
+    List<TSDataType> outputColumnTypes = getOutputColumnTypes(node, context.getTypeProvider());
+
+    context.getTimeSliceAllocator().recordExecutionWeight(operatorContext, 1);
+    return new ParallelDeviceViewOperator(
+        operatorContext, node.getDevices(), children, outputColumnTypes);
+  }
+
   @Override
   public Operator visitDeviceMerge(DeviceMergeNode node, LocalExecutionPlanContext context) {
     OperatorContext operatorContext =
@@ -780,6 +833,37 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
         MergeSortComparator.getComparator(sortItemList, sortItemIndexList, sortItemDataTypeList));
   }
 
+  @Override
+  public Operator visitTopK(TopKNode node, LocalExecutionPlanContext context) {
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                TopKOperator.class.getSimpleName());
+    List<TSDataType> dataTypes = getOutputColumnTypes(node, context.getTypeProvider());
+    context.setCachedDataTypes(dataTypes);
+    List<Operator> children = dealWithConsumeAllChildrenPipelineBreaker(node, context);
+    List<SortItem> sortItemList = node.getMergeOrderParameter().getSortItemList();
+    context.getTimeSliceAllocator().recordExecutionWeight(operatorContext, 1);
+
+    List<Integer> sortItemIndexList = new ArrayList<>(sortItemList.size());
+    List<TSDataType> sortItemDataTypeList = new ArrayList<>(sortItemList.size());
+    genSortInformation(
+        node.getOutputColumnNames(),
+        dataTypes,
+        sortItemList,
+        sortItemIndexList,
+        sortItemDataTypeList);
+    return new TopKOperator(
+        operatorContext,
+        children,
+        dataTypes,
+        MergeSortComparator.getComparator(sortItemList, sortItemIndexList, sortItemDataTypeList),
+        node.getTopValue());
+  }
+
   private void genSortInformation(
       List<String> outputColumnNames,
       List<TSDataType> dataTypes,
@@ -1216,6 +1300,9 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
     List<Operator> children = dealWithConsumeAllChildrenPipelineBreaker(node, context);
 
     boolean ascending = node.getScanOrder() == Ordering.ASC;
+    if (node.isInputGrouped()) {
+      return generateHashTagAggregationOperator(node, children, ascending, context);
+    }
     Map<String, List<InputLocation>> layout = makeLayout(node);
     List<List<String>> groups = new ArrayList<>();
     List<List<Aggregator>> groupedAggregators = new ArrayList<>();
@@ -1244,16 +1331,7 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
       groupedAggregators.add(aggregators);
       aggregatorCount += aggregators.size();
     }
-    GroupByTimeParameter groupByTimeParameter = node.getGroupByTimeParameter();
-    ITimeRangeIterator timeRangeIterator =
-        initTimeRangeIterator(groupByTimeParameter, ascending, false);
-    List<AggregationDescriptor> aggregationDescriptors =
-        node.getTagValuesToAggregationDescriptors().values().stream()
-            .flatMap(Collection::stream)
-            .collect(Collectors.toList());
-    long maxReturnSize =
-        calculateMaxAggregationResultSize(
-            aggregationDescriptors, timeRangeIterator, context.getTypeProvider());
+    long maxReturnSize = calculateMaxGroupByTagResultSize(node, ascending, context);
     OperatorContext operatorContext =
         context
             .getDriverContext()
@@ -1266,6 +1344,65 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
         operatorContext, groups, groupedAggregators, children, maxReturnSize);
   }
 
+  /**
+   * Generate the operator merging partial results of GROUP BY TAG, whose children have aggregated
+   * the series of each data region by tag values.
+   */
+  private Operator generateHashTagAggregationOperator(
+      GroupByTagNode node,
+      List<Operator> children,
+      boolean ascending,
+      LocalExecutionPlanContext context) {
+    List<List<String>> groups = new ArrayList<>();
+    List<List<Accumulator>> groupedAccumulators = new ArrayList<>();
+    int accumulatorCount = 0;
+    for (Map.Entry<List<String>, List<CrossSeriesAggregationDescriptor>> entry :
+        node.getTagValuesToAggregationDescriptors().entrySet()) {
+      groups.add(entry.getKey());
+      List<Accumulator> accumulators = new ArrayList<>();
+      for (CrossSeriesAggregationDescriptor aggregationDescriptor : entry.getValue()) {
+        if (aggregationDescriptor == null) {
+          accumulators.add(null);
+          continue;
+        }
+        TSDataType seriesDataType =
+            context
+                .getTypeProvider()
+                .getType(aggregationDescriptor.getInputExpressions().get(0).getExpressionString());
+        accumulators.add(
+            AccumulatorFactory.createAccumulator(
+                aggregationDescriptor.getAggregationType(), seriesDataType, ascending));
+      }
+      groupedAccumulators.add(accumulators);
+      accumulatorCount += accumulators.size();
+    }
+    long maxReturnSize = calculateMaxGroupByTagResultSize(node, ascending, context);
+    OperatorContext operatorContext =
+        context
+            .getDriverContext()
+            .addOperatorContext(
+                context.getNextOperatorId(),
+                node.getPlanNodeId(),
+                HashTagAggregationOperator.class.getSimpleName());
+    context.getTimeSliceAllocator().recordExecutionWeight(operatorContext, accumulatorCount);
+    return new HashTagAggregationOperator(
+        operatorContext, groups, groupedAccumulators, children, ascending, maxReturnSize);
+  }
+
+  private long calculateMaxGroupByTagResultSize(
+      GroupByTagNode node, boolean ascending, LocalExecutionPlanContext context) {
+    GroupByTimeParameter groupByTimeParameter = node.getGroupByTimeParameter();
+    ITimeRangeIterator timeRangeIterator =
+        initTimeRangeIterator(groupByTimeParameter, ascending, false);
+    List<AggregationDescriptor> aggregationDescriptors =
+        node.getTagValuesToAggregationDescriptors().values().stream()
+            .flatMap(Collection::stream)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    return calculateMaxAggregationResultSize(
+        aggregationDescriptors, timeRangeIterator, context.getTypeProvider());
+  }
+
   @Override
   public Operator visitSlidingWindowAggregation(
       SlidingWindowAggregationNode node, LocalExecutionPlanContext context) {
@@ -1453,7 +1590,7 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             .addOperatorContext(
                 context.getNextOperatorId(),
                 node.getPlanNodeId(),
-                DeviceViewIntoOperator.class.getSimpleName());
+                SortOperator.class.getSimpleName());
     List<TSDataType> dataTypes = getOutputColumnTypes(node, context.getTypeProvider());
 
     List<SortItem> sortItemList = node.getOrderByParameter().getSortItemList();
@@ -1467,11 +1604,15 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
         sortItemList,
         sortItemIndexList,
         sortItemDataTypeList);
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
     return new SortOperator(
         operatorContext,
         child,
         dataTypes,
-        MergeSortComparator.getComparator(sortItemList, sortItemIndexList, sortItemDataTypeList));
+        MergeSortComparator.getComparator(sortItemList, sortItemIndexList, sortItemDataTypeList),
+        MPP_DATA_EXCHANGE_MANAGER.getLocalMemoryManager().getQueryPool(),
+        Math.min(config.getSortBufferSizeInBytes(), config.getMaxBytesPerFragmentInstance()),
+        config.getQueryDir() + File.separator + IoTDBConstant.SORT_FOLDER_NAME);
   }
 
   @Override
@@ -1640,25 +1781,27 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
 
   @Override
   public Operator visitTimeJoin(TimeJoinNode node, LocalExecutionPlanContext context) {
-    List<Operator> children = dealWithConsumeAllChildrenPipelineBreaker(node, context);
+    TimeJoinNode timeJoinNode = splitTimeJoinByDegreeOfParallelism(node, context);
+    List<Operator> children = dealWithConsumeAllChildrenPipelineBreaker(timeJoinNode, context);
     OperatorContext operatorContext =
         context
             .getDriverContext()
             .addOperatorContext(
                 context.getNextOperatorId(),
-                node.getPlanNodeId(),
+                timeJoinNode.getPlanNodeId(),
                 TimeJoinOperator.class.getSimpleName());
     TimeComparator timeComparator =
-        node.getMergeOrder() == Ordering.ASC ? ASC_TIME_COMPARATOR : DESC_TIME_COMPARATOR;
-    List<OutputColumn> outputColumns = generateOutputColumnsFromChildren(node);
+        timeJoinNode.getMergeOrder() == Ordering.ASC ? ASC_TIME_COMPARATOR : DESC_TIME_COMPARATOR;
+    List<OutputColumn> outputColumns = generateOutputColumnsFromChildren(timeJoinNode);
     List<ColumnMerger> mergers = createColumnMergers(outputColumns, timeComparator);
-    List<TSDataType> outputColumnTypes = getOutputColumnTypes(node, context.getTypeProvider());
+    List<TSDataType> outputColumnTypes =
+        getOutputColumnTypes(timeJoinNode, context.getTypeProvider());
 
     context.getTimeSliceAllocator().recordExecutionWeight(operatorContext, 1);
     return new RowBasedTimeJoinOperator(
         operatorContext,
         children,
-        node.getMergeOrder(),
+        timeJoinNode.getMergeOrder(),
         outputColumnTypes,
         mergers,
         timeComparator);
@@ -2183,14 +2326,57 @@ public class OperatorTreeGenerator extends PlanVisitor<Operator, LocalExecutionP
             node.getPathPatternList(), node.getTemplateId()));
   }
 
+  /**
+   * If a TimeJoinNode has more children than the degree of parallelism, partition the children into
+   * that many partial TimeJoinNodes, so that each partial join and its children run in one pipeline
+   * instead of creating one pipeline for every child. Adjacent children are put into the same
+   * partial join to keep the order of output columns.
+   */
+  private TimeJoinNode splitTimeJoinByDegreeOfParallelism(
+      TimeJoinNode node, LocalExecutionPlanContext context) {
+    int degreeOfParallelism = context.getDegreeOfParallelism();
+    List<PlanNode> children = node.getChildren();
+    if (degreeOfParallelism <= 1 || children.size() <= degreeOfParallelism) {
+      return node;
+    }
+
+    TimeJoinNode root = new TimeJoinNode(node.getPlanNodeId(), node.getMergeOrder());
+    int groupSize = (children.size() + degreeOfParallelism - 1) / degreeOfParallelism;
+    for (int from = 0; from < children.size(); from += groupSize) {
+      int to = Math.min(from + groupSize, children.size());
+      root.addChild(
+          new TimeJoinNode(
+              new PlanNodeId(String.format("%s_%d", node.getPlanNodeId().getId(), from)),
+              node.getMergeOrder(),
+              new ArrayList<>(children.subList(from, to))));
+    }
+    return root;
+  }
+
   private List<Operator> dealWithConsumeAllChildrenPipelineBreaker(
       PlanNode node, LocalExecutionPlanContext context) {
+    return dealWithConsumeAllChildrenPipelineBreaker(node.getChildren(), context);
+  }
+
+  private List<Operator> dealWithConsumeAllChildrenPipelineBreaker(
+      List<PlanNode> childNodes, LocalExecutionPlanContext context) {
+    // no more pipelines can be created, consume all the children in current pipeline
+    if (context.getDegreeOfParallelism() <= 1) {
+      return childNodes.stream()
+          .map(child -> child.accept(this, context))
+          .collect(Collectors.toList());
+    }
+    // the parallelism is shared by the pipelines of children
+    int childDegreeOfParallelism =
+        Math.max(1, context.getDegreeOfParallelism() / childNodes.size());
+
     // children after pipelining
     List<Operator> children = new ArrayList<>();
     int finalExchangeNum = context.getExchangeSumNum();
-    for (PlanNode childSource : node.getChildren()) {
+    for (PlanNode childSource : childNodes) {
       // Create pipelines for children
       LocalExecutionPlanContext subContext = context.createSubContext();
+      subContext.setDegreeOfParallelism(childDegreeOfParallelism);
       Operator childOperation = childSource.accept(this, subContext);
       // If the child belongs to another fragment instance, we don't create pipeline for it
       if (childOperation instanceof ExchangeOperator) {
@@ -37,6 +37,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesAggregationSc
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.AggregationDescriptor;
 
 import java.util.List;
+import java.util.Objects;
 
 public class SubPlanTypeExtractor {
 
@@ -142,6 +143,8 @@ public class SubPlanTypeExtractor {
     private void updateTypeProviderByAggregationDescriptor(
         List<? extends AggregationDescriptor> aggregationDescriptorList) {
       aggregationDescriptorList.stream()
+          // null descriptors are placeholders of GroupByTagNode for absent measurements
+          .filter(Objects::nonNull)
           .flatMap(aggregationDescriptor -> aggregationDescriptor.getInputExpressions().stream())
           .forEach(
               expression -> {
@@ -44,6 +44,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.MultiChildProcessN
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SingleDeviceViewNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SlidingWindowAggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TransformNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.VerticallyConcatNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryCollectNode;
@@ -271,27 +272,84 @@ public class ExchangeNodeAdder extends PlanVisitor<PlanNode, NodeGroupContext> {
     MergeSortNode mergeSortNode =
         new MergeSortNode(
             context.queryContext.getQueryId().genPlanNodeId(), orderByParameter, outputColumns);
+    addChildrenOfDifferentRegions(mergeSortNode, mergeSortNodeList, context);
+    return mergeSortNode;
+  }
 
-    // Each child has different TRegionReplicaSet, so we can select any one from
-    // its child
-    mergeSortNode.addChild(mergeSortNodeList.get(0));
+  /**
+   * Each child has different TRegionReplicaSet, the parent is put together with the first child
+   * and an ExchangeNode is added for each other child.
+   */
+  private void addChildrenOfDifferentRegions(
+      MultiChildProcessNode parent, List<PlanNode> children, NodeGroupContext context) {
+    parent.addChild(children.get(0));
     context.putNodeDistribution(
-        mergeSortNode.getPlanNodeId(),
+        parent.getPlanNodeId(),
         new NodeDistribution(
             NodeDistributionType.SAME_WITH_SOME_CHILD,
-            context.getNodeDistribution(mergeSortNodeList.get(0).getPlanNodeId()).region));
+            context.getNodeDistribution(children.get(0).getPlanNodeId()).region));
 
     // add ExchangeNode for other child
-    for (int i = 1; i < mergeSortNodeList.size(); i++) {
-      PlanNode child = mergeSortNodeList.get(i);
+    for (int i = 1; i < children.size(); i++) {
+      PlanNode child = children.get(i);
       ExchangeNode exchangeNode =
           new ExchangeNode(context.queryContext.getQueryId().genPlanNodeId());
       exchangeNode.setChild(child);
       exchangeNode.setOutputColumnNames(child.getOutputColumnNames());
-      mergeSortNode.addChild(exchangeNode);
+      parent.addChild(exchangeNode);
     }
+  }
 
-    return mergeSortNode;
+  @Override
+  public PlanNode visitTopK(TopKNode node, NodeGroupContext context) {
+    if (analysis.isVirtualSource()) {
+      return processMultiChildNodeByLocation(node, context);
+    }
+    // 1. Group children by dataRegion
+    Map<TRegionReplicaSet, List<PlanNode>> childrenGroupMap = new HashMap<>();
+    for (int i = 0; i < node.getChildren().size(); i++) {
+      PlanNode visitedChild = visit(node.getChildren().get(i), context);
+      TRegionReplicaSet region = context.getNodeDistribution(visitedChild.getPlanNodeId()).region;
+      childrenGroupMap.computeIfAbsent(region, k -> new ArrayList<>()).add(visitedChild);
+    }
+
+    TopKNode rootTopKNode = cloneTopKNodeWithoutChild(node, context);
+    if (childrenGroupMap.size() == 1) {
+      List<PlanNode> children = childrenGroupMap.values().iterator().next();
+      children.forEach(rootTopKNode::addChild);
+      context.putNodeDistribution(
+          rootTopKNode.getPlanNodeId(),
+          new NodeDistribution(
+              NodeDistributionType.SAME_WITH_ALL_CHILDREN,
+              context.getNodeDistribution(children.get(0).getPlanNodeId()).region));
+      return rootTopKNode;
+    }
+
+    // 2. add a partial TopKNode for each group, so that only topValue rows of each dataRegion
+    // are transferred
+    List<PlanNode> partialTopKNodeList = new ArrayList<>();
+    for (List<PlanNode> group : childrenGroupMap.values()) {
+      TopKNode partialTopKNode = cloneTopKNodeWithoutChild(node, context);
+      group.forEach(partialTopKNode::addChild);
+      context.putNodeDistribution(
+          partialTopKNode.getPlanNodeId(),
+          new NodeDistribution(
+              NodeDistributionType.SAME_WITH_ALL_CHILDREN,
+              context.getNodeDistribution(group.get(0).getPlanNodeId()).region));
+      partialTopKNodeList.add(partialTopKNode);
+    }
+
+    // 3. merge the partial results
+    addChildrenOfDifferentRegions(rootTopKNode, partialTopKNodeList, context);
+    return rootTopKNode;
+  }
+
+  private TopKNode cloneTopKNodeWithoutChild(TopKNode node, NodeGroupContext context) {
+    return new TopKNode(
+        context.queryContext.getQueryId().genPlanNodeId(),
+        node.getTopValue(),
+        node.getMergeOrderParameter(),
+        node.getOutputColumnNames());
   }
 
   @Override
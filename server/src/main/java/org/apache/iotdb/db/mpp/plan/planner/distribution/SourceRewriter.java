@@ -25,6 +25,7 @@ import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.path.PathPatternTree;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
 import org.apache.iotdb.db.mpp.plan.analyze.Analysis;
+import org.apache.iotdb.db.mpp.plan.analyze.TypeProvider;
 import org.apache.iotdb.db.mpp.plan.expression.Expression;
 import org.apache.iotdb.db.mpp.plan.planner.LogicalPlanBuilder;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
@@ -39,11 +40,14 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.AggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.DeviceViewNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.GroupByLevelNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.GroupByTagNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.LimitNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.MergeSortNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.MultiChildProcessNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.OffsetNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SingleDeviceViewNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SlidingWindowAggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.VerticallyConcatNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryCollectNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryMergeNode;
@@ -65,12 +69,15 @@ import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
 import org.apache.iotdb.db.mpp.plan.statement.component.SortItem;
 import org.apache.iotdb.db.mpp.plan.statement.component.SortKey;
 import org.apache.iotdb.db.mpp.plan.statement.crud.QueryStatement;
+import org.apache.iotdb.db.utils.SchemaUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -106,6 +113,21 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
         node.getOutputColumnNames());
   }
 
+  @Override
+  public List<PlanNode> visitTopK(TopKNode node, DistributionPlanContext context) {
+    TopKNode newRoot =
+        new TopKNode(
+            context.queryContext.getQueryId().genPlanNodeId(),
+            node.getTopValue(),
+            node.getMergeOrderParameter(),
+            node.getOutputColumnNames());
+    for (int i = 0; i < node.getChildren().size(); i++) {
+      List<PlanNode> rewroteNodes = rewrite(node.getChildren().get(i), context);
+      rewroteNodes.forEach(newRoot::addChild);
+    }
+    return Collections.singletonList(newRoot);
+  }
+
   @Override
   public List<PlanNode> visitSingleDeviceView(
       SingleDeviceViewNode node, DistributionPlanContext context) {
@@ -407,7 +429,50 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
       return sourceNodes;
     }
     sourceNodes.forEach(parent::addChild);
-    return Collections.singletonList(parent);
+    return Collections.singletonList(
+        restorePushedDownLimitAndOffset(node, parent, context.queryContext));
+  }
+
+  /**
+   * The limit and offset pushed down into a raw scan by the optimizer only hold for the whole
+   * series. Once the scan is split by partition, each split returns the first (limit + offset)
+   * rows and the limit and offset are applied again above the merging node.
+   */
+  private PlanNode restorePushedDownLimitAndOffset(
+      SeriesSourceNode node, PlanNode parent, MPPQueryContext queryContext) {
+    int limit;
+    int offset;
+    if (node instanceof SeriesScanNode) {
+      limit = ((SeriesScanNode) node).getLimit();
+      offset = ((SeriesScanNode) node).getOffset();
+    } else if (node instanceof AlignedSeriesScanNode) {
+      limit = ((AlignedSeriesScanNode) node).getLimit();
+      offset = ((AlignedSeriesScanNode) node).getOffset();
+    } else {
+      return parent;
+    }
+    if (limit == 0 && offset == 0) {
+      return parent;
+    }
+
+    int splitLimit = limit == 0 ? 0 : limit + offset;
+    for (PlanNode split : parent.getChildren()) {
+      if (split instanceof SeriesScanNode) {
+        ((SeriesScanNode) split).setLimit(splitLimit);
+        ((SeriesScanNode) split).setOffset(0);
+      } else {
+        ((AlignedSeriesScanNode) split).setLimit(splitLimit);
+        ((AlignedSeriesScanNode) split).setOffset(0);
+      }
+    }
+    PlanNode root = parent;
+    if (offset > 0) {
+      root = new OffsetNode(queryContext.getQueryId().genPlanNodeId(), root, offset);
+    }
+    if (limit > 0) {
+      root = new LimitNode(queryContext.getQueryId().genPlanNodeId(), root, limit);
+    }
+    return root;
   }
 
   private List<PlanNode> splitSeriesSourceNodeByPartition(
@@ -1022,6 +1087,18 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
       Map<TRegionReplicaSet, List<SeriesAggregationSourceNode>> sourceGroup,
       DistributionPlanContext context) {
     GroupByTagNode newRoot = (GroupByTagNode) root.clone();
+    if (sourceGroup.size() > 1) {
+      // Aggregate the series of each data region by tag values in the region firstly, so that the
+      // root only merges one row per group of each region instead of grouping all the series.
+      newRoot.setInputGrouped(true);
+      sourceGroup
+          .values()
+          .forEach(
+              sourceNodes ->
+                  newRoot.addChild(createPartialGroupByTagNode(root, sourceNodes, context)));
+      return newRoot;
+    }
+
     final boolean[] addParent = {false};
     sourceGroup.forEach(
         (dataRegion, sourceNodes) -> {
@@ -1042,6 +1119,93 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
     return newRoot;
   }
 
+  /**
+   * Create a GroupByTagNode which aggregates the given sources of one data region into
+   * intermediate results of each group. Groups without any series in the sources are omitted.
+   */
+  private GroupByTagNode createPartialGroupByTagNode(
+      GroupByTagNode root,
+      List<SeriesAggregationSourceNode> sourceNodes,
+      DistributionPlanContext context) {
+    Set<String> sourceOutputColumns = new HashSet<>();
+    for (SeriesAggregationSourceNode sourceNode : sourceNodes) {
+      sourceOutputColumns.addAll(sourceNode.getOutputColumnNames());
+    }
+
+    Map<List<String>, List<CrossSeriesAggregationDescriptor>> tagValuesToAggregationDescriptors =
+        new LinkedHashMap<>();
+    List<List<String>> outputColumnNamesOfAggregations =
+        new ArrayList<>(Collections.nCopies(root.getAggregationOutputColumnNames().size(), null));
+    for (Map.Entry<List<String>, List<CrossSeriesAggregationDescriptor>> entry :
+        root.getTagValuesToAggregationDescriptors().entrySet()) {
+      List<CrossSeriesAggregationDescriptor> descriptors = new ArrayList<>();
+      boolean hasSeriesInSources = false;
+      for (int i = 0; i < entry.getValue().size(); i++) {
+        CrossSeriesAggregationDescriptor originalDescriptor = entry.getValue().get(i);
+        if (originalDescriptor == null) {
+          descriptors.add(null);
+          continue;
+        }
+        CrossSeriesAggregationDescriptor descriptor =
+            new CrossSeriesAggregationDescriptor(
+                originalDescriptor.getAggregationFuncName(),
+                AggregationStep.INTERMEDIATE,
+                originalDescriptor.getInputExpressions().stream()
+                    .filter(
+                        expression ->
+                            sourceOutputColumns.containsAll(
+                                originalDescriptor.getInputColumnNames(expression)))
+                    .collect(Collectors.toList()),
+                originalDescriptor.getOutputExpression());
+        if (outputColumnNamesOfAggregations.get(i) == null) {
+          // the inputs of the descriptor may be filtered out in this region, so the input type is
+          // taken from the original descriptor, whose inputs are never empty
+          outputColumnNamesOfAggregations.set(i, descriptor.getOutputColumnNames());
+          updateTypeProviderByIntermediateOutput(
+              descriptor, originalDescriptor.getInputExpressions().get(0), context);
+        }
+        if (descriptor.getInputExpressions().isEmpty()) {
+          descriptors.add(null);
+        } else {
+          descriptors.add(descriptor);
+          hasSeriesInSources = true;
+        }
+      }
+      if (hasSeriesInSources) {
+        tagValuesToAggregationDescriptors.put(entry.getKey(), descriptors);
+      }
+    }
+
+    GroupByTagNode partialNode =
+        new GroupByTagNode(
+            context.queryContext.getQueryId().genPlanNodeId(),
+            root.getGroupByTimeParameter(),
+            root.getScanOrder(),
+            root.getTagKeys(),
+            tagValuesToAggregationDescriptors,
+            outputColumnNamesOfAggregations.stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList()));
+    sourceNodes.forEach(partialNode::addChild);
+    return partialNode;
+  }
+
+  private void updateTypeProviderByIntermediateOutput(
+      CrossSeriesAggregationDescriptor descriptor,
+      Expression inputExpression,
+      DistributionPlanContext context) {
+    TypeProvider typeProvider = context.queryContext.getTypeProvider();
+    String inputExpressionStr = inputExpression.getExpressionString();
+    for (String outputColumnName : descriptor.getOutputColumnNames()) {
+      TSDataType aggregationType =
+          SchemaUtils.getAggregationType(
+              outputColumnName.substring(0, outputColumnName.indexOf('(')));
+      typeProvider.setType(
+          outputColumnName,
+          aggregationType == null ? typeProvider.getType(inputExpressionStr) : aggregationType);
+    }
+  }
+
   // TODO: (xingtanzjr) need to confirm the logic when processing UDF
   private boolean isAggColumnMatchExpression(String columnName, Expression expression) {
     if (columnName == null) {
@@ -68,6 +68,9 @@ public class FragmentInstance implements IConsensusRequest {
 
   private boolean isRoot;
 
+  // collect runtime statistics of the operators for EXPLAIN ANALYZE
+  private boolean collectStatistics;
+
   private final SessionInfo sessionInfo;
 
   // We can add some more params for a specific FragmentInstance
@@ -140,6 +143,14 @@ public class FragmentInstance implements IConsensusRequest {
     return isRoot;
   }
 
+  public boolean isCollectStatistics() {
+    return collectStatistics;
+  }
+
+  public void setCollectStatistics(boolean collectStatistics) {
+    this.collectStatistics = collectStatistics;
+  }
+
   public String getDownstreamInfo() {
     PlanNode root = getFragment().getPlanNodeTree();
     if (root instanceof FragmentSinkNode) {
@@ -198,6 +209,7 @@ public class FragmentInstance implements IConsensusRequest {
     boolean hasHostDataNode = ReadWriteIOUtils.readBool(buffer);
     fragmentInstance.hostDataNode =
         hasHostDataNode ? ThriftCommonsSerDeUtils.deserializeTDataNodeLocation(buffer) : null;
+    fragmentInstance.collectStatistics = ReadWriteIOUtils.readBool(buffer);
     return fragmentInstance;
   }
 
@@ -220,6 +232,7 @@ public class FragmentInstance implements IConsensusRequest {
       if (hostDataNode != null) {
         ThriftCommonsSerDeUtils.serializeTDataNodeLocation(hostDataNode, outputStream);
       }
+      ReadWriteIOUtils.write(collectStatistics, outputStream);
       return ByteBuffer.wrap(publicBAOS.getBuf(), 0, publicBAOS.size());
     } catch (IOException e) {
       logger.error("Unexpected error occurs when serializing this FragmentInstance.", e);
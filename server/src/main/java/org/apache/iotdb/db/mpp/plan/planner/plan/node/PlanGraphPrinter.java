@@ -40,6 +40,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SingleDeviceViewNo
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SlidingWindowAggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SortNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TransformNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.VerticallyConcatNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryCollectNode;
@@ -61,6 +62,7 @@ import org.apache.iotdb.tsfile.utils.Pair;
 import org.apache.commons.lang3.Validate;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -172,6 +174,16 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     return render(node, boxValue, context);
   }
 
+  @Override
+  public List<String> visitTopK(TopKNode node, GraphContext context) {
+    List<String> boxValue = new ArrayList<>();
+    boxValue.add(String.format("TopK-%s", node.getPlanNodeId().getId()));
+    boxValue.add(String.format("TopValue: %d", node.getTopValue()));
+    boxValue.add(String.format("ChildrenCount: %d", node.getChildren().size()));
+    boxValue.add(node.getMergeOrderParameter().toString());
+    return render(node, boxValue, context);
+  }
+
   @Override
   public List<String> visitDeviceMerge(DeviceMergeNode node, GraphContext context) {
     List<String> boxValue = new ArrayList<>();
@@ -216,6 +228,9 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     List<String> boxValue = new ArrayList<>();
     boxValue.add(String.format("GroupByTag-%s", node.getPlanNodeId().getId()));
     boxValue.add(String.format("Tag keys: %s", node.getTagKeys()));
+    if (node.isInputGrouped()) {
+      boxValue.add("Input: grouped by tag");
+    }
     int bucketIdx = 0;
     for (Entry<List<String>, List<CrossSeriesAggregationDescriptor>> entry :
         node.getTagValuesToAggregationDescriptors().entrySet()) {
@@ -429,6 +444,11 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
   }
 
   private List<String> render(PlanNode node, List<String> nodeBoxString, GraphContext context) {
+    List<String> extraInfo = context.getExtraInfo(node.getPlanNodeId());
+    if (!extraInfo.isEmpty()) {
+      nodeBoxString = new ArrayList<>(nodeBoxString);
+      nodeBoxString.addAll(extraInfo);
+    }
     Box box = new Box(nodeBoxString);
     List<List<String>> children = new ArrayList<>();
     for (PlanNode child : node.getChildren()) {
@@ -627,12 +647,32 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     }
   }
 
-  public static class GraphContext {}
+  public static class GraphContext {
+
+    // extra lines printed in the box of each plan node, e.g. the runtime statistics
+    private final Map<PlanNodeId, List<String>> extraInfo;
+
+    public GraphContext() {
+      this(Collections.emptyMap());
+    }
+
+    public GraphContext(Map<PlanNodeId, List<String>> extraInfo) {
+      this.extraInfo = extraInfo;
+    }
+
+    public List<String> getExtraInfo(PlanNodeId planNodeId) {
+      return extraInfo.getOrDefault(planNodeId, Collections.emptyList());
+    }
+  }
 
   public static List<String> getGraph(PlanNode node) {
     return node.accept(new PlanGraphPrinter(), new PlanGraphPrinter.GraphContext());
   }
 
+  public static List<String> getGraph(PlanNode node, Map<PlanNodeId, List<String>> extraInfo) {
+    return node.accept(new PlanGraphPrinter(), new PlanGraphPrinter.GraphContext(extraInfo));
+  }
+
   public static void print(PlanNode node) {
     List<String> lines = getGraph(node);
     for (String line : lines) {
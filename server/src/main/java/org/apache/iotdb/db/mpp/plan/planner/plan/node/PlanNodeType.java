@@ -65,6 +65,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SingleDeviceViewNo
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SlidingWindowAggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SortNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TransformNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.VerticallyConcatNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.last.LastQueryCollectNode;
@@ -158,7 +159,8 @@ public enum PlanNodeType {
   VERTICALLY_CONCAT((short) 64),
   SINGLE_DEVICE_VIEW((short) 65),
   MERGE_SORT((short) 66),
-  SHOW_QUERIES((short) 67);
+  SHOW_QUERIES((short) 67),
+  TOP_K((short) 68);
 
   public static final int BYTES = Short.BYTES;
 
@@ -343,6 +345,8 @@ public enum PlanNodeType {
         return MergeSortNode.deserialize(buffer);
       case 67:
         return ShowQueriesNode.deserialize(buffer);
+      case 68:
+        return TopKNode.deserialize(buffer);
       default:
         throw new IllegalArgumentException("Invalid node type: " + nodeType);
     }
@@ -36,7 +36,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -56,6 +56,11 @@ public class GroupByTagNode extends MultiChildProcessNode {
 
   protected Ordering scanOrder;
 
+  // Whether the children output partial results already grouped by tag values, that is, one row of
+  // tag values and intermediate results for each group. Such input is merged by hashing the tag
+  // values instead of grouping the input series.
+  private boolean inputGrouped = false;
+
   public GroupByTagNode(
       PlanNodeId id,
       List<PlanNode> children,
@@ -90,13 +95,16 @@ public class GroupByTagNode extends MultiChildProcessNode {
   @Override
   public PlanNode clone() {
     // TODO: better do deep copy
-    return new GroupByTagNode(
-        getPlanNodeId(),
-        this.groupByTimeParameter,
-        this.scanOrder,
-        this.tagKeys,
-        this.tagValuesToAggregationDescriptors,
-        this.outputColumnNames);
+    GroupByTagNode groupByTagNode =
+        new GroupByTagNode(
+            getPlanNodeId(),
+            this.groupByTimeParameter,
+            this.scanOrder,
+            this.tagKeys,
+            this.tagValuesToAggregationDescriptors,
+            this.outputColumnNames);
+    groupByTagNode.setInputGrouped(inputGrouped);
+    return groupByTagNode;
   }
 
   @Override
@@ -148,6 +156,8 @@ public class GroupByTagNode extends MultiChildProcessNode {
 
     // Scan order.
     ReadWriteIOUtils.write(scanOrder.ordinal(), byteBuffer);
+
+    ReadWriteIOUtils.write(inputGrouped, byteBuffer);
   }
 
   @Override
@@ -187,6 +197,8 @@ public class GroupByTagNode extends MultiChildProcessNode {
 
     // Scan order.
     ReadWriteIOUtils.write(scanOrder.ordinal(), stream);
+
+    ReadWriteIOUtils.write(inputGrouped, stream);
   }
 
   @Nullable
@@ -207,6 +219,18 @@ public class GroupByTagNode extends MultiChildProcessNode {
     return tagValuesToAggregationDescriptors;
   }
 
+  public List<String> getAggregationOutputColumnNames() {
+    return outputColumnNames;
+  }
+
+  public boolean isInputGrouped() {
+    return inputGrouped;
+  }
+
+  public void setInputGrouped(boolean inputGrouped) {
+    this.inputGrouped = inputGrouped;
+  }
+
   public static GroupByTagNode deserialize(ByteBuffer byteBuffer) {
     // Tag keys.
     List<String> tagKeys = ReadWriteIOUtils.readStringList(byteBuffer);
@@ -214,16 +238,15 @@ public class GroupByTagNode extends MultiChildProcessNode {
     // Tag values to aggregation descriptors.
     int numOfEntries = ReadWriteIOUtils.readInt(byteBuffer);
     Map<List<String>, List<CrossSeriesAggregationDescriptor>> tagValuesToAggregationDescriptors =
-        new HashMap<>();
+        new LinkedHashMap<>();
     while (numOfEntries > 0) {
       List<String> tagValues = ReadWriteIOUtils.readStringList(byteBuffer);
       List<CrossSeriesAggregationDescriptor> aggregationDescriptors = new ArrayList<>();
       int numOfAggregationDescriptors = ReadWriteIOUtils.readInt(byteBuffer);
       while (numOfAggregationDescriptors > 0) {
         byte isNotNull = ReadWriteIOUtils.readByte(byteBuffer);
-        if (isNotNull == 1) {
-          aggregationDescriptors.add(CrossSeriesAggregationDescriptor.deserialize(byteBuffer));
-        }
+        aggregationDescriptors.add(
+            isNotNull == 1 ? CrossSeriesAggregationDescriptor.deserialize(byteBuffer) : null);
         numOfAggregationDescriptors -= 1;
       }
       tagValuesToAggregationDescriptors.put(tagValues, aggregationDescriptors);
@@ -243,14 +266,19 @@ public class GroupByTagNode extends MultiChildProcessNode {
     // Scan order.
     Ordering scanOrder = Ordering.values()[ReadWriteIOUtils.readInt(byteBuffer)];
 
+    boolean inputGrouped = ReadWriteIOUtils.readBool(byteBuffer);
+
     PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
-    return new GroupByTagNode(
-        planNodeId,
-        groupByTimeParameter,
-        scanOrder,
-        tagKeys,
-        tagValuesToAggregationDescriptors,
-        outputColumnNames);
+    GroupByTagNode groupByTagNode =
+        new GroupByTagNode(
+            planNodeId,
+            groupByTimeParameter,
+            scanOrder,
+            tagKeys,
+            tagValuesToAggregationDescriptors,
+            outputColumnNames);
+    groupByTagNode.setInputGrouped(inputGrouped);
+    return groupByTagNode;
   }
 
   @Override
@@ -267,6 +295,7 @@ public class GroupByTagNode extends MultiChildProcessNode {
     GroupByTagNode that = (GroupByTagNode) o;
     return Objects.equals(groupByTimeParameter, that.groupByTimeParameter)
         && scanOrder == that.scanOrder
+        && inputGrouped == that.inputGrouped
         && Objects.equals(tagKeys, that.tagKeys)
         && Objects.equals(tagValuesToAggregationDescriptors, that.tagValuesToAggregationDescriptors)
         && Objects.equals(outputColumnNames, that.outputColumnNames);
@@ -278,6 +307,7 @@ public class GroupByTagNode extends MultiChildProcessNode {
         super.hashCode(),
         groupByTimeParameter,
         scanOrder,
+        inputGrouped,
         tagKeys,
         tagValuesToAggregationDescriptors,
         outputColumnNames);
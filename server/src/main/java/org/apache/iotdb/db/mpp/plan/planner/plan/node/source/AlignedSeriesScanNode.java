@@ -119,6 +119,10 @@ public class AlignedSeriesScanNode extends SeriesSourceNode {
     return valueFilter;
   }
 
+  public void setValueFilter(@Nullable Filter valueFilter) {
+    this.valueFilter = valueFilter;
+  }
+
   public int getLimit() {
     return limit;
   }
@@ -127,6 +131,14 @@ public class AlignedSeriesScanNode extends SeriesSourceNode {
     return offset;
   }
 
+  public void setLimit(int limit) {
+    this.limit = limit;
+  }
+
+  public void setOffset(int offset) {
+    this.offset = offset;
+  }
+
   @Override
   public void open() throws Exception {}
 
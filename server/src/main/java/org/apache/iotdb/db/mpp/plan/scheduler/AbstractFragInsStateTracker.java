@@ -29,20 +29,28 @@ import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceFailureInfo;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceInfo;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceManager;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceState;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStatistics;
 import org.apache.iotdb.db.mpp.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.mpp.rpc.thrift.TFetchFragmentInstanceInfoReq;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceInfoResp;
 
 import org.apache.thrift.TException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 
 public abstract class AbstractFragInsStateTracker implements IFragInstanceStateTracker {
 
+  private static final Logger logger = LoggerFactory.getLogger(AbstractFragInsStateTracker.class);
+
+  private static final long FINAL_INFO_FETCH_INTERVAL_IN_MS = 20;
+
   protected QueryStateMachine stateMachine;
   protected ScheduledExecutorService scheduledExecutor;
   protected List<FragmentInstance> instances;
@@ -95,15 +103,57 @@ public abstract class AbstractFragInsStateTracker implements IFragInstanceStateT
             failureInfoList.add(FragmentInstanceFailureInfo.deserialize(buffer));
           }
         }
-        return new FragmentInstanceInfo(
-            FragmentInstanceState.valueOf(resp.getState()),
-            resp.getEndTime(),
-            failedMessage,
-            failureInfoList);
+        FragmentInstanceInfo instanceInfo =
+            new FragmentInstanceInfo(
+                FragmentInstanceState.valueOf(resp.getState()),
+                resp.getEndTime(),
+                failedMessage,
+                failureInfoList);
+        if (resp.isSetStatistics()) {
+          ByteBuffer statistics = resp.bufferForStatistics();
+          instanceInfo.setStatistics(FragmentInstanceStatistics.deserialize(statistics));
+        }
+        return instanceInfo;
       }
     }
   }
 
+  @Override
+  public List<FragmentInstanceInfo> waitForFinalInstanceInfos(long timeoutInMs) {
+    long deadline = System.currentTimeMillis() + timeoutInMs;
+    List<FragmentInstanceInfo> instanceInfos =
+        new ArrayList<>(Collections.nCopies(instances.size(), null));
+    while (true) {
+      boolean allDone = true;
+      for (int i = 0; i < instances.size(); i++) {
+        if (!isFinal(instanceInfos.get(i))) {
+          try {
+            instanceInfos.set(i, fetchInstanceInfo(instances.get(i)));
+          } catch (ClientManagerException | TException e) {
+            logger.warn("error happened while fetching the final info of fragment instance", e);
+          }
+          allDone &= isFinal(instanceInfos.get(i));
+        }
+      }
+      if (allDone || System.currentTimeMillis() >= deadline) {
+        return instanceInfos;
+      }
+      try {
+        Thread.sleep(FINAL_INFO_FETCH_INTERVAL_IN_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return instanceInfos;
+      }
+    }
+  }
+
+  private boolean isFinal(FragmentInstanceInfo instanceInfo) {
+    // after the query is finished, a missing instance will never show up again
+    return instanceInfo != null
+        && (instanceInfo.getState().isDone()
+            || instanceInfo.getState() == FragmentInstanceState.NO_SUCH_INSTANCE);
+  }
+
   private boolean isInstanceRunningLocally(TEndPoint endPoint) {
     return this.localhostIpAddr.equals(endPoint.getIp()) && localhostInternalPort == endPoint.port;
   }
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.mpp.common.MPPQueryContext;
 import org.apache.iotdb.db.mpp.common.PlanFragmentId;
 import org.apache.iotdb.db.mpp.execution.QueryStateMachine;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInfo;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceInfo;
 import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
 import org.apache.iotdb.db.mpp.plan.analyze.QueryType;
 import org.apache.iotdb.db.mpp.plan.planner.plan.FragmentInstance;
@@ -36,6 +37,7 @@ import io.airlift.units.Duration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -173,6 +175,14 @@ public class ClusterScheduler implements IScheduler {
     return null;
   }
 
+  @Override
+  public List<FragmentInstanceInfo> waitForFinalInstanceInfos(long timeoutInMs) {
+    if (stateTracker == null) {
+      return Collections.emptyList();
+    }
+    return stateTracker.waitForFinalInstanceInfos(timeoutInMs);
+  }
+
   @Override
   public void abortFragmentInstance(FragmentInstanceId instanceId, Throwable failureCause) {}
 
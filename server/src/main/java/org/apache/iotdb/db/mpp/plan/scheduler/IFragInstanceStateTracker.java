@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.mpp.plan.scheduler;
 
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceInfo;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 
 import java.util.List;
@@ -29,4 +30,10 @@ public interface IFragInstanceStateTracker {
   void abort();
 
   List<TFragmentInstanceId> filterUnFinishedFIs(List<TFragmentInstanceId> instanceIds);
+
+  /**
+   * Wait until all the tracked fragment instances are done or the timeout elapses, then return
+   * their latest info in the order of the instances. The info of an unreachable instance is null.
+   */
+  List<FragmentInstanceInfo> waitForFinalInstanceInfos(long timeoutInMs);
 }
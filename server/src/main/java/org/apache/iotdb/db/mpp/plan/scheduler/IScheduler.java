@@ -21,9 +21,12 @@ package org.apache.iotdb.db.mpp.plan.scheduler;
 import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
 import org.apache.iotdb.db.mpp.common.PlanFragmentId;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInfo;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceInfo;
 
 import io.airlift.units.Duration;
 
+import java.util.List;
+
 public interface IScheduler {
 
   void start();
@@ -34,6 +37,12 @@ public interface IScheduler {
 
   FragmentInfo getFragmentInfo();
 
+  /**
+   * Wait until the dispatched fragment instances are done and return their final info, which
+   * carries the runtime statistics if they are collected.
+   */
+  List<FragmentInstanceInfo> waitForFinalInstanceInfos(long timeoutInMs);
+
   void abortFragmentInstance(FragmentInstanceId instanceId, Throwable failureCause);
 
   void cancelFragment(PlanFragmentId planFragmentId);
@@ -36,6 +36,7 @@ import org.apache.iotdb.db.mpp.common.MPPQueryContext;
 import org.apache.iotdb.db.mpp.common.PlanFragmentId;
 import org.apache.iotdb.db.mpp.execution.QueryStateMachine;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInfo;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceInfo;
 import org.apache.iotdb.db.mpp.plan.planner.plan.DistributedQueryPlan;
 import org.apache.iotdb.db.mpp.plan.planner.plan.FragmentInstance;
 import org.apache.iotdb.db.mpp.plan.planner.plan.PlanFragment;
@@ -56,6 +57,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -139,8 +141,8 @@ public class LoadTsFileScheduler implements IScheduler {
   }
 
   private boolean firstPhase(LoadSingleTsFileNode node) {
+    TsFileDataManager tsFileDataManager = new TsFileDataManager(this, node);
     try {
-      TsFileDataManager tsFileDataManager = new TsFileDataManager(this, node);
       new TsFileSplitter(
               node.getTsFileResource().getTsFile(), tsFileDataManager::addOrSendTsFileData)
           .splitTsFileByDataPartition();
@@ -148,6 +150,7 @@ public class LoadTsFileScheduler implements IScheduler {
         return false;
       }
     } catch (IllegalStateException e) {
+      tsFileDataManager.waitForAllInFlightPieces();
       logger.warn(
           String.format(
               "Dispatch TsFileData error when parsing TsFile %s.",
@@ -155,6 +158,7 @@ public class LoadTsFileScheduler implements IScheduler {
           e);
       return false;
     } catch (Exception e) {
+      tsFileDataManager.waitForAllInFlightPieces();
       stateMachine.transitionToFailed(e);
       logger.warn(
           String.format("Parse or send TsFile %s error.", node.getTsFileResource().getTsFile()), e);
@@ -163,7 +167,7 @@ public class LoadTsFileScheduler implements IScheduler {
     return true;
   }
 
-  private boolean dispatchOnePieceNode(
+  Future<FragInstanceDispatchResult> dispatchOnePieceNodeAsync(
       LoadTsFilePieceNode pieceNode, TRegionReplicaSet replicaSet) {
     allReplicaSets.add(replicaSet);
     FragmentInstance instance =
@@ -175,9 +179,13 @@ public class LoadTsFileScheduler implements IScheduler {
             queryContext.getTimeOut(),
             queryContext.getSession());
     instance.setExecutorAndHost(new StorageExecutor(replicaSet));
-    Future<FragInstanceDispatchResult> dispatchResultFuture =
-        dispatcher.dispatch(Collections.singletonList(instance));
+    return dispatcher.dispatch(Collections.singletonList(instance));
+  }
 
+  boolean waitForPieceNode(
+      LoadTsFilePieceNode pieceNode,
+      TRegionReplicaSet replicaSet,
+      Future<FragInstanceDispatchResult> dispatchResultFuture) {
     try {
       FragInstanceDispatchResult result =
           dispatchResultFuture.get(
@@ -299,6 +307,11 @@ public class LoadTsFileScheduler implements IScheduler {
     return null;
   }
 
+  @Override
+  public List<FragmentInstanceInfo> waitForFinalInstanceInfos(long timeoutInMs) {
+    return Collections.emptyList();
+  }
+
   @Override
   public void abortFragmentInstance(FragmentInstanceId instanceId, Throwable failureCause) {}
 
@@ -310,21 +323,43 @@ public class LoadTsFileScheduler implements IScheduler {
     ROLLBACK
   }
 
-  private class TsFileDataManager {
+  /**
+   * {@link TsFileDataManager} groups the split {@link TsFileData} by region replica set and sends
+   * them while the TsFile is still being split. Pieces for different replica sets are in flight
+   * concurrently (at most {@link IoTDBConfig#getLoadTsFileDispatchParallelism()}), while pieces for
+   * the same replica set are sent one after another to keep the order of chunks and deletions. Both
+   * buffered and in-flight pieces are counted against {@link #MAX_MEMORY_SIZE}, so the splitter
+   * blocks when the receivers fall behind.
+   */
+  static class TsFileDataManager {
     private final LoadTsFileScheduler scheduler;
     private final LoadSingleTsFileNode singleTsFileNode;
+    private final int maxInFlightPieceNum;
+    private final long maxMemorySize;
 
     private long dataSize;
+    private long inFlightDataSize;
     private Map<TRegionReplicaSet, LoadTsFilePieceNode> replicaSet2Piece;
+    /** ordered by dispatch time, so the first entry is the oldest in-flight piece */
+    private Map<TRegionReplicaSet, InFlightPiece> replicaSet2InFlightPiece;
 
-    public TsFileDataManager(LoadTsFileScheduler scheduler, LoadSingleTsFileNode singleTsFileNode) {
+    TsFileDataManager(LoadTsFileScheduler scheduler, LoadSingleTsFileNode singleTsFileNode) {
+      this(scheduler, singleTsFileNode, MAX_MEMORY_SIZE);
+    }
+
+    TsFileDataManager(
+        LoadTsFileScheduler scheduler, LoadSingleTsFileNode singleTsFileNode, long maxMemorySize) {
       this.scheduler = scheduler;
       this.singleTsFileNode = singleTsFileNode;
+      this.maxInFlightPieceNum = Math.max(1, config.getLoadTsFileDispatchParallelism());
+      this.maxMemorySize = maxMemorySize;
       this.dataSize = 0;
+      this.inFlightDataSize = 0;
       this.replicaSet2Piece = new HashMap<>();
+      this.replicaSet2InFlightPiece = new LinkedHashMap<>();
     }
 
-    private boolean addOrSendTsFileData(TsFileData tsFileData) {
+    boolean addOrSendTsFileData(TsFileData tsFileData) {
       return tsFileData.isModification()
           ? addOrSendDeletionData(tsFileData)
           : addOrSendChunkData((ChunkData) tsFileData);
@@ -340,7 +375,9 @@ public class LoadTsFileScheduler implements IScheduler {
           (1 + replicaSet.getDataNodeLocationsSize())
               * chunkData.getDataSize(); // should multiply datanode factor
 
-      if (dataSize > MAX_MEMORY_SIZE) {
+      if (dataSize + inFlightDataSize > maxMemorySize) {
+        // hand the largest pieces over to the dispatcher until half of the memory is left for
+        // splitting, then wait for in-flight pieces until the whole budget fits again
         List<TRegionReplicaSet> sortedReplicaSets =
             replicaSet2Piece.keySet().stream()
                 .sorted(
@@ -352,20 +389,20 @@ public class LoadTsFileScheduler implements IScheduler {
           if (pieceNode.getDataSize() == 0) { // total data size has been reduced to 0
             break;
           }
-          if (!scheduler.dispatchOnePieceNode(pieceNode, sortedReplicaSet)) {
+          if (!sendPieceNodeAsync(sortedReplicaSet)) {
             return false;
           }
-
-          dataSize -= (1 + sortedReplicaSet.getDataNodeLocationsSize()) * pieceNode.getDataSize();
-          replicaSet2Piece.put(
-              sortedReplicaSet,
-              new LoadTsFilePieceNode(
-                  singleTsFileNode.getPlanNodeId(),
-                  singleTsFileNode.getTsFileResource().getTsFile()));
-          if (dataSize <= MAX_MEMORY_SIZE) {
+          if (dataSize <= maxMemorySize / 2) {
             break;
           }
         }
+
+        while (dataSize + inFlightDataSize > maxMemorySize
+            && !replicaSet2InFlightPiece.isEmpty()) {
+          if (!waitForInFlightPiece(replicaSet2InFlightPiece.keySet().iterator().next())) {
+            return false;
+          }
+        }
       }
 
       replicaSet2Piece
@@ -387,17 +424,96 @@ public class LoadTsFileScheduler implements IScheduler {
       return true;
     }
 
-    private boolean sendAllTsFileData() {
+    boolean sendAllTsFileData() {
       for (Map.Entry<TRegionReplicaSet, LoadTsFilePieceNode> entry : replicaSet2Piece.entrySet()) {
-        if (!scheduler.dispatchOnePieceNode(entry.getValue(), entry.getKey())) {
-          logger.warn(
-              "Dispatch piece node {} of TsFile {} error.",
-              entry.getValue(),
-              singleTsFileNode.getTsFileResource().getTsFile());
+        if (entry.getValue().getAllTsFileData().isEmpty()) {
+          continue;
+        }
+        if (!sendPieceNodeAsync(entry.getKey())) {
+          return false;
+        }
+      }
+      while (!replicaSet2InFlightPiece.isEmpty()) {
+        if (!waitForInFlightPiece(replicaSet2InFlightPiece.keySet().iterator().next())) {
           return false;
         }
       }
       return true;
     }
+
+    /**
+     * Dispatch the buffered piece of the replica set without waiting for its result. The previous
+     * piece of the same replica set must be finished first, and the number of in-flight pieces is
+     * bounded.
+     */
+    private boolean sendPieceNodeAsync(TRegionReplicaSet replicaSet) {
+      if (replicaSet2InFlightPiece.containsKey(replicaSet) && !waitForInFlightPiece(replicaSet)) {
+        return false;
+      }
+      while (replicaSet2InFlightPiece.size() >= maxInFlightPieceNum) {
+        if (!waitForInFlightPiece(replicaSet2InFlightPiece.keySet().iterator().next())) {
+          return false;
+        }
+      }
+
+      LoadTsFilePieceNode pieceNode = replicaSet2Piece.get(replicaSet);
+      long pieceDataSize = (1 + replicaSet.getDataNodeLocationsSize()) * pieceNode.getDataSize();
+      Future<FragInstanceDispatchResult> future =
+          scheduler.dispatchOnePieceNodeAsync(pieceNode, replicaSet);
+      replicaSet2InFlightPiece.put(replicaSet, new InFlightPiece(pieceNode, future, pieceDataSize));
+      dataSize -= pieceDataSize;
+      inFlightDataSize += pieceDataSize;
+      replicaSet2Piece.put(
+          replicaSet,
+          new LoadTsFilePieceNode(
+              singleTsFileNode.getPlanNodeId(), singleTsFileNode.getTsFileResource().getTsFile()));
+      return true;
+    }
+
+    private boolean waitForInFlightPiece(TRegionReplicaSet replicaSet) {
+      InFlightPiece inFlightPiece = replicaSet2InFlightPiece.remove(replicaSet);
+      inFlightDataSize -= inFlightPiece.dataSize;
+      if (!scheduler.waitForPieceNode(inFlightPiece.pieceNode, replicaSet, inFlightPiece.future)) {
+        logger.warn(
+            "Dispatch piece node {} of TsFile {} error.",
+            inFlightPiece.pieceNode,
+            singleTsFileNode.getTsFileResource().getTsFile());
+        waitForAllInFlightPieces();
+        return false;
+      }
+      return true;
+    }
+
+    /**
+     * Wait for the rest in-flight pieces after a failure, so that no piece reaches a receiver after
+     * the rollback command.
+     */
+    void waitForAllInFlightPieces() {
+      for (InFlightPiece inFlightPiece : replicaSet2InFlightPiece.values()) {
+        try {
+          inFlightPiece.future.get(LOAD_TASK_MAX_TIME_IN_SECOND, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        } catch (ExecutionException | CancellationException | TimeoutException e) {
+          inFlightPiece.future.cancel(true);
+        }
+      }
+      replicaSet2InFlightPiece.clear();
+      inFlightDataSize = 0;
+    }
+  }
+
+  private static class InFlightPiece {
+    private final LoadTsFilePieceNode pieceNode;
+    private final Future<FragInstanceDispatchResult> future;
+    private final long dataSize;
+
+    private InFlightPiece(
+        LoadTsFilePieceNode pieceNode, Future<FragInstanceDispatchResult> future, long dataSize) {
+      this.pieceNode = pieceNode;
+      this.future = future;
+      this.dataSize = dataSize;
+    }
   }
 }
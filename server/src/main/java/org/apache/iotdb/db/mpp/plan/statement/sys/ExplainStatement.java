@@ -30,14 +30,26 @@ public class ExplainStatement extends Statement {
 
   private final QueryStatement queryStatement;
 
+  /** If true, the query is executed and the plan is printed with its runtime statistics. */
+  private final boolean analyze;
+
   public ExplainStatement(QueryStatement queryStatement) {
+    this(queryStatement, false);
+  }
+
+  public ExplainStatement(QueryStatement queryStatement, boolean analyze) {
     this.queryStatement = queryStatement;
+    this.analyze = analyze;
   }
 
   public QueryStatement getQueryStatement() {
     return queryStatement;
   }
 
+  public boolean isAnalyze() {
+    return analyze;
+  }
+
   @Override
   public List<? extends PartialPath> getPaths() {
     return queryStatement.getPaths();
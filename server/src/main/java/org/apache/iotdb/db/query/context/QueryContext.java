@@ -21,20 +21,18 @@ package org.apache.iotdb.db.query.context;
 
 import org.apache.iotdb.commons.path.AlignedPath;
 import org.apache.iotdb.commons.path.PartialPath;
-import org.apache.iotdb.commons.path.PatternTreeMap;
-import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.cache.ModificationCache;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.modification.ModificationFile;
-import org.apache.iotdb.db.metadata.path.PatternTreeMapFactory;
-import org.apache.iotdb.db.metadata.path.PatternTreeMapFactory.ModsSerializer;
+import org.apache.iotdb.db.engine.modification.ModificationIndex;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /** QueryContext contains the shared information with in a query. */
 public class QueryContext {
@@ -46,12 +44,11 @@ public class QueryContext {
   private final Map<String, Map<String, List<Modification>>> filePathModCache =
       new ConcurrentHashMap<>();
   /**
-   * The key is the path of a ModificationFile and the value is all Modifications in this file. We
-   * use this field because each call of Modification.getModifications() return a copy of the
-   * Modifications, and we do not want it to create multiple copies within a query.
+   * The key is the path of a ModificationFile and the value is the indexed Modifications in this
+   * file got from {@link ModificationCache}. We keep it within a query so that the query sees the
+   * same Modifications of a file even if the file is appended during the query.
    */
-  private final Map<String, PatternTreeMap<Modification, ModsSerializer>> fileModCache =
-      new HashMap<>();
+  private final Map<String, ModificationIndex> fileModCache = new ConcurrentHashMap<>();
 
   protected long queryId;
 
@@ -73,6 +70,13 @@ public class QueryContext {
 
   private volatile boolean isInterrupted = false;
 
+  /** Whether runtime statistics are collected for EXPLAIN ANALYZE. */
+  private boolean collectStatistics = false;
+
+  // bytes of the chunks read by this query, split by whether the chunk was in ChunkCache
+  private final AtomicLong diskReadBytes = new AtomicLong();
+  private final AtomicLong cacheReadBytes = new AtomicLong();
+
   public QueryContext() {}
 
   public QueryContext(long queryId) {
@@ -102,54 +106,13 @@ public class QueryContext {
     return fileModifications.computeIfAbsent(
         path.getFullPath(),
         k -> {
-          PatternTreeMap<Modification, ModsSerializer> allModifications =
-              fileModCache.get(modFile.getFilePath());
-          if (allModifications == null) {
-            allModifications = PatternTreeMapFactory.getModsPatternTreeMap();
-            for (Modification modification : modFile.getModifications()) {
-              allModifications.append(modification.getPath(), modification);
-            }
-            fileModCache.put(modFile.getFilePath(), allModifications);
-          }
-          return sortAndMerge(allModifications.getOverlapped(path));
+          ModificationIndex allModifications =
+              fileModCache.computeIfAbsent(
+                  modFile.getFilePath(), f -> ModificationCache.getInstance().get(modFile));
+          return allModifications.getOverlapped(path);
         });
   }
 
-  private List<Modification> sortAndMerge(List<Modification> modifications) {
-    modifications.sort(
-        (o1, o2) -> {
-          if (!o1.getType().equals(o2.getType())) {
-            return o1.getType().compareTo(o2.getType());
-          } else if (!o1.getPath().equals(o2.getPath())) {
-            return o1.getPath().compareTo(o2.getPath());
-          } else if (o1.getFileOffset() != o2.getFileOffset()) {
-            return (int) (o1.getFileOffset() - o2.getFileOffset());
-          } else {
-            if (o1.getType() == Modification.Type.DELETION) {
-              Deletion del1 = (Deletion) o1;
-              Deletion del2 = (Deletion) o2;
-              return del1.getTimeRange().compareTo(del2.getTimeRange());
-            }
-            throw new IllegalArgumentException();
-          }
-        });
-    List<Modification> result = new ArrayList<>();
-    if (!modifications.isEmpty()) {
-      Deletion current = ((Deletion) modifications.get(0)).clone();
-      for (int i = 1; i < modifications.size(); i++) {
-        Deletion del = (Deletion) modifications.get(i);
-        if (current.intersects(del)) {
-          current.merge(del);
-        } else {
-          result.add(current);
-          current = del.clone();
-        }
-      }
-      result.add(current);
-    }
-    return result;
-  }
-
   /**
    * Find the modifications of all aligned 'paths' in 'modFile'. If they are not in the cache, read
    * them from 'modFile' and put then into the cache.
@@ -228,4 +191,28 @@ public class QueryContext {
   public boolean isInterrupted() {
     return isInterrupted;
   }
+
+  public boolean isCollectStatistics() {
+    return collectStatistics;
+  }
+
+  public void setCollectStatistics(boolean collectStatistics) {
+    this.collectStatistics = collectStatistics;
+  }
+
+  public void recordChunkRead(long bytes, boolean fromCache) {
+    if (fromCache) {
+      cacheReadBytes.addAndGet(bytes);
+    } else {
+      diskReadBytes.addAndGet(bytes);
+    }
+  }
+
+  public long getDiskReadBytes() {
+    return diskReadBytes.get();
+  }
+
+  public long getCacheReadBytes() {
+    return cacheReadBytes.get();
+  }
 }
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.query.reader.chunk;
 
 import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
+import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
@@ -38,11 +39,11 @@ import static org.apache.iotdb.db.mpp.metric.SeriesScanCostMetricSet.INIT_CHUNK_
 
 public class DiskAlignedChunkLoader implements IChunkLoader {
 
-  private final boolean debug;
+  private final QueryContext context;
   private static final QueryMetricsManager QUERY_METRICS = QueryMetricsManager.getInstance();
 
-  public DiskAlignedChunkLoader(boolean debug) {
-    this.debug = debug;
+  public DiskAlignedChunkLoader(QueryContext context) {
+    this.context = context;
   }
 
   @Override
@@ -61,13 +62,13 @@ public class DiskAlignedChunkLoader implements IChunkLoader {
       AlignedChunkMetadata alignedChunkMetadata = (AlignedChunkMetadata) chunkMetaData;
       Chunk timeChunk =
           ChunkCache.getInstance()
-              .get((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata(), debug);
+              .get((ChunkMetadata) alignedChunkMetadata.getTimeChunkMetadata(), context);
       List<Chunk> valueChunkList = new ArrayList<>();
       for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
         valueChunkList.add(
             valueChunkMetadata == null
                 ? null
-                : ChunkCache.getInstance().get((ChunkMetadata) valueChunkMetadata, debug));
+                : ChunkCache.getInstance().get((ChunkMetadata) valueChunkMetadata, context));
       }
 
       long t2 = System.nanoTime();
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.query.reader.chunk;
 
 import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.mpp.metric.QueryMetricsManager;
+import org.apache.iotdb.db.query.context.QueryContext;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 import org.apache.iotdb.tsfile.read.common.Chunk;
@@ -37,17 +38,17 @@ import static org.apache.iotdb.db.mpp.metric.SeriesScanCostMetricSet.INIT_CHUNK_
 /** To read one chunk from disk, and only used in iotdb server module */
 public class DiskChunkLoader implements IChunkLoader {
 
-  private final boolean debug;
+  private final QueryContext context;
 
   private static final QueryMetricsManager QUERY_METRICS = QueryMetricsManager.getInstance();
 
-  public DiskChunkLoader(boolean debug) {
-    this.debug = debug;
+  public DiskChunkLoader(QueryContext context) {
+    this.context = context;
   }
 
   @Override
   public Chunk loadChunk(ChunkMetadata chunkMetaData) throws IOException {
-    return ChunkCache.getInstance().get(chunkMetaData, debug);
+    return ChunkCache.getInstance().get(chunkMetaData, context);
   }
 
   @Override
@@ -60,7 +61,7 @@ public class DiskChunkLoader implements IChunkLoader {
       throws IOException {
     long t1 = System.nanoTime();
     try {
-      Chunk chunk = ChunkCache.getInstance().get((ChunkMetadata) chunkMetaData, debug);
+      Chunk chunk = ChunkCache.getInstance().get((ChunkMetadata) chunkMetaData, context);
       chunk.setFromOldFile(chunkMetaData.isFromOldTsFile());
 
       long t2 = System.nanoTime();
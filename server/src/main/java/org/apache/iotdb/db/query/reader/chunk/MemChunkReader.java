@@ -27,12 +27,12 @@ import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 
 import java.io.IOException;
-import java.util.Collections;
 import java.util.List;
 
 /** To read chunk data in memory */
 public class MemChunkReader implements IChunkReader, IPointReader {
 
+  private final ReadOnlyMemChunk readableChunk;
   private IPointReader timeValuePairIterator;
   private Filter filter;
   private boolean hasCachedTimeValuePair;
@@ -40,13 +40,17 @@ public class MemChunkReader implements IChunkReader, IPointReader {
   private List<IPageReader> pageReaderList;
 
   public MemChunkReader(ReadOnlyMemChunk readableChunk, Filter filter) {
-    timeValuePairIterator = readableChunk.getPointReader();
+    this.readableChunk = readableChunk;
     this.filter = filter;
-    // we treat one ReadOnlyMemChunk as one Page
-    this.pageReaderList =
-        Collections.singletonList(
-            new MemPageReader(
-                readableChunk.getTsBlock(), readableChunk.getChunkMetaData(), filter));
+    // every block of the ReadOnlyMemChunk is a page, whose data is built only when it is read
+    this.pageReaderList = readableChunk.getPageReaderList(filter);
+  }
+
+  private IPointReader getTimeValuePairIterator() {
+    if (timeValuePairIterator == null) {
+      timeValuePairIterator = readableChunk.getPointReader();
+    }
+    return timeValuePairIterator;
   }
 
   @Override
@@ -54,8 +58,8 @@ public class MemChunkReader implements IChunkReader, IPointReader {
     if (hasCachedTimeValuePair) {
       return true;
     }
-    while (timeValuePairIterator.hasNextTimeValuePair()) {
-      TimeValuePair timeValuePair = timeValuePairIterator.nextTimeValuePair();
+    while (getTimeValuePairIterator().hasNextTimeValuePair()) {
+      TimeValuePair timeValuePair = getTimeValuePairIterator().nextTimeValuePair();
       if (filter == null
           || filter.satisfy(timeValuePair.getTimestamp(), timeValuePair.getValue().getValue())) {
         hasCachedTimeValuePair = true;
@@ -72,14 +76,14 @@ public class MemChunkReader implements IChunkReader, IPointReader {
       hasCachedTimeValuePair = false;
       return cachedTimeValuePair;
     } else {
-      return timeValuePairIterator.nextTimeValuePair();
+      return getTimeValuePairIterator().nextTimeValuePair();
     }
   }
 
   @Override
   public TimeValuePair currentTimeValuePair() throws IOException {
     if (!hasCachedTimeValuePair) {
-      cachedTimeValuePair = timeValuePairIterator.nextTimeValuePair();
+      cachedTimeValuePair = getTimeValuePairIterator().nextTimeValuePair();
       hasCachedTimeValuePair = true;
     }
     return cachedTimeValuePair;
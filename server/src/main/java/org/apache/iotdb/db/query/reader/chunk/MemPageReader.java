@@ -36,22 +36,42 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class MemPageReader implements IPageReader {
 
-  private final TsBlock tsBlock;
-  private final IChunkMetadata chunkMetadata;
+  private final Supplier<TsBlock> tsBlockSupplier;
+  private TsBlock cachedTsBlock;
+  private final TSDataType dataType;
+  private final Statistics statistics;
   private Filter valueFilter;
 
   public MemPageReader(TsBlock tsBlock, IChunkMetadata chunkMetadata, Filter filter) {
-    this.tsBlock = tsBlock;
-    this.chunkMetadata = chunkMetadata;
+    this(() -> tsBlock, chunkMetadata.getDataType(), chunkMetadata.getStatistics(), filter);
+  }
+
+  /** The data of the page is only built when it is read, pages skipped by statistics are free. */
+  public MemPageReader(
+      Supplier<TsBlock> tsBlockSupplier,
+      TSDataType dataType,
+      Statistics statistics,
+      Filter filter) {
+    this.tsBlockSupplier = tsBlockSupplier;
+    this.dataType = dataType;
+    this.statistics = statistics;
     this.valueFilter = filter;
   }
 
+  private TsBlock getTsBlock() {
+    if (cachedTsBlock == null) {
+      cachedTsBlock = tsBlockSupplier.get();
+    }
+    return cachedTsBlock;
+  }
+
   @Override
   public BatchData getAllSatisfiedPageData(boolean ascending) throws IOException {
-    TSDataType dataType = chunkMetadata.getDataType();
+    TsBlock tsBlock = getTsBlock();
     BatchData batchData = BatchDataFactory.createBatchData(dataType, ascending, false);
     for (int i = 0; i < tsBlock.getPositionCount(); i++) {
       if (valueFilter == null
@@ -90,7 +110,7 @@ public class MemPageReader implements IPageReader {
 
   @Override
   public TsBlock getAllSatisfiedData() {
-    TSDataType dataType = chunkMetadata.getDataType();
+    TsBlock tsBlock = getTsBlock();
     TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(dataType));
     TimeColumnBuilder timeBuilder = builder.getTimeColumnBuilder();
     ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
@@ -169,7 +189,7 @@ public class MemPageReader implements IPageReader {
 
   @Override
   public Statistics getStatistics() {
-    return chunkMetadata.getStatistics();
+    return statistics;
   }
 
   @Override
@@ -109,7 +109,7 @@ public class DiskAlignedChunkMetadataLoader implements IChunkMetadataLoader {
             if (chunkMetadata.needSetChunkLoader()) {
               chunkMetadata.setFilePath(resource.getTsFilePath());
               chunkMetadata.setClosed(resource.isClosed());
-              chunkMetadata.setChunkLoader(new DiskAlignedChunkLoader(context.isDebug()));
+              chunkMetadata.setChunkLoader(new DiskAlignedChunkLoader(context));
             }
           });
 
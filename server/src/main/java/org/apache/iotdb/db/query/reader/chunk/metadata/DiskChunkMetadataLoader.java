@@ -97,7 +97,7 @@ public class DiskChunkMetadataLoader implements IChunkMetadataLoader {
             if (chunkMetadata.needSetChunkLoader()) {
               chunkMetadata.setFilePath(resource.getTsFilePath());
               chunkMetadata.setClosed(resource.isClosed());
-              chunkMetadata.setChunkLoader(new DiskChunkLoader(context.isDebug()));
+              chunkMetadata.setChunkLoader(new DiskChunkLoader(context));
             }
           });
 
@@ -64,7 +64,7 @@ public class MemAlignedChunkMetadataLoader implements IChunkMetadataLoader {
             if (chunkMetadata.needSetChunkLoader()) {
               chunkMetadata.setFilePath(resource.getTsFilePath());
               chunkMetadata.setClosed(resource.isClosed());
-              chunkMetadata.setChunkLoader(new DiskAlignedChunkLoader(context.isDebug()));
+              chunkMetadata.setChunkLoader(new DiskAlignedChunkLoader(context));
             }
           });
 
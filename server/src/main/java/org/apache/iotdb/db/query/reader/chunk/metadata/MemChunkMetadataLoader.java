@@ -66,7 +66,7 @@ public class MemChunkMetadataLoader implements IChunkMetadataLoader {
             if (chunkMetadata.needSetChunkLoader()) {
               chunkMetadata.setFilePath(resource.getTsFilePath());
               chunkMetadata.setClosed(resource.isClosed());
-              chunkMetadata.setChunkLoader(new DiskChunkLoader(context.isDebug()));
+              chunkMetadata.setChunkLoader(new DiskChunkLoader(context));
             }
           });
 
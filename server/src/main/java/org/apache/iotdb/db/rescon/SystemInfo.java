@@ -25,6 +25,7 @@ import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.flush.FlushManager;
+import org.apache.iotdb.db.engine.flush.MemTableFlushSelector;
 import org.apache.iotdb.db.engine.storagegroup.DataRegionInfo;
 import org.apache.iotdb.db.engine.storagegroup.TsFileProcessor;
 import org.apache.iotdb.db.exception.WriteProcessRejectException;
@@ -32,9 +33,11 @@ import org.apache.iotdb.db.exception.WriteProcessRejectException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -190,6 +193,24 @@ public class SystemInfo {
     }
   }
 
+  /**
+   * Reserve compaction memory without waiting. Return false if the memory for compaction is not
+   * enough.
+   */
+  public boolean tryAddCompactionMemoryCost(long memoryCost) {
+    if (!config.isEnableMemControl()) {
+      return true;
+    }
+    long originSize;
+    do {
+      originSize = this.compactionMemoryCost.get();
+      if (originSize + memoryCost > memorySizeForCompaction) {
+        return false;
+      }
+    } while (!compactionMemoryCost.compareAndSet(originSize, originSize + memoryCost));
+    return true;
+  }
+
   public synchronized void resetCompactionMemoryCost(long compactionMemoryCost) {
     this.compactionMemoryCost.addAndGet(-compactionMemoryCost);
   }
@@ -222,30 +243,32 @@ public class SystemInfo {
   }
 
   /**
-   * Order all working memtables in system by memory cost of actual data points in memtable. Mark
-   * the top K TSPs as to be flushed, so that after flushing the K TSPs, the memory cost should be
-   * less than FLUSH_THRESHOLD
+   * Order all working memtables in system by flush priority, see {@link MemTableFlushSelector}.
+   * Mark the top K TSPs as to be flushed, so that after flushing the K TSPs, the memory cost should
+   * be less than FLUSH_THRESHOLD
    */
   private boolean chooseMemTablesToMarkFlush(TsFileProcessor currentTsFileProcessor) {
     // If invoke flush by replaying logs, do not flush now!
     if (reportedStorageGroupMemCostMap.size() == 0) {
       return false;
     }
-    PriorityQueue<TsFileProcessor> allTsFileProcessors =
-        new PriorityQueue<>(
-            (o1, o2) -> Long.compare(o2.getWorkMemTableRamCost(), o1.getWorkMemTableRamCost()));
+    long activeMemSize = totalStorageGroupMemCost - flushingMemTablesCost;
+    if (activeMemSize <= FLUSH_THERSHOLD) {
+      return false;
+    }
+    List<TsFileProcessor> allTsFileProcessors = new ArrayList<>();
     for (DataRegionInfo dataRegionInfo : reportedStorageGroupMemCostMap.keySet()) {
       allTsFileProcessors.addAll(dataRegionInfo.getAllReportedTsp());
     }
+    Iterator<TsFileProcessor> sortedTsFileProcessors =
+        MemTableFlushSelector.sortByFlushPriority(allTsFileProcessors).iterator();
     boolean isCurrentTsFileProcessorSelected = false;
     long memCost = 0;
-    long activeMemSize = totalStorageGroupMemCost - flushingMemTablesCost;
     while (activeMemSize - memCost > FLUSH_THERSHOLD) {
-      if (allTsFileProcessors.isEmpty()
-          || allTsFileProcessors.peek().getWorkMemTableRamCost() == 0) {
+      if (!sortedTsFileProcessors.hasNext()) {
         return false;
       }
-      TsFileProcessor selectedTsFileProcessor = allTsFileProcessors.peek();
+      TsFileProcessor selectedTsFileProcessor = sortedTsFileProcessors.next();
       memCost += selectedTsFileProcessor.getWorkMemTableRamCost();
       selectedTsFileProcessor.setWorkMemTableShouldFlush();
       flushTaskSubmitThreadPool.submit(
@@ -255,7 +278,6 @@ public class SystemInfo {
       if (selectedTsFileProcessor == currentTsFileProcessor) {
         isCurrentTsFileProcessorSelected = true;
       }
-      allTsFileProcessors.poll();
     }
     return isCurrentTsFileProcessorSelected;
   }
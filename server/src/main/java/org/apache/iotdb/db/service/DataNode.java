@@ -41,6 +41,7 @@ import org.apache.iotdb.commons.udf.UDFInformation;
 import org.apache.iotdb.commons.udf.service.UDFClassLoaderManager;
 import org.apache.iotdb.commons.udf.service.UDFExecutableManager;
 import org.apache.iotdb.commons.udf.service.UDFManagementService;
+import org.apache.iotdb.commons.utils.FileUtils;
 import org.apache.iotdb.confignode.rpc.thrift.TDataNodeRegisterReq;
 import org.apache.iotdb.confignode.rpc.thrift.TDataNodeRegisterResp;
 import org.apache.iotdb.confignode.rpc.thrift.TDataNodeRestartReq;
@@ -492,6 +493,7 @@ public class DataNode implements DataNodeMBean {
     registerManager.register(WALManager.getInstance());
 
     // in mpp mode we need to start some other services
+    clearSortSpillFolder();
     registerManager.register(StorageEngine.getInstance());
     registerManager.register(MPPDataExchangeService.getInstance());
     registerManager.register(DriverScheduler.getInstance());
@@ -524,6 +526,17 @@ public class DataNode implements DataNodeMBean {
   }
 
   /** set up RPC and protocols after DataNode is available */
+  /** Spill files left by sort operators before a crash are never read or deleted by anyone. */
+  private void clearSortSpillFolder() {
+    File sortFolder =
+        SystemFileFactory.INSTANCE.getFile(
+            config.getQueryDir() + File.separator + IoTDBConstant.SORT_FOLDER_NAME);
+    if (sortFolder.exists()) {
+      logger.info("Clear the sort spill folder {}", sortFolder);
+      FileUtils.deleteDirectory(sortFolder);
+    }
+  }
+
   private void setUpRPCService() throws StartupException {
     // Start InternalRPCService to indicate that the current DataNode can accept cluster scheduling
     registerManager.register(DataNodeInternalRPCService.getInstance());
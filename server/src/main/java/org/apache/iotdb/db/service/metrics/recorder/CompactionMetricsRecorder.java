@@ -68,6 +68,93 @@ public class CompactionMetricsRecorder {
             "compaction");
   }
 
+  public static void recordIOThrottleInfo(
+      String directory,
+      double factor,
+      double readRate,
+      double writeRate,
+      double diskUtilization) {
+    MetricService.getInstance()
+        .getOrCreateGauge(
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "compaction_io_throttle_factor",
+            Tag.TYPE.toString(),
+            directory)
+        .set((long) (factor * 100));
+    MetricService.getInstance()
+        .getOrCreateGauge(
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "compaction_io_throttle_read_rate",
+            Tag.TYPE.toString(),
+            directory)
+        .set(readRate >= Long.MAX_VALUE ? -1 : (long) readRate);
+    MetricService.getInstance()
+        .getOrCreateGauge(
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "compaction_io_throttle_write_rate",
+            Tag.TYPE.toString(),
+            directory)
+        .set(writeRate >= Long.MAX_VALUE ? -1 : (long) writeRate);
+    MetricService.getInstance()
+        .getOrCreateGauge(
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "compaction_io_disk_utilization",
+            Tag.TYPE.toString(),
+            directory)
+        .set((long) (diskUtilization * 100));
+  }
+
+  /**
+   * Record the amplification estimated by a selector for a chosen task. Write amplification is
+   * recorded as a percentage since histograms only take integral values.
+   */
+  public static void recordSelectedAmplification(
+      String taskType, double writeAmplification, int readAmplificationReduction) {
+    MetricService.getInstance()
+        .histogram(
+            toPercentage(writeAmplification),
+            Metric.COMPACTION_AMPLIFICATION.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "estimated_write_amplification",
+            Tag.TYPE.toString(),
+            taskType);
+    MetricService.getInstance()
+        .histogram(
+            readAmplificationReduction,
+            Metric.COMPACTION_AMPLIFICATION.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "read_amplification_reduction",
+            Tag.TYPE.toString(),
+            taskType);
+  }
+
+  /** Record the write amplification a finished task actually achieved, as a percentage. */
+  public static void recordActualWriteAmplification(String taskType, double writeAmplification) {
+    MetricService.getInstance()
+        .histogram(
+            toPercentage(writeAmplification),
+            Metric.COMPACTION_AMPLIFICATION.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "actual_write_amplification",
+            Tag.TYPE.toString(),
+            taskType);
+  }
+
+  private static long toPercentage(double value) {
+    return value >= Long.MAX_VALUE / 100.0 ? Long.MAX_VALUE : (long) (value * 100);
+  }
+
   public static void recordTaskInfo(
       AbstractCompactionTask task, CompactionTaskStatus status, int size) {
     String taskType = "unknown";
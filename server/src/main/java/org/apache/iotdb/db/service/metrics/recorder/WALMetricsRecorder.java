@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.service.metrics.recorder;
+
+import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.metrics.utils.MetricLevel;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class WALMetricsRecorder {
+  private static final AtomicLong TOTAL_RAW_BYTES = new AtomicLong(0);
+  private static final AtomicLong TOTAL_COMPRESSED_BYTES = new AtomicLong(0);
+
+  private WALMetricsRecorder() {}
+
+  public static void recordCompressionInfo(long rawByteNum, long compressedByteNum) {
+    MetricService.getInstance()
+        .count(
+            rawByteNum,
+            Metric.DATA_WRITTEN.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "wal_compression",
+            Tag.TYPE.toString(),
+            "raw");
+    MetricService.getInstance()
+        .count(
+            compressedByteNum,
+            Metric.DATA_WRITTEN.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "wal_compression",
+            Tag.TYPE.toString(),
+            "compressed");
+    long totalRaw = TOTAL_RAW_BYTES.addAndGet(rawByteNum);
+    long totalCompressed = TOTAL_COMPRESSED_BYTES.addAndGet(compressedByteNum);
+    // ratio in percent of compressed bytes to raw bytes since startup
+    MetricService.getInstance()
+        .getOrCreateGauge(
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "wal_compression_ratio")
+        .set(totalRaw == 0 ? 100 : totalCompressed * 100 / totalRaw);
+  }
+
+  public static void recordRecoveredWALFile(long fileSize, long redoEntriesNum) {
+    MetricService.getInstance()
+        .count(
+            fileSize,
+            Metric.DATA_READ.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "wal_recover");
+    MetricService.getInstance()
+        .count(
+            redoEntriesNum,
+            Metric.ENTRY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "wal_recover_redo");
+  }
+
+  public static void recordRecoverRemainingNodes(int remainingNodesNum) {
+    MetricService.getInstance()
+        .getOrCreateGauge(
+            Metric.QUEUE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            "wal_recover",
+            Tag.STATUS.toString(),
+            "remaining")
+        .set(remainingNodesNum);
+  }
+}
@@ -301,6 +301,9 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
           failureInfoList.add(failureInfo.serialize());
         }
         resp.setFailureInfoList(failureInfoList);
+        if (info.getStatistics() != null) {
+          resp.setStatistics(info.getStatistics().serialize());
+        }
         return resp;
       } catch (IOException e) {
         return resp;
@@ -40,6 +40,7 @@ import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
@@ -60,6 +61,8 @@ public abstract class AlignedTVList extends TVList {
 
   // data type list -> list of TVList, add 1 when expanded -> primitive array of basic type
   // index relation: columnIndex(dataTypeIndex) -> arrayIndex -> elementIndex
+  // the primitive array is null until the first non-null value of the column is put into its rows,
+  // so all the values in the rows of a null array are null
   protected List<List<Object>> values;
 
   // list of index array, add 1 when expanded -> data point index array
@@ -77,6 +80,8 @@ public abstract class AlignedTVList extends TVList {
 
   AlignedTVList(List<TSDataType> types) {
     super();
+    // aligned chunks are read through AlignedReadOnlyMemChunk, which has no block pages yet
+    blockStatistics = null;
     indices = new ArrayList<>(types.size());
     dataTypes = types;
     memoryBinaryChunkSize = new long[dataTypes.size()];
@@ -177,6 +182,12 @@ public abstract class AlignedTVList extends TVList {
       List<Object> columnValues = values.get(i);
       if (columnValue == null) {
         markNullValue(i, arrayIndex, elementIndex);
+        if (columnValues.get(arrayIndex) == null) {
+          // sparse rows, no need to store the null value
+          continue;
+        }
+      } else {
+        allocateValueArrayIfAbsent(i, arrayIndex, elementIndex);
       }
       switch (dataTypes.get(i)) {
         case TEXT:
@@ -216,9 +227,7 @@ public abstract class AlignedTVList extends TVList {
     }
     indices.get(arrayIndex)[elementIndex] = rowCount;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
-      sorted = false;
-    }
+    updateDisorderStatistics(timestamp, rowCount - 1, null, 0);
   }
 
   @Override
@@ -318,49 +327,13 @@ public abstract class AlignedTVList extends TVList {
         bitMaps.add(null);
       }
     }
+    // all the existing rows are null in the new column, so its arrays stay null until a non-null
+    // value is put
     List<Object> columnValue = new ArrayList<>();
     List<BitMap> columnBitMaps = new ArrayList<>();
     for (int i = 0; i < timestamps.size(); i++) {
-      switch (dataType) {
-        case TEXT:
-          columnValue.add(getPrimitiveArraysByType(TSDataType.TEXT));
-          break;
-        case FLOAT:
-          columnValue.add(getPrimitiveArraysByType(TSDataType.FLOAT));
-          break;
-        case INT32:
-          columnValue.add(getPrimitiveArraysByType(TSDataType.INT32));
-          break;
-        case INT64:
-          columnValue.add(getPrimitiveArraysByType(TSDataType.INT64));
-          break;
-        case DOUBLE:
-          columnValue.add(getPrimitiveArraysByType(TSDataType.DOUBLE));
-          break;
-        case BOOLEAN:
-          columnValue.add(getPrimitiveArraysByType(TSDataType.BOOLEAN));
-          break;
-        default:
-          break;
-      }
-      BitMap bitMap = new BitMap(ARRAY_SIZE);
-      // The following code is for these 2 kinds of scenarios.
-
-      // Eg1: If rowCount=5 and ARRAY_SIZE=2, we need to supply 3 bitmaps for the extending column.
-      // The first 2 bitmaps should mark all bits to represent 4 nulls and the 3rd bitmap should
-      // mark
-      // the 1st bit to represent 1 null value.
-
-      // Eg2: If rowCount=4 and ARRAY_SIZE=2, we need to supply 2 bitmaps for the extending column.
-      // These 2 bitmaps should mark all bits to represent 4 nulls.
-      if (i == timestamps.size() - 1 && rowCount % ARRAY_SIZE != 0) {
-        for (int j = 0; j < rowCount % ARRAY_SIZE; j++) {
-          bitMap.mark(j);
-        }
-      } else {
-        bitMap.markAll();
-      }
-      columnBitMaps.add(bitMap);
+      columnValue.add(null);
+      columnBitMaps.add(null);
     }
     this.bitMaps.add(columnBitMaps);
     this.values.add(columnValue);
@@ -467,7 +440,8 @@ public abstract class AlignedTVList extends TVList {
     if (rowIndex >= rowCount) {
       return false;
     }
-    if (values.get(columnIndex) == null) {
+    if (values.get(columnIndex) == null
+        || values.get(columnIndex).get(rowIndex / ARRAY_SIZE) == null) {
       return true;
     }
     if (bitMaps == null
@@ -515,9 +489,13 @@ public abstract class AlignedTVList extends TVList {
         int originRowIndex = getValueIndex(i);
         int arrayIndex = originRowIndex / ARRAY_SIZE;
         int elementIndex = originRowIndex % ARRAY_SIZE;
-        if (dataTypes.get(columnIndex) == TSDataType.TEXT) {
+        Object valueArray = values.get(columnIndex).get(arrayIndex);
+        // sparse null rows have no stored value
+        if (dataTypes.get(columnIndex) == TSDataType.TEXT
+            && valueArray != null
+            && ((Binary[]) valueArray)[elementIndex] != null) {
           memoryBinaryChunkSize[columnIndex] -=
-              getBinarySize(((Binary[]) values.get(columnIndex).get(arrayIndex))[elementIndex]);
+              getBinarySize(((Binary[]) valueArray)[elementIndex]);
         }
         markNullValue(columnIndex, arrayIndex, elementIndex);
         deletedNumber++;
@@ -542,7 +520,9 @@ public abstract class AlignedTVList extends TVList {
     }
 
     for (Object array : values.get(columnIndex)) {
-      PrimitiveArrayManager.release(array);
+      if (array != null) {
+        PrimitiveArrayManager.release(array);
+      }
     }
     values.remove(columnIndex);
     bitMaps.remove(columnIndex);
@@ -563,6 +543,9 @@ public abstract class AlignedTVList extends TVList {
   }
 
   protected Object cloneValue(TSDataType type, Object value) {
+    if (value == null) {
+      return null;
+    }
     switch (type) {
       case TEXT:
         Binary[] valueT = (Binary[]) value;
@@ -611,7 +594,9 @@ public abstract class AlignedTVList extends TVList {
       List<Object> columnValues = values.get(i);
       if (columnValues != null) {
         for (Object dataArray : columnValues) {
-          PrimitiveArrayManager.release(dataArray);
+          if (dataArray != null) {
+            PrimitiveArrayManager.release(dataArray);
+          }
         }
         columnValues.clear();
       }
@@ -629,7 +614,8 @@ public abstract class AlignedTVList extends TVList {
   protected void expandValues() {
     indices.add((int[]) getPrimitiveArraysByType(TSDataType.INT32));
     for (int i = 0; i < dataTypes.size(); i++) {
-      values.get(i).add(getPrimitiveArraysByType(dataTypes.get(i)));
+      // allocated when the first non-null value of the column is put into these rows
+      values.get(i).add(null);
       if (bitMaps != null && bitMaps.get(i) != null) {
         bitMaps.get(i).add(null);
       }
@@ -688,7 +674,10 @@ public abstract class AlignedTVList extends TVList {
   protected void releaseLastValueArray() {
     PrimitiveArrayManager.release(indices.remove(indices.size() - 1));
     for (List<Object> valueList : values) {
-      PrimitiveArrayManager.release(valueList.remove(valueList.size() - 1));
+      Object valueArray = valueList.remove(valueList.size() - 1);
+      if (valueArray != null) {
+        PrimitiveArrayManager.release(valueArray);
+      }
     }
   }
 
@@ -714,7 +703,7 @@ public abstract class AlignedTVList extends TVList {
       if (internalRemaining >= inputRemaining) {
         // the remaining inputs can fit the last array, copy all remaining inputs into last array
         System.arraycopy(time, idx, timestamps.get(arrayIdx), elementIdx, inputRemaining);
-        arrayCopy(value, idx, arrayIdx, elementIdx, inputRemaining, columnIndexArray);
+        arrayCopy(value, bitMaps, idx, arrayIdx, elementIdx, inputRemaining, columnIndexArray);
         for (int i = 0; i < inputRemaining; i++) {
           indices.get(arrayIdx)[elementIdx + i] = rowCount;
           for (int j = 0; j < values.size(); j++) {
@@ -732,7 +721,8 @@ public abstract class AlignedTVList extends TVList {
         // the remaining inputs cannot fit the last array, fill the last array and create a new
         // one and enter the next loop
         System.arraycopy(time, idx, timestamps.get(arrayIdx), elementIdx, internalRemaining);
-        arrayCopy(value, idx, arrayIdx, elementIdx, internalRemaining, columnIndexArray);
+        arrayCopy(
+            value, bitMaps, idx, arrayIdx, elementIdx, internalRemaining, columnIndexArray);
         for (int i = 0; i < internalRemaining; i++) {
           indices.get(arrayIdx)[elementIdx + i] = rowCount;
           for (int j = 0; j < values.size(); j++) {
@@ -753,6 +743,7 @@ public abstract class AlignedTVList extends TVList {
 
   private void arrayCopy(
       Object[] value,
+      BitMap[] bitMaps,
       int idx,
       int arrayIndex,
       int elementIndex,
@@ -763,6 +754,14 @@ public abstract class AlignedTVList extends TVList {
         continue;
       }
       List<Object> columnValues = values.get(i);
+      if (columnValues.get(arrayIndex) == null) {
+        BitMap bitMap = bitMaps == null ? null : bitMaps[columnIndexArray[i]];
+        if (bitMap != null && isAllMarked(bitMap, idx, remaining)) {
+          // sparse rows, no need to store the null values
+          continue;
+        }
+        allocateValueArrayIfAbsent(i, arrayIndex, elementIndex);
+      }
       switch (dataTypes.get(i)) {
         case TEXT:
           Binary[] arrayT = ((Binary[]) columnValues.get(arrayIndex));
@@ -803,7 +802,47 @@ public abstract class AlignedTVList extends TVList {
     }
   }
 
+  private static boolean isAllMarked(BitMap bitMap, int start, int length) {
+    for (int i = start; i < start + length; i++) {
+      if (!bitMap.isMarked(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Allocate the primitive array of the column for the rows in arrayIndex when the first non-null
+   * value is put into them. Rows before elementIndex were put as sparse nulls, so they are marked
+   * in the bitmap.
+   */
+  private void allocateValueArrayIfAbsent(int columnIndex, int arrayIndex, int elementIndex) {
+    List<Object> columnValues = values.get(columnIndex);
+    if (columnValues.get(arrayIndex) != null) {
+      return;
+    }
+    Object valueArray = getPrimitiveArraysByType(dataTypes.get(columnIndex));
+    if (dataTypes.get(columnIndex) == TSDataType.TEXT) {
+      // the array may be reused, clear the stale values of the null rows
+      Arrays.fill((Binary[]) valueArray, 0, elementIndex, null);
+    }
+    columnValues.set(arrayIndex, valueArray);
+    for (int i = 0; i < elementIndex; i++) {
+      markNullValue(columnIndex, arrayIndex, i);
+    }
+  }
+
+  /** Whether the primitive array of the column for the rows in arrayIndex is allocated. */
+  public boolean isValueArrayAllocated(int columnIndex, int arrayIndex) {
+    List<Object> columnValues = values.get(columnIndex);
+    return arrayIndex < columnValues.size() && columnValues.get(arrayIndex) != null;
+  }
+
   private void markNullValue(int columnIndex, int arrayIndex, int elementIndex) {
+    if (values.get(columnIndex).get(arrayIndex) == null) {
+      // the rows are null until the array is allocated
+      return;
+    }
     // init BitMaps if doesn't have
     if (bitMaps == null) {
       bitMaps = new ArrayList<>(dataTypes.size());
@@ -816,7 +855,7 @@ public abstract class AlignedTVList extends TVList {
     if (bitMaps.get(columnIndex) == null) {
       List<BitMap> columnBitMaps = new ArrayList<>();
       for (int i = 0; i < values.get(columnIndex).size(); i++) {
-        columnBitMaps.add(new BitMap(ARRAY_SIZE));
+        columnBitMaps.add(null);
       }
       bitMaps.set(columnIndex, columnBitMaps);
     }
@@ -836,34 +875,36 @@ public abstract class AlignedTVList extends TVList {
   }
 
   /**
-   * Get the single alignedTVList array mem cost by give types.
+   * Get the mem cost of the time and index arrays of a single alignedTVList array. The value arrays
+   * are allocated separately for each column, see {@link #alignedTvListValueArrayMemCost}.
    *
-   * @param types the types in the vector
-   * @return AlignedTvListArrayMemSize
+   * @return AlignedTvListTimeArrayMemSize
    */
-  public static long alignedTvListArrayMemCost(TSDataType[] types) {
+  public static long alignedTvListTimeArrayMemCost() {
     long size = 0;
-    // value array mem size
-    for (TSDataType type : types) {
-      if (type != null) {
-        size += (long) PrimitiveArrayManager.ARRAY_SIZE * (long) type.getDataTypeSize();
-      }
-    }
-    // size is 0 when all types are null
-    if (size == 0) {
-      return size;
-    }
     // time array mem size
     size += PrimitiveArrayManager.ARRAY_SIZE * 8L;
     // index array mem size
     size += PrimitiveArrayManager.ARRAY_SIZE * 4L;
     // array headers mem size
-    size += (long) NUM_BYTES_ARRAY_HEADER * (2 + types.length);
+    size += NUM_BYTES_ARRAY_HEADER * 2L;
     // Object references size in ArrayList
-    size += (long) NUM_BYTES_OBJECT_REF * (2 + types.length);
+    size += NUM_BYTES_OBJECT_REF * 2L;
     return size;
   }
 
+  /**
+   * Get the mem cost of the value array of a column in a single alignedTVList array.
+   *
+   * @param type the type of the column
+   * @return AlignedTvListValueArrayMemSize
+   */
+  public static long alignedTvListValueArrayMemCost(TSDataType type) {
+    return (long) PrimitiveArrayManager.ARRAY_SIZE * (long) type.getDataTypeSize()
+        + NUM_BYTES_ARRAY_HEADER
+        + NUM_BYTES_OBJECT_REF;
+  }
+
   /** Build TsBlock by column. */
   public TsBlock buildTsBlock(
       int floatPrecision, List<TSEncoding> encodingList, List<List<TimeRange>> deletionList) {
@@ -966,6 +1007,8 @@ public abstract class AlignedTVList extends TVList {
 
   protected void writeValidValuesIntoTsBlock(
       TsBlockBuilder builder,
+      int start,
+      int end,
       int floatPrecision,
       TSEncoding encoding,
       List<TimeRange> deletionList) {
@@ -982,7 +1025,11 @@ public abstract class AlignedTVList extends TVList {
       switch (dataTypes.get(columnIndex)) {
         case TEXT:
           for (int rowIdx = 0; rowIdx < rowCount; ++rowIdx) {
-            size += ReadWriteIOUtils.sizeToWrite(getBinaryByValueIndex(rowIdx, columnIndex));
+            size +=
+                ReadWriteIOUtils.sizeToWrite(
+                    isNullValue(rowIdx, columnIndex)
+                        ? Binary.EMPTY_VALUE
+                        : getBinaryByValueIndex(rowIdx, columnIndex));
           }
           break;
         case FLOAT:
@@ -1021,43 +1068,37 @@ public abstract class AlignedTVList extends TVList {
     for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
       buffer.putLong(getTime(rowIndex));
     }
-    // serialize value and bitmap by column
+    // serialize value and bitmap by column, null values may be sparse and are written as defaults
     for (int columnIndex = 0; columnIndex < values.size(); columnIndex++) {
-      List<Object> columnValues = values.get(columnIndex);
       for (int rowIndex = 0; rowIndex < rowCount; ++rowIndex) {
-        int arrayIndex = rowIndex / ARRAY_SIZE;
-        int elementIndex = rowIndex % ARRAY_SIZE;
+        boolean isNull = isNullValue(rowIndex, columnIndex);
         // value
         switch (dataTypes.get(columnIndex)) {
           case TEXT:
-            Binary valueT = ((Binary[]) columnValues.get(arrayIndex))[elementIndex];
-            WALWriteUtils.write(valueT, buffer);
+            WALWriteUtils.write(
+                isNull ? Binary.EMPTY_VALUE : getBinaryByValueIndex(rowIndex, columnIndex),
+                buffer);
             break;
           case FLOAT:
-            float valueF = ((float[]) columnValues.get(arrayIndex))[elementIndex];
-            buffer.putFloat(valueF);
+            buffer.putFloat(isNull ? 0 : getFloatByValueIndex(rowIndex, columnIndex));
             break;
           case INT32:
-            int valueI = ((int[]) columnValues.get(arrayIndex))[elementIndex];
-            buffer.putInt(valueI);
+            buffer.putInt(isNull ? 0 : getIntByValueIndex(rowIndex, columnIndex));
             break;
           case INT64:
-            long valueL = ((long[]) columnValues.get(arrayIndex))[elementIndex];
-            buffer.putLong(valueL);
+            buffer.putLong(isNull ? 0 : getLongByValueIndex(rowIndex, columnIndex));
             break;
           case DOUBLE:
-            double valueD = ((double[]) columnValues.get(arrayIndex))[elementIndex];
-            buffer.putDouble(valueD);
+            buffer.putDouble(isNull ? 0 : getDoubleByValueIndex(rowIndex, columnIndex));
             break;
           case BOOLEAN:
-            boolean valueB = ((boolean[]) columnValues.get(arrayIndex))[elementIndex];
-            WALWriteUtils.write(valueB, buffer);
+            WALWriteUtils.write(!isNull && getBooleanByValueIndex(rowIndex, columnIndex), buffer);
             break;
           default:
             throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
         }
         // bitmap
-        WALWriteUtils.write(isNullValue(rowIndex, columnIndex), buffer);
+        WALWriteUtils.write(isNull, buffer);
       }
     }
   }
@@ -23,6 +23,7 @@ import org.apache.iotdb.db.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.db.wal.utils.WALWriteUtils;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
@@ -33,6 +34,7 @@ import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -91,9 +93,8 @@ public abstract class BinaryTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
-      sorted = false;
-    }
+    updateDisorderStatistics(timestamp, rowCount - 1, null, 0);
+    updateBlockStatistics(rowCount - 1, rowCount);
     memoryBinaryChunkSize += getBinarySize(value);
   }
 
@@ -181,13 +182,15 @@ public abstract class BinaryTVList extends TVList {
   @Override
   protected void writeValidValuesIntoTsBlock(
       TsBlockBuilder builder,
+      int start,
+      int end,
       int floatPrecision,
       TSEncoding encoding,
       List<TimeRange> deletionList) {
     Integer deleteCursor = 0;
-    for (int i = 0; i < rowCount; i++) {
+    for (int i = start; i < end; i++) {
       if (!isPointDeleted(getTime(i), deletionList, deleteCursor)
-          && (i == rowCount - 1 || getTime(i) != getTime(i + 1))) {
+          && (i == end - 1 || getTime(i) != getTime(i + 1))) {
         builder.getTimeColumnBuilder().writeLong(getTime(i));
         builder.getColumnBuilder(0).writeBinary(getBinary(i));
         builder.declarePosition();
@@ -195,6 +198,11 @@ public abstract class BinaryTVList extends TVList {
     }
   }
 
+  @Override
+  protected void updateStatistics(Statistics<? extends Serializable> statistics, int index) {
+    statistics.update(getTime(index), getBinary(index));
+  }
+
   @Override
   protected void releaseLastValueArray() {
     PrimitiveArrayManager.release(values.remove(values.size() - 1));
@@ -203,6 +211,7 @@ public abstract class BinaryTVList extends TVList {
   @Override
   public void putBinaries(long[] time, Binary[] value, BitMap bitMap, int start, int end) {
     checkExpansion();
+    int startRowCount = rowCount;
 
     int idx = start;
     // constraint: time.length + timeIdxOffset == value.length
@@ -249,14 +258,12 @@ public abstract class BinaryTVList extends TVList {
         checkExpansion();
       }
     }
+    updateBlockStatistics(startRowCount, rowCount);
   }
 
   // move null values to the end of time array and value array, then return number of null values
   int dropNullValThenUpdateMaxTimeAndSorted(
       long[] time, Binary[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
-    long inPutMinTime = Long.MAX_VALUE;
-    boolean inputSorted = true;
-
     int nullCnt = 0;
     for (int vIdx = start; vIdx < end; vIdx++) {
       if (bitMap.isMarked(vIdx)) {
@@ -269,16 +276,12 @@ public abstract class BinaryTVList extends TVList {
         time[tIdx - nullCnt] = time[tIdx];
         values[vIdx - nullCnt] = values[vIdx];
       }
-      // update maxTime and sorted
+      // update maxTime, sorted and disorder statistics
       tIdx = tIdx - nullCnt;
-      inPutMinTime = Math.min(inPutMinTime, time[tIdx]);
       maxTime = Math.max(maxTime, time[tIdx]);
-      if (inputSorted && tIdx > 0 && time[tIdx - 1] > time[tIdx]) {
-        inputSorted = false;
-      }
+      updateDisorderStatistics(time[tIdx], rowCount + tIdx, time, 0);
     }
 
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
     return nullCnt;
   }
 
@@ -23,6 +23,7 @@ import org.apache.iotdb.db.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.db.wal.utils.WALWriteUtils;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
@@ -31,6 +32,7 @@ import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -83,9 +85,8 @@ public abstract class IntTVList extends TVList {
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
     values.get(arrayIndex)[elementIndex] = value;
     rowCount++;
-    if (sorted && rowCount > 1 && timestamp < getTime(rowCount - 2)) {
-      sorted = false;
-    }
+    updateDisorderStatistics(timestamp, rowCount - 1, null, 0);
+    updateBlockStatistics(rowCount - 1, rowCount);
   }
 
   @Override
@@ -138,13 +139,15 @@ public abstract class IntTVList extends TVList {
   @Override
   protected void writeValidValuesIntoTsBlock(
       TsBlockBuilder builder,
+      int start,
+      int end,
       int floatPrecision,
       TSEncoding encoding,
       List<TimeRange> deletionList) {
     Integer deleteCursor = 0;
-    for (int i = 0; i < rowCount; i++) {
+    for (int i = start; i < end; i++) {
       if (!isPointDeleted(getTime(i), deletionList, deleteCursor)
-          && (i == rowCount - 1 || getTime(i) != getTime(i + 1))) {
+          && (i == end - 1 || getTime(i) != getTime(i + 1))) {
         builder.getTimeColumnBuilder().writeLong(getTime(i));
         builder.getColumnBuilder(0).writeInt(getInt(i));
         builder.declarePosition();
@@ -152,6 +155,11 @@ public abstract class IntTVList extends TVList {
     }
   }
 
+  @Override
+  protected void updateStatistics(Statistics<? extends Serializable> statistics, int index) {
+    statistics.update(getTime(index), getInt(index));
+  }
+
   @Override
   protected void releaseLastValueArray() {
     PrimitiveArrayManager.release(values.remove(values.size() - 1));
@@ -160,6 +168,7 @@ public abstract class IntTVList extends TVList {
   @Override
   public void putInts(long[] time, int[] value, BitMap bitMap, int start, int end) {
     checkExpansion();
+    int startRowCount = rowCount;
 
     int idx = start;
     // constraint: time.length + timeIdxOffset == value.length
@@ -201,14 +210,12 @@ public abstract class IntTVList extends TVList {
         checkExpansion();
       }
     }
+    updateBlockStatistics(startRowCount, rowCount);
   }
 
   // move null values to the end of time array and value array, then return number of null values
   int dropNullValThenUpdateMaxTimeAndSorted(
       long[] time, int[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
-    long inPutMinTime = Long.MAX_VALUE;
-    boolean inputSorted = true;
-
     int nullCnt = 0;
     for (int vIdx = start; vIdx < end; vIdx++) {
       if (bitMap.isMarked(vIdx)) {
@@ -221,16 +228,12 @@ public abstract class IntTVList extends TVList {
         time[tIdx - nullCnt] = time[tIdx];
         values[vIdx - nullCnt] = values[vIdx];
       }
-      // update maxTime and sorted
+      // update maxTime, sorted and disorder statistics
       tIdx = tIdx - nullCnt;
-      inPutMinTime = Math.min(inPutMinTime, time[tIdx]);
       maxTime = Math.max(maxTime, time[tIdx]);
-      if (inputSorted && tIdx > 0 && time[tIdx - 1] > time[tIdx]) {
-        inputSorted = false;
-      }
+      updateDisorderStatistics(time[tIdx], rowCount + tIdx, time, 0);
     }
 
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
     return nullCnt;
   }
 
@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+/**
+ * A map from primitive long keys to primitive int values, using open addressing with linear
+ * probing so that neither keys nor values are boxed. Entries can not be removed.
+ */
+public class LongIntHashMap {
+
+  private static final float LOAD_FACTOR = 0.75f;
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private long[] keys;
+  private int[] values;
+  private boolean[] used;
+  private int mask;
+  private int size;
+  private int resizeThreshold;
+
+  public LongIntHashMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public LongIntHashMap(int expectedSize) {
+    allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR)));
+  }
+
+  /** @return the value of key, or defaultValue if key is absent */
+  public int get(long key, int defaultValue) {
+    for (int slot = slotOf(key); used[slot]; slot = (slot + 1) & mask) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+    }
+    return defaultValue;
+  }
+
+  public void put(long key, int value) {
+    int slot = slotOf(key);
+    while (used[slot]) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    used[slot] = true;
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size > resizeThreshold) {
+      rehash();
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  private int slotOf(long key) {
+    // mix the high bits in, since keys are often composed of two ints
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  private void rehash() {
+    long[] oldKeys = keys;
+    int[] oldValues = values;
+    boolean[] oldUsed = used;
+    allocate(oldKeys.length << 1);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldUsed[i]) {
+        int slot = slotOf(oldKeys[i]);
+        while (used[slot]) {
+          slot = (slot + 1) & mask;
+        }
+        used[slot] = true;
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new int[capacity];
+    used = new boolean[capacity];
+    mask = capacity - 1;
+    resizeThreshold = (int) (capacity * LOAD_FACTOR);
+  }
+
+  private static int tableSizeFor(int capacity) {
+    int n = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+    return n < 0 ? 1 << 30 : n;
+  }
+}
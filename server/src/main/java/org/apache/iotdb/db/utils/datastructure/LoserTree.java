@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A tournament tree of losers used for k-way merging. Each internal node keeps the index of the
+ * input that lost the match played at that node, and the overall winner is kept at index 0, so
+ * replacing the winner only needs to replay the matches on the path from its leaf to the root,
+ * i.e. log(k) comparisons instead of the 2 * log(k) of a binary heap.
+ *
+ * <p>An exhausted input is represented by a null key, which loses against every other key.
+ */
+public class LoserTree {
+
+  /** Marks a node that has not played yet; it wins against every input during initialization. */
+  private static final int UNINITIALIZED = -1;
+
+  private final int[] tree;
+  private final MergeSortKey[] leaves;
+  private final Comparator<MergeSortKey> comparator;
+
+  public LoserTree(int childNum, Comparator<MergeSortKey> comparator) {
+    this.tree = new int[childNum];
+    this.leaves = new MergeSortKey[childNum];
+    this.comparator = comparator;
+  }
+
+  /**
+   * Build the tree from the first key of every input.
+   *
+   * @param keys keys[i] is the current key of the i-th input, or null if the input is empty
+   */
+  public void init(MergeSortKey[] keys) {
+    System.arraycopy(keys, 0, leaves, 0, leaves.length);
+    Arrays.fill(tree, UNINITIALIZED);
+    for (int i = leaves.length - 1; i >= 0; i--) {
+      adjust(i);
+    }
+  }
+
+  public boolean isEmpty() {
+    return leaves[tree[0]] == null;
+  }
+
+  /** @return the index of the input that holds the smallest key */
+  public int getWinner() {
+    return tree[0];
+  }
+
+  public MergeSortKey peek() {
+    return leaves[tree[0]];
+  }
+
+  /**
+   * The runner-up must have lost to the winner, so it is the best of the losers on the path from
+   * the winner's leaf to the root.
+   *
+   * @return the smallest key except the winner's, or null if the other inputs are all exhausted
+   */
+  public MergeSortKey peekRunnerUp() {
+    int runnerUp = UNINITIALIZED;
+    for (int parent = (tree[0] + leaves.length) >> 1; parent > 0; parent >>= 1) {
+      int candidate = tree[parent];
+      if (leaves[candidate] != null && (runnerUp == UNINITIALIZED || loses(runnerUp, candidate))) {
+        runnerUp = candidate;
+      }
+    }
+    return runnerUp == UNINITIALIZED ? null : leaves[runnerUp];
+  }
+
+  /**
+   * Replace the key of the current winner with the next key of the same input and replay.
+   *
+   * @param key the next key of the winner input, or null if the input has been exhausted
+   */
+  public void replaceWinner(MergeSortKey key) {
+    int winner = tree[0];
+    leaves[winner] = key;
+    adjust(winner);
+  }
+
+  private void adjust(int leaf) {
+    int winner = leaf;
+    for (int parent = (leaf + leaves.length) >> 1; parent > 0; parent >>= 1) {
+      if (loses(winner, tree[parent])) {
+        int tmp = tree[parent];
+        tree[parent] = winner;
+        winner = tmp;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  private boolean loses(int a, int b) {
+    if (b == UNINITIALIZED) {
+      return true;
+    }
+    if (a == UNINITIALIZED) {
+      return false;
+    }
+    if (leaves[a] == null) {
+      return leaves[b] != null;
+    }
+    return leaves[b] != null && comparator.compare(leaves[a], leaves[b]) > 0;
+  }
+}
@@ -26,6 +26,7 @@ import org.apache.iotdb.db.utils.MathUtils;
 import org.apache.iotdb.db.wal.buffer.WALEntryValue;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
@@ -36,12 +37,14 @@ import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.TVLIST_SORT_ALGORITHM;
 import static org.apache.iotdb.tsfile.utils.RamUsageEstimator.NUM_BYTES_ARRAY_HEADER;
 import static org.apache.iotdb.tsfile.utils.RamUsageEstimator.NUM_BYTES_OBJECT_REF;
 
@@ -49,6 +52,8 @@ public abstract class TVList implements WALEntryValue {
 
   protected static final int SMALL_ARRAY_LENGTH = 32;
   protected static final String ERR_DATATYPE_NOT_CONSISTENT = "DataType not consistent";
+  /** backward distances beyond this are not measured exactly while appending */
+  protected static final int MAX_TRACKED_BACKWARD_DISTANCE = 64;
   protected static final long targetChunkSize =
       IoTDBDescriptor.getInstance().getConfig().getTargetChunkSize();
   // list of timestamp array, add 1 when expanded -> data point timestamp array
@@ -58,6 +63,20 @@ public abstract class TVList implements WALEntryValue {
 
   protected boolean sorted = true;
   protected long maxTime;
+
+  // disorder statistics, only meaningful when sorted is false. They are reset when the list turns
+  // from sorted to unsorted and are used by the adaptive sort to pick the cheapest strategy.
+  // rows in [0, sortedPrefixLength) are known to be in time order
+  protected int sortedPrefixLength;
+  // number of ascending runs in [sortedPrefixLength, rowCount)
+  protected int runCount;
+  // max number of rows an out-of-order row has to move backward, capped at
+  // MAX_TRACKED_BACKWARD_DISTANCE + 1
+  protected int maxBackwardDistance;
+
+  // running statistics per time block, null if disabled or not supported by this list
+  protected TVListBlockStatistics blockStatistics;
+
   // record reference count of this tv list
   // currently this reference will only be increase because we can't know when to decrease it
   protected AtomicInteger referenceCount;
@@ -68,6 +87,8 @@ public abstract class TVList implements WALEntryValue {
     rowCount = 0;
     maxTime = Long.MIN_VALUE;
     referenceCount = new AtomicInteger();
+    int blockSize = IoTDBDescriptor.getInstance().getConfig().getMemTableStatisticsBlockSize();
+    blockStatistics = blockSize > 0 ? new TVListBlockStatistics(blockSize) : null;
   }
 
   public static TVList newList(TSDataType dataType) {
@@ -109,6 +130,50 @@ public abstract class TVList implements WALEntryValue {
 
   public abstract void sort();
 
+  /** Whether the unsorted rows are sorted by the disorder-adaptive {@link TimSort} variants */
+  protected boolean isAdaptiveSort() {
+    return TVLIST_SORT_ALGORITHM == TVListSortAlgorithm.ADAPTIVE;
+  }
+
+  /**
+   * Update the sorted flag and the disorder statistics for the row at position pos whose time is
+   * timestamp. maxTime must already contain timestamp. Rows before rowCount are read from this list
+   * and rows in [rowCount, pos) from pendingTime, where row p is pendingTime[pendingOffset + p -
+   * rowCount].
+   */
+  protected void updateDisorderStatistics(
+      long timestamp, int pos, long[] pendingTime, int pendingOffset) {
+    if (pos == 0) {
+      return;
+    }
+    long prevTime = timeAt(pos - 1, pendingTime, pendingOffset);
+    if (timestamp >= prevTime) {
+      return;
+    }
+    if (sorted) {
+      sorted = false;
+      sortedPrefixLength = pos;
+      runCount = 1;
+      maxBackwardDistance = 0;
+    } else {
+      runCount++;
+    }
+    // measure how far the row has to move back, scanning at most MAX_TRACKED_BACKWARD_DISTANCE rows
+    int distance = 1;
+    int lowest = Math.max(0, pos - MAX_TRACKED_BACKWARD_DISTANCE);
+    for (int i = pos - 2; i >= lowest && timeAt(i, pendingTime, pendingOffset) > timestamp; i--) {
+      distance++;
+    }
+    if (distance == MAX_TRACKED_BACKWARD_DISTANCE && lowest > 0) {
+      distance++;
+    }
+    maxBackwardDistance = Math.max(maxBackwardDistance, distance);
+  }
+
+  private long timeAt(int pos, long[] pendingTime, int pendingOffset) {
+    return pos < rowCount ? getTime(pos) : pendingTime[pendingOffset + pos - rowCount];
+  }
+
   public void increaseReferenceCount() {
     referenceCount.incrementAndGet();
   }
@@ -255,15 +320,23 @@ public abstract class TVList implements WALEntryValue {
   }
 
   public int delete(long lowerBound, long upperBound) {
+    if (blockStatistics != null) {
+      blockStatistics.invalidate(lowerBound, upperBound);
+    }
     int newSize = 0;
+    int newSortedPrefixLength = 0;
     maxTime = Long.MIN_VALUE;
     for (int i = 0; i < rowCount; i++) {
       long time = getTime(i);
       if (time < lowerBound || time > upperBound) {
         set(i, newSize++);
         maxTime = Math.max(time, maxTime);
+        if (i < sortedPrefixLength) {
+          newSortedPrefixLength++;
+        }
       }
     }
+    sortedPrefixLength = newSortedPrefixLength;
     int deletedNumber = rowCount - newSize;
     rowCount = newSize;
     // release primitive arrays that are empty
@@ -286,12 +359,19 @@ public abstract class TVList implements WALEntryValue {
     cloneList.rowCount = rowCount;
     cloneList.sorted = sorted;
     cloneList.maxTime = maxTime;
+    cloneList.sortedPrefixLength = sortedPrefixLength;
+    cloneList.runCount = runCount;
+    cloneList.maxBackwardDistance = maxBackwardDistance;
+    cloneList.blockStatistics = blockStatistics == null ? null : blockStatistics.copy(getDataType());
   }
 
   public void clear() {
     rowCount = 0;
     sorted = true;
     maxTime = Long.MIN_VALUE;
+    if (blockStatistics != null) {
+      blockStatistics.clear();
+    }
     clearTime();
     clearValue();
   }
@@ -325,17 +405,10 @@ public abstract class TVList implements WALEntryValue {
   }
 
   void updateMaxTimeAndSorted(long[] time, int start, int end) {
-    int length = time.length;
-    long inPutMinTime = Long.MAX_VALUE;
-    boolean inputSorted = true;
     for (int i = start; i < end; i++) {
-      inPutMinTime = Math.min(inPutMinTime, time[i]);
       maxTime = Math.max(maxTime, time[i]);
-      if (inputSorted && i < length - 1 && time[i] > time[i + 1]) {
-        inputSorted = false;
-      }
+      updateDisorderStatistics(time[i], rowCount + i - start, time, start);
     }
-    sorted = sorted && inputSorted && (rowCount == 0 || inPutMinTime >= getTime(rowCount - 1));
   }
 
   /** for log */
@@ -351,17 +424,51 @@ public abstract class TVList implements WALEntryValue {
 
   public TsBlock buildTsBlock(
       int floatPrecision, TSEncoding encoding, List<TimeRange> deletionList) {
+    return buildTsBlock(0, rowCount, floatPrecision, encoding, deletionList);
+  }
+
+  /** Build a TsBlock from the sorted rows in [start, end). */
+  public TsBlock buildTsBlock(
+      int start, int end, int floatPrecision, TSEncoding encoding, List<TimeRange> deletionList) {
     TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(this.getDataType()));
-    writeValidValuesIntoTsBlock(builder, floatPrecision, encoding, deletionList);
+    writeValidValuesIntoTsBlock(builder, start, end, floatPrecision, encoding, deletionList);
     return builder.build();
   }
 
   protected abstract void writeValidValuesIntoTsBlock(
       TsBlockBuilder builder,
+      int start,
+      int end,
       int floatPrecision,
       TSEncoding encoding,
       List<TimeRange> deletionList);
 
+  /** Accumulate the appended rows in [start, end) into the running block statistics. */
+  protected void updateBlockStatistics(int start, int end) {
+    if (blockStatistics == null) {
+      return;
+    }
+    for (int i = start; i < end; i++) {
+      Statistics<? extends Serializable> statistics =
+          blockStatistics.locate(getTime(i), getDataType());
+      if (statistics != null) {
+        updateStatistics(statistics, i);
+      }
+    }
+  }
+
+  protected void updateStatistics(Statistics<? extends Serializable> statistics, int index) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
+  /**
+   * @return a copy of the running block statistics, or null if they are not maintained for this
+   *     list
+   */
+  public TVListBlockStatistics getBlockStatisticsSnapshot() {
+    return blockStatistics == null ? null : blockStatistics.copy(getDataType());
+  }
+
   protected boolean isPointDeleted(
       long timestamp, List<TimeRange> deletionList, Integer deleteCursor) {
     while (deletionList != null && deleteCursor < deletionList.size()) {
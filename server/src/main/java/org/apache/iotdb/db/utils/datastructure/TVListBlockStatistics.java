@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Running statistics of a {@link TVList}, maintained per block while points are appended. A block
+ * covers the time range from its start time (inclusive) to the start time of the next block
+ * (exclusive), the first block is open to the left and the last block is open to the right. A new
+ * block is started by the first in-order point after the last block has collected blockSize
+ * points.
+ *
+ * <p>Points arriving in time order are accumulated into the last block. An out-of-order or
+ * duplicated point, or a deletion, invalidates the statistics of the blocks it falls into, while
+ * all other blocks stay valid because sorting never moves points across block boundaries.
+ */
+public class TVListBlockStatistics {
+
+  private final int blockSize;
+
+  // statistics of each block, null if the block has been invalidated
+  private final List<Statistics<? extends Serializable>> statisticsList;
+  private long[] startTimes;
+  private int pointNumInLastBlock;
+  private long maxTime;
+
+  public TVListBlockStatistics(int blockSize) {
+    this.blockSize = blockSize;
+    this.statisticsList = new ArrayList<>();
+    this.startTimes = new long[8];
+    this.pointNumInLastBlock = 0;
+    this.maxTime = Long.MIN_VALUE;
+  }
+
+  /**
+   * Locate the block of a newly appended point.
+   *
+   * @return the statistics the point should be accumulated into, or null if the block of the point
+   *     is invalid
+   */
+  public Statistics<? extends Serializable> locate(long time, TSDataType dataType) {
+    if (statisticsList.isEmpty() || time > maxTime) {
+      maxTime = time;
+      if (statisticsList.isEmpty() || pointNumInLastBlock >= blockSize) {
+        if (statisticsList.size() == startTimes.length) {
+          startTimes = Arrays.copyOf(startTimes, startTimes.length * 2);
+        }
+        startTimes[statisticsList.size()] = time;
+        statisticsList.add(Statistics.getStatsByType(dataType));
+        pointNumInLastBlock = 0;
+      }
+      pointNumInLastBlock++;
+      return statisticsList.get(statisticsList.size() - 1);
+    }
+    // the point may overwrite or be inserted before existing points of its block
+    statisticsList.set(findBlock(time), null);
+    return null;
+  }
+
+  /** Invalidate the statistics of all blocks overlapping [startTime, endTime]. */
+  public void invalidate(long startTime, long endTime) {
+    for (int i = findBlock(startTime); i < statisticsList.size(); i++) {
+      if (i > 0 && startTimes[i] > endTime) {
+        break;
+      }
+      statisticsList.set(i, null);
+    }
+  }
+
+  /** @return the index of the block whose time range covers the given time */
+  private int findBlock(long time) {
+    int low = 1;
+    int high = statisticsList.size() - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (startTimes[mid] <= time) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low - 1;
+  }
+
+  public int getBlockNum() {
+    return statisticsList.size();
+  }
+
+  public long getBlockStartTime(int blockIndex) {
+    return startTimes[blockIndex];
+  }
+
+  /** @return statistics of the block, or null if the block has been invalidated */
+  public Statistics<? extends Serializable> getStatistics(int blockIndex) {
+    return statisticsList.get(blockIndex);
+  }
+
+  /** Deep copy, so that the copy is not affected by points appended later. */
+  public TVListBlockStatistics copy(TSDataType dataType) {
+    TVListBlockStatistics copy = new TVListBlockStatistics(blockSize);
+    copy.startTimes = Arrays.copyOf(startTimes, startTimes.length);
+    copy.pointNumInLastBlock = pointNumInLastBlock;
+    copy.maxTime = maxTime;
+    for (Statistics<? extends Serializable> statistics : statisticsList) {
+      Statistics<? extends Serializable> copiedStatistics = null;
+      if (statistics != null) {
+        copiedStatistics = Statistics.getStatsByType(dataType);
+        copiedStatistics.mergeStatistics(statistics);
+      }
+      copy.statisticsList.add(copiedStatistics);
+    }
+    return copy;
+  }
+
+  public void clear() {
+    statisticsList.clear();
+    pointNumInLastBlock = 0;
+    maxTime = Long.MIN_VALUE;
+  }
+}
@@ -21,5 +21,7 @@ package org.apache.iotdb.db.utils.datastructure;
 public enum TVListSortAlgorithm {
   TIM,
   QUICK,
-  BACKWARD
+  BACKWARD,
+  /** tim sort variants chosen per list from the disorder statistics collected on append */
+  ADAPTIVE
 }
@@ -50,7 +50,11 @@ public class TimAlignedTVList extends AlignedTVList implements TimSort {
           (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      if (isAdaptiveSort()) {
+        adaptiveSort(0, sortedPrefixLength, rowCount, runCount, maxBackwardDistance);
+      } else {
+        sort(0, rowCount);
+      }
     }
     clearSortedValue();
     clearSortedTime();
@@ -44,7 +44,11 @@ public class TimBinaryTVList extends BinaryTVList implements TimSort {
       sortedValues =
           (Binary[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.TEXT, rowCount);
     }
-    sort(0, rowCount);
+    if (isAdaptiveSort() && !sorted) {
+      adaptiveSort(0, sortedPrefixLength, rowCount, runCount, maxBackwardDistance);
+    } else {
+      sort(0, rowCount);
+    }
     clearSortedValue();
     clearSortedTime();
     sorted = true;
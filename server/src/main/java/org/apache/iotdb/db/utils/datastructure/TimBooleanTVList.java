@@ -43,7 +43,11 @@ public class TimBooleanTVList extends BooleanTVList implements TimSort {
           (boolean[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.BOOLEAN, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      if (isAdaptiveSort()) {
+        adaptiveSort(0, sortedPrefixLength, rowCount, runCount, maxBackwardDistance);
+      } else {
+        sort(0, rowCount);
+      }
     }
     clearSortedValue();
     clearSortedTime();
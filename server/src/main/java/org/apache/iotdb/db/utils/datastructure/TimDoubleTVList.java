@@ -43,7 +43,11 @@ public class TimDoubleTVList extends DoubleTVList implements TimSort {
           (double[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.DOUBLE, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      if (isAdaptiveSort()) {
+        adaptiveSort(0, sortedPrefixLength, rowCount, runCount, maxBackwardDistance);
+      } else {
+        sort(0, rowCount);
+      }
     }
     clearSortedValue();
     clearSortedTime();
@@ -44,7 +44,11 @@ public class TimFloatTVList extends FloatTVList implements TimSort {
           (float[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.FLOAT, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      if (isAdaptiveSort()) {
+        adaptiveSort(0, sortedPrefixLength, rowCount, runCount, maxBackwardDistance);
+      } else {
+        sort(0, rowCount);
+      }
     }
     clearSortedValue();
     clearSortedTime();
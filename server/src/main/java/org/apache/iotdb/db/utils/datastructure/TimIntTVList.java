@@ -44,7 +44,11 @@ public class TimIntTVList extends IntTVList implements TimSort {
           (int[][]) PrimitiveArrayManager.createDataListsByType(TSDataType.INT32, rowCount);
     }
     if (!sorted) {
-      sort(0, rowCount);
+      if (isAdaptiveSort()) {
+        adaptiveSort(0, sortedPrefixLength, rowCount, runCount, maxBackwardDistance);
+      } else {
+        sort(0, rowCount);
+      }
     }
     clearSortedValue();
     clearSortedTime();
@@ -18,6 +18,9 @@
  */
 package org.apache.iotdb.db.utils.datastructure;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * The interface refers to TimSort.java, and is used for sort the TVList Functions for tim_sort like
  * merge, sort, binary_sort is implemented here as default, reuse code whenever possible.
@@ -26,6 +29,9 @@ public interface TimSort {
   /** when array size <= 32, it's better to use binarysort. */
   int SMALL_ARRAY_LENGTH = 32;
 
+  /** insertion sort gives up on the rest rows once a row has to move back further than this. */
+  int MAX_INSERTION_DISTANCE = 2 * SMALL_ARRAY_LENGTH;
+
   /** the same as the 'set' function in TVList, the reason is to avoid two equal functions. */
   void tim_set(int src, int dest);
 
@@ -70,6 +76,99 @@ public interface TimSort {
     merge(lo, mid, hi);
   }
 
+  /**
+   * The entrance of the disorder-adaptive sort. Rows in [lo, sortedHi) are already in order, so
+   * only the tail [sortedHi, hi) is sorted, with the cheapest strategy for its disorder, and then
+   * merged into the prefix from the first prefix row that is later than the tail. 1. insertion sort
+   * if no row moves back far. 2. merge of the natural runs if the tail has few long runs. 3. merge
+   * sort otherwise.
+   *
+   * @param runCount number of ascending runs in the tail
+   * @param maxBackwardDistance max number of rows a row of the tail moves back
+   */
+  default void adaptiveSort(int lo, int sortedHi, int hi, int runCount, int maxBackwardDistance) {
+    int sortedEnd = sortedHi;
+    if (sortedEnd < hi && maxBackwardDistance <= SMALL_ARRAY_LENGTH) {
+      // rows only move a few steps, so insert them into the prefix directly
+      sortedEnd = insertionSort(lo, sortedEnd, hi);
+    }
+    if (sortedEnd >= hi) {
+      return;
+    }
+    int tailLength = hi - sortedEnd;
+    if (tailLength > SMALL_ARRAY_LENGTH && (long) runCount * SMALL_ARRAY_LENGTH <= tailLength) {
+      runMergeSort(sortedEnd, hi);
+    } else {
+      sort(sortedEnd, hi);
+    }
+    if (sortedEnd == lo) {
+      return;
+    }
+    // skip the prefix rows that are not later than the first row of the tail
+    int left = lo;
+    int right = sortedEnd;
+    while (left < right) {
+      int mid = (left + right) >>> 1;
+      if (compare(mid, sortedEnd) <= 0) {
+        left = mid + 1;
+      } else {
+        right = mid;
+      }
+    }
+    if (left < sortedEnd) {
+      merge(left, sortedEnd, hi);
+    }
+  }
+
+  /**
+   * Stable insertion sort of [start, hi) into the sorted [lo, start). The append-time backward
+   * distance only looks at adjacent rows, so the sort stops at the first row that has to move back
+   * more than MAX_INSERTION_DISTANCE rows.
+   *
+   * @return the end of the sorted range, hi if all the rows are inserted
+   */
+  default int insertionSort(int lo, int start, int hi) {
+    for (int i = Math.max(start, lo + 1); i < hi; i++) {
+      if (compare(i - 1, i) <= 0) {
+        continue;
+      }
+      int pos = i - 1;
+      while (pos > lo && compare(pos - 1, i) > 0) {
+        if (i - pos >= MAX_INSERTION_DISTANCE) {
+          return i;
+        }
+        pos--;
+      }
+      saveAsPivot(i);
+      for (int j = i; j > pos; j--) {
+        tim_set(j - 1, j);
+      }
+      setPivotTo(pos);
+    }
+    return hi;
+  }
+
+  /** merge the natural ascending runs of [lo, hi) pairwise until one run is left */
+  default void runMergeSort(int lo, int hi) {
+    List<Integer> runStarts = new ArrayList<>();
+    int runStart = lo;
+    while (runStart < hi) {
+      runStarts.add(runStart);
+      runStart += countRunAndMakeAscending(runStart, hi);
+    }
+    while (runStarts.size() > 1) {
+      List<Integer> mergedStarts = new ArrayList<>((runStarts.size() + 1) / 2);
+      for (int i = 0; i < runStarts.size(); i += 2) {
+        mergedStarts.add(runStarts.get(i));
+        if (i + 1 < runStarts.size()) {
+          int end = i + 2 < runStarts.size() ? runStarts.get(i + 2) : hi;
+          merge(runStarts.get(i), runStarts.get(i + 1), end);
+        }
+      }
+      runStarts = mergedStarts;
+    }
+  }
+
   default int countRunAndMakeAscending(int lo, int hi) {
     assert lo < hi;
     int runHi = lo + 1;
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * A tournament tree of losers over the current timestamps of k inputs, used for merging time
+ * columns without boxing. It works like {@link LoserTree}, but also tells the runner-up, i.e. the
+ * input holding the best time except the winner, so that the caller can consume all the rows of
+ * the winner that are strictly ahead of the runner-up at once.
+ *
+ * <p>An input without current time loses against every other input.
+ */
+public class TimeLoserTree {
+
+  /** Marks a node that has not played yet; it wins against every input during initialization. */
+  private static final int UNINITIALIZED = -1;
+
+  private final boolean ascending;
+  private final int[] tree;
+  private final long[] times;
+  private final boolean[] present;
+
+  public TimeLoserTree(int inputCount, boolean ascending) {
+    this.ascending = ascending;
+    this.tree = new int[inputCount];
+    this.times = new long[inputCount];
+    this.present = new boolean[inputCount];
+  }
+
+  /** Set the current time of an input, {@link #rebuild()} should be called before next poll. */
+  public void setTime(int input, long time) {
+    times[input] = time;
+    present[input] = true;
+  }
+
+  /** Mark an input as having no current time, {@link #rebuild()} should be called afterwards. */
+  public void clearTime(int input) {
+    present[input] = false;
+  }
+
+  /** Replay all the matches, in O(k) time. */
+  public void rebuild() {
+    Arrays.fill(tree, UNINITIALIZED);
+    for (int i = times.length - 1; i >= 0; i--) {
+      adjust(i);
+    }
+  }
+
+  public boolean isEmpty() {
+    return !present[tree[0]];
+  }
+
+  /** @return the index of the input that holds the best time */
+  public int getWinner() {
+    return tree[0];
+  }
+
+  public long getWinnerTime() {
+    return times[tree[0]];
+  }
+
+  public long getTime(int input) {
+    return times[input];
+  }
+
+  /**
+   * The runner-up must have lost to the winner, so it is the best of the losers on the path from
+   * the winner's leaf to the root.
+   *
+   * @return the index of the input that holds the best time except the winner, or -1 if there is
+   *     no such input
+   */
+  public int getRunnerUp() {
+    int runnerUp = UNINITIALIZED;
+    for (int parent = (tree[0] + times.length) >> 1; parent > 0; parent >>= 1) {
+      int candidate = tree[parent];
+      if (present[candidate] && (runnerUp == UNINITIALIZED || loses(runnerUp, candidate))) {
+        runnerUp = candidate;
+      }
+    }
+    return runnerUp;
+  }
+
+  /** Replace the time of the current winner with its next time and replay, in O(log(k)) time. */
+  public void replaceWinnerTime(long time) {
+    int winner = tree[0];
+    times[winner] = time;
+    adjust(winner);
+  }
+
+  /** Remove the current winner, whose input has no more time, and replay. */
+  public void removeWinner() {
+    int winner = tree[0];
+    present[winner] = false;
+    adjust(winner);
+  }
+
+  private void adjust(int leaf) {
+    int winner = leaf;
+    for (int parent = (leaf + times.length) >> 1; parent > 0; parent >>= 1) {
+      if (loses(winner, tree[parent])) {
+        int tmp = tree[parent];
+        tree[parent] = winner;
+        winner = tmp;
+      }
+    }
+    tree[0] = winner;
+  }
+
+  private boolean loses(int a, int b) {
+    if (b == UNINITIALIZED) {
+      return true;
+    }
+    if (a == UNINITIALIZED) {
+      return false;
+    }
+    if (!present[a]) {
+      return present[b];
+    }
+    return present[b] && (ascending ? times[a] > times[b] : times[a] < times[b]);
+  }
+}
@@ -33,6 +33,7 @@ import org.apache.iotdb.db.wal.allocation.ElasticStrategy;
 import org.apache.iotdb.db.wal.allocation.FirstCreateStrategy;
 import org.apache.iotdb.db.wal.allocation.NodeAllocationStrategy;
 import org.apache.iotdb.db.wal.allocation.RoundRobinStrategy;
+import org.apache.iotdb.db.wal.buffer.WALGroupCommitter;
 import org.apache.iotdb.db.wal.node.IWALNode;
 import org.apache.iotdb.db.wal.node.WALFakeNode;
 import org.apache.iotdb.db.wal.node.WALNode;
@@ -224,6 +225,7 @@ public class WALManager implements IService {
       walDeleteThread = null;
     }
     clear();
+    WALGroupCommitter.getInstance().stop();
   }
 
   private void shutdownThread(ExecutorService thread, ThreadName threadName) {
@@ -20,8 +20,10 @@ package org.apache.iotdb.db.wal.allocation;
 
 import org.apache.iotdb.commons.conf.CommonConfig;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.conf.directories.FolderManager;
 import org.apache.iotdb.db.conf.directories.strategy.DirectoryStrategyType;
+import org.apache.iotdb.db.conf.directories.strategy.IOAwareDirectoryStrategy;
 import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
 import org.apache.iotdb.db.wal.node.IWALNode;
 import org.apache.iotdb.db.wal.node.WALFakeNode;
@@ -44,9 +46,14 @@ public abstract class AbstractNodeAllocationStrategy implements NodeAllocationSt
 
   protected AbstractNodeAllocationStrategy() {
     try {
-      folderManager =
-          new FolderManager(
-              Arrays.asList(commonConfig.getWalDirs()), DirectoryStrategyType.SEQUENCE_STRATEGY);
+      // steer wal nodes away from busy disks too when data folders are chosen by io load
+      DirectoryStrategyType strategyType =
+          IOAwareDirectoryStrategy.class
+                  .getName()
+                  .equals(IoTDBDescriptor.getInstance().getConfig().getMultiDirStrategyClassName())
+              ? DirectoryStrategyType.IO_AWARE_STRATEGY
+              : DirectoryStrategyType.SEQUENCE_STRATEGY;
+      folderManager = new FolderManager(Arrays.asList(commonConfig.getWalDirs()), strategyType);
     } catch (DiskSpaceInsufficientException e) {
       logger.error(
           "Fail to create wal node allocation strategy because all disks of wal folders are full.",
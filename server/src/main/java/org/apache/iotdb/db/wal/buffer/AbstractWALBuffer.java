@@ -30,6 +30,8 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class AbstractWALBuffer implements IWALBuffer {
@@ -45,6 +47,9 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
   protected volatile long currentSearchIndex;
   /** current wal file log writer */
   protected volatile WALWriter currentWALFileWriter;
+  /** version id -> size of the sealed .wal files, maintained when rolling and deleting files */
+  private final ConcurrentNavigableMap<Long, Long> sealedWALFileVersionId2Size =
+      new ConcurrentSkipListMap<>();
 
   protected AbstractWALBuffer(
       String identifier, String logDirectory, long startFileVersion, long startSearchIndex)
@@ -55,6 +60,15 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
     if (!logDirFile.exists() && logDirFile.mkdirs()) {
       logger.info("Create folder {} for wal node-{}'s buffer.", logDirectory, identifier);
     }
+    File[] sealedWALFiles = WALFileUtils.listAllWALFiles(logDirFile);
+    if (sealedWALFiles != null) {
+      for (File sealedWALFile : sealedWALFiles) {
+        long versionId = WALFileUtils.parseVersionId(sealedWALFile.getName());
+        if (versionId < startFileVersion) {
+          sealedWALFileVersionId2Size.put(versionId, sealedWALFile.length());
+        }
+      }
+    }
     currentSearchIndex = startSearchIndex;
     currentWALFileVersion.set(startFileVersion);
     currentWALFileWriter =
@@ -77,6 +91,24 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
     return currentWALFileWriter.size();
   }
 
+  @Override
+  public long getSealedWALFilesSize(long startVersionId, long endVersionId) {
+    if (startVersionId >= endVersionId) {
+      return 0;
+    }
+    long size = 0;
+    for (long fileSize :
+        sealedWALFileVersionId2Size.subMap(startVersionId, endVersionId).values()) {
+      size += fileSize;
+    }
+    return size;
+  }
+
+  @Override
+  public void removeSealedWALFile(long versionId) {
+    sealedWALFileVersionId2Size.remove(versionId);
+  }
+
   /** Notice: only called by syncBufferThread and old log writer will be closed by this function. */
   protected void rollLogWriter(long searchIndex, WALFileStatus fileStatus) throws IOException {
     // close file
@@ -85,6 +117,8 @@ public abstract class AbstractWALBuffer implements IWALBuffer {
     currentWALFileWriter.close();
     WALManager.getInstance().addTotalDiskUsage(currentWALFileWriter.size());
     WALManager.getInstance().addTotalFileNum(1);
+    sealedWALFileVersionId2Size.put(
+        WALFileUtils.parseVersionId(currentName), currentWALFileWriter.size());
     if (WALFileUtils.parseStatusCode(currentName) != fileStatus) {
       String targetName =
           WALFileUtils.getLogFileName(
@@ -38,6 +38,12 @@ public interface IWALBuffer extends AutoCloseable {
   /** Get current wal file's size */
   long getCurrentWALFileSize();
 
+  /** Get total size of sealed wal files whose version ids are in [startVersionId, endVersionId) */
+  long getSealedWALFilesSize(long startVersionId, long endVersionId);
+
+  /** Stop tracking the size of a sealed wal file, called after the file is deleted */
+  void removeSealedWALFile(long versionId);
+
   /** Get current search index */
   long getCurrentSearchIndex();
 
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.wal.buffer;
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.DeleteDataNode;
@@ -83,6 +84,10 @@ public class WALBuffer extends AbstractWALBuffer {
   private final ExecutorService serializeThread;
   /** single thread to sync syncingBuffer to disk */
   private final ExecutorService syncBufferThread;
+  /** parent directory of logDirectory, wal nodes in the same one share group commit rounds */
+  private final String walDirectory;
+  /** bytes synced to os but not forced, only updated by syncBufferThread */
+  private long unforcedBytesNum = 0;
 
   public WALBuffer(String identifier, String logDirectory) throws FileNotFoundException {
     this(identifier, logDirectory, 0, 0L);
@@ -92,6 +97,7 @@ public class WALBuffer extends AbstractWALBuffer {
       String identifier, String logDirectory, long startFileVersion, long startSearchIndex)
       throws FileNotFoundException {
     super(identifier, logDirectory, startFileVersion, startSearchIndex);
+    walDirectory = SystemFileFactory.INSTANCE.getFile(logDirectory).getAbsoluteFile().getParent();
     currentFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
     allocateBuffers();
     serializeThread =
@@ -422,7 +428,9 @@ public class WALBuffer extends AbstractWALBuffer {
 
       // flush buffer to os
       try {
+        long previousSize = currentWALFileWriter.size();
         currentWALFileWriter.write(syncingBuffer, info.metaData);
+        unforcedBytesNum += currentWALFileWriter.size() - previousSize;
       } catch (Throwable e) {
         logger.error(
             "Fail to sync wal node-{}'s buffer, change system mode to error.", identifier, e);
@@ -437,6 +445,7 @@ public class WALBuffer extends AbstractWALBuffer {
           || (forceFlag && currentWALFileWriter.size() >= config.getWalFileSizeThresholdInByte())) {
         try {
           rollLogWriter(searchIndex, currentWALFileWriter.getWalFileStatus());
+          unforcedBytesNum = 0;
           forceSuccess = true;
           if (info.rollWALFileWriterListener != null) {
             info.rollWALFileWriterListener.succeed();
@@ -452,7 +461,13 @@ public class WALBuffer extends AbstractWALBuffer {
       } else if (forceFlag) { // force os cache to the storage device, avoid force twice by judging
         // after rolling file
         try {
-          currentWALFileWriter.force();
+          if (config.isEnableWalGroupCommit()) {
+            WALGroupCommitter.getInstance()
+                .force(walDirectory, currentWALFileWriter, unforcedBytesNum);
+          } else {
+            currentWALFileWriter.force();
+          }
+          unforcedBytesNum = 0;
           forceSuccess = true;
         } catch (IOException e) {
           logger.error(
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.wal.buffer;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.wal.io.WALWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class batches fsync requests of all wal nodes sharing the same wal directory, which usually
+ * means the same physical disk. Each directory has one commit thread, which collects requests in a
+ * time or byte window, forces every involved wal file once and then wakes up all waiting
+ * syncBufferThreads, so many small independent fsync calls on one disk become one fsync round.
+ */
+public class WALGroupCommitter {
+  private static final Logger logger = LoggerFactory.getLogger(WALGroupCommitter.class);
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final long POLL_TIMEOUT_IN_MS = 100;
+
+  /** wal directory -> its commit group */
+  private final Map<String, CommitGroup> groups = new ConcurrentHashMap<>();
+
+  private WALGroupCommitter() {}
+
+  /**
+   * Forces the given writer in the group commit round of its wal directory, blocks until the round
+   * finishes. Notice: only called by syncBufferThread.
+   *
+   * @param walDirectory wal directory containing the wal node
+   * @param writer writer to force
+   * @param bytesNum bytes written since last force
+   * @throws IOException if fail to force the writer
+   */
+  public void force(String walDirectory, WALWriter writer, long bytesNum) throws IOException {
+    CommitGroup group = groups.computeIfAbsent(walDirectory, CommitGroup::new);
+    group.commit(new ForceRequest(writer, bytesNum));
+  }
+
+  /** Stops all commit threads, requests left are forced before stopping */
+  public void stop() {
+    for (CommitGroup group : groups.values()) {
+      group.close();
+    }
+    groups.clear();
+  }
+
+  private static class ForceRequest {
+    private final WALWriter writer;
+    private final long bytesNum;
+    private final CountDownLatch committed = new CountDownLatch(1);
+    private volatile IOException exception;
+
+    private ForceRequest(WALWriter writer, long bytesNum) {
+      this.writer = writer;
+      this.bytesNum = bytesNum;
+    }
+
+    private void finish(IOException e) {
+      exception = e;
+      committed.countDown();
+    }
+  }
+
+  private static class CommitGroup {
+    private final String walDirectory;
+    private final BlockingQueue<ForceRequest> requests = new LinkedBlockingQueue<>();
+    private final ExecutorService commitThread;
+    private volatile boolean isClosed = false;
+
+    private CommitGroup(String walDirectory) {
+      this.walDirectory = walDirectory;
+      this.commitThread =
+          IoTDBThreadPoolFactory.newSingleThreadExecutor(
+              ThreadName.WAL_GROUP_COMMIT.getName() + "(" + walDirectory + ")");
+      commitThread.submit(this::commitLoop);
+    }
+
+    private void commit(ForceRequest request) throws IOException {
+      if (isClosed) {
+        request.writer.force();
+        return;
+      }
+      requests.add(request);
+      try {
+        while (!request.committed.await(POLL_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS)) {
+          // the commit thread may have exited before this request is added
+          if (isClosed && requests.remove(request)) {
+            request.writer.force();
+            return;
+          }
+        }
+      } catch (InterruptedException e) {
+        logger.warn("Interrupted when waiting for group commit of wal directory {}.", walDirectory);
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      }
+      if (request.exception != null) {
+        throw request.exception;
+      }
+    }
+
+    private void commitLoop() {
+      while (!isClosed) {
+        try {
+          ForceRequest first = requests.poll(POLL_TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+          if (first == null) {
+            continue;
+          }
+          List<ForceRequest> batch = new ArrayList<>();
+          batch.add(first);
+          long pendingBytes = first.bytesNum;
+          // wait a while to collect requests of other wal nodes
+          long deadline =
+              System.nanoTime()
+                  + TimeUnit.MILLISECONDS.toNanos(config.getWalGroupCommitWindowInMs());
+          while (pendingBytes < config.getWalGroupCommitWindowInByte()) {
+            long remainingTime = deadline - System.nanoTime();
+            ForceRequest next =
+                remainingTime > 0
+                    ? requests.poll(remainingTime, TimeUnit.NANOSECONDS)
+                    : requests.poll();
+            if (next == null) {
+              break;
+            }
+            batch.add(next);
+            pendingBytes += next.bytesNum;
+          }
+          forceBatch(batch);
+        } catch (InterruptedException e) {
+          logger.warn("Interrupted when collecting group commit requests of {}.", walDirectory);
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+      // force remaining requests
+      List<ForceRequest> remaining = new ArrayList<>();
+      requests.drainTo(remaining);
+      forceBatch(remaining);
+    }
+
+    private void forceBatch(List<ForceRequest> batch) {
+      if (batch.isEmpty()) {
+        return;
+      }
+      // one wal file may be requested several times, force it only once
+      Map<WALWriter, IOException> forceResults = new IdentityHashMap<>();
+      for (ForceRequest request : batch) {
+        if (forceResults.containsKey(request.writer)) {
+          continue;
+        }
+        IOException exception = null;
+        try {
+          request.writer.force();
+        } catch (IOException e) {
+          exception = e;
+        }
+        forceResults.put(request.writer, exception);
+      }
+      for (ForceRequest request : batch) {
+        request.finish(forceResults.get(request.writer));
+      }
+      logger.debug(
+          "Group commit {} requests of {} wal files in {}.",
+          batch.size(),
+          forceResults.size(),
+          walDirectory);
+    }
+
+    private void close() {
+      isClosed = true;
+      commitThread.shutdown();
+      try {
+        if (!commitThread.awaitTermination(30, TimeUnit.SECONDS)) {
+          logger.warn("Waiting thread {} to be terminated is timeout", walDirectory);
+        }
+      } catch (InterruptedException e) {
+        logger.warn("Thread {} still doesn't exit after 30s", walDirectory);
+        Thread.currentThread().interrupt();
+      }
+      // requests added after the commit thread exits
+      List<ForceRequest> remaining = new ArrayList<>();
+      requests.drainTo(remaining);
+      forceBatch(remaining);
+    }
+  }
+
+  public static WALGroupCommitter getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  private static class InstanceHolder {
+    private InstanceHolder() {}
+
+    private static final WALGroupCommitter INSTANCE = new WALGroupCommitter();
+  }
+}
@@ -236,6 +236,16 @@ public class CheckpointManager implements AutoCloseable {
     return oldestMemTableInfo;
   }
 
+  /** Get MemTableInfos of all active memTables */
+  public List<MemTableInfo> getMemTableInfos() {
+    infoLock.lock();
+    try {
+      return new ArrayList<>(memTableId2Info.values());
+    } finally {
+      infoLock.unlock();
+    }
+  }
+
   /**
    * Get version id of first valid .wal file
    *
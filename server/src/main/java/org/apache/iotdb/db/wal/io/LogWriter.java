@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.wal.io;
 
+import org.apache.iotdb.db.conf.directories.DirectoryIOMonitor;
+import org.apache.iotdb.db.conf.directories.DirectoryIOStatistics;
 import org.apache.iotdb.db.wal.buffer.WALEntry;
 import org.apache.iotdb.db.wal.checkpoint.Checkpoint;
 
@@ -43,11 +45,16 @@ public abstract class LogWriter implements ILogWriter {
   protected final FileOutputStream logStream;
   protected final FileChannel logChannel;
   protected long size;
+  /** io statistics of the wal folder, null if the folder is not monitored */
+  private final DirectoryIOStatistics ioStatistics;
+  /** size of the log when last forced, used to sample the write throughput of the folder */
+  private long forcedSize;
 
   protected LogWriter(File logFile) throws FileNotFoundException {
     this.logFile = logFile;
     this.logStream = new FileOutputStream(logFile, true);
     this.logChannel = this.logStream.getChannel();
+    this.ioStatistics = DirectoryIOMonitor.getInstance().getStatistics(logFile);
   }
 
   @Override
@@ -69,7 +76,19 @@ public abstract class LogWriter implements ILogWriter {
   @Override
   public void force(boolean metaData) throws IOException {
     if (logChannel != null && logChannel.isOpen()) {
-      logChannel.force(metaData);
+      if (ioStatistics == null) {
+        logChannel.force(metaData);
+        return;
+      }
+      long unforcedSize = size - forcedSize;
+      ioStatistics.startWrite();
+      long startTime = System.nanoTime();
+      try {
+        logChannel.force(metaData);
+      } finally {
+        ioStatistics.finishWrite(unforcedSize, System.nanoTime() - startTime);
+      }
+      forcedSize = size;
     }
   }
 
@@ -20,10 +20,13 @@ package org.apache.iotdb.db.wal.io;
 
 import org.apache.iotdb.db.wal.buffer.WALEntry;
 
+import java.io.BufferedInputStream;
 import java.io.Closeable;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
@@ -40,6 +43,8 @@ public class WALByteBufReader implements Closeable {
   private final FileChannel channel;
   private final WALMetaData metaData;
   private final Iterator<Integer> sizeIterator;
+  /** logical content of wal file, compressed segments are decompressed by it */
+  private final DataInputStream logStream;
 
   public WALByteBufReader(File logFile) throws IOException {
     this.logFile = logFile;
@@ -61,6 +66,9 @@ public class WALByteBufReader implements Closeable {
     // init iterator
     sizeIterator = metaData.getBuffersSize().iterator();
     channel.position(0);
+    logStream =
+        new DataInputStream(
+            new WALInputStream(new BufferedInputStream(Channels.newInputStream(channel))));
   }
 
   /** Like {@link Iterator#hasNext()} */
@@ -72,8 +80,7 @@ public class WALByteBufReader implements Closeable {
   public ByteBuffer next() throws IOException {
     int size = sizeIterator.next();
     ByteBuffer buffer = ByteBuffer.allocate(size);
-    channel.read(buffer);
-    buffer.clear();
+    logStream.readFully(buffer.array());
     return buffer;
   }
 
@@ -86,6 +93,7 @@ public class WALByteBufReader implements Closeable {
 
   @Override
   public void close() throws IOException {
+    logStream.close();
     channel.close();
   }
 
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.wal.io;
+
+import org.apache.iotdb.db.wal.buffer.WALEntryType;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * This stream returns the logical content of .wal file. Segments written by {@link WALWriter} when
+ * wal compression is enabled are decompressed transparently, other bytes (including the whole
+ * content of files written without compression and the metadata part of compressed files) are
+ * returned as is.
+ */
+public class WALInputStream extends InputStream {
+  private final DataInputStream in;
+  /** becomes false when meeting the first byte that doesn't start a segment */
+  private boolean segmented = true;
+  /** logical content of current segment */
+  private byte[] segmentBytes = new byte[0];
+
+  private int segmentSize = 0;
+  private int segmentOffset = 0;
+  /** physical position of current segment's header */
+  private long segmentStartPosition = 0;
+  /** number of bytes consumed from the underlying stream */
+  private long physicalPosition = 0;
+
+  public WALInputStream(InputStream in) {
+    this.in = new DataInputStream(in);
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (segmentOffset < segmentSize) {
+      return segmentBytes[segmentOffset++] & 0xFF;
+    }
+    int b = in.read();
+    if (b < 0) {
+      return b;
+    }
+    ++physicalPosition;
+    if (segmented && (byte) b == WALEntryType.COMPRESSED_SEGMENT_MARKER.getCode()) {
+      loadSegment();
+      return read();
+    }
+    segmented = false;
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (segmentOffset >= segmentSize) {
+      if (segmented) {
+        // let read() decide whether next byte starts a segment
+        int first = read();
+        if (first < 0) {
+          return first;
+        }
+        b[off] = (byte) first;
+        return 1 + Math.max(0, read(b, off + 1, len - 1));
+      }
+      int readBytes = in.read(b, off, len);
+      if (readBytes > 0) {
+        physicalPosition += readBytes;
+      }
+      return readBytes;
+    }
+    int readBytes = Math.min(len, segmentSize - segmentOffset);
+    System.arraycopy(segmentBytes, segmentOffset, b, off, readBytes);
+    segmentOffset += readBytes;
+    return readBytes;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return segmentSize - segmentOffset + (segmented ? 0 : in.available());
+  }
+
+  /** Reads the segment whose marker has been consumed, throws EOFException if it's incomplete */
+  private void loadSegment() throws IOException {
+    segmentStartPosition = physicalPosition - Byte.BYTES;
+    CompressionType compressionType = CompressionType.deserialize(in.readByte());
+    int uncompressedSize = in.readInt();
+    int compressedSize = in.readInt();
+    if (uncompressedSize < 0 || compressedSize < 0) {
+      throw new IOException(
+          String.format(
+              "Illegal wal segment size, uncompressed %d, compressed %d",
+              uncompressedSize, compressedSize));
+    }
+    byte[] compressedBytes = new byte[compressedSize];
+    in.readFully(compressedBytes);
+    physicalPosition += WALWriter.SEGMENT_HEADER_BYTES - Byte.BYTES + compressedSize;
+    if (compressionType == CompressionType.UNCOMPRESSED) {
+      segmentBytes = compressedBytes;
+    } else {
+      if (segmentBytes.length < uncompressedSize) {
+        segmentBytes = new byte[uncompressedSize];
+      }
+      int decompressedSize =
+          IUnCompressor.getUnCompressor(compressionType)
+              .uncompress(compressedBytes, 0, compressedSize, segmentBytes, 0);
+      if (decompressedSize != uncompressedSize) {
+        throw new EOFException(
+            String.format(
+                "Broken wal segment, expect %d bytes after decompression, but get %d",
+                uncompressedSize, decompressedSize));
+      }
+    }
+    segmentSize = uncompressedSize;
+    segmentOffset = 0;
+  }
+
+  /** Returns true if the stream is inside a segment, which hasn't been read completely */
+  public boolean isInsideSegment() {
+    return segmentOffset < segmentSize;
+  }
+
+  /** Returns physical position of current segment's header */
+  public long getSegmentStartPosition() {
+    return segmentStartPosition;
+  }
+
+  /** Returns number of bytes consumed from the underlying stream */
+  public long getPhysicalPosition() {
+    return physicalPosition;
+  }
+
+  /** Returns the logical bytes of current segment which have been read */
+  public byte[] getReadSegmentBytes() {
+    return Arrays.copyOf(segmentBytes, segmentOffset);
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
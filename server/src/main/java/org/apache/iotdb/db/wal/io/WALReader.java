@@ -59,7 +59,9 @@ public class WALReader implements Closeable {
     this.fileMayCorrupt = fileMayCorrupt;
     this.logStream =
         new DataInputStream(
-            new BufferedInputStream(Files.newInputStream(logFile.toPath()), STREAM_BUFFER_SIZE));
+            new WALInputStream(
+                new BufferedInputStream(
+                    Files.newInputStream(logFile.toPath()), STREAM_BUFFER_SIZE)));
   }
 
   /** Like {@link Iterator#hasNext()} */
@@ -18,28 +18,53 @@
  */
 package org.apache.iotdb.db.wal.io;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.service.metrics.recorder.WALMetricsRecorder;
 import org.apache.iotdb.db.wal.buffer.WALEntry;
 import org.apache.iotdb.db.wal.buffer.WALEntryType;
 import org.apache.iotdb.db.wal.buffer.WALSignalEntry;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
-/** WALWriter writes the binary {@link WALEntry} into .wal file. */
+/**
+ * WALWriter writes the binary {@link WALEntry} into .wal file. When wal compression is enabled,
+ * each synced buffer is written as a segment, which consists of a header and the compressed
+ * content, the header contains segment marker 1 byte, compression type 1 byte, uncompressed size 4
+ * bytes and compressed size 4 bytes.
+ */
 public class WALWriter extends LogWriter {
   public static final String MAGIC_STRING = "WAL";
   public static final int MAGIC_STRING_BYTES = MAGIC_STRING.getBytes().length;
+  public static final int SEGMENT_HEADER_BYTES = Byte.BYTES * 2 + Integer.BYTES * 2;
 
   private WALFileStatus walFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
 
   /** wal files' metadata */
   protected final WALMetaData metaData = new WALMetaData();
 
+  /** null means synced buffers are written without segment header */
+  private final ICompressor compressor;
+  /** reusable heap copy of synced buffer, only used when compressor isn't null */
+  private byte[] uncompressedBytes = new byte[0];
+  /** reusable compressed bytes, only used when compressor isn't null */
+  private byte[] compressedBytes = new byte[0];
+
   public WALWriter(File logFile) throws FileNotFoundException {
+    this(logFile, IoTDBDescriptor.getInstance().getConfig().getWalCompressionAlgorithm());
+  }
+
+  public WALWriter(File logFile, CompressionType compressionType) throws FileNotFoundException {
     super(logFile);
+    this.compressor =
+        compressionType == CompressionType.UNCOMPRESSED
+            ? null
+            : ICompressor.getCompressor(compressionType);
   }
 
   /** Writes buffer and update its' metadata */
@@ -47,7 +72,44 @@ public class WALWriter extends LogWriter {
     // update metadata
     updateMetaData(metaData);
     // flush buffer
-    write(buffer);
+    if (compressor == null) {
+      write(buffer);
+    } else {
+      writeSegment(buffer);
+    }
+  }
+
+  /** Compresses buffer and writes it as a segment, notice: do not flip the buffer */
+  private void writeSegment(ByteBuffer buffer) throws IOException {
+    int uncompressedSize = buffer.position();
+    if (uncompressedSize == 0) {
+      return;
+    }
+    buffer.flip();
+    if (uncompressedBytes.length < uncompressedSize) {
+      uncompressedBytes = new byte[uncompressedSize];
+      compressedBytes = new byte[compressor.getMaxBytesForCompression(uncompressedSize)];
+    }
+    buffer.get(uncompressedBytes, 0, uncompressedSize);
+    CompressionType compressionType = compressor.getType();
+    byte[] content = compressedBytes;
+    int contentSize = compressor.compress(uncompressedBytes, 0, uncompressedSize, compressedBytes);
+    // store content directly when it's incompressible
+    if (contentSize >= uncompressedSize) {
+      compressionType = CompressionType.UNCOMPRESSED;
+      content = uncompressedBytes;
+      contentSize = uncompressedSize;
+    }
+    ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_BYTES);
+    header.put(WALEntryType.COMPRESSED_SEGMENT_MARKER.getCode());
+    header.put(compressionType.serialize());
+    header.putInt(uncompressedSize);
+    header.putInt(contentSize);
+    write(header);
+    ByteBuffer contentBuffer = ByteBuffer.wrap(content, 0, contentSize);
+    contentBuffer.position(contentSize);
+    write(contentBuffer);
+    WALMetricsRecorder.recordCompressionInfo(uncompressedSize, SEGMENT_HEADER_BYTES + contentSize);
   }
 
   public void updateMetaData(WALMetaData metaData) {
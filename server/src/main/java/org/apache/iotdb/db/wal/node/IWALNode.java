@@ -27,6 +27,8 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertTabletNode;
 import org.apache.iotdb.db.wal.utils.listener.WALFlushListener;
 
+import java.util.Map;
+
 /** This interface provides uniform interface for writing wal and making checkpoints. */
 public interface IWALNode extends FlushListener, AutoCloseable, ConsensusReqReader, DataSet {
 
@@ -42,6 +44,14 @@ public interface IWALNode extends FlushListener, AutoCloseable, ConsensusReqRead
   /** Callback when memTable created */
   void onMemTableCreated(IMemTable memTable, String targetTsFile);
 
+  /**
+   * Get the size of .wal files that flushing an active memTable would release. MemTables whose
+   * flush releases nothing may be absent.
+   *
+   * @return memTable id -> releasable .wal files size in byte
+   */
+  Map<Long, Long> getMemTablePinnedWALSize();
+
   @Override
   void close();
 }
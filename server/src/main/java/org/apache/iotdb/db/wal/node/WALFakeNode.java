@@ -25,6 +25,9 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertTabletNode;
 import org.apache.iotdb.db.wal.exception.WALException;
 import org.apache.iotdb.db.wal.utils.listener.WALFlushListener;
 
+import java.util.Collections;
+import java.util.Map;
+
 /** This class provides fake wal node when wal is disabled or exception happens. */
 public class WALFakeNode implements IWALNode {
   private final WALFlushListener.Status status;
@@ -85,6 +88,11 @@ public class WALFakeNode implements IWALNode {
     // do nothing
   }
 
+  @Override
+  public Map<Long, Long> getMemTablePinnedWALSize() {
+    return Collections.emptyMap();
+  }
+
   @Override
   public void setSafelyDeletedSearchIndex(long safelyDeletedSearchIndex) {
     throw new UnsupportedOperationException();
@@ -59,6 +59,7 @@ import java.io.FileNotFoundException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -180,6 +181,30 @@ public class WALNode implements IWALNode {
     checkpointManager.makeCreateMemTableCP(memTableInfo);
   }
 
+  /**
+   * Only flushing the oldest memTable can advance the first valid version id, which releases the
+   * sealed .wal files between its first version id and that of the second oldest memTable.
+   * Flushing any other memTable releases nothing, so only the oldest memTable gets an entry. The
+   * file being written is not counted.
+   */
+  @Override
+  public Map<Long, Long> getMemTablePinnedWALSize() {
+    List<MemTableInfo> memTableInfos = checkpointManager.getMemTableInfos();
+    if (memTableInfos.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    memTableInfos.sort(Comparator.comparingLong(MemTableInfo::getFirstFileVersionId));
+    long currentVersionId = buffer.getCurrentWALFileVersion();
+    long startVersionId = memTableInfos.get(0).getFirstFileVersionId();
+    long endVersionId =
+        memTableInfos.size() > 1
+            ? Math.min(memTableInfos.get(1).getFirstFileVersionId(), currentVersionId)
+            : currentVersionId;
+    return Collections.singletonMap(
+        memTableInfos.get(0).getMemTableId(),
+        buffer.getSealedWALFilesSize(startVersionId, endVersionId));
+  }
+
   // region Task to delete outdated .wal files
   /** Delete outdated .wal files */
   public void deleteOutdatedFiles() {
@@ -291,6 +316,7 @@ public class WALNode implements IWALNode {
         if (filesToDelete[i].delete()) {
           deletedFilesNum++;
           deletedFilesSize += fileSize;
+          buffer.removeSealedWALFile(WALFileUtils.parseVersionId(filesToDelete[i].getName()));
         } else {
           logger.info(
               "Fail to delete outdated wal file {} of wal node-{}.", filesToDelete[i], identifier);
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.wal.recover;
+
+import org.apache.iotdb.db.wal.buffer.WALEntry;
+import org.apache.iotdb.db.wal.recover.file.UnsealedTsFileRecoverPerformer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class redoes wal entries of one wal node, entries of different memTables are redone
+ * concurrently by the redo thread pool while entries of the same memTable are redone in order.
+ * Memory of entries waiting to be redone is bounded by a semaphore shared by all wal nodes, so the
+ * reader thread blocks when redo falls behind. Notice: dispatch method should be called by one
+ * thread.
+ */
+class MemTableRedoDispatcher {
+  private static final Logger logger = LoggerFactory.getLogger(MemTableRedoDispatcher.class);
+  /** unit of memory budget permits, use KB to avoid overflow */
+  static final int PERMIT_SIZE_IN_BYTE = 1024;
+
+  private final ExecutorService redoThreadPool;
+  private final Semaphore memoryBudget;
+  private final int maxPermits;
+  private final Map<Long, RedoQueue> memTableId2Queue = new HashMap<>();
+  /** tracks running redo tasks */
+  private final Phaser runningTasks = new Phaser(1);
+
+  MemTableRedoDispatcher(ExecutorService redoThreadPool, Semaphore memoryBudget, int maxPermits) {
+    this.redoThreadPool = redoThreadPool;
+    this.memoryBudget = memoryBudget;
+    this.maxPermits = maxPermits;
+  }
+
+  /** Adds entry to the redo queue of its memTable, blocks when memory budget is exhausted */
+  void dispatch(WALEntry walEntry, UnsealedTsFileRecoverPerformer recoverPerformer)
+      throws InterruptedException {
+    int permits = (int) Math.min(maxPermits, walEntry.serializedSize() / PERMIT_SIZE_IN_BYTE + 1);
+    memoryBudget.acquire(permits);
+    RedoQueue queue =
+        memTableId2Queue.computeIfAbsent(
+            walEntry.getMemTableId(), id -> new RedoQueue(recoverPerformer));
+    queue.entries.add(new PendingEntry(walEntry, permits));
+    queue.schedule();
+  }
+
+  /** Blocks until all dispatched entries have been redone */
+  void waitAllRedone() {
+    runningTasks.arriveAndAwaitAdvance();
+  }
+
+  private static class PendingEntry {
+    private final WALEntry walEntry;
+    private final int permits;
+
+    private PendingEntry(WALEntry walEntry, int permits) {
+      this.walEntry = walEntry;
+      this.permits = permits;
+    }
+  }
+
+  /** At most one redo task of each queue is running at any time */
+  private class RedoQueue implements Runnable {
+    private final UnsealedTsFileRecoverPerformer recoverPerformer;
+    private final Queue<PendingEntry> entries = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private RedoQueue(UnsealedTsFileRecoverPerformer recoverPerformer) {
+      this.recoverPerformer = recoverPerformer;
+    }
+
+    private void schedule() {
+      if (scheduled.compareAndSet(false, true)) {
+        runningTasks.register();
+        redoThreadPool.submit(this);
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        PendingEntry pendingEntry;
+        while ((pendingEntry = entries.poll()) != null) {
+          try {
+            recoverPerformer.redoLog(pendingEntry.walEntry);
+          } catch (Exception e) {
+            logger.warn(
+                "Fail to redo wal entry of TsFile {}, skip it.",
+                recoverPerformer.getTsFileAbsolutePath(),
+                e);
+          } finally {
+            memoryBudget.release(pendingEntry.permits);
+          }
+        }
+      } finally {
+        scheduled.set(false);
+        // entries may be added after polling null but before resetting scheduled flag
+        if (!entries.isEmpty()) {
+          schedule();
+        }
+        runningTasks.arriveAndDeregister();
+      }
+    }
+  }
+}
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.memtable.AbstractMemTable;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.service.metrics.recorder.WALMetricsRecorder;
 import org.apache.iotdb.db.wal.WALManager;
 import org.apache.iotdb.db.wal.buffer.WALEntry;
 import org.apache.iotdb.db.wal.buffer.WALEntryType;
@@ -83,6 +84,7 @@ public class WALNodeRecoverTask implements Runnable {
       }
     } finally {
       allNodesRecoveredLatch.countDown();
+      walRecoverManger.onNodeRecovered();
       for (UnsealedTsFileRecoverPerformer recoverPerformer : memTableId2RecoverPerformer.values()) {
         try {
           if (!recoverPerformer.canWrite()) {
@@ -230,29 +232,41 @@ public class WALNodeRecoverTask implements Runnable {
     }
     // asc sort by version id
     WALFileUtils.ascSortByVersionId(walFiles);
-    // read .wal files and redo logs
-    for (int i = 0; i < walFiles.length; ++i) {
-      File walFile = walFiles[i];
-      // last wal file may corrupt
-      try (WALReader walReader = new WALReader(walFile, i == walFiles.length - 1)) {
-        while (walReader.hasNext()) {
-          WALEntry walEntry = walReader.next();
-          if (!memTableId2Info.containsKey(walEntry.getMemTableId())) {
-            continue;
-          }
+    // read .wal files in this thread and redo logs of different memTables concurrently
+    MemTableRedoDispatcher redoDispatcher = walRecoverManger.createRedoDispatcher();
+    try {
+      for (int i = 0; i < walFiles.length; ++i) {
+        File walFile = walFiles[i];
+        long redoEntriesNum = 0;
+        // last wal file may corrupt
+        try (WALReader walReader = new WALReader(walFile, i == walFiles.length - 1)) {
+          while (walReader.hasNext()) {
+            WALEntry walEntry = walReader.next();
+            if (!memTableId2Info.containsKey(walEntry.getMemTableId())) {
+              continue;
+            }
 
-          UnsealedTsFileRecoverPerformer recoverPerformer =
-              memTableId2RecoverPerformer.get(walEntry.getMemTableId());
-          if (recoverPerformer != null) {
-            recoverPerformer.redoLog(walEntry);
-          } else {
-            logger.warn(
-                "Fail to find TsFile recover performer for wal entry in TsFile {}", walFile);
+            UnsealedTsFileRecoverPerformer recoverPerformer =
+                memTableId2RecoverPerformer.get(walEntry.getMemTableId());
+            if (recoverPerformer != null) {
+              redoDispatcher.dispatch(walEntry, recoverPerformer);
+              redoEntriesNum++;
+            } else {
+              logger.warn(
+                  "Fail to find TsFile recover performer for wal entry in TsFile {}", walFile);
+            }
           }
+        } catch (InterruptedException e) {
+          logger.warn("Interrupted when redoing wal logs from {}", walFile);
+          Thread.currentThread().interrupt();
+          break;
+        } catch (Exception e) {
+          logger.warn("Fail to read wal logs from {}, skip them", walFile, e);
         }
-      } catch (Exception e) {
-        logger.warn("Fail to read wal logs from {}, skip them", walFile, e);
+        WALMetricsRecorder.recordRecoveredWALFile(walFile.length(), redoEntriesNum);
       }
+    } finally {
+      redoDispatcher.waitAllRedone();
     }
     endRecovery();
   }
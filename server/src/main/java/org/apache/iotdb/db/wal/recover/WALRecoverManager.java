@@ -24,8 +24,11 @@ import org.apache.iotdb.commons.conf.CommonConfig;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DataRegionException;
 import org.apache.iotdb.db.exception.runtime.StorageEngineFailureException;
+import org.apache.iotdb.db.service.metrics.recorder.WALMetricsRecorder;
 import org.apache.iotdb.db.wal.exception.WALRecoverException;
 import org.apache.iotdb.db.wal.recover.file.UnsealedTsFileRecoverPerformer;
 import org.apache.iotdb.db.wal.utils.listener.WALRecoverListener;
@@ -44,18 +47,27 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /** First set allVsgScannedLatch, then call recover method. */
 public class WALRecoverManager {
   private static final Logger logger = LoggerFactory.getLogger(WALRecoverManager.class);
   private static final CommonConfig commonConfig = CommonDescriptor.getInstance().getConfig();
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   /** true when the recover procedure has started */
   private volatile boolean hasStarted = false;
   /** start recovery after all data regions have submitted unsealed zero-level TsFiles */
   private volatile CountDownLatch allDataRegionScannedLatch;
-  /** threads to recover wal nodes */
+  /** threads to recover wal nodes, each thread reads and decodes one wal node's entries */
   private ExecutorService recoverThreadPool;
+  /** threads to redo decoded wal entries of all wal nodes */
+  private ExecutorService redoThreadPool;
+  /** bounds the memory of decoded wal entries waiting to be redone */
+  private Semaphore redoMemoryBudget;
+  /** number of wal nodes waiting to be recovered or being recovered */
+  private final AtomicInteger remainingNodesNum = new AtomicInteger();
   /** stores all UnsealedTsFileRecoverPerformer submitted by data region processors */
   private final Map<String, UnsealedTsFileRecoverPerformer> absolutePath2RecoverPerformer =
       new ConcurrentHashMap<>();
@@ -92,8 +104,15 @@ public class WALRecoverManager {
           "Data regions have submitted all unsealed TsFiles, start recovering TsFiles in each wal node.");
       // recover each wal node's TsFiles
       if (!walNodeDirs.isEmpty()) {
+        int threadCount = config.getWalRecoverThreadCount();
         recoverThreadPool =
-            IoTDBThreadPoolFactory.newCachedThreadPool(ThreadName.WAL_RECOVER.getName());
+            IoTDBThreadPoolFactory.newFixedThreadPool(
+                Math.min(threadCount, walNodeDirs.size()), ThreadName.WAL_RECOVER.getName());
+        redoThreadPool =
+            IoTDBThreadPoolFactory.newFixedThreadPool(threadCount, ThreadName.WAL_REDO.getName());
+        redoMemoryBudget = new Semaphore(getRedoMemoryBudgetPermits());
+        remainingNodesNum.set(walNodeDirs.size());
+        WALMetricsRecorder.recordRecoverRemainingNodes(remainingNodesNum.get());
         CountDownLatch allNodesRecoveredLatch = new CountDownLatch(walNodeDirs.size());
         for (File walNodeDir : walNodeDirs) {
           recoverThreadPool.submit(new WALNodeRecoverTask(walNodeDir, allNodesRecoveredLatch));
@@ -172,6 +191,27 @@ public class WALRecoverManager {
     recoverTsFilesThreadPool.shutdown();
   }
 
+  /** Creates a dispatcher to redo wal entries of one wal node with shared threads and memory */
+  MemTableRedoDispatcher createRedoDispatcher() {
+    return new MemTableRedoDispatcher(
+        redoThreadPool, redoMemoryBudget, getRedoMemoryBudgetPermits());
+  }
+
+  /** Called when one wal node has been recovered */
+  void onNodeRecovered() {
+    WALMetricsRecorder.recordRecoverRemainingNodes(remainingNodesNum.decrementAndGet());
+  }
+
+  int getRedoMemoryBudgetPermits() {
+    return (int)
+        Math.max(
+            1,
+            Math.min(
+                Integer.MAX_VALUE,
+                config.getWalRecoverMemoryBudgetInByte()
+                    / MemTableRedoDispatcher.PERMIT_SIZE_IN_BYTE));
+  }
+
   public WALRecoverListener addRecoverPerformer(UnsealedTsFileRecoverPerformer recoverPerformer) {
     if (hasStarted) {
       logger.error("Cannot recover tsfile from wal because wal recovery has already started");
@@ -214,6 +254,15 @@ public class WALRecoverManager {
       recoverThreadPool.shutdown();
       recoverThreadPool = null;
     }
+    if (redoThreadPool != null) {
+      redoThreadPool.shutdown();
+      redoThreadPool = null;
+    }
+  }
+
+  @TestOnly
+  int getAvailableRedoMemoryBudgetPermits() {
+    return redoMemoryBudget.availablePermits();
   }
 
   @TestOnly
@@ -18,13 +18,19 @@
  */
 package org.apache.iotdb.db.wal.recover;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.wal.buffer.WALEntryType;
+import org.apache.iotdb.db.wal.io.WALInputStream;
 import org.apache.iotdb.db.wal.io.WALMetaData;
 import org.apache.iotdb.db.wal.io.WALWriter;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
 
 import static org.apache.iotdb.db.wal.io.WALWriter.MAGIC_STRING;
@@ -40,14 +46,36 @@ public class WALRecoverWriter {
 
   public void recover(WALMetaData metaData) throws IOException {
     // locate broken data
-    int truncateSize;
+    long truncateSize;
+    byte[] segmentTail = null;
     if (logFile.length() < MAGIC_STRING_BYTES) { // file without magic string
       truncateSize = 0;
     } else {
       if (readTailMagic().equals(MAGIC_STRING)) { // complete file
         return;
       } else { // file with broken magic string
-        truncateSize = metaData.getBuffersSize().stream().mapToInt(Integer::intValue).sum();
+        long validSize = metaData.getBuffersSize().stream().mapToLong(Integer::longValue).sum();
+        if (!isCompressed()) {
+          truncateSize = validSize;
+        } else {
+          // valid data may end inside a compressed segment, so truncate the whole segment and
+          // rewrite its valid part as a new segment
+          try (WALInputStream stream =
+              new WALInputStream(new BufferedInputStream(Files.newInputStream(logFile.toPath())))) {
+            long skippedSize = stream.skip(validSize);
+            if (skippedSize != validSize) {
+              throw new IOException(
+                  String.format(
+                      "Fail to locate %d valid bytes of wal file %s", validSize, logFile));
+            }
+            if (stream.isInsideSegment()) {
+              truncateSize = stream.getSegmentStartPosition();
+              segmentTail = stream.getReadSegmentBytes();
+            } else {
+              truncateSize = stream.getPhysicalPosition();
+            }
+          }
+        }
       }
     }
     // truncate broken data
@@ -55,11 +83,34 @@ public class WALRecoverWriter {
       channel.truncate(truncateSize);
     }
     // flush metadata
-    try (WALWriter walWriter = new WALWriter(logFile)) {
+    try (WALWriter walWriter = new WALWriter(logFile, getTailCompressionType(segmentTail))) {
+      if (segmentTail != null && segmentTail.length > 0) {
+        ByteBuffer buffer = ByteBuffer.wrap(segmentTail);
+        buffer.position(segmentTail.length);
+        walWriter.write(buffer, new WALMetaData());
+      }
       walWriter.updateMetaData(metaData);
     }
   }
 
+  private boolean isCompressed() throws IOException {
+    try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer firstByte = ByteBuffer.allocate(Byte.BYTES);
+      channel.read(firstByte, 0);
+      return firstByte.get(0) == WALEntryType.COMPRESSED_SEGMENT_MARKER.getCode();
+    }
+  }
+
+  /** The rewritten tail of a compressed file must be a segment, even if compression is disabled */
+  private CompressionType getTailCompressionType(byte[] segmentTail) {
+    CompressionType compressionType =
+        IoTDBDescriptor.getInstance().getConfig().getWalCompressionAlgorithm();
+    if (segmentTail != null && compressionType == CompressionType.UNCOMPRESSED) {
+      compressionType = CompressionType.LZ4;
+    }
+    return compressionType;
+  }
+
   private String readTailMagic() throws IOException {
     try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.READ)) {
       ByteBuffer magicStringBytes = ByteBuffer.allocate(MAGIC_STRING_BYTES);
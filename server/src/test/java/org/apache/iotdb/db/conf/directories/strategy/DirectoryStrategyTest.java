@@ -19,6 +19,8 @@
 package org.apache.iotdb.db.conf.directories.strategy;
 
 import org.apache.iotdb.commons.utils.JVMCommonUtils;
+import org.apache.iotdb.db.conf.directories.DirectoryIOMonitor;
+import org.apache.iotdb.db.conf.directories.DirectoryIOStatistics;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.exception.DiskSpaceInsufficientException;
 
@@ -31,6 +33,7 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -174,6 +177,76 @@ public class DirectoryStrategyTest {
     }
   }
 
+  @Test
+  public void testIOAwareDirectoryStrategy() throws DiskSpaceInsufficientException {
+    IOAwareDirectoryStrategy ioAwareDirectoryStrategy = new IOAwareDirectoryStrategy();
+    ioAwareDirectoryStrategy.setFolders(dataDirList);
+
+    // no samples, choose the folders in turn
+    int index = 0;
+    for (int i = 0; i < dataDirList.size() * 2; i++, index++) {
+      index = index % dataDirList.size();
+      while (fullDirIndexSet.contains(index)) {
+        index = (index + 1) % dataDirList.size();
+      }
+      assertEquals(index, ioAwareDirectoryStrategy.nextFolderIndex());
+    }
+
+    DirectoryIOMonitor monitor = DirectoryIOMonitor.getInstance();
+    DirectoryIOStatistics slowStatistics =
+        monitor.getStatistics(new File(dataDirList.get(0), "slow.tsfile"));
+    DirectoryIOStatistics fastStatistics =
+        monitor.getStatistics(new File(dataDirList.get(2), "fast.tsfile"));
+    DirectoryIOStatistics anotherFastStatistics =
+        monitor.getStatistics(new File(dataDirList.get(4), "fast.tsfile"));
+    slowStatistics.recordWrite(1024, 1_000_000_000L);
+    fastStatistics.recordWrite(1024, 1_000_000L);
+    anotherFastStatistics.recordWrite(1024, 1_000_000L);
+
+    // the slow folder is avoided
+    for (int i = 0; i < dataDirList.size(); i++) {
+      int nextIndex = ioAwareDirectoryStrategy.nextFolderIndex();
+      assertTrue(nextIndex == 2 || nextIndex == 4);
+    }
+
+    // the folder with in-flight writes is avoided
+    fastStatistics.startWrite();
+    for (int i = 0; i < dataDirList.size(); i++) {
+      assertEquals(4, ioAwareDirectoryStrategy.nextFolderIndex());
+    }
+    fastStatistics.finishWrite(0, 0);
+  }
+
+  @Test
+  public void testIOAwareDirectoryStrategyProbe() throws DiskSpaceInsufficientException {
+    List<String> folders = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      folders.add(TestConstant.OUTPUT_DATA_DIR + "probe" + i);
+      PowerMockito.when(JVMCommonUtils.hasSpace(folders.get(i))).thenReturn(true);
+    }
+    IOAwareDirectoryStrategy ioAwareDirectoryStrategy = new IOAwareDirectoryStrategy();
+    ioAwareDirectoryStrategy.setFolders(folders);
+
+    DirectoryIOMonitor monitor = DirectoryIOMonitor.getInstance();
+    DirectoryIOStatistics sampledStatistics =
+        monitor.getStatistics(new File(folders.get(0), "sampled.tsfile"));
+    DirectoryIOStatistics unsampledStatistics =
+        monitor.getStatistics(new File(folders.get(1), "unsampled.tsfile"));
+    sampledStatistics.recordWrite(1024, 1_000_000L);
+    // a write without a measured cost doesn't make the folder look infinitely fast
+    unsampledStatistics.recordWrite(1024, 0);
+    assertEquals(0, unsampledStatistics.getAvgThroughputInBytesPerSec(), 0);
+
+    // the folder without samples is probed
+    assertEquals(1, ioAwareDirectoryStrategy.nextFolderIndex());
+    // only one probe write at a time, the others go to the folder with a known throughput
+    unsampledStatistics.startWrite();
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, ioAwareDirectoryStrategy.nextFolderIndex());
+    }
+    unsampledStatistics.finishWrite(0, 0);
+  }
+
   @Test
   public void testAllDiskFull() {
     for (int i = 0; i < dataDirList.size(); i++) {
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.path.AlignedPath;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.execute.performer.impl.FastCompactionPerformer;
+import org.apache.iotdb.db.engine.compaction.execute.task.CrossSpaceCompactionTask;
+import org.apache.iotdb.db.engine.compaction.execute.task.InnerSpaceCompactionTask;
+import org.apache.iotdb.db.engine.compaction.execute.utils.CompactionUtils;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorUtils;
+import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.iotdb.tsfile.common.constant.TsFileConstant.PATH_SEPARATOR;
+
+public class FastCompactionDeviceParallelismTest extends AbstractCompactionTest {
+  private int oldCompactionDeviceParallelism;
+
+  @Before
+  public void setUp()
+      throws IOException, WriteProcessException, MetadataException, InterruptedException {
+    super.setUp();
+    oldCompactionDeviceParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getCompactionDeviceParallelism();
+    IoTDBDescriptor.getInstance().getConfig().setCompactionDeviceParallelism(2);
+    IoTDBDescriptor.getInstance().getConfig().setTargetChunkSize(512);
+    IoTDBDescriptor.getInstance().getConfig().setTargetChunkPointNum(100);
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setCompactionDeviceParallelism(oldCompactionDeviceParallelism);
+    super.tearDown();
+    FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+  }
+
+  @Test
+  public void testCrossSpaceCompactionInDeviceLanes() throws Exception {
+    registerTimeseriesInMManger(5, 3, false);
+    createFiles(3, 5, 3, 100, 0, 0, 50, 50, false, true);
+    createFiles(2, 4, 3, 50, 120, 10000, 100, 100, false, false);
+
+    List<PartialPath> timeseriesPaths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      for (int j = 0; j < 3; j++) {
+        timeseriesPaths.add(
+            new MeasurementPath(
+                COMPACTION_TEST_SG + PATH_SEPARATOR + "d" + i,
+                "s" + j,
+                new MeasurementSchema("s" + j, TSDataType.INT64)));
+        dataTypes.add(TSDataType.INT64);
+      }
+    }
+    Map<PartialPath, List<TimeValuePair>> sourceDatas =
+        readSourceFiles(timeseriesPaths, dataTypes);
+
+    tsFileManager.addAll(seqResources, true);
+    tsFileManager.addAll(unseqResources, false);
+    new CrossSpaceCompactionTask(
+            0,
+            tsFileManager,
+            seqResources,
+            unseqResources,
+            new FastCompactionPerformer(true),
+            new AtomicInteger(0),
+            0,
+            0)
+        .start();
+
+    validateSeqFiles(true);
+    validateTargetDatas(sourceDatas, dataTypes);
+    assertNoLaneFileLeft();
+  }
+
+  @Test
+  public void testAlignedInnerSpaceCompactionInDeviceLanes() throws Exception {
+    registerTimeseriesInMManger(3, 3, true);
+    createFiles(4, 3, 3, 100, 0, 0, 50, 50, true, true);
+
+    List<PartialPath> timeseriesPaths = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>();
+    for (int i = TsFileGeneratorUtils.getAlignDeviceOffset();
+        i < TsFileGeneratorUtils.getAlignDeviceOffset() + 3;
+        i++) {
+      for (int j = 0; j < 3; j++) {
+        List<IMeasurementSchema> schemas = new ArrayList<>();
+        schemas.add(new MeasurementSchema("s" + j, TSDataType.INT64));
+        timeseriesPaths.add(
+            new AlignedPath(
+                COMPACTION_TEST_SG + PATH_SEPARATOR + "d" + i,
+                Collections.singletonList("s" + j),
+                schemas));
+        dataTypes.add(TSDataType.VECTOR);
+      }
+    }
+    Map<PartialPath, List<TimeValuePair>> sourceDatas =
+        readSourceFiles(timeseriesPaths, dataTypes);
+
+    tsFileManager.addAll(seqResources, true);
+    new InnerSpaceCompactionTask(
+            0,
+            tsFileManager,
+            seqResources,
+            true,
+            new FastCompactionPerformer(false),
+            new AtomicInteger(0),
+            0)
+        .start();
+
+    Assert.assertEquals(1, tsFileManager.getTsFileList(true).size());
+    validateSeqFiles(true);
+    validateTargetDatas(sourceDatas, dataTypes);
+    assertNoLaneFileLeft();
+  }
+
+  private void assertNoLaneFileLeft() {
+    File[] laneFiles =
+        SEQ_DIRS.listFiles((dir, name) -> name.contains(CompactionUtils.LANE_FILE_SUFFIX));
+    Assert.assertNotNull(laneFiles);
+    Assert.assertEquals(0, laneFiles.length);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.inner.leveled;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.selector.impl.LeveledCompactionSelector;
+import org.apache.iotdb.db.engine.storagegroup.FakedTsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileManager;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class LeveledCompactionSelectorTest {
+  private long originTargetCompactionFileSize;
+
+  @Before
+  public void setUp() {
+    originTargetCompactionFileSize =
+        IoTDBDescriptor.getInstance().getConfig().getTargetCompactionFileSize();
+    IoTDBDescriptor.getInstance().getConfig().setTargetCompactionFileSize(1024 * 1024 * 1024L);
+  }
+
+  @After
+  public void tearDown() {
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setTargetCompactionFileSize(originTargetCompactionFileSize);
+  }
+
+  @Test
+  public void testSelectFilesOfSimilarSize() {
+    List<TsFileResource> resources = new ArrayList<>();
+    for (int i = 0; i < 10; ++i) {
+      resources.add(createResource(i, 1024, 0));
+    }
+    TsFileManager manager = new TsFileManager("root.test", "0", "");
+    manager.addAll(resources, true);
+
+    List<List<TsFileResource>> tasks =
+        new LeveledCompactionSelector("root.test", "0", 0, manager)
+            .selectInnerSpaceTask(manager.getSequenceListByTimePartition(0));
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertEquals(10, tasks.get(0).size());
+  }
+
+  @Test
+  public void testAvoidRewritingLargeFile() {
+    List<TsFileResource> resources = new ArrayList<>();
+    resources.add(createResource(0, 1024 * 1024, 0));
+    resources.add(createResource(1, 1024, 0));
+    resources.add(createResource(2, 1024, 0));
+    TsFileManager manager = new TsFileManager("root.test", "0", "");
+    manager.addAll(resources, true);
+
+    List<List<TsFileResource>> tasks =
+        new LeveledCompactionSelector("root.test", "0", 0, manager)
+            .selectInnerSpaceTask(manager.getSequenceListByTimePartition(0));
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertEquals(2, tasks.get(0).size());
+    Assert.assertFalse(tasks.get(0).contains(resources.get(0)));
+  }
+
+  @Test
+  public void testPostponeUntilMoreFilesAccumulate() {
+    List<TsFileResource> resources = new ArrayList<>();
+    resources.add(createResource(0, 8 * 1024, 0));
+    resources.add(createResource(1, 1024, 0));
+    TsFileManager manager = new TsFileManager("root.test", "0", "");
+    manager.addAll(resources, true);
+
+    // write amplification is 9, too expensive while the partition is still being written
+    Assert.assertTrue(
+        new LeveledCompactionSelector("root.test", "0", 0, manager)
+            .selectInnerSpaceTask(manager.getSequenceListByTimePartition(0))
+            .isEmpty());
+
+    // once a newer time partition exists, the files are compacted anyway
+    manager.addAll(Collections.singletonList(createResource(2, 1024, 1)), true);
+    Assert.assertEquals(
+        1,
+        new LeveledCompactionSelector("root.test", "0", 0, manager)
+            .selectInnerSpaceTask(manager.getSequenceListByTimePartition(0))
+            .size());
+  }
+
+  private TsFileResource createResource(int version, long size, long timePartition) {
+    FakedTsFileResource resource =
+        new FakedTsFileResource(size, String.format("%d-%d-0-0.tsfile", version + 1, version + 1));
+    resource.timePartition = timePartition;
+    return resource;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.compaction.schedule;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+public class CompactionIOThrottlerTest {
+  private final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private final boolean prevEnableAdaptiveCompactionThrottle =
+      config.isEnableAdaptiveCompactionThrottle();
+  private final long prevLatencyThreshold = config.getCompactionThrottleQueryLatencyThresholdInMs();
+
+  private final File tsFile =
+      new File(
+          TestConstant.BASE_OUTPUT_PATH
+              + File.separator
+              + "sequence"
+              + File.separator
+              + "root.sg"
+              + File.separator
+              + "0"
+              + File.separator
+              + "0"
+              + File.separator
+              + "1-1-0-0.tsfile");
+
+  @Before
+  public void setUp() {
+    config.setEnableAdaptiveCompactionThrottle(true);
+    config.setCompactionThrottleQueryLatencyThresholdInMs(100);
+  }
+
+  @After
+  public void tearDown() {
+    CompactionIOThrottler.getInstance().stop();
+    config.setEnableAdaptiveCompactionThrottle(prevEnableAdaptiveCompactionThrottle);
+    config.setCompactionThrottleQueryLatencyThresholdInMs(prevLatencyThreshold);
+  }
+
+  @Test
+  public void testBackOffByQueryLatency() throws InterruptedException {
+    CompactionIOThrottler throttler = CompactionIOThrottler.getInstance();
+    throttler.acquireRead(tsFile, 1024);
+    Assert.assertEquals(1, throttler.getFactor(tsFile), 0);
+
+    // p99 latency exceeds the threshold, compaction slows down
+    for (int i = 0; i < 100; i++) {
+      throttler.recordQueryLatency(150);
+    }
+    throttler.adjust();
+    Assert.assertTrue(throttler.getFactor(tsFile) <= 0.5);
+
+    // p99 latency exceeds twice the threshold, compaction pauses
+    for (int i = 0; i < 100; i++) {
+      throttler.recordQueryLatency(300);
+    }
+    throttler.adjust();
+    Assert.assertEquals(0, throttler.getFactor(tsFile), 0);
+
+    Thread compactionThread = new Thread(() -> throttler.acquireWrite(tsFile, 1024));
+    compactionThread.start();
+    compactionThread.join(200);
+    Assert.assertTrue(compactionThread.isAlive());
+
+    // queries recover, compaction resumes
+    throttler.adjust();
+    Assert.assertTrue(throttler.getFactor(tsFile) > 0);
+    compactionThread.join(10_000);
+    Assert.assertFalse(compactionThread.isAlive());
+  }
+
+  @Test
+  public void testKeepReferenceRateWhenIdle() {
+    CompactionIOThrottler throttler = CompactionIOThrottler.getInstance();
+    throttler.acquireRead(tsFile, 64 * 1024 * 1024L);
+    throttler.adjust();
+    double referenceReadRate = throttler.getReferenceReadRate(tsFile);
+    Assert.assertTrue(referenceReadRate > 1024 * 1024);
+
+    // idle intervals do not reset the reference rate
+    throttler.adjust();
+    throttler.adjust();
+    Assert.assertEquals(referenceReadRate, throttler.getReferenceReadRate(tsFile), 0);
+  }
+}
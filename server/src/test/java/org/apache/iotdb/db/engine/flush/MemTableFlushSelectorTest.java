@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.flush;
+
+import org.apache.iotdb.db.engine.memtable.IMemTable;
+import org.apache.iotdb.db.engine.storagegroup.TsFileProcessor;
+import org.apache.iotdb.db.wal.node.IWALNode;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MemTableFlushSelectorTest {
+
+  private static final long MB = 1024L * 1024;
+
+  @Test
+  public void testSortByFlushPriority() {
+    IWALNode walNode = Mockito.mock(IWALNode.class);
+    Map<Long, Long> memTableId2PinnedWALSize = new HashMap<>();
+    Mockito.when(walNode.getMemTablePinnedWALSize()).thenReturn(memTableId2PinnedWALSize);
+
+    long currentTime = System.currentTimeMillis();
+    // a tiny memTable pinning lots of wal
+    TsFileProcessor walPinning = mockProcessor(walNode, 1, 100 * 1024, currentTime);
+    memTableId2PinnedWALSize.put(1L, 64 * MB);
+    TsFileProcessor large = mockProcessor(walNode, 2, 16 * MB, currentTime);
+    TsFileProcessor small = mockProcessor(walNode, 3, 4 * MB, currentTime);
+    TsFileProcessor empty = mockProcessor(walNode, 4, 0, currentTime);
+
+    List<TsFileProcessor> sortedProcessors =
+        MemTableFlushSelector.sortByFlushPriority(Arrays.asList(small, empty, large, walPinning));
+    Assert.assertEquals(Arrays.asList(walPinning, large, small), sortedProcessors);
+    // the pinned wal size is computed once for each wal node
+    Mockito.verify(walNode, Mockito.times(1)).getMemTablePinnedWALSize();
+
+    // an old memTable is preferred to a slightly larger new one
+    TsFileProcessor old = mockProcessor(walNode, 5, 12 * MB, currentTime - 3_600_000L);
+    sortedProcessors = MemTableFlushSelector.sortByFlushPriority(Arrays.asList(large, old));
+    Assert.assertEquals(Arrays.asList(old, large), sortedProcessors);
+  }
+
+  private TsFileProcessor mockProcessor(
+      IWALNode walNode, long memTableId, long memCost, long createdTime) {
+    IMemTable memTable = Mockito.mock(IMemTable.class);
+    Mockito.when(memTable.getMemTableId()).thenReturn(memTableId);
+    Mockito.when(memTable.getCreatedTime()).thenReturn(createdTime);
+    TsFileProcessor processor = Mockito.mock(TsFileProcessor.class);
+    Mockito.when(processor.getWorkMemTable()).thenReturn(memTable);
+    Mockito.when(processor.getWorkMemTableRamCost()).thenReturn(memCost);
+    Mockito.when(processor.getWalNode()).thenReturn(walNode);
+    return processor;
+  }
+}
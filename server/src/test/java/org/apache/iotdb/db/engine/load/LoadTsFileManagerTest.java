@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.load;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.storagegroup.DataRegion;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeType;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.load.LoadTsFilePieceNode;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class LoadTsFileManagerTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final String TEST_DIR = TestConstant.BASE_OUTPUT_PATH.concat("load-test");
+  private static final int DEVICE_NUM = 4;
+  private static final int REGION_NUM = 2;
+  private static final int CHUNK_NUM_PER_DEVICE = 10;
+  private static final int POINT_NUM_PER_CHUNK = 10;
+
+  private String prevLoadTsFileDir;
+
+  @Before
+  public void setUp() {
+    EnvironmentUtils.cleanDir(TEST_DIR);
+    Assert.assertTrue(new File(TEST_DIR).mkdirs());
+    prevLoadTsFileDir = config.getLoadTsFileDir();
+    config.setLoadTsFileDir(TEST_DIR + File.separator + "load");
+  }
+
+  @After
+  public void tearDown() {
+    config.setLoadTsFileDir(prevLoadTsFileDir);
+    EnvironmentUtils.cleanDir(TEST_DIR);
+  }
+
+  @Test
+  public void testWritePiecesOfDifferentRegionsConcurrently() throws Exception {
+    // split a TsFile whose devices belong to different data regions
+    File tsFile = new File(TEST_DIR, "1-1-0-0.tsfile");
+    writeTsFile(tsFile);
+    List<TsFileData> tsFileDataList = new ArrayList<>();
+    new TsFileSplitter(tsFile, tsFileDataList::add).splitTsFileByDataPartition();
+
+    List<DataRegion> dataRegions = new ArrayList<>();
+    Map<DataRegion, Map<String, Long>> dataRegion2DevicePointNum = new ConcurrentHashMap<>();
+    List<List<LoadTsFilePieceNode>> region2Pieces = new ArrayList<>();
+    for (int i = 0; i < REGION_NUM; i++) {
+      DataRegion dataRegion = Mockito.mock(DataRegion.class);
+      Mockito.when(dataRegion.getDatabaseName()).thenReturn("root.sg");
+      Mockito.when(dataRegion.getDataRegionId()).thenReturn(String.valueOf(i));
+      Mockito.doAnswer(
+              invocation -> {
+                TsFileResource tsFileResource = invocation.getArgument(0);
+                dataRegion2DevicePointNum.put(dataRegion, countPoints(tsFileResource));
+                return null;
+              })
+          .when(dataRegion)
+          .loadNewTsFile(Mockito.any(), Mockito.anyBoolean());
+      dataRegions.add(dataRegion);
+      region2Pieces.add(new ArrayList<>());
+    }
+    // each chunk is sent in its own piece, which goes through serialization like a remote one
+    for (TsFileData tsFileData : tsFileDataList) {
+      ChunkData chunkData = (ChunkData) tsFileData;
+      LoadTsFilePieceNode pieceNode = new LoadTsFilePieceNode(new PlanNodeId("load"), tsFile);
+      pieceNode.addTsFileData(chunkData);
+      region2Pieces
+          .get(getRegionIndex(chunkData.getDevice()))
+          .add(
+              (LoadTsFilePieceNode) PlanNodeType.deserialize(pieceNode.serializeToByteBuffer()));
+    }
+
+    // pieces of the same region arrive in order, pieces of different regions arrive concurrently
+    LoadTsFileManager loadTsFileManager = new LoadTsFileManager();
+    String uuid = "uuid";
+    ExecutorService executorService = Executors.newFixedThreadPool(REGION_NUM);
+    CountDownLatch startLatch = new CountDownLatch(1);
+    List<Future<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < REGION_NUM; i++) {
+      DataRegion dataRegion = dataRegions.get(i);
+      List<LoadTsFilePieceNode> pieces = region2Pieces.get(i);
+      futures.add(
+          executorService.submit(
+              () -> {
+                startLatch.await();
+                for (LoadTsFilePieceNode pieceNode : pieces) {
+                  loadTsFileManager.writeToDataRegion(dataRegion, pieceNode, uuid);
+                }
+                return null;
+              }));
+    }
+    startLatch.countDown();
+    for (Future<Void> future : futures) {
+      future.get();
+    }
+    executorService.shutdown();
+    Assert.assertTrue(loadTsFileManager.loadAll(uuid));
+
+    // every region gets a complete TsFile of exactly its own devices
+    for (int i = 0; i < REGION_NUM; i++) {
+      Map<String, Long> expectedDevicePointNum = new HashMap<>();
+      for (int j = 0; j < DEVICE_NUM; j++) {
+        if (getRegionIndex(getDevice(j)) == i) {
+          expectedDevicePointNum.put(
+              getDevice(j), (long) CHUNK_NUM_PER_DEVICE * POINT_NUM_PER_CHUNK);
+        }
+      }
+      Assert.assertEquals(
+          expectedDevicePointNum, dataRegion2DevicePointNum.get(dataRegions.get(i)));
+    }
+  }
+
+  private void writeTsFile(File tsFile) throws Exception {
+    try (TsFileWriter writer = new TsFileWriter(tsFile)) {
+      for (int j = 0; j < DEVICE_NUM; j++) {
+        writer.registerTimeseries(
+            new Path(getDevice(j)), new MeasurementSchema("s1", TSDataType.INT64));
+      }
+      long time = 0;
+      for (int chunk = 0; chunk < CHUNK_NUM_PER_DEVICE; chunk++) {
+        for (int point = 0; point < POINT_NUM_PER_CHUNK; point++) {
+          time++;
+          for (int j = 0; j < DEVICE_NUM; j++) {
+            writer.write(new TSRecord(time, getDevice(j)).addTuple(new LongDataPoint("s1", time)));
+          }
+        }
+        writer.flushAllChunkGroups();
+      }
+    }
+  }
+
+  private Map<String, Long> countPoints(TsFileResource tsFileResource) throws Exception {
+    Map<String, Long> devicePointNum = new HashMap<>();
+    try (TsFileSequenceReader reader =
+        new TsFileSequenceReader(tsFileResource.getTsFile().getPath())) {
+      for (String device : tsFileResource.getDevices()) {
+        long pointNum = 0;
+        for (ChunkMetadata chunkMetadata :
+            reader.getChunkMetadataList(new Path(device, "s1", true))) {
+          pointNum += chunkMetadata.getStatistics().getCount();
+        }
+        devicePointNum.put(device, pointNum);
+      }
+    }
+    return devicePointNum;
+  }
+
+  private static String getDevice(int index) {
+    return "root.sg.d" + index;
+  }
+
+  private static int getRegionIndex(String device) {
+    return Integer.parseInt(device.substring(device.lastIndexOf('d') + 1)) % REGION_NUM;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.cache.ModificationCache;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ModificationIndexTest {
+
+  @Test
+  public void testGetOverlapped() throws IllegalPathException {
+    ModificationIndex index =
+        new ModificationIndex(
+            Arrays.asList(
+                new Deletion(new PartialPath("root.sg.d1.s1"), 1, 0, 10),
+                new Deletion(new PartialPath("root.sg.d1.s1"), 1, 5, 20),
+                new Deletion(new PartialPath("root.sg.d1.s2"), 1, 0, 10),
+                new Deletion(new PartialPath("root.sg.*.s1"), 2, 100, 200),
+                new Deletion(new PartialPath("root.**"), 3, 300, 400)));
+    assertEquals(5, index.getModificationNum());
+
+    List<Modification> modifications = index.getOverlapped(new PartialPath("root.sg.d1.s1"));
+    assertEquals(3, modifications.size());
+    assertTrue(modifications.contains(new Deletion(new PartialPath("root.sg.d1.s1"), 1, 0, 20)));
+    assertTrue(modifications.contains(new Deletion(new PartialPath("root.sg.*.s1"), 2, 100, 200)));
+    assertTrue(modifications.contains(new Deletion(new PartialPath("root.**"), 3, 300, 400)));
+
+    modifications = index.getOverlapped(new PartialPath("root.sg.d2.s2"));
+    assertEquals(1, modifications.size());
+    assertEquals(new Deletion(new PartialPath("root.**"), 3, 300, 400), modifications.get(0));
+
+    modifications = index.getExact("root.sg.d1", "s2");
+    assertEquals(1, modifications.size());
+    assertEquals(new Deletion(new PartialPath("root.sg.d1.s2"), 1, 0, 10), modifications.get(0));
+    assertTrue(index.getExact("root.sg.d2", "s1").isEmpty());
+
+    // the returned modifications are copies
+    ((Deletion) modifications.get(0)).setEndTime(50);
+    assertEquals(10, ((Deletion) index.getExact("root.sg.d1", "s2").get(0)).getEndTime());
+  }
+
+  @Test
+  public void testCacheInvalidation() throws IllegalPathException, IOException {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    ModificationCache.getInstance().clear();
+    try (ModificationFile mFile = new ModificationFile(tempFileName)) {
+      assertSame(ModificationIndex.EMPTY, ModificationCache.getInstance().get(mFile));
+
+      mFile.write(new Deletion(new PartialPath("root.sg.d1.s1"), 1, 0, 10));
+      ModificationIndex index = ModificationCache.getInstance().get(mFile);
+      assertEquals(1, index.getModificationNum());
+      assertSame(index, ModificationCache.getInstance().get(mFile));
+
+      mFile.write(new Deletion(new PartialPath("root.sg.d1.s2"), 2, 0, 10));
+      ModificationIndex newIndex = ModificationCache.getInstance().get(mFile);
+      assertNotSame(index, newIndex);
+      assertEquals(2, newIndex.getModificationNum());
+    } finally {
+      new File(tempFileName).delete();
+      ModificationCache.getInstance().clear();
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.storagegroup.timeindex.DeviceTimeIndex;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class DataRegionResourceManifestTest {
+  private final File sysDir = new File(TestConstant.BASE_OUTPUT_PATH, "manifest-sys");
+  private final File tsFile =
+      new File(
+          TsFileNameGenerator.generateNewTsFilePath(TestConstant.BASE_OUTPUT_PATH, 1, 1, 1, 1));
+  private final TsFileResource tsFileResource = new TsFileResource(tsFile);
+
+  @Before
+  public void setUp() throws IOException {
+    Assert.assertTrue(sysDir.mkdirs() || sysDir.exists());
+    Files.write(tsFile.toPath(), new byte[] {1, 2, 3});
+    Map<String, Integer> deviceToIndex = new HashMap<>();
+    deviceToIndex.put("root.sg.d1", 0);
+    deviceToIndex.put("root.sg.d2", 1);
+    tsFileResource.setTimeIndex(
+        new DeviceTimeIndex(deviceToIndex, new long[] {1, 10}, new long[] {5, 20}));
+    tsFileResource.setStatus(TsFileResourceStatus.CLOSED);
+    tsFileResource.serialize();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(sysDir);
+    FileUtils.deleteQuietly(tsFile);
+    FileUtils.deleteQuietly(new File(tsFile.getPath() + TsFileResource.RESOURCE_SUFFIX));
+  }
+
+  @Test
+  public void testPersistAndRestore() throws IOException {
+    new DataRegionResourceManifest(sysDir).persist(Collections.singletonList(tsFileResource));
+
+    DataRegionResourceManifest manifest = new DataRegionResourceManifest(sysDir);
+    manifest.load();
+    Assert.assertEquals(1, manifest.size());
+    TsFileResource restored = new TsFileResource(tsFile);
+    Assert.assertTrue(manifest.restore(restored));
+    Assert.assertEquals(tsFileResource, restored);
+    Assert.assertEquals(10, restored.getStartTime("root.sg.d2"));
+    Assert.assertEquals(20, restored.getEndTime("root.sg.d2"));
+  }
+
+  @Test
+  public void testStaleEntry() throws IOException {
+    new DataRegionResourceManifest(sysDir).persist(Collections.singletonList(tsFileResource));
+    // the TsFile is changed after the manifest is written
+    Files.write(tsFile.toPath(), new byte[] {1, 2, 3, 4});
+
+    DataRegionResourceManifest manifest = new DataRegionResourceManifest(sysDir);
+    manifest.load();
+    Assert.assertFalse(manifest.restore(new TsFileResource(tsFile)));
+  }
+
+  @Test
+  public void testCorruptedManifest() throws IOException {
+    new DataRegionResourceManifest(sysDir).persist(Collections.singletonList(tsFileResource));
+    File manifestFile = new File(sysDir, DataRegionResourceManifest.MANIFEST_FILE_NAME);
+    try (RandomAccessFile raf = new RandomAccessFile(manifestFile, "rw")) {
+      raf.seek(6);
+      int b = raf.read();
+      raf.seek(6);
+      raf.write(b ^ 0xFF);
+    }
+
+    DataRegionResourceManifest manifest = new DataRegionResourceManifest(sysDir);
+    manifest.load();
+    Assert.assertEquals(0, manifest.size());
+    Assert.assertFalse(manifest.restore(new TsFileResource(tsFile)));
+  }
+
+  @Test
+  public void testIncrementalUpdate() throws IOException {
+    DataRegionResourceManifest manifest = new DataRegionResourceManifest(sysDir);
+    manifest.load();
+    // the TsFile is sealed after the last snapshot
+    manifest.add(tsFileResource);
+    Assert.assertFalse(new File(sysDir, DataRegionResourceManifest.MANIFEST_FILE_NAME).exists());
+
+    DataRegionResourceManifest restarted = new DataRegionResourceManifest(sysDir);
+    restarted.load();
+    Assert.assertEquals(1, restarted.size());
+    TsFileResource restored = new TsFileResource(tsFile);
+    Assert.assertTrue(restarted.restore(restored));
+    Assert.assertEquals(20, restored.getEndTime("root.sg.d2"));
+
+    // the TsFile is compacted or deleted
+    restarted.remove(tsFileResource);
+    restarted = new DataRegionResourceManifest(sysDir);
+    restarted.load();
+    Assert.assertEquals(0, restarted.size());
+  }
+
+  @Test
+  public void testIncompleteLogRecord() throws IOException {
+    DataRegionResourceManifest manifest = new DataRegionResourceManifest(sysDir);
+    manifest.load();
+    manifest.add(tsFileResource);
+    File logFile = new File(sysDir, DataRegionResourceManifest.LOG_FILE_NAME);
+    long validLength = logFile.length();
+    // the system crashes when appending the next record
+    Files.write(logFile.toPath(), new byte[] {0, 0, 0, 100, 1}, StandardOpenOption.APPEND);
+
+    DataRegionResourceManifest restarted = new DataRegionResourceManifest(sysDir);
+    restarted.load();
+    Assert.assertEquals(1, restarted.size());
+    Assert.assertEquals(validLength, logFile.length());
+    restarted.remove(tsFileResource);
+
+    restarted = new DataRegionResourceManifest(sysDir);
+    restarted.load();
+    Assert.assertEquals(0, restarted.size());
+  }
+
+  @Test
+  public void testCheckpoint() throws IOException {
+    DataRegionResourceManifest manifest = new DataRegionResourceManifest(sysDir);
+    manifest.load();
+    File logFile = new File(sysDir, DataRegionResourceManifest.LOG_FILE_NAME);
+    for (int i = 0; i < 1024; i++) {
+      manifest.add(tsFileResource);
+    }
+    Assert.assertTrue(logFile.exists());
+    // the log has more records than both the threshold and the snapshot, so it is checkpointed
+    manifest.add(tsFileResource);
+    Assert.assertFalse(logFile.exists());
+    Assert.assertTrue(new File(sysDir, DataRegionResourceManifest.MANIFEST_FILE_NAME).exists());
+
+    DataRegionResourceManifest restarted = new DataRegionResourceManifest(sysDir);
+    restarted.load();
+    Assert.assertEquals(1, restarted.size());
+    Assert.assertTrue(restarted.restore(new TsFileResource(tsFile)));
+  }
+}
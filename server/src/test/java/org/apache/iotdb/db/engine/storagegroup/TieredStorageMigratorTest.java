@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.conf.directories.DirectoryManager;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.flush.TsFileFlushPolicy;
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.ModificationFile;
+import org.apache.iotdb.db.engine.storagegroup.timeindex.DeviceTimeIndex;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TieredStorageMigratorTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private final File hotDir = new File(TestConstant.BASE_OUTPUT_PATH, "hot");
+  private final File coldDir = new File(TestConstant.BASE_OUTPUT_PATH, "cold");
+  private final String hotFolder = hotDir + File.separator + IoTDBConstant.SEQUENCE_FLODER_NAME;
+  private final String coldFolder = coldDir + File.separator + IoTDBConstant.SEQUENCE_FLODER_NAME;
+  private final String partitionPath =
+      File.separator + "root.sg" + File.separator + "0" + File.separator + "0";
+
+  private String[] originColdDataDirs;
+
+  @Before
+  public void setUp() {
+    originColdDataDirs = config.getColdDataDirs();
+    config.setColdDataDirs(new String[] {coldDir.getPath()});
+    DirectoryManager.getInstance().resetFolders();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    config.setColdDataDirs(originColdDataDirs);
+    DirectoryManager.getInstance().resetFolders();
+    FileUtils.deleteDirectory(hotDir);
+    FileUtils.deleteDirectory(coldDir);
+  }
+
+  @Test
+  public void testMigrate() throws IOException, IllegalPathException, WriteProcessException {
+    TsFileResource source = createTsFileResource(hotFolder + partitionPath, 1);
+    TsFileResource neighbour = createTsFileResource(hotFolder + partitionPath, 2);
+    try (ModificationFile modFile = source.getModFile()) {
+      modFile.write(new Deletion(new PartialPath("root.sg.d1.s1"), 3, 1, 2));
+    }
+    TsFileManager tsFileManager = new TsFileManager("root.sg", "0", hotDir.getPath());
+    tsFileManager.add(source, true);
+    tsFileManager.add(neighbour, true);
+
+    TieredStorageMigrator migrator = TieredStorageMigrator.getInstance();
+    File targetTsFile = migrator.copy(source, coldFolder);
+    Assert.assertEquals(
+        new File(coldFolder + partitionPath, source.getTsFile().getName()), targetTsFile);
+    Assert.assertFalse(targetTsFile.exists());
+    Assert.assertTrue(
+        new File(targetTsFile.getPath() + TieredStorageMigrator.MIGRATING_SUFFIX).exists());
+
+    TsFileResource target = migrator.commit(source, targetTsFile);
+    Assert.assertTrue(targetTsFile.exists());
+    Assert.assertTrue(new File(targetTsFile.getPath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertEquals(1, target.getModFile().getModifications().size());
+    Assert.assertEquals(20, target.getEndTime("root.sg.d2"));
+    Assert.assertEquals(TsFileResourceStatus.CLOSED, target.getStatus());
+    Assert.assertTrue(DirectoryManager.getInstance().isInColdFolder(targetTsFile));
+    Assert.assertFalse(DirectoryManager.getInstance().isInColdFolder(source.getTsFile()));
+
+    Assert.assertTrue(tsFileManager.replace(source, target, true));
+    Assert.assertEquals(Arrays.asList(target, neighbour), tsFileManager.getTsFileList(true));
+    Assert.assertFalse(tsFileManager.replace(source, target, true));
+  }
+
+  @Test
+  public void testRecover() throws IOException, WriteProcessException {
+    // committed, the source should be removed
+    TsFileResource committedSource = createTsFileResource(hotFolder + partitionPath, 1);
+    File committedTarget = copyFiles(committedSource, true);
+    // not committed, the target should be removed
+    TsFileResource uncommittedSource = createTsFileResource(hotFolder + partitionPath, 2);
+    File uncommittedTarget = copyFiles(uncommittedSource, false);
+
+    List<File> tsFiles =
+        TieredStorageMigrator.removeDuplicatedFiles(
+            Arrays.asList(
+                committedSource.getTsFile(),
+                uncommittedSource.getTsFile(),
+                committedTarget,
+                uncommittedTarget));
+    Collections.sort(tsFiles);
+    Assert.assertEquals(Arrays.asList(committedTarget, uncommittedSource.getTsFile()), tsFiles);
+    Assert.assertFalse(committedSource.getTsFile().exists());
+    Assert.assertFalse(
+        new File(committedSource.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).exists());
+    Assert.assertFalse(uncommittedTarget.exists());
+
+    File tempFile =
+        new File(
+            coldFolder + partitionPath, "1-1-0-0.tsfile" + TieredStorageMigrator.MIGRATING_SUFFIX);
+    Files.write(tempFile.toPath(), new byte[] {1});
+    TieredStorageMigrator.removeUnfinishedMigrations(tempFile.getParentFile());
+    Assert.assertFalse(tempFile.exists());
+  }
+
+  @Test
+  public void testRecoverDataRegionWithTieredStorageDisabled() throws Exception {
+    boolean originEnableTieredStorage = config.isEnableTieredStorage();
+    // the node crashed after a commit, and restarts with tiered storage disabled while the cold
+    // folders are still configured
+    config.setEnableTieredStorage(false);
+    EnvironmentUtils.envSetUp();
+    DataRegion dataRegion = null;
+    try {
+      String hotSequenceFolder = DirectoryManager.getInstance().getAllSequenceFileFolders().get(0);
+      TsFileResource source = createTsFileResource(hotSequenceFolder + partitionPath, 1);
+      File target = copyFiles(source, true);
+
+      dataRegion =
+          new DataRegion(
+              TestConstant.OUTPUT_DATA_DIR.concat("info"),
+              "0",
+              new TsFileFlushPolicy.DirectFlushPolicy(),
+              "root.sg");
+
+      List<TsFileResource> sequenceFiles = dataRegion.getSequenceFileList();
+      Assert.assertEquals(1, sequenceFiles.size());
+      Assert.assertEquals(
+          target.getCanonicalFile(), sequenceFiles.get(0).getTsFile().getCanonicalFile());
+      Assert.assertFalse(source.getTsFile().exists());
+    } finally {
+      if (dataRegion != null) {
+        dataRegion.syncDeleteDataFiles();
+      }
+      config.setEnableTieredStorage(originEnableTieredStorage);
+      EnvironmentUtils.cleanEnv();
+    }
+  }
+
+  private TsFileResource createTsFileResource(String dir, long version)
+      throws IOException, WriteProcessException {
+    File file = new File(TsFileNameGenerator.generateNewTsFilePath(dir, version, version, 0, 0));
+    Assert.assertTrue(file.getParentFile().mkdirs() || file.getParentFile().exists());
+    try (TsFileWriter writer = new TsFileWriter(file)) {
+      writer.registerTimeseries(
+          new Path("root.sg.d1"), new MeasurementSchema("s1", TSDataType.INT64));
+      writer.registerTimeseries(
+          new Path("root.sg.d2"), new MeasurementSchema("s1", TSDataType.INT64));
+      writer.write(new TSRecord(1, "root.sg.d1").addTuple(new LongDataPoint("s1", 1)));
+      writer.write(new TSRecord(5, "root.sg.d1").addTuple(new LongDataPoint("s1", 5)));
+      writer.write(new TSRecord(10, "root.sg.d2").addTuple(new LongDataPoint("s1", 10)));
+      writer.write(new TSRecord(20, "root.sg.d2").addTuple(new LongDataPoint("s1", 20)));
+    }
+    Map<String, Integer> deviceToIndex = new HashMap<>();
+    deviceToIndex.put("root.sg.d1", 0);
+    deviceToIndex.put("root.sg.d2", 1);
+    TsFileResource resource = new TsFileResource(file);
+    resource.setTimeIndex(
+        new DeviceTimeIndex(deviceToIndex, new long[] {1, 10}, new long[] {5, 20}));
+    resource.setStatus(TsFileResourceStatus.CLOSED);
+    resource.serialize();
+    return resource;
+  }
+
+  private File copyFiles(TsFileResource source, boolean withResource) throws IOException {
+    File target = new File(coldFolder + partitionPath, source.getTsFile().getName());
+    Assert.assertTrue(target.getParentFile().mkdirs() || target.getParentFile().exists());
+    Files.copy(source.getTsFile().toPath(), target.toPath());
+    if (withResource) {
+      Files.copy(
+          new File(source.getTsFilePath() + TsFileResource.RESOURCE_SUFFIX).toPath(),
+          new File(target.getPath() + TsFileResource.RESOURCE_SUFFIX).toPath());
+    }
+    return target;
+  }
+}
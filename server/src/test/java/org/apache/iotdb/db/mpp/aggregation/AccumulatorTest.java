@@ -38,6 +38,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class AccumulatorTest {
@@ -444,4 +445,59 @@ public class AccumulatorTest {
     sumAccumulator.outputFinal(finalResult);
     Assert.assertEquals(100d, finalResult.build().getDouble(0), 0.001);
   }
+
+  @Test
+  public void rawDataInPartialWindowTest() {
+    // values equal to times, with nulls at multiples of 3
+    TsBlockBuilder tsBlockBuilder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT64));
+    TimeColumnBuilder timeColumnBuilder = tsBlockBuilder.getTimeColumnBuilder();
+    ColumnBuilder valueColumnBuilder = tsBlockBuilder.getColumnBuilder(0);
+    for (int i = 0; i < 100; i++) {
+      timeColumnBuilder.writeLong(i);
+      if (i % 3 == 0) {
+        valueColumnBuilder.appendNull();
+      } else {
+        valueColumnBuilder.writeLong(i);
+      }
+      tsBlockBuilder.declarePosition();
+    }
+    // start from the middle of the arrays to check array offsets are respected
+    TsBlock tsBlock = tsBlockBuilder.build().subTsBlock(10);
+    TimeWindow window = new TimeWindow(new TimeRange(10, 59));
+    Column[] controlTimeAndValueColumn =
+        new Column[] {
+          window.getControlColumn(tsBlock), tsBlock.getTimeColumn(), tsBlock.getColumn(0)
+        };
+    Assert.assertEquals(50, window.getSatisfiedPrefixLength(controlTimeAndValueColumn[0]));
+
+    AggregationType[] aggregationTypes =
+        new AggregationType[] {
+          AggregationType.COUNT,
+          AggregationType.SUM,
+          AggregationType.AVG,
+          AggregationType.MAX_VALUE,
+          AggregationType.MIN_VALUE,
+          AggregationType.EXTREME
+        };
+    double[] expectedResults = new double[] {34, 1173, 1173d / 34, 59, 10, 59};
+    for (int i = 0; i < aggregationTypes.length; i++) {
+      Accumulator accumulator =
+          AccumulatorFactory.createAccumulator(aggregationTypes[i], TSDataType.INT64, true);
+      Assert.assertEquals(50, accumulator.addInput(controlTimeAndValueColumn, window));
+      ColumnBuilder finalResult =
+          new TsBlockBuilder(Collections.singletonList(accumulator.getFinalType()))
+              .getColumnBuilder(0);
+      accumulator.outputFinal(finalResult);
+      Assert.assertEquals(
+          expectedResults[i], ((Number) finalResult.build().getObject(0)).doubleValue(), 0.001);
+    }
+
+    // points out of window are not consumed in descending order either
+    TsBlock descTsBlock = tsBlockBuilder.build();
+    descTsBlock.reverse();
+    window.update(new TimeRange(40, 59));
+    Assert.assertEquals(0, window.getSatisfiedPrefixLength(descTsBlock.getTimeColumn()));
+    Assert.assertEquals(
+        20, window.getSatisfiedPrefixLength(descTsBlock.subTsBlock(40).getTimeColumn()));
+  }
 }
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.fragment;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.driver.DriverContext;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorStatistics;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FragmentInstanceStatisticsTest {
+
+  @Test
+  public void testCollectAndSerde() throws IOException {
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try {
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      fragmentInstanceContext.setCollectStatistics(true);
+      fragmentInstanceContext.setReservedMemoryInBytes(1024);
+      fragmentInstanceContext.recordChunkRead(100, false);
+      fragmentInstanceContext.recordChunkRead(30, true);
+
+      // the scan operator of the same plan node runs in two pipelines
+      DriverContext driverContext1 = new DriverContext(fragmentInstanceContext, 0);
+      OperatorContext scanContext1 =
+          driverContext1.addOperatorContext(1, new PlanNodeId("1"), "SeriesScanOperator");
+      OperatorContext limitContext =
+          driverContext1.addOperatorContext(2, new PlanNodeId("2"), "LimitOperator");
+      DriverContext driverContext2 = new DriverContext(fragmentInstanceContext, 1);
+      OperatorContext scanContext2 =
+          driverContext2.addOperatorContext(3, new PlanNodeId("1"), "SeriesScanOperator");
+      assertTrue(scanContext1.isStatisticsEnabled());
+
+      scanContext1.recordExecutionTime(10);
+      scanContext1.recordCpuTime(8);
+      scanContext1.recordLoadedChunk(3);
+      scanContext1.recordSkippedChunk();
+      scanContext1.recordSkippedPage();
+      scanContext2.recordExecutionTime(5);
+      scanContext2.recordLoadedChunk(2);
+      limitContext.recordBlockedTime(7);
+      limitContext.recordNextCalled();
+
+      fragmentInstanceContext.addOperatorStatistics(driverContext1.getOperatorContexts());
+      fragmentInstanceContext.addOperatorStatistics(driverContext2.getOperatorContexts());
+
+      FragmentInstanceStatistics statistics =
+          FragmentInstanceStatistics.deserialize(
+              fragmentInstanceContext.getInstanceInfo().getStatistics().serialize());
+      assertEquals(1024, statistics.getReservedMemoryInBytes());
+      assertEquals(100, statistics.getDiskReadBytes());
+      assertEquals(30, statistics.getCacheReadBytes());
+      assertTrue(statistics.getWallTimeInNanos() >= 0);
+      assertEquals(
+          Arrays.asList("1", "2"), new ArrayList<>(statistics.getOperatorStatistics().keySet()));
+
+      OperatorStatistics scan = statistics.getOperatorStatistics().get("1");
+      assertEquals("SeriesScanOperator", scan.getOperatorType());
+      assertEquals(15, scan.getTotalExecutionTimeInNanos());
+      assertEquals(8, scan.getCpuTimeInNanos());
+      assertEquals(2, scan.getLoadedChunkCount());
+      assertEquals(1, scan.getSkippedChunkCount());
+      assertEquals(5, scan.getLoadedPageCount());
+      assertEquals(1, scan.getSkippedPageCount());
+
+      OperatorStatistics limit = statistics.getOperatorStatistics().get("2");
+      assertEquals("LimitOperator", limit.getOperatorType());
+      assertEquals(7, limit.getBlockedTimeInNanos());
+      assertEquals(1, limit.getNextCalledCount());
+      assertEquals(0, limit.getOutputRowCount());
+    } finally {
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try {
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+      OperatorContext operatorContext =
+          driverContext.addOperatorContext(1, new PlanNodeId("1"), "SeriesScanOperator");
+      assertFalse(operatorContext.isStatisticsEnabled());
+      assertNull(fragmentInstanceContext.getInstanceInfo().getStatistics());
+    } finally {
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.mpp.aggregation.Accumulator;
+import org.apache.iotdb.db.mpp.aggregation.AccumulatorFactory;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.driver.DriverContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.mpp.execution.operator.process.HashTagAggregationOperator;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.AggregationType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import io.airlift.units.Duration;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HashTagAggregationOperatorTest {
+
+  private static final int WINDOW_NUM = 10;
+
+  // | Time | tag | count | avg's count | avg's sum |
+  private static final List<TSDataType> INPUT_TYPES =
+      Arrays.asList(TSDataType.TEXT, TSDataType.INT64, TSDataType.INT64, TSDataType.DOUBLE);
+
+  @Test
+  public void mergePartialResultsTest() throws Exception {
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try {
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+      driverContext.addOperatorContext(
+          1, new PlanNodeId("1"), HashTagAggregationOperator.class.getSimpleName());
+      OperatorContext operatorContext = driverContext.getOperatorContexts().get(0);
+      operatorContext.setMaxRunTime(new Duration(500, TimeUnit.MILLISECONDS));
+
+      // region 1 has series of group a and b, region 2 has series of group a and c, and group c
+      // has no series for avg
+      List<TsBlock> region1 = new ArrayList<>();
+      List<TsBlock> region2 = new ArrayList<>();
+      for (int window = 0; window < WINDOW_NUM; window++) {
+        // the order of groups changes every other window in region 1
+        TsBlockBuilder builder = new TsBlockBuilder(INPUT_TYPES);
+        if (window % 2 == 0) {
+          appendRow(builder, window, "a", 1, 1, window);
+          appendRow(builder, window, "b", 2, 2, 2 * window);
+        } else {
+          appendRow(builder, window, "b", 2, 2, 2 * window);
+          appendRow(builder, window, "a", 1, 1, window);
+        }
+        region1.add(builder.build());
+        // rows of one window are split into two blocks in region 2
+        builder = new TsBlockBuilder(INPUT_TYPES);
+        appendRow(builder, window, "c", 3, null, null);
+        region2.add(builder.build());
+        builder = new TsBlockBuilder(INPUT_TYPES);
+        appendRow(builder, window, "a", 4, 4, 4 * window + 10);
+        region2.add(builder.build());
+      }
+
+      List<List<String>> groups =
+          Arrays.asList(
+              Collections.singletonList("a"),
+              Collections.singletonList("b"),
+              Collections.singletonList("c"));
+      List<List<Accumulator>> groupedAccumulators = new ArrayList<>();
+      for (int i = 0; i < groups.size(); i++) {
+        groupedAccumulators.add(
+            Arrays.asList(
+                AccumulatorFactory.createAccumulator(
+                    AggregationType.COUNT, TSDataType.INT32, true),
+                i == 2
+                    ? null
+                    : AccumulatorFactory.createAccumulator(
+                        AggregationType.AVG, TSDataType.INT32, true)));
+      }
+      HashTagAggregationOperator operator =
+          new HashTagAggregationOperator(
+              operatorContext,
+              groups,
+              groupedAccumulators,
+              Arrays.asList(
+                  new BlockListOperator(operatorContext, region1),
+                  new BlockListOperator(operatorContext, region2)),
+              true,
+              0);
+
+      int count = 0;
+      while (operator.hasNext()) {
+        assertTrue(operator.isBlocked().isDone());
+        TsBlock result = operator.next();
+        if (result == null) {
+          continue;
+        }
+        for (int i = 0; i < result.getPositionCount(); i++, count++) {
+          long window = count / groups.size();
+          assertEquals(window, result.getTimeByIndex(i));
+          String group = result.getColumn(0).getBinary(i).getStringValue();
+          assertEquals(groups.get(count % groups.size()).get(0), group);
+          switch (group) {
+            case "a":
+              assertEquals(5, result.getColumn(1).getLong(i));
+              assertEquals((5 * window + 10) / 5.0, result.getColumn(2).getDouble(i), 1e-6);
+              break;
+            case "b":
+              assertEquals(2, result.getColumn(1).getLong(i));
+              assertEquals(window, result.getColumn(2).getDouble(i), 1e-6);
+              break;
+            default:
+              assertEquals(3, result.getColumn(1).getLong(i));
+              assertTrue(result.getColumn(2).isNull(i));
+          }
+        }
+      }
+      assertFalse(operator.hasNext());
+      assertEquals(WINDOW_NUM * groups.size(), count);
+    } finally {
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+
+  private static void appendRow(
+      TsBlockBuilder builder, long time, String tag, long count, Integer avgCount, Integer avgSum) {
+    builder.getTimeColumnBuilder().writeLong(time);
+    builder.getColumnBuilder(0).writeBinary(new Binary(tag));
+    builder.getColumnBuilder(1).writeLong(count);
+    if (avgCount == null) {
+      builder.getColumnBuilder(2).appendNull();
+      builder.getColumnBuilder(3).appendNull();
+    } else {
+      builder.getColumnBuilder(2).writeLong(avgCount);
+      builder.getColumnBuilder(3).writeDouble(avgSum);
+    }
+    builder.declarePosition();
+  }
+
+  private static class BlockListOperator implements Operator {
+
+    private final OperatorContext operatorContext;
+    private final List<TsBlock> blocks;
+    private int index = 0;
+
+    private BlockListOperator(OperatorContext operatorContext, List<TsBlock> blocks) {
+      this.operatorContext = operatorContext;
+      this.blocks = blocks;
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return operatorContext;
+    }
+
+    @Override
+    public TsBlock next() {
+      return blocks.get(index++);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < blocks.size();
+    }
+
+    @Override
+    public boolean isFinished() {
+      return index >= blocks.size();
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 0;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 0;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.driver.DriverContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.mpp.execution.operator.process.ParallelDeviceViewOperator;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelDeviceViewOperatorTest {
+
+  private static final List<TSDataType> DATA_TYPES =
+      Arrays.asList(TSDataType.TEXT, TSDataType.INT32);
+
+  @Test
+  public void restoreDeviceOrderTest() throws Exception {
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try {
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+      driverContext.addOperatorContext(
+          1, new PlanNodeId("1"), ParallelDeviceViewOperator.class.getSimpleName());
+      OperatorContext operatorContext = driverContext.getOperatorContexts().get(0);
+
+      // device i has (i % 3) TsBlocks, so root.sg.d0, root.sg.d3 and root.sg.d6 are empty
+      int deviceNum = 8;
+      int childNum = 3;
+      List<String> devices = new ArrayList<>();
+      List<List<TsBlock>> childrenBlocks = new ArrayList<>();
+      for (int i = 0; i < childNum; i++) {
+        childrenBlocks.add(new ArrayList<>());
+      }
+      List<String> expectedDevices = new ArrayList<>();
+      for (int i = 0; i < deviceNum; i++) {
+        String device = "root.sg.d" + i;
+        devices.add(device);
+        for (int j = 0; j < i % 3; j++) {
+          childrenBlocks.get(i % childNum).add(createTsBlock(device, j));
+          expectedDevices.add(device);
+        }
+      }
+
+      List<Operator> children = new ArrayList<>();
+      for (List<TsBlock> blocks : childrenBlocks) {
+        children.add(new BlockListOperator(operatorContext, blocks));
+      }
+      ParallelDeviceViewOperator operator =
+          new ParallelDeviceViewOperator(operatorContext, devices, children, DATA_TYPES);
+
+      List<String> resultDevices = new ArrayList<>();
+      while (operator.hasNext()) {
+        TsBlock tsBlock = operator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        String device = tsBlock.getColumn(0).getBinary(0).getStringValue();
+        // TsBlocks of one device keep their order
+        assertEquals(
+            resultDevices.stream().filter(device::equals).count(), tsBlock.getColumn(1).getInt(0));
+        resultDevices.add(device);
+      }
+      assertTrue(operator.isFinished());
+      assertEquals(expectedDevices, resultDevices);
+    } finally {
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+
+  private TsBlock createTsBlock(String device, int sequence) {
+    TsBlockBuilder builder = new TsBlockBuilder(DATA_TYPES);
+    builder.getTimeColumnBuilder().writeLong(sequence);
+    builder.getColumnBuilder(0).writeBinary(new Binary(device));
+    builder.getColumnBuilder(1).writeInt(sequence);
+    builder.declarePosition();
+    return builder.build();
+  }
+
+  private static class BlockListOperator implements Operator {
+
+    private final OperatorContext operatorContext;
+    private final List<TsBlock> blocks;
+    private int index = 0;
+
+    private BlockListOperator(OperatorContext operatorContext, List<TsBlock> blocks) {
+      this.operatorContext = operatorContext;
+      this.blocks = blocks;
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return operatorContext;
+    }
+
+    @Override
+    public TsBlock next() {
+      return blocks.get(index++);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < blocks.size();
+    }
+
+    @Override
+    public boolean isFinished() {
+      return index >= blocks.size();
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 0;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 0;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+  }
+}
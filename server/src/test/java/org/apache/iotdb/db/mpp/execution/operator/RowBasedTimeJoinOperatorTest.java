@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.driver.DriverContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.RowBasedTimeJoinOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.AscTimeComparator;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.ColumnMerger;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.DescTimeComparator;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.SingleColumnMerger;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.TimeComparator;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.InputLocation;
+import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RowBasedTimeJoinOperatorTest {
+
+  private static final int ROWS_PER_BLOCK = 10;
+
+  // child 0: [0, 100), child 1: even times in [50, 150) and child 2: [1000, 1100), so that child 0
+  // and child 1 overlap with the same times, and child 2 doesn't overlap with any other child
+  private static final long[][] CHILD_TIME_RANGES = {{0, 100, 1}, {50, 150, 2}, {1000, 1100, 1}};
+
+  @Test
+  public void ascTimeJoinTest() throws Exception {
+    checkTimeJoin(Ordering.ASC);
+  }
+
+  @Test
+  public void descTimeJoinTest() throws Exception {
+    checkTimeJoin(Ordering.DESC);
+  }
+
+  private void checkTimeJoin(Ordering ordering) throws Exception {
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try {
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+      driverContext.addOperatorContext(
+          1, new PlanNodeId("1"), RowBasedTimeJoinOperator.class.getSimpleName());
+      OperatorContext operatorContext = driverContext.getOperatorContexts().get(0);
+
+      boolean ascending = ordering == Ordering.ASC;
+      TimeComparator comparator =
+          ascending ? new AscTimeComparator() : new DescTimeComparator();
+      // time -> values of each child
+      Map<Long, Integer[]> expected =
+          ascending ? new TreeMap<>() : new TreeMap<>(Collections.reverseOrder());
+      List<Operator> children = new ArrayList<>();
+      List<TSDataType> dataTypes = new ArrayList<>();
+      List<ColumnMerger> mergers = new ArrayList<>();
+      for (int child = 0; child < CHILD_TIME_RANGES.length; child++) {
+        List<Long> times = new ArrayList<>();
+        for (long time = CHILD_TIME_RANGES[child][0];
+            time < CHILD_TIME_RANGES[child][1];
+            time += CHILD_TIME_RANGES[child][2]) {
+          times.add(time);
+          expected.computeIfAbsent(time, k -> new Integer[CHILD_TIME_RANGES.length])[child] =
+              (int) time * 10 + child;
+        }
+        if (!ascending) {
+          Collections.reverse(times);
+        }
+        List<TsBlock> blocks = new ArrayList<>();
+        for (int i = 0; i < times.size(); i += ROWS_PER_BLOCK) {
+          TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT32));
+          for (long time : times.subList(i, Math.min(times.size(), i + ROWS_PER_BLOCK))) {
+            builder.getTimeColumnBuilder().writeLong(time);
+            // leave some nulls in the value column
+            if (time % 7 == 0) {
+              builder.getColumnBuilder(0).appendNull();
+              expected.get(time)[child] = null;
+            } else {
+              builder.getColumnBuilder(0).writeInt((int) time * 10 + child);
+            }
+            builder.declarePosition();
+          }
+          blocks.add(builder.build());
+        }
+        children.add(new BlockListOperator(operatorContext, blocks));
+        dataTypes.add(TSDataType.INT32);
+        mergers.add(new SingleColumnMerger(new InputLocation(child, 0), comparator));
+      }
+
+      RowBasedTimeJoinOperator timeJoinOperator =
+          new RowBasedTimeJoinOperator(
+              operatorContext, children, ordering, dataTypes, mergers, comparator);
+
+      List<Map.Entry<Long, Integer[]>> expectedRows = new ArrayList<>(expected.entrySet());
+      int count = 0;
+      while (timeJoinOperator.hasNext()) {
+        TsBlock tsBlock = timeJoinOperator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        for (int i = 0; i < tsBlock.getPositionCount(); i++, count++) {
+          Map.Entry<Long, Integer[]> expectedRow = expectedRows.get(count);
+          assertEquals((long) expectedRow.getKey(), tsBlock.getTimeByIndex(i));
+          for (int child = 0; child < CHILD_TIME_RANGES.length; child++) {
+            Integer value = expectedRow.getValue()[child];
+            if (value == null) {
+              assertTrue(tsBlock.getColumn(child).isNull(i));
+            } else {
+              assertFalse(tsBlock.getColumn(child).isNull(i));
+              assertEquals((int) value, tsBlock.getColumn(child).getInt(i));
+            }
+          }
+        }
+      }
+      assertTrue(timeJoinOperator.isFinished());
+      assertEquals(expectedRows.size(), count);
+    } finally {
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+
+  private static class BlockListOperator implements Operator {
+
+    private final OperatorContext operatorContext;
+    private final List<TsBlock> blocks;
+    private int index = 0;
+
+    private BlockListOperator(OperatorContext operatorContext, List<TsBlock> blocks) {
+      this.operatorContext = operatorContext;
+      this.blocks = blocks;
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return operatorContext;
+    }
+
+    @Override
+    public TsBlock next() {
+      return blocks.get(index++);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < blocks.size();
+    }
+
+    @Override
+    public boolean isFinished() {
+      return index >= blocks.size();
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 0;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 0;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+  }
+}
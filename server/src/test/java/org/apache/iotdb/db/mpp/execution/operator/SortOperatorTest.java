@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.driver.DriverContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.mpp.execution.memory.MemoryPool;
+import org.apache.iotdb.db.mpp.execution.operator.process.SortOperator;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SortOperatorTest {
+
+  private static final String SPILL_DIR = "target" + File.separator + "sort-operator-test";
+
+  private static final int BLOCK_NUM = 20;
+  private static final int ROWS_PER_BLOCK = 100;
+
+  private static final List<TSDataType> DATA_TYPES = Collections.singletonList(TSDataType.INT32);
+
+  // order by value asc, time desc
+  private static final Comparator<MergeSortKey> COMPARATOR =
+      Comparator.<MergeSortKey>comparingInt(key -> key.tsBlock.getColumn(0).getInt(key.rowIndex))
+          .thenComparing(
+              key -> key.tsBlock.getTimeByIndex(key.rowIndex), Comparator.reverseOrder());
+
+  private ExecutorService instanceNotificationExecutor;
+
+  @Before
+  public void setUp() {
+    instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    instanceNotificationExecutor.shutdown();
+    FileUtils.deleteDirectory(new File(SPILL_DIR));
+  }
+
+  @Test
+  public void sortInMemoryTest() throws Exception {
+    MemoryPool memoryPool = new MemoryPool("test", 1024 * 1024 * 1024L, 1024 * 1024 * 1024L);
+    checkSortResult(memoryPool, 1024 * 1024 * 1024L);
+    assertFalse(new File(SPILL_DIR).exists());
+  }
+
+  @Test
+  public void sortWithSpillTest() throws Exception {
+    // about two input TsBlocks can be buffered at the same time
+    MemoryPool memoryPool = new MemoryPool("test", 1024 * 1024 * 1024L, 1024 * 1024 * 1024L);
+    checkSortResult(memoryPool, 16 * 1024L);
+    File[] files = new File(SPILL_DIR).listFiles();
+    assertTrue(files != null && files.length == 0);
+  }
+
+  @Test
+  public void sortWithExhaustedMemoryPoolTest() throws Exception {
+    // the reservation of the operator is not exhausted, but the pool is
+    MemoryPool memoryPool = new MemoryPool("test", 16 * 1024L, 16 * 1024L);
+    assertTrue(
+        memoryPool.reserve("other_query", "other-instance", "0", 12 * 1024L, 16 * 1024L).right);
+    checkSortResult(memoryPool, 16 * 1024L);
+    memoryPool.free("other_query", "other-instance", "0", 12 * 1024L);
+    File[] files = new File(SPILL_DIR).listFiles();
+    assertTrue(files != null && files.length == 0);
+  }
+
+  @Test
+  public void sortSingleOversizedTsBlockTest() throws Exception {
+    // no TsBlock fits into the reservation, every one becomes a run of its own
+    MemoryPool memoryPool = new MemoryPool("test", 1024 * 1024 * 1024L, 1024 * 1024 * 1024L);
+    checkSortResult(memoryPool, 1024L);
+  }
+
+  private void checkSortResult(MemoryPool memoryPool, long maxBytesCanReserve) throws Exception {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+    PlanNodeId planNodeId = new PlanNodeId("1");
+    driverContext.addOperatorContext(1, planNodeId, SortOperator.class.getSimpleName());
+    OperatorContext operatorContext = driverContext.getOperatorContexts().get(0);
+
+    Random random = new Random(1);
+    Operator child =
+        new Operator() {
+          private int index = 0;
+
+          @Override
+          public OperatorContext getOperatorContext() {
+            return operatorContext;
+          }
+
+          @Override
+          public TsBlock next() {
+            TsBlockBuilder builder = new TsBlockBuilder(DATA_TYPES);
+            for (int i = 0; i < ROWS_PER_BLOCK; i++) {
+              builder.getTimeColumnBuilder().writeLong((long) index * ROWS_PER_BLOCK + i);
+              builder.getColumnBuilder(0).writeInt(random.nextInt(500));
+              builder.declarePosition();
+            }
+            index++;
+            return builder.build();
+          }
+
+          @Override
+          public boolean hasNext() {
+            return index < BLOCK_NUM;
+          }
+
+          @Override
+          public boolean isFinished() {
+            return index >= BLOCK_NUM;
+          }
+
+          @Override
+          public long calculateMaxPeekMemory() {
+            return 0;
+          }
+
+          @Override
+          public long calculateMaxReturnSize() {
+            return 0;
+          }
+
+          @Override
+          public long calculateRetainedSizeAfterCallingNext() {
+            return 0;
+          }
+        };
+
+    SortOperator sortOperator =
+        new SortOperator(
+            operatorContext,
+            child,
+            DATA_TYPES,
+            COMPARATOR,
+            memoryPool,
+            maxBytesCanReserve,
+            SPILL_DIR);
+
+    long reservedBytesBefore = memoryPool.getReservedBytes();
+    int count = 0;
+    int lastValue = Integer.MIN_VALUE;
+    long lastTime = Long.MAX_VALUE;
+    while (sortOperator.hasNext()) {
+      TsBlock result = sortOperator.next();
+      if (result == null) {
+        continue;
+      }
+      for (int i = 0; i < result.getPositionCount(); i++) {
+        int value = result.getColumn(0).getInt(i);
+        long time = result.getTimeByIndex(i);
+        assertTrue(value >= lastValue);
+        if (value == lastValue) {
+          assertTrue(time < lastTime);
+        }
+        lastValue = value;
+        lastTime = time;
+        count++;
+      }
+    }
+    assertTrue(sortOperator.isFinished());
+    assertEquals(BLOCK_NUM * ROWS_PER_BLOCK, count);
+    assertEquals(reservedBytesBefore, memoryPool.getReservedBytes());
+    sortOperator.close();
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.driver.DriverContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.mpp.execution.operator.process.TopKOperator;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.utils.datastructure.MergeSortKey;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TopKOperatorTest {
+
+  private static final int BLOCK_NUM = 30;
+  private static final int ROWS_PER_BLOCK = 100;
+
+  private static final List<TSDataType> DATA_TYPES = Collections.singletonList(TSDataType.INT32);
+
+  // order by value desc, time asc
+  private static final Comparator<MergeSortKey> COMPARATOR =
+      Comparator.<MergeSortKey, Integer>comparing(
+              key -> key.tsBlock.getColumn(0).getInt(key.rowIndex), Comparator.reverseOrder())
+          .thenComparingLong(key -> key.tsBlock.getTimeByIndex(key.rowIndex));
+
+  @Test
+  public void topKTest() throws Exception {
+    checkTopK(20);
+  }
+
+  @Test
+  public void topKLargerThanInputTest() throws Exception {
+    checkTopK(2 * BLOCK_NUM * ROWS_PER_BLOCK + 10);
+  }
+
+  private void checkTopK(int topValue) throws Exception {
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try {
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+      driverContext.addOperatorContext(1, new PlanNodeId("1"), TopKOperator.class.getSimpleName());
+      OperatorContext operatorContext = driverContext.getOperatorContexts().get(0);
+
+      // two children whose rows are not sorted, the expected result is computed by a full sort
+      Random random = new Random(1);
+      List<long[]> allRows = new ArrayList<>();
+      List<List<TsBlock>> inputs = new ArrayList<>();
+      for (int child = 0; child < 2; child++) {
+        List<TsBlock> blocks = new ArrayList<>();
+        for (int i = 0; i < BLOCK_NUM; i++) {
+          TsBlockBuilder builder = new TsBlockBuilder(DATA_TYPES);
+          for (int j = 0; j < ROWS_PER_BLOCK; j++) {
+            long time = ((long) child * BLOCK_NUM + i) * ROWS_PER_BLOCK + j;
+            int value = random.nextInt(1000);
+            builder.getTimeColumnBuilder().writeLong(time);
+            builder.getColumnBuilder(0).writeInt(value);
+            builder.declarePosition();
+            allRows.add(new long[] {time, value});
+          }
+          blocks.add(builder.build());
+        }
+        inputs.add(blocks);
+      }
+      allRows.sort(
+          Comparator.<long[]>comparingLong(row -> -row[1]).thenComparingLong(row -> row[0]));
+
+      TopKOperator topKOperator =
+          new TopKOperator(
+              operatorContext,
+              Arrays.asList(
+                  new BlockListOperator(operatorContext, inputs.get(0)),
+                  new BlockListOperator(operatorContext, inputs.get(1))),
+              DATA_TYPES,
+              COMPARATOR,
+              topValue);
+
+      int count = 0;
+      while (topKOperator.hasNext()) {
+        TsBlock result = topKOperator.next();
+        if (result == null) {
+          continue;
+        }
+        for (int i = 0; i < result.getPositionCount(); i++) {
+          assertEquals(allRows.get(count)[0], result.getTimeByIndex(i));
+          assertEquals(allRows.get(count)[1], result.getColumn(0).getInt(i));
+          count++;
+        }
+      }
+      assertTrue(topKOperator.isFinished());
+      assertEquals(Math.min(topValue, allRows.size()), count);
+    } finally {
+      instanceNotificationExecutor.shutdown();
+    }
+  }
+
+  private static class BlockListOperator implements Operator {
+
+    private final OperatorContext operatorContext;
+    private final List<TsBlock> blocks;
+    private int index = 0;
+
+    private BlockListOperator(OperatorContext operatorContext, List<TsBlock> blocks) {
+      this.operatorContext = operatorContext;
+      this.blocks = blocks;
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return operatorContext;
+    }
+
+    @Override
+    public TsBlock next() {
+      return blocks.get(index++);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < blocks.size();
+    }
+
+    @Override
+    public boolean isFinished() {
+      return index >= blocks.size();
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 0;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 0;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.schedule.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.fail;
+
+public class WorkStealingPriorityQueueTest {
+
+  private static final Comparator<QueueElement> COMPARATOR =
+      (o1, o2) -> {
+        if (o1.equals(o2)) {
+          return 0;
+        }
+        int res = Integer.compare(o1.getValue(), o2.getValue());
+        if (res != 0) {
+          return res;
+        }
+        return String.CASE_INSENSITIVE_ORDER.compare(
+            o1.getDriverTaskId().toString(), o2.getDriverTaskId().toString());
+      };
+
+  private IndexedBlockingQueue<QueueElement> createQueue(int maxCapacity, int localQueueNum) {
+    return new WorkStealingPriorityQueue<>(
+        maxCapacity,
+        localQueueNum,
+        COMPARATOR,
+        new QueueElement(new QueueElement.QueueElementID(0), 0));
+  }
+
+  @Test
+  public void testPollBlocked() {
+    IndexedBlockingQueue<QueueElement> queue = createQueue(10, 2);
+    List<QueueElement> res = new ArrayList<>();
+    Thread t1 =
+        new Thread(
+            () -> {
+              try {
+                QueueElement e = queue.poll();
+                res.add(e);
+              } catch (InterruptedException e) {
+                e.printStackTrace();
+                fail();
+              }
+            });
+    t1.start();
+    await()
+        .atMost(1, TimeUnit.MINUTES)
+        .untilAsserted(() -> Assert.assertEquals(Thread.State.WAITING, t1.getState()));
+    QueueElement e2 = new QueueElement(new QueueElement.QueueElementID(1), 1);
+    queue.push(e2);
+    await()
+        .atMost(1, TimeUnit.MINUTES)
+        .untilAsserted(() -> Assert.assertEquals(Thread.State.TERMINATED, t1.getState()));
+    Assert.assertEquals(1, res.size());
+    Assert.assertEquals(e2.getDriverTaskId().toString(), res.get(0).getDriverTaskId().toString());
+    Assert.assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testPushExceedCapacity() {
+    IndexedBlockingQueue<QueueElement> queue = createQueue(1, 2);
+    queue.push(new QueueElement(new QueueElement.QueueElementID(1), 1));
+    try {
+      queue.push(new QueueElement(new QueueElement.QueueElementID(2), 2));
+      fail();
+    } catch (IllegalStateException e) {
+      Assert.assertEquals(1, queue.size());
+    }
+  }
+
+  @Test
+  public void testPushSameElement() {
+    IndexedBlockingQueue<QueueElement> queue = createQueue(10, 2);
+    queue.push(new QueueElement(new QueueElement.QueueElementID(1), 10));
+    try {
+      // the element goes to another local queue but the duplication is still detected
+      queue.push(new QueueElement(new QueueElement.QueueElementID(1), 5));
+      fail();
+    } catch (IllegalStateException e) {
+      Assert.assertTrue(e.getMessage().contains("has already contained"));
+    }
+    Assert.assertEquals(1, queue.size());
+  }
+
+  @Test
+  public void testStealFromOtherLocalQueue() throws InterruptedException {
+    IndexedBlockingQueue<QueueElement> queue = createQueue(10, 4);
+    QueueElement e1 = new QueueElement(new QueueElement.QueueElementID(1), 10);
+    QueueElement e2 = new QueueElement(new QueueElement.QueueElementID(2), 5);
+    // pushed by a thread not polling, so they are spread in different local queues
+    queue.push(e1);
+    queue.push(e2);
+    Assert.assertEquals(2, queue.size());
+
+    List<QueueElement> res = new ArrayList<>();
+    Thread t1 =
+        new Thread(
+            () -> {
+              try {
+                res.add(queue.poll());
+                res.add(queue.poll());
+              } catch (InterruptedException e) {
+                fail();
+              }
+            });
+    t1.start();
+    t1.join(TimeUnit.MINUTES.toMillis(1));
+    Assert.assertEquals(2, res.size());
+    Assert.assertTrue(res.contains(e1));
+    Assert.assertTrue(res.contains(e2));
+    Assert.assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testRemoveAndGetElement() {
+    IndexedBlockingQueue<QueueElement> queue = createQueue(10, 3);
+    QueueElement.QueueElementID id1 = new QueueElement.QueueElementID(1);
+    QueueElement.QueueElementID id2 = new QueueElement.QueueElementID(2);
+    QueueElement e1 = new QueueElement(id1, 5);
+    QueueElement e2 = new QueueElement(id2, 10);
+    queue.push(e1);
+    queue.push(e2);
+    Assert.assertEquals(e1, queue.get(id1));
+    Assert.assertEquals(e2, queue.remove(id2));
+    Assert.assertNull(queue.get(id2));
+    Assert.assertNull(queue.remove(id2));
+    Assert.assertEquals(1, queue.size());
+    queue.clear();
+    Assert.assertEquals(0, queue.size());
+    Assert.assertNull(queue.get(id1));
+  }
+}
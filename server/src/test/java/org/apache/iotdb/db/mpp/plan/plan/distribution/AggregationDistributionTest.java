@@ -37,6 +37,7 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.AggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.DeviceViewNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.GroupByLevelNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.GroupByTagNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.MergeSortNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SlidingWindowAggregationNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
@@ -57,12 +58,14 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class AggregationDistributionTest {
@@ -888,4 +891,63 @@ public class AggregationDistributionTest {
     fragmentInstances.forEach(
         f -> verifyAggregationStep(expectedStep, f.getFragment().getPlanNodeTree()));
   }
+
+  @Test
+  public void testGroupByTagWithDisjointGroupsInRegions() {
+    QueryId queryId = new QueryId("test_group_by_tag_disjoint_groups");
+    MPPQueryContext context =
+        new MPPQueryContext("", queryId, null, new TEndPoint(), new TEndPoint());
+    // root.sg.d22 (key1=value1) is in dataRegion3 and root.sg.d55555 (key1=value2) in dataRegion4
+    String sql =
+        "select max_value(s1), avg(s2) from root.sg.d22, root.sg.d55555 group by tags(key1)";
+    Analysis analysis = Util.analyze(sql, context);
+    PlanNode logicalPlanNode = Util.genLogicalPlan(analysis, context);
+    DistributionPlanner planner =
+        new DistributionPlanner(analysis, new LogicalQueryPlan(context, logicalPlanNode));
+    DistributedQueryPlan plan = planner.planFragments();
+    assertEquals(2, plan.getInstances().size());
+
+    List<GroupByTagNode> groupByTagNodes = new ArrayList<>();
+    plan.getInstances()
+        .forEach(
+            instance ->
+                collectGroupByTagNodes(instance.getFragment().getPlanNodeTree(), groupByTagNodes));
+    assertEquals(3, groupByTagNodes.size());
+
+    List<List<String>> partialGroups = new ArrayList<>();
+    for (GroupByTagNode node : groupByTagNodes) {
+      if (node.isInputGrouped()) {
+        assertEquals(2, node.getTagValuesToAggregationDescriptors().size());
+        continue;
+      }
+      // each region only aggregates the group it holds
+      assertEquals(1, node.getTagValuesToAggregationDescriptors().size());
+      partialGroups.addAll(node.getTagValuesToAggregationDescriptors().keySet());
+      assertEquals(
+          Arrays.asList("key1", "max_value(s1)", "count(s2)", "sum(s2)"),
+          node.getOutputColumnNames());
+      for (List<CrossSeriesAggregationDescriptor> descriptors :
+          node.getTagValuesToAggregationDescriptors().values()) {
+        for (CrossSeriesAggregationDescriptor descriptor : descriptors) {
+          assertEquals(AggregationStep.INTERMEDIATE, descriptor.getStep());
+          assertFalse(descriptor.getInputExpressions().isEmpty());
+        }
+      }
+    }
+    partialGroups.sort(Comparator.comparing(tagValues -> tagValues.get(0)));
+    assertEquals(
+        Arrays.asList(Collections.singletonList("value1"), Collections.singletonList("value2")),
+        partialGroups);
+
+    assertEquals(TSDataType.INT32, context.getTypeProvider().getType("max_value(s1)"));
+    assertEquals(TSDataType.INT64, context.getTypeProvider().getType("count(s2)"));
+    assertEquals(TSDataType.DOUBLE, context.getTypeProvider().getType("sum(s2)"));
+  }
+
+  private void collectGroupByTagNodes(PlanNode root, List<GroupByTagNode> groupByTagNodes) {
+    if (root instanceof GroupByTagNode) {
+      groupByTagNodes.add((GroupByTagNode) root);
+    }
+    root.getChildren().forEach(child -> collectGroupByTagNodes(child, groupByTagNodes));
+  }
 }
@@ -263,10 +263,18 @@ public class Util {
     d4.addChild("s1", s1);
     d4.addChild("s2", s2);
 
+    // d55555 only lives in dataRegion4 and is the only device in another tag group
+    SchemaMeasurementNode d5s1 =
+        new SchemaMeasurementNode("s1", new MeasurementSchema("s1", TSDataType.INT32));
+    d5s1.setTagMap(Collections.singletonMap("key1", "value2"));
+    SchemaMeasurementNode d5s2 =
+        new SchemaMeasurementNode("s2", new MeasurementSchema("s2", TSDataType.DOUBLE));
+    d5s2.setTagMap(Collections.singletonMap("key1", "value2"));
+
     SchemaEntityNode d5 = new SchemaEntityNode("d55555");
     sg.addChild("d55555", d5);
-    d5.addChild("s1", s1);
-    d5.addChild("s2", s2);
+    d5.addChild("s1", d5s1);
+    d5.addChild("s2", d5s2);
 
     SchemaEntityNode d6 = new SchemaEntityNode("d666666");
     d6.setAligned(true);
@@ -118,5 +118,14 @@ public class GroupByTagNodeSerdeTest {
     byte[] byteArray = baos.toByteArray();
     ByteBuffer buffer = ByteBuffer.wrap(byteArray);
     Assert.assertEquals(expectedNode, PlanNodeDeserializeHelper.deserialize(buffer));
+
+    expectedNode.setInputGrouped(true);
+    byteBuffer = ByteBuffer.allocate(4096);
+    expectedNode.serialize(byteBuffer);
+    byteBuffer.flip();
+    GroupByTagNode deserializedNode =
+        (GroupByTagNode) PlanNodeDeserializeHelper.deserialize(byteBuffer);
+    Assert.assertEquals(expectedNode, deserializedNode);
+    Assert.assertTrue(deserializedNode.isInputGrouped());
   }
 }
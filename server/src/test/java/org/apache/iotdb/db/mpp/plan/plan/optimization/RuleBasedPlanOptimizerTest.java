@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.plan.optimization;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.mpp.common.MPPQueryContext;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.plan.expression.Expression;
+import org.apache.iotdb.db.mpp.plan.expression.binary.GreaterThanExpression;
+import org.apache.iotdb.db.mpp.plan.expression.binary.LogicAndExpression;
+import org.apache.iotdb.db.mpp.plan.expression.leaf.ConstantOperand;
+import org.apache.iotdb.db.mpp.plan.expression.leaf.TimeSeriesOperand;
+import org.apache.iotdb.db.mpp.plan.expression.leaf.TimestampOperand;
+import org.apache.iotdb.db.mpp.plan.optimization.RuleBasedPlanOptimizer;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.FilterNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.LimitNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.MergeSortNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.OffsetNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.SortNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TopKNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.OrderByParameter;
+import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
+import org.apache.iotdb.db.mpp.plan.statement.component.SortItem;
+import org.apache.iotdb.db.mpp.plan.statement.component.SortKey;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class RuleBasedPlanOptimizerTest {
+
+  private final MPPQueryContext context = new MPPQueryContext(new QueryId("test_query"));
+
+  @Test
+  public void testPushLimitOffsetIntoScan() throws IllegalPathException {
+    SeriesScanNode scanNode = createScan("root.sg.d1.s1", TSDataType.INT64);
+    PlanNode root =
+        new LimitNode(
+            new PlanNodeId("limit"), new OffsetNode(new PlanNodeId("offset"), scanNode, 20), 10);
+
+    PlanNode result = optimize(root);
+
+    Assert.assertSame(scanNode, result);
+    Assert.assertEquals(10, scanNode.getLimit());
+    Assert.assertEquals(20, scanNode.getOffset());
+  }
+
+  @Test
+  public void testPushLimitIntoTimeJoin() throws IllegalPathException {
+    SeriesScanNode scanNode1 = createScan("root.sg.d1.s1", TSDataType.INT64);
+    SeriesScanNode scanNode2 = createScan("root.sg.d1.s2", TSDataType.INT64);
+    TimeJoinNode timeJoinNode =
+        new TimeJoinNode(
+            new PlanNodeId("timeJoin"), Ordering.ASC, Arrays.asList(scanNode1, scanNode2));
+    PlanNode root =
+        new LimitNode(
+            new PlanNodeId("limit"),
+            new OffsetNode(new PlanNodeId("offset"), timeJoinNode, 20),
+            10);
+
+    PlanNode result = optimize(root);
+
+    // the limit and offset of the join are kept, each series returns limit + offset rows
+    Assert.assertSame(root, result);
+    Assert.assertEquals(30, scanNode1.getLimit());
+    Assert.assertEquals(0, scanNode1.getOffset());
+    Assert.assertEquals(30, scanNode2.getLimit());
+    Assert.assertEquals(0, scanNode2.getOffset());
+  }
+
+  @Test
+  public void testFilterBlocksLimitPushDown() throws IllegalPathException {
+    SeriesScanNode scanNode1 = createScan("root.sg.d1.s1", TSDataType.INT64);
+    SeriesScanNode scanNode2 = createScan("root.sg.d1.s2", TSDataType.INT64);
+    TimeJoinNode timeJoinNode =
+        new TimeJoinNode(
+            new PlanNodeId("timeJoin"), Ordering.ASC, Arrays.asList(scanNode1, scanNode2));
+    FilterNode filterNode =
+        createFilter(
+            timeJoinNode,
+            new GreaterThanExpression(
+                new TimeSeriesOperand(scanNode1.getSeriesPath()),
+                new ConstantOperand(TSDataType.INT64, "5")),
+            scanNode1,
+            scanNode2);
+    PlanNode root = new LimitNode(new PlanNodeId("limit"), filterNode, 10);
+
+    PlanNode result = optimize(root);
+
+    Assert.assertSame(root, result);
+    Assert.assertSame(filterNode, ((LimitNode) result).getChild());
+    Assert.assertEquals(0, scanNode1.getLimit());
+    Assert.assertEquals(0, scanNode2.getLimit());
+    Assert.assertEquals(ValueFilter.gt(5L), scanNode1.getValueFilter());
+    Assert.assertNull(scanNode2.getValueFilter());
+  }
+
+  @Test
+  public void testPushPredicateIntoSingleScan() throws IllegalPathException {
+    SeriesScanNode scanNode = createScan("root.sg.d1.s1", TSDataType.INT32);
+    Expression predicate =
+        new LogicAndExpression(
+            new GreaterThanExpression(
+                new ConstantOperand(TSDataType.INT64, "5"),
+                new TimeSeriesOperand(scanNode.getSeriesPath())),
+            new GreaterThanExpression(
+                new TimestampOperand(), new ConstantOperand(TSDataType.INT64, "100")));
+    PlanNode root =
+        new LimitNode(new PlanNodeId("limit"), createFilter(scanNode, predicate, scanNode), 10);
+
+    PlanNode result = optimize(root);
+
+    // the filter is removed, and then the limit can be pushed down as well
+    Assert.assertSame(scanNode, result);
+    Assert.assertEquals(ValueFilter.lt(5), scanNode.getValueFilter());
+    Assert.assertNotNull(scanNode.getTimeFilter());
+    Assert.assertEquals(10, scanNode.getLimit());
+  }
+
+  @Test
+  public void testRemoveSingleChildTimeJoin() throws IllegalPathException {
+    SeriesScanNode scanNode = createScan("root.sg.d1.s1", TSDataType.INT64);
+    TimeJoinNode timeJoinNode =
+        new TimeJoinNode(
+            new PlanNodeId("timeJoin"), Ordering.ASC, Collections.singletonList(scanNode));
+    PlanNode root = new LimitNode(new PlanNodeId("limit"), timeJoinNode, 10);
+
+    PlanNode result = optimize(root);
+
+    // the time join is removed, and then the limit can be pushed into the scan
+    Assert.assertSame(scanNode, result);
+    Assert.assertEquals(10, scanNode.getLimit());
+  }
+
+  @Test
+  public void testTransformSortToTopK() throws IllegalPathException {
+    SeriesScanNode scanNode1 = createScan("root.sg.d1.s1", TSDataType.INT64);
+    SeriesScanNode scanNode2 = createScan("root.sg.d2.s1", TSDataType.INT64);
+    OrderByParameter orderByParameter =
+        new OrderByParameter(Collections.singletonList(new SortItem(SortKey.TIME, Ordering.DESC)));
+    MergeSortNode mergeSortNode =
+        new MergeSortNode(
+            new PlanNodeId("mergeSort"), orderByParameter, scanNode1.getOutputColumnNames());
+    mergeSortNode.addChild(new SortNode(new PlanNodeId("sort"), scanNode1, orderByParameter));
+    mergeSortNode.addChild(scanNode2);
+    PlanNode root =
+        new LimitNode(
+            new PlanNodeId("limit"),
+            new OffsetNode(new PlanNodeId("offset"), mergeSortNode, 5),
+            10);
+
+    PlanNode result = optimize(root);
+
+    // Limit(Offset(MergeSort(Sort(s1), s2))) -> Limit(Offset(MergeSort(TopK(s1), s2))), the
+    // MergeSortNode is kept since it stops after limit rows of its sorted inputs
+    Assert.assertSame(root, result);
+    PlanNode offsetNode = ((LimitNode) result).getChild();
+    Assert.assertTrue(offsetNode instanceof OffsetNode);
+    Assert.assertSame(mergeSortNode, ((OffsetNode) offsetNode).getChild());
+    Assert.assertEquals(2, mergeSortNode.getChildren().size());
+    PlanNode childTopKNode = mergeSortNode.getChildren().get(0);
+    Assert.assertTrue(childTopKNode instanceof TopKNode);
+    Assert.assertEquals(15, ((TopKNode) childTopKNode).getTopValue());
+    Assert.assertEquals(orderByParameter, ((TopKNode) childTopKNode).getMergeOrderParameter());
+    Assert.assertSame(scanNode1, childTopKNode.getChildren().get(0));
+    Assert.assertSame(scanNode2, mergeSortNode.getChildren().get(1));
+
+    // Limit(Sort(s2)) -> TopK(s2)
+    PlanNode sortRoot =
+        new LimitNode(
+            new PlanNodeId("limit"),
+            new SortNode(new PlanNodeId("sort"), scanNode2, orderByParameter),
+            10);
+    PlanNode topKNode = optimize(sortRoot);
+    Assert.assertTrue(topKNode instanceof TopKNode);
+    Assert.assertEquals(10, ((TopKNode) topKNode).getTopValue());
+    Assert.assertSame(scanNode2, topKNode.getChildren().get(0));
+  }
+
+  private PlanNode optimize(PlanNode root) {
+    return RuleBasedPlanOptimizer.createDefault().optimize(root, context);
+  }
+
+  private SeriesScanNode createScan(String path, TSDataType dataType)
+      throws IllegalPathException {
+    MeasurementPath seriesPath = new MeasurementPath(path, dataType);
+    return new SeriesScanNode(new PlanNodeId(path), seriesPath, Ordering.ASC);
+  }
+
+  private FilterNode createFilter(
+      PlanNode child, Expression predicate, SeriesScanNode... outputScans) {
+    Expression[] outputExpressions =
+        Arrays.stream(outputScans)
+            .map(scanNode -> new TimeSeriesOperand(scanNode.getSeriesPath()))
+            .toArray(Expression[]::new);
+    return new FilterNode(
+        new PlanNodeId("filter"),
+        child,
+        outputExpressions,
+        predicate,
+        false,
+        ZonedDateTime.now().getOffset(),
+        Ordering.ASC);
+  }
+}
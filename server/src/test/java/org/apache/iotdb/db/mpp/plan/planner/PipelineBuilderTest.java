@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.planner;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.engine.storagegroup.IDataRegionForQuery;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.driver.DriverContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
+import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.RowBasedTimeJoinOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.TimeJoinOperator;
+import org.apache.iotdb.db.mpp.execution.operator.source.ExchangeOperator;
+import org.apache.iotdb.db.mpp.execution.operator.source.SeriesScanOperator;
+import org.apache.iotdb.db.mpp.plan.analyze.TypeProvider;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.TimeJoinNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.source.SeriesScanNode;
+import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PipelineBuilderTest {
+
+  private static final String TIME_JOIN_ID = "timeJoin";
+
+  private ExecutorService instanceNotificationExecutor;
+
+  @Before
+  public void setUp() {
+    instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+  }
+
+  @After
+  public void tearDown() {
+    instanceNotificationExecutor.shutdown();
+  }
+
+  /** All the children are consumed by the time join in the current pipeline. */
+  @Test
+  public void testTimeJoinWithDegreeOfParallelismOne() throws IllegalPathException {
+    TypeProvider typeProvider = new TypeProvider();
+    TimeJoinNode timeJoinNode = createTimeJoinNode(4, typeProvider);
+    LocalExecutionPlanContext context = createLocalExecutionPlanContext(typeProvider, 1);
+
+    Operator root = timeJoinNode.accept(new OperatorTreeGenerator(), context);
+
+    assertTrue(root instanceof RowBasedTimeJoinOperator);
+    assertEquals(0, context.getPipelineDriverFactories().size());
+    assertEquals(0, context.getExchangeSumNum());
+    assertEquals(
+        Arrays.asList("s0", "s1", "s2", "s3", TIME_JOIN_ID),
+        getPlanNodeIds(context.getDriverContext()));
+    assertEquals(
+        Arrays.asList(
+            SeriesScanOperator.class.getSimpleName(),
+            SeriesScanOperator.class.getSimpleName(),
+            SeriesScanOperator.class.getSimpleName(),
+            SeriesScanOperator.class.getSimpleName(),
+            TimeJoinOperator.class.getSimpleName()),
+        getOperatorTypes(context.getDriverContext()));
+  }
+
+  /**
+   * Five children with degree two are split into two partial time joins of adjacent children, each
+   * of which runs in its own pipeline.
+   */
+  @Test
+  public void testTimeJoinWithDegreeOfParallelismTwo() throws IllegalPathException {
+    TypeProvider typeProvider = new TypeProvider();
+    TimeJoinNode timeJoinNode = createTimeJoinNode(5, typeProvider);
+    LocalExecutionPlanContext context = createLocalExecutionPlanContext(typeProvider, 2);
+
+    Operator root = timeJoinNode.accept(new OperatorTreeGenerator(), context);
+
+    assertTrue(root instanceof RowBasedTimeJoinOperator);
+    List<PipelineDriverFactory> pipelines = context.getPipelineDriverFactories();
+    assertEquals(2, pipelines.size());
+    assertEquals(2, context.getExchangeSumNum());
+    // adjacent children are kept together, so the output columns keep the original order
+    assertEquals(
+        Arrays.asList("s0", "s1", "s2", TIME_JOIN_ID + "_0"),
+        getPlanNodeIds(pipelines.get(0).getDriverContext()));
+    assertEquals(
+        Arrays.asList("s3", "s4", TIME_JOIN_ID + "_3"),
+        getPlanNodeIds(pipelines.get(1).getDriverContext()));
+    assertEquals(
+        Arrays.asList(
+            ExchangeOperator.class.getSimpleName(),
+            ExchangeOperator.class.getSimpleName(),
+            TimeJoinOperator.class.getSimpleName()),
+        getOperatorTypes(context.getDriverContext()));
+    assertEquals(
+        Arrays.asList(null, null, TIME_JOIN_ID), getPlanNodeIds(context.getDriverContext()));
+  }
+
+  /**
+   * With a degree larger than the number of children, the time join is not split and every child
+   * gets its own pipeline.
+   */
+  @Test
+  public void testTimeJoinWithDegreeOfParallelismLargerThanChildren() throws IllegalPathException {
+    TypeProvider typeProvider = new TypeProvider();
+    TimeJoinNode timeJoinNode = createTimeJoinNode(4, typeProvider);
+    LocalExecutionPlanContext context = createLocalExecutionPlanContext(typeProvider, 8);
+
+    Operator root = timeJoinNode.accept(new OperatorTreeGenerator(), context);
+
+    assertTrue(root instanceof RowBasedTimeJoinOperator);
+    List<PipelineDriverFactory> pipelines = context.getPipelineDriverFactories();
+    assertEquals(4, pipelines.size());
+    assertEquals(4, context.getExchangeSumNum());
+    for (int i = 0; i < pipelines.size(); i++) {
+      assertEquals(
+          Collections.singletonList("s" + i), getPlanNodeIds(pipelines.get(i).getDriverContext()));
+    }
+    assertEquals(
+        Arrays.asList(
+            ExchangeOperator.class.getSimpleName(),
+            ExchangeOperator.class.getSimpleName(),
+            ExchangeOperator.class.getSimpleName(),
+            ExchangeOperator.class.getSimpleName(),
+            TimeJoinOperator.class.getSimpleName()),
+        getOperatorTypes(context.getDriverContext()));
+  }
+
+  private TimeJoinNode createTimeJoinNode(int childNum, TypeProvider typeProvider)
+      throws IllegalPathException {
+    List<PlanNode> children = new ArrayList<>();
+    for (int i = 0; i < childNum; i++) {
+      MeasurementPath path = new MeasurementPath("root.sg.d" + i + ".s" + i, TSDataType.INT32);
+      typeProvider.setType(path.getFullPath(), TSDataType.INT32);
+      children.add(new SeriesScanNode(new PlanNodeId("s" + i), path, Ordering.ASC));
+    }
+    return new TimeJoinNode(new PlanNodeId(TIME_JOIN_ID), Ordering.ASC, children);
+  }
+
+  private LocalExecutionPlanContext createLocalExecutionPlanContext(
+      TypeProvider typeProvider, int degreeOfParallelism) {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    fragmentInstanceContext.setDataRegion(Mockito.mock(IDataRegionForQuery.class));
+    LocalExecutionPlanContext context =
+        new LocalExecutionPlanContext(typeProvider, fragmentInstanceContext);
+    context.setDegreeOfParallelism(degreeOfParallelism);
+    return context;
+  }
+
+  private static List<String> getPlanNodeIds(DriverContext driverContext) {
+    return driverContext.getOperatorContexts().stream()
+        .map(OperatorContext::getPlanNodeId)
+        .map(planNodeId -> planNodeId == null ? null : planNodeId.getId())
+        .collect(Collectors.toList());
+  }
+
+  private static List<String> getOperatorTypes(DriverContext driverContext) {
+    return driverContext.getOperatorContexts().stream()
+        .map(OperatorContext::getOperatorType)
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.plan.scheduler.load;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupType;
+import org.apache.iotdb.common.rpc.thrift.TDataNodeLocation;
+import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.partition.DataPartition;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.load.ChunkData;
+import org.apache.iotdb.db.engine.load.TsFileData;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.load.LoadSingleTsFileNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.load.LoadTsFilePieceNode;
+import org.apache.iotdb.db.mpp.plan.scheduler.FragInstanceDispatchResult;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class LoadTsFileSchedulerTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final int REPLICA_SET_NUM = 4;
+  private static final int CHUNK_NUM_PER_REPLICA_SET = 20;
+  private static final long CHUNK_SIZE = 100;
+  /** each piece is counted once for the local copy and once for each replica */
+  private static final long CHUNK_MEMORY_COST = 2 * CHUNK_SIZE;
+
+  private int prevDispatchParallelism;
+
+  private final List<TRegionReplicaSet> replicaSets = new ArrayList<>();
+  private final List<ChunkData> chunks = new ArrayList<>();
+  private final Map<TRegionReplicaSet, List<TsFileData>> replicaSet2Chunks = new HashMap<>();
+  private LoadSingleTsFileNode singleTsFileNode;
+  private LoadTsFileScheduler scheduler;
+
+  /** fake dispatcher state */
+  private final Map<TRegionReplicaSet, LoadTsFilePieceNode> replicaSet2InFlightPiece =
+      new HashMap<>();
+
+  private final Map<TRegionReplicaSet, List<TsFileData>> replicaSet2DispatchedData =
+      new HashMap<>();
+  private final List<RecordingFuture> futures = new ArrayList<>();
+  private final Set<LoadTsFilePieceNode> failedPieces = new HashSet<>();
+  private int maxInFlightPieceNum = 0;
+  private int waitedPieceNum = 0;
+  private boolean failFirstDispatchedPiece = false;
+  private boolean failed = false;
+  private boolean dispatchedAfterFailure = false;
+
+  @Before
+  public void setUp() {
+    prevDispatchParallelism = config.getLoadTsFileDispatchParallelism();
+    DataPartition dataPartition = Mockito.mock(DataPartition.class);
+    for (int i = 0; i < REPLICA_SET_NUM; i++) {
+      TRegionReplicaSet replicaSet =
+          new TRegionReplicaSet(
+              new TConsensusGroupId(TConsensusGroupType.DataRegion, i),
+              Collections.singletonList(new TDataNodeLocation()));
+      replicaSets.add(replicaSet);
+      replicaSet2Chunks.put(replicaSet, new ArrayList<>());
+      Mockito.when(
+              dataPartition.getDataRegionReplicaSetForWriting(
+                  Mockito.eq("root.sg.d" + i), Mockito.any()))
+          .thenReturn(replicaSet);
+    }
+    // chunks of different replica sets are interleaved
+    for (int j = 0; j < CHUNK_NUM_PER_REPLICA_SET; j++) {
+      for (int i = 0; i < REPLICA_SET_NUM; i++) {
+        ChunkData chunkData = Mockito.mock(ChunkData.class);
+        Mockito.when(chunkData.getDevice()).thenReturn("root.sg.d" + i);
+        Mockito.when(chunkData.getTimePartitionSlot()).thenReturn(new TTimePartitionSlot(0));
+        Mockito.when(chunkData.getDataSize()).thenReturn(CHUNK_SIZE);
+        chunks.add(chunkData);
+        replicaSet2Chunks.get(replicaSets.get(i)).add(chunkData);
+      }
+    }
+
+    TsFileResource tsFileResource = Mockito.mock(TsFileResource.class);
+    Mockito.when(tsFileResource.getTsFile()).thenReturn(new File("1-1-0-0.tsfile"));
+    singleTsFileNode = Mockito.mock(LoadSingleTsFileNode.class);
+    Mockito.when(singleTsFileNode.getDataPartition()).thenReturn(dataPartition);
+    Mockito.when(singleTsFileNode.getPlanNodeId()).thenReturn(new PlanNodeId("load"));
+    Mockito.when(singleTsFileNode.getTsFileResource()).thenReturn(tsFileResource);
+  }
+
+  @After
+  public void tearDown() {
+    config.setLoadTsFileDispatchParallelism(prevDispatchParallelism);
+  }
+
+  @Test
+  public void testDispatchParallelism() {
+    config.setLoadTsFileDispatchParallelism(2);
+    LoadTsFileScheduler.TsFileDataManager manager =
+        new LoadTsFileScheduler.TsFileDataManager(
+            mockScheduler(), singleTsFileNode, Long.MAX_VALUE);
+    for (ChunkData chunk : chunks) {
+      Assert.assertTrue(manager.addOrSendTsFileData(chunk));
+    }
+    Assert.assertTrue(manager.sendAllTsFileData());
+
+    Assert.assertEquals(2, maxInFlightPieceNum);
+    Assert.assertTrue(replicaSet2InFlightPiece.isEmpty());
+    checkDispatchedInOrder();
+  }
+
+  @Test
+  public void testWaitForMemoryBudget() {
+    long maxMemorySize = 10 * CHUNK_MEMORY_COST;
+    config.setLoadTsFileDispatchParallelism(REPLICA_SET_NUM);
+    LoadTsFileScheduler.TsFileDataManager manager =
+        new LoadTsFileScheduler.TsFileDataManager(mockScheduler(), singleTsFileNode, maxMemorySize);
+    for (ChunkData chunk : chunks) {
+      Assert.assertTrue(manager.addOrSendTsFileData(chunk));
+      // pieces are waited for until the buffered and in-flight data fit the budget
+      Assert.assertTrue(getInFlightMemoryCost() <= maxMemorySize);
+    }
+    Assert.assertTrue(waitedPieceNum > 0);
+    Assert.assertTrue(manager.sendAllTsFileData());
+
+    Assert.assertTrue(replicaSet2InFlightPiece.isEmpty());
+    checkDispatchedInOrder();
+  }
+
+  @Test
+  public void testDrainInFlightPiecesOnFailure() {
+    config.setLoadTsFileDispatchParallelism(REPLICA_SET_NUM);
+    LoadTsFileScheduler.TsFileDataManager manager =
+        new LoadTsFileScheduler.TsFileDataManager(
+            mockScheduler(), singleTsFileNode, Long.MAX_VALUE);
+    for (ChunkData chunk : chunks) {
+      Assert.assertTrue(manager.addOrSendTsFileData(chunk));
+    }
+    // the first dispatched piece fails while the others are still in flight
+    failFirstDispatchedPiece = true;
+    Assert.assertFalse(manager.sendAllTsFileData());
+
+    Assert.assertEquals(REPLICA_SET_NUM, futures.size());
+    Assert.assertEquals(1, waitedPieceNum);
+    for (RecordingFuture future : futures) {
+      Assert.assertTrue(future.waited);
+    }
+    Assert.assertFalse(dispatchedAfterFailure);
+  }
+
+  private LoadTsFileScheduler mockScheduler() {
+    scheduler = Mockito.mock(LoadTsFileScheduler.class);
+    Mockito.doAnswer(invocation -> dispatch(invocation.getArgument(0), invocation.getArgument(1)))
+        .when(scheduler)
+        .dispatchOnePieceNodeAsync(Mockito.any(), Mockito.any());
+    Mockito.doAnswer(
+            invocation -> {
+              LoadTsFilePieceNode pieceNode = invocation.getArgument(0);
+              TRegionReplicaSet replicaSet = invocation.getArgument(1);
+              RecordingFuture future = invocation.getArgument(2);
+              Assert.assertSame(pieceNode, replicaSet2InFlightPiece.remove(replicaSet));
+              future.waited = true;
+              waitedPieceNum++;
+              if (failedPieces.contains(pieceNode)) {
+                failed = true;
+                return false;
+              }
+              return true;
+            })
+        .when(scheduler)
+        .waitForPieceNode(Mockito.any(), Mockito.any(), Mockito.any());
+    return scheduler;
+  }
+
+  private Future<FragInstanceDispatchResult> dispatch(
+      LoadTsFilePieceNode pieceNode, TRegionReplicaSet replicaSet) {
+    // the previous piece of the same replica set must be finished
+    Assert.assertFalse(replicaSet2InFlightPiece.containsKey(replicaSet));
+    dispatchedAfterFailure |= failed;
+    if (failFirstDispatchedPiece && futures.isEmpty()) {
+      failedPieces.add(pieceNode);
+    }
+    replicaSet2InFlightPiece.put(replicaSet, pieceNode);
+    maxInFlightPieceNum = Math.max(maxInFlightPieceNum, replicaSet2InFlightPiece.size());
+    replicaSet2DispatchedData
+        .computeIfAbsent(replicaSet, o -> new ArrayList<>())
+        .addAll(pieceNode.getAllTsFileData());
+    RecordingFuture future = new RecordingFuture();
+    future.complete(new FragInstanceDispatchResult(true));
+    futures.add(future);
+    return future;
+  }
+
+  private long getInFlightMemoryCost() {
+    long cost = 0;
+    for (LoadTsFilePieceNode pieceNode : replicaSet2InFlightPiece.values()) {
+      cost += 2 * pieceNode.getDataSize();
+    }
+    return cost;
+  }
+
+  private void checkDispatchedInOrder() {
+    for (TRegionReplicaSet replicaSet : replicaSets) {
+      Assert.assertEquals(
+          replicaSet2Chunks.get(replicaSet), replicaSet2DispatchedData.get(replicaSet));
+    }
+  }
+
+  /** Records whether the result of the dispatched piece has been waited for. */
+  private static class RecordingFuture extends CompletableFuture<FragInstanceDispatchResult> {
+    private boolean waited = false;
+
+    @Override
+    public FragInstanceDispatchResult get(long timeout, TimeUnit unit)
+        throws InterruptedException, ExecutionException, TimeoutException {
+      waited = true;
+      return super.get(timeout, unit);
+    }
+  }
+}
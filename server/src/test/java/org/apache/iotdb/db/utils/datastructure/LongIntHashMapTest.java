@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class LongIntHashMapTest {
+
+  @Test
+  public void putAndGetTest() {
+    LongIntHashMap map = new LongIntHashMap(4);
+    Map<Long, Integer> expected = new HashMap<>();
+    Random random = new Random(1);
+    for (int i = 0; i < 10000; i++) {
+      // keys composed of two ints, as transitions of tag aggregation are
+      long key = ((long) random.nextInt(100) << 32) | random.nextInt(100);
+      map.put(key, i);
+      expected.put(key, i);
+    }
+    assertEquals(expected.size(), map.size());
+    for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+      assertEquals((int) entry.getValue(), map.get(entry.getKey(), -1));
+    }
+    assertEquals(-1, map.get(100L << 32, -1));
+    assertEquals(-1, map.get(-1L, -1));
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.BitMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class TVListAdaptiveSortTest {
+
+  private static class AdaptiveLongTVList extends TimLongTVList {
+    @Override
+    protected boolean isAdaptiveSort() {
+      return true;
+    }
+  }
+
+  @Test
+  public void testDisorderStatistics() {
+    LongTVList tvList = new AdaptiveLongTVList();
+    for (long i = 0; i < 100; i++) {
+      tvList.putLong(i, i);
+    }
+    Assert.assertTrue(tvList.isSorted());
+    // moves back 3 rows
+    tvList.putLong(96, 100);
+    Assert.assertFalse(tvList.isSorted());
+    Assert.assertEquals(100, tvList.sortedPrefixLength);
+    Assert.assertEquals(1, tvList.runCount);
+    Assert.assertEquals(3, tvList.maxBackwardDistance);
+    // in order with its predecessor, but still earlier than max time
+    tvList.putLong(97, 101);
+    Assert.assertEquals(1, tvList.runCount);
+    Assert.assertEquals(3, tvList.maxBackwardDistance);
+    // moves back further than the tracked distance
+    tvList.putLong(-1, 102);
+    Assert.assertEquals(2, tvList.runCount);
+    Assert.assertEquals(TVList.MAX_TRACKED_BACKWARD_DISTANCE + 1, tvList.maxBackwardDistance);
+
+    // statistics of batch inserts are the same as inserting one by one
+    LongTVList batchList = new AdaptiveLongTVList();
+    long[] times = new long[103];
+    long[] values = new long[103];
+    for (int i = 0; i < 100; i++) {
+      times[i] = i;
+    }
+    times[100] = 96;
+    times[101] = 97;
+    times[102] = -1;
+    batchList.putLongs(times, values, null, 0, 103);
+    Assert.assertEquals(tvList.sortedPrefixLength, batchList.sortedPrefixLength);
+    Assert.assertEquals(tvList.runCount, batchList.runCount);
+    Assert.assertEquals(tvList.maxBackwardDistance, batchList.maxBackwardDistance);
+  }
+
+  @Test
+  public void testBatchInsertWithNulls() {
+    LongTVList tvList = new AdaptiveLongTVList();
+    long[] times = {1, 2, 3, 100, 4, 5};
+    long[] values = {1, 2, 3, 100, 4, 5};
+    BitMap bitMap = new BitMap(times.length);
+    bitMap.mark(3);
+    tvList.putLongs(times, values, bitMap, 0, times.length);
+    Assert.assertTrue(tvList.isSorted());
+    tvList.putLongs(new long[] {0}, new long[] {0}, null, 0, 1);
+    Assert.assertFalse(tvList.isSorted());
+    Assert.assertEquals(5, tvList.sortedPrefixLength);
+    Assert.assertEquals(5, tvList.maxBackwardDistance);
+    tvList.sort();
+    for (int i = 0; i < tvList.rowCount; i++) {
+      Assert.assertEquals(i, tvList.getTime(i));
+    }
+  }
+
+  @Test
+  public void testNearlyOrdered() {
+    Random random = new Random(1);
+    List<Long> times = new ArrayList<>();
+    for (long i = 0; i < 5000; i++) {
+      times.add(i + random.nextInt(20));
+    }
+    checkSort(times);
+  }
+
+  @Test
+  public void testFewLongRuns() {
+    List<Long> times = new ArrayList<>();
+    for (int run = 0; run < 5; run++) {
+      for (long i = 0; i < 2000; i++) {
+        times.add(i * 5 + run);
+      }
+    }
+    checkSort(times);
+  }
+
+  @Test
+  public void testRandomWithDuplicates() {
+    Random random = new Random(2);
+    List<Long> times = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      times.add((long) random.nextInt(1000));
+    }
+    checkSort(times);
+  }
+
+  @Test
+  public void testInterleavedFallsBackFromInsertion() {
+    // every row only moves one step compared with its predecessor, but the small ones have to
+    // move back past all the large ones
+    List<Long> times = new ArrayList<>();
+    for (long i = 0; i < 3000; i++) {
+      times.add(10000 + i);
+      times.add(i);
+    }
+    checkSort(times);
+  }
+
+  @Test
+  public void testIncrementalSort() {
+    Random random = new Random(3);
+    LongTVList tvList = new AdaptiveLongTVList();
+    List<long[]> inputs = new ArrayList<>();
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 1000; i++) {
+        long time = round * 500L + random.nextInt(1000);
+        tvList.putLong(time, inputs.size());
+        inputs.add(new long[] {time, inputs.size()});
+      }
+      tvList.sort();
+      Assert.assertTrue(tvList.isSorted());
+      checkStableOrder(tvList, inputs);
+    }
+  }
+
+  @Test
+  public void testAlignedTVList() {
+    List<TSDataType> types = Collections.singletonList(TSDataType.INT64);
+    AlignedTVList tvList =
+        new TimAlignedTVList(types) {
+          @Override
+          protected boolean isAdaptiveSort() {
+            return true;
+          }
+        };
+    Random random = new Random(4);
+    List<long[]> inputs = new ArrayList<>();
+    for (int i = 0; i < 3000; i++) {
+      long time = i + random.nextInt(100);
+      tvList.putAlignedValue(time, new Object[] {(long) i}, new int[] {0});
+      inputs.add(new long[] {time, i});
+    }
+    tvList.sort();
+    inputs.sort(Comparator.comparingLong(input -> input[0]));
+    for (int i = 0; i < inputs.size(); i++) {
+      Assert.assertEquals(inputs.get(i)[0], tvList.getTime(i));
+      Assert.assertEquals(inputs.get(i)[1], tvList.getValueIndex(i));
+    }
+  }
+
+  private void checkSort(List<Long> times) {
+    LongTVList tvList = new AdaptiveLongTVList();
+    List<long[]> inputs = new ArrayList<>();
+    for (int i = 0; i < times.size(); i++) {
+      tvList.putLong(times.get(i), i);
+      inputs.add(new long[] {times.get(i), i});
+    }
+    tvList.sort();
+    checkStableOrder(tvList, inputs);
+  }
+
+  /** rows with the same time must keep their insertion order */
+  private void checkStableOrder(LongTVList tvList, List<long[]> inputs) {
+    List<long[]> expected = new ArrayList<>(inputs);
+    expected.sort(Comparator.comparingLong(input -> input[0]));
+    Assert.assertEquals(expected.size(), tvList.rowCount);
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i)[0], tvList.getTime(i));
+      Assert.assertEquals(expected.get(i)[1], tvList.getLong(i));
+    }
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.reader.IPageReader;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+public class TVListBlockStatisticsTest {
+
+  private int prevBlockSize;
+
+  @Before
+  public void setUp() {
+    prevBlockSize = IoTDBDescriptor.getInstance().getConfig().getMemTableStatisticsBlockSize();
+    IoTDBDescriptor.getInstance().getConfig().setMemTableStatisticsBlockSize(10);
+  }
+
+  @After
+  public void tearDown() {
+    IoTDBDescriptor.getInstance().getConfig().setMemTableStatisticsBlockSize(prevBlockSize);
+  }
+
+  @Test
+  public void testInOrderBlocks() throws IOException, QueryProcessException {
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    for (long i = 0; i < 35; i++) {
+      tvList.putLong(i, i * 2);
+    }
+    TVListBlockStatistics blockStatistics = tvList.getBlockStatisticsSnapshot();
+    Assert.assertEquals(4, blockStatistics.getBlockNum());
+    for (int i = 0; i < 4; i++) {
+      Statistics<?> statistics = blockStatistics.getStatistics(i);
+      Assert.assertEquals(i * 10L, blockStatistics.getBlockStartTime(i));
+      Assert.assertEquals(i < 3 ? 10 : 5, statistics.getCount());
+      Assert.assertEquals(i * 10L, statistics.getStartTime());
+      Assert.assertEquals(i * 20L, (long) statistics.getFirstValue());
+    }
+
+    ReadOnlyMemChunk memChunk = buildMemChunk(tvList, null);
+    List<IPageReader> pageReaders = memChunk.getPageReaderList(null);
+    Assert.assertEquals(4, pageReaders.size());
+    Assert.assertEquals(35, memChunk.getChunkMetaData().getStatistics().getCount());
+    Assert.assertEquals(68L, memChunk.getChunkMetaData().getStatistics().getLastValue());
+    TsBlock page = pageReaders.get(3).getAllSatisfiedData();
+    Assert.assertEquals(5, page.getPositionCount());
+    Assert.assertEquals(30, page.getTimeByIndex(0));
+  }
+
+  @Test
+  public void testOutOfOrderAndDuplicatedPoints() throws IOException, QueryProcessException {
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    for (long i = 0; i < 30; i++) {
+      tvList.putLong(i * 2, i);
+    }
+    // out-of-order point falls into the second block [20, 40)
+    tvList.putLong(25, 100);
+    // duplicated point of the first block overwrites the old value
+    tvList.putLong(4, 200);
+    TVListBlockStatistics blockStatistics = tvList.getBlockStatisticsSnapshot();
+    Assert.assertNull(blockStatistics.getStatistics(0));
+    Assert.assertNull(blockStatistics.getStatistics(1));
+    Assert.assertNotNull(blockStatistics.getStatistics(2));
+
+    ReadOnlyMemChunk memChunk = buildMemChunk(tvList, null);
+    Statistics<?> chunkStatistics = memChunk.getChunkMetaData().getStatistics();
+    Assert.assertEquals(31, chunkStatistics.getCount());
+    Assert.assertEquals(200L, chunkStatistics.getMaxValue());
+    Assert.assertEquals(29L, chunkStatistics.getLastValue());
+    assertSameAsFullScan(memChunk);
+  }
+
+  @Test
+  public void testDeletion() throws IOException, QueryProcessException {
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    for (long i = 0; i < 30; i++) {
+      tvList.putLong(i, i);
+    }
+    // deletions at query time only affect the pages they overlap
+    ReadOnlyMemChunk memChunk =
+        buildMemChunk(tvList, Collections.singletonList(new TimeRange(12, 15)));
+    List<IPageReader> pageReaders = memChunk.getPageReaderList(null);
+    Assert.assertEquals(3, pageReaders.size());
+    Assert.assertEquals(6, pageReaders.get(1).getStatistics().getCount());
+    Assert.assertEquals(26, memChunk.getChunkMetaData().getStatistics().getCount());
+    assertSameAsFullScan(memChunk);
+
+    // deletions in the memtable invalidate the blocks they overlap
+    tvList.delete(0, 9);
+    TVListBlockStatistics blockStatistics = tvList.getBlockStatisticsSnapshot();
+    Assert.assertNull(blockStatistics.getStatistics(0));
+    Assert.assertNotNull(blockStatistics.getStatistics(1));
+    memChunk = buildMemChunk(tvList, null);
+    Assert.assertEquals(2, memChunk.getPageReaderList(null).size());
+    Assert.assertEquals(10L, memChunk.getChunkMetaData().getStatistics().getStartTime());
+    assertSameAsFullScan(memChunk);
+  }
+
+  @Test
+  public void testClone() {
+    TVList tvList = TVList.newList(TSDataType.INT64);
+    for (long i = 0; i < 15; i++) {
+      tvList.putLong(i, i);
+    }
+    TVList cloneList = tvList.clone();
+    tvList.putLong(15, 15);
+    Assert.assertEquals(5, cloneList.getBlockStatisticsSnapshot().getStatistics(1).getCount());
+    Assert.assertEquals(6, tvList.getBlockStatisticsSnapshot().getStatistics(1).getCount());
+  }
+
+  private ReadOnlyMemChunk buildMemChunk(TVList tvList, List<TimeRange> deletionList)
+      throws IOException, QueryProcessException {
+    if (!tvList.isSorted()) {
+      tvList.sort();
+    }
+    return new ReadOnlyMemChunk(
+        "s1", TSDataType.INT64, TSEncoding.PLAIN, tvList, null, deletionList);
+  }
+
+  /** pages read one by one return the same points as the whole chunk */
+  private void assertSameAsFullScan(ReadOnlyMemChunk memChunk) throws IOException {
+    TsBlock fullTsBlock = memChunk.getTsBlock();
+    int position = 0;
+    for (IPageReader pageReader : memChunk.getPageReaderList(null)) {
+      TsBlock page = pageReader.getAllSatisfiedData();
+      Assert.assertEquals(page.getPositionCount(), pageReader.getStatistics().getCount());
+      for (int i = 0; i < page.getPositionCount(); i++, position++) {
+        Assert.assertEquals(fullTsBlock.getTimeByIndex(position), page.getTimeByIndex(i));
+        Assert.assertEquals(
+            fullTsBlock.getColumn(0).getLong(position), page.getColumn(0).getLong(i));
+      }
+    }
+    Assert.assertEquals(fullTsBlock.getPositionCount(), position);
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TimeLoserTreeTest {
+
+  @Test
+  public void mergeTest() {
+    checkMerge(true);
+    checkMerge(false);
+  }
+
+  private void checkMerge(boolean ascending) {
+    Random random = new Random(1);
+    int inputCount = 7;
+    List<long[]> inputs = new ArrayList<>();
+    List<Long> expected = new ArrayList<>();
+    for (int i = 0; i < inputCount; i++) {
+      // input 3 is empty
+      long[] times = new long[i == 3 ? 0 : 20];
+      long time = random.nextInt(10);
+      for (int j = 0; j < times.length; j++) {
+        times[j] = ascending ? time : -time;
+        expected.add(times[j]);
+        time += random.nextInt(5) + 1;
+      }
+      inputs.add(times);
+    }
+    expected.sort(ascending ? Long::compare : (a, b) -> Long.compare(b, a));
+
+    TimeLoserTree loserTree = new TimeLoserTree(inputCount, ascending);
+    int[] indexes = new int[inputCount];
+    for (int i = 0; i < inputCount; i++) {
+      if (inputs.get(i).length > 0) {
+        loserTree.setTime(i, inputs.get(i)[0]);
+      } else {
+        loserTree.clearTime(i);
+      }
+    }
+    loserTree.rebuild();
+
+    List<Long> actual = new ArrayList<>();
+    while (!loserTree.isEmpty()) {
+      int winner = loserTree.getWinner();
+      long time = loserTree.getWinnerTime();
+      int runnerUp = loserTree.getRunnerUp();
+      if (runnerUp != -1) {
+        long runnerUpTime = loserTree.getTime(runnerUp);
+        assertTrue(ascending ? time <= runnerUpTime : time >= runnerUpTime);
+      }
+      actual.add(time);
+      long[] times = inputs.get(winner);
+      if (++indexes[winner] < times.length) {
+        loserTree.replaceWinnerTime(times[indexes[winner]]);
+      } else {
+        loserTree.removeWinner();
+      }
+    }
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  public void runnerUpTest() {
+    TimeLoserTree loserTree = new TimeLoserTree(5, true);
+    long[] times = {30, 10, 50, 20, 40};
+    for (int i = 0; i < times.length; i++) {
+      loserTree.setTime(i, times[i]);
+    }
+    loserTree.rebuild();
+    assertEquals(1, loserTree.getWinner());
+    assertEquals(3, loserTree.getRunnerUp());
+
+    loserTree.removeWinner();
+    assertEquals(3, loserTree.getWinner());
+    assertEquals(0, loserTree.getRunnerUp());
+
+    loserTree.replaceWinnerTime(60);
+    loserTree.removeWinner();
+    loserTree.removeWinner();
+    assertEquals(2, loserTree.getWinner());
+    assertEquals(3, loserTree.getRunnerUp());
+    loserTree.removeWinner();
+    assertEquals(3, loserTree.getWinner());
+    assertEquals(-1, loserTree.getRunnerUp());
+  }
+}
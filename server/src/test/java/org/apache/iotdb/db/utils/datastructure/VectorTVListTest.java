@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.utils.datastructure;
 
+import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
@@ -26,9 +27,15 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
 public class VectorTVListTest {
 
   @Test
@@ -272,4 +279,82 @@ public class VectorTVListTest {
     tvList.clear();
     Assert.assertEquals(tvList.memoryBinaryChunkSize[0], 0);
   }
+
+  @Test
+  public void testSparseColumns() throws IOException {
+    List<TSDataType> dataTypes = new ArrayList<>();
+    dataTypes.add(TSDataType.INT64);
+    dataTypes.add(TSDataType.DOUBLE);
+    dataTypes.add(TSDataType.TEXT);
+    AlignedTVList tvList = AlignedTVList.newAlignedList(dataTypes);
+    int[] columnOrder = new int[] {0, 1, 2};
+    int rowCount = ARRAY_SIZE * 3;
+    // the double column only has a value in the middle of the second array, the text column
+    // is always null
+    int denseRow = ARRAY_SIZE + ARRAY_SIZE / 2;
+    for (int i = 0; i < rowCount; i++) {
+      Object[] value = new Object[] {(long) i, i == denseRow ? 1.5 : null, null};
+      tvList.putAlignedValue(i, value, columnOrder);
+    }
+    Assert.assertTrue(tvList.isValueArrayAllocated(0, 0));
+    Assert.assertFalse(tvList.isValueArrayAllocated(1, 0));
+    Assert.assertTrue(tvList.isValueArrayAllocated(1, 1));
+    Assert.assertFalse(tvList.isValueArrayAllocated(1, 2));
+    for (int i = 0; i < 3; i++) {
+      Assert.assertFalse(tvList.isValueArrayAllocated(2, i));
+    }
+    checkSparseValues(tvList, rowCount, denseRow);
+    checkSparseValues(tvList.clone(), rowCount, denseRow);
+
+    // the values and bitmaps survive WAL serialization
+    ByteBuffer buffer = ByteBuffer.allocate(tvList.serializedSize());
+    tvList.serializeToWAL(new WALByteBufferForTest(buffer));
+    Assert.assertEquals(0, buffer.remaining());
+    AlignedTVList deserialized =
+        (AlignedTVList)
+            TVList.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.array())));
+    checkSparseValues(deserialized, rowCount, denseRow);
+
+    // rows put in batch keep the null arrays as well
+    BitMap[] bitMaps = new BitMap[] {null, new BitMap(ARRAY_SIZE), new BitMap(ARRAY_SIZE)};
+    bitMaps[1].markAll();
+    bitMaps[2].markAll();
+    long[] times = new long[ARRAY_SIZE];
+    long[] longs = new long[ARRAY_SIZE];
+    for (int i = 0; i < ARRAY_SIZE; i++) {
+      times[i] = rowCount + i;
+      longs[i] = rowCount + i;
+    }
+    tvList.putAlignedValues(
+        times,
+        new Object[] {longs, new double[ARRAY_SIZE], new Binary[ARRAY_SIZE]},
+        bitMaps,
+        columnOrder,
+        0,
+        ARRAY_SIZE);
+    Assert.assertFalse(tvList.isValueArrayAllocated(1, 3));
+    Assert.assertFalse(tvList.isValueArrayAllocated(2, 3));
+    checkSparseValues(tvList, rowCount + ARRAY_SIZE, denseRow);
+
+    // an extended column has null arrays for the existing rows
+    tvList.extendColumn(TSDataType.INT32);
+    Assert.assertFalse(tvList.isValueArrayAllocated(3, 0));
+    Assert.assertTrue(tvList.isNullValue(0, 3));
+    tvList.putAlignedValue(
+        rowCount + ARRAY_SIZE, new Object[] {0L, null, null, 7}, new int[] {0, 1, 2, 3});
+    Assert.assertEquals(
+        "[0, null, null, 7]", tvList.getAlignedValue(rowCount + ARRAY_SIZE).toString());
+    Assert.assertTrue(tvList.isNullValue(rowCount + ARRAY_SIZE - 1, 3));
+  }
+
+  private void checkSparseValues(AlignedTVList tvList, int rowCount, int denseRow) {
+    Assert.assertEquals(rowCount, tvList.rowCount());
+    for (int i = 0; i < rowCount; i++) {
+      Assert.assertFalse(tvList.isNullValue(i, 0));
+      Assert.assertEquals(i, tvList.getLongByValueIndex(i, 0));
+      Assert.assertEquals(i != denseRow, tvList.isNullValue(i, 1));
+      Assert.assertTrue(tvList.isNullValue(i, 2));
+    }
+    Assert.assertEquals(1.5, tvList.getDoubleByValueIndex(denseRow, 1), 0);
+  }
 }
@@ -32,6 +32,7 @@ import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
 import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.wal.utils.WALFileUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
@@ -109,6 +110,47 @@ public class WALFileTest {
     assertEquals(expectedWALEntries, actualWALEntries);
   }
 
+  @Test
+  public void testReadCompressedFile() throws IOException, IllegalPathException {
+    int fakeMemTableId = 1;
+    List<WALEntry> expectedWALEntries = new ArrayList<>();
+    expectedWALEntries.add(new WALInfoEntry(fakeMemTableId, getInsertRowNode(devicePath)));
+    expectedWALEntries.add(new WALInfoEntry(fakeMemTableId, getInsertTabletNode(devicePath)));
+    expectedWALEntries.add(new WALInfoEntry(fakeMemTableId, getDeleteDataNode(devicePath)));
+    WALMetaData walMetaData = new WALMetaData();
+    // write each entry as an independent compressed segment
+    try (WALWriter walWriter = new WALWriter(walFile, CompressionType.LZ4)) {
+      for (WALEntry walEntry : expectedWALEntries) {
+        WALByteBufferForTest buffer =
+            new WALByteBufferForTest(ByteBuffer.allocate(walEntry.serializedSize()));
+        walEntry.serialize(buffer);
+        WALMetaData metaData = new WALMetaData();
+        metaData.add(walEntry.serializedSize(), 0);
+        walMetaData.addAll(metaData);
+        walWriter.write(buffer.getBuffer(), metaData);
+      }
+    }
+    // test WALReader.readAll
+    List<WALEntry> actualWALEntries = new ArrayList<>();
+    try (WALReader walReader = new WALReader(walFile)) {
+      while (walReader.hasNext()) {
+        actualWALEntries.add(walReader.next());
+      }
+    }
+    assertEquals(expectedWALEntries, actualWALEntries);
+    // test WALByteBufReader
+    int index = 0;
+    try (WALByteBufReader walByteBufReader = new WALByteBufReader(walFile)) {
+      while (walByteBufReader.hasNext()) {
+        ByteBuffer buffer = walByteBufReader.next();
+        assertEquals((int) walMetaData.getBuffersSize().get(index), buffer.remaining());
+        assertEquals(expectedWALEntries.get(index).getType().getCode(), buffer.get());
+        index++;
+      }
+    }
+    assertEquals(expectedWALEntries.size(), index);
+  }
+
   @Test
   public void testReadNotExistFile() throws IOException {
     if (walFile.createNewFile()) {
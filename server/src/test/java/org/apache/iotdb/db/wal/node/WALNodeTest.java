@@ -61,6 +61,7 @@ import java.util.concurrent.Future;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -310,4 +311,46 @@ public class WALNodeTest {
       // ignore
     }
   }
+
+  @Test
+  public void testMemTablePinnedWALSize() throws Exception {
+    // memTable1 pins _0.wal, memTable2 pins _1.wal
+    IMemTable memTable1 = new PrimitiveMemTable();
+    walNode.onMemTableCreated(memTable1, logDirectory + File.separator + "1.tsfile");
+    InsertTabletNode insertTabletNode = getInsertTabletNode(devicePath, new long[] {1});
+    walNode
+        .log(memTable1.getMemTableId(), insertTabletNode, 0, insertTabletNode.getRowCount())
+        .waitForResult();
+    walNode.rollWALFile();
+    IMemTable memTable2 = new PrimitiveMemTable();
+    walNode.onMemTableCreated(memTable2, logDirectory + File.separator + "2.tsfile");
+    insertTabletNode = getInsertTabletNode(devicePath, new long[] {2});
+    walNode
+        .log(memTable2.getMemTableId(), insertTabletNode, 0, insertTabletNode.getRowCount())
+        .waitForResult();
+    walNode.rollWALFile();
+    // only flushing the oldest memTable releases wal files
+    Map<Long, Long> memTableId2PinnedSize = walNode.getMemTablePinnedWALSize();
+    assertEquals(1, memTableId2PinnedSize.size());
+    assertEquals(getWALFileSize(0), (long) memTableId2PinnedSize.get(memTable1.getMemTableId()));
+    // flush memTable1 and delete _0.wal, then memTable2 becomes the oldest one
+    walNode.onMemTableFlushed(memTable1);
+    walNode.deleteOutdatedFiles();
+    memTableId2PinnedSize = walNode.getMemTablePinnedWALSize();
+    assertEquals(1, memTableId2PinnedSize.size());
+    assertEquals(getWALFileSize(1), (long) memTableId2PinnedSize.get(memTable2.getMemTableId()));
+    walNode.onMemTableFlushed(memTable2);
+  }
+
+  private long getWALFileSize(long versionId) {
+    File[] walFiles = WALFileUtils.listAllWALFiles(new File(logDirectory));
+    assertNotNull(walFiles);
+    for (File walFile : walFiles) {
+      if (WALFileUtils.parseVersionId(walFile.getName()) == versionId) {
+        return walFile.length();
+      }
+    }
+    fail("Cannot find wal file of version " + versionId);
+    return 0;
+  }
 }
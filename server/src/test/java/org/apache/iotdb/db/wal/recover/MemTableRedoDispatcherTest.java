@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.wal.recover;
+
+import org.apache.iotdb.commons.conf.CommonConfig;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.memtable.IMemTable;
+import org.apache.iotdb.db.engine.memtable.PrimitiveMemTable;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.wal.buffer.IWALBuffer;
+import org.apache.iotdb.db.wal.buffer.WALBuffer;
+import org.apache.iotdb.db.wal.buffer.WALEntry;
+import org.apache.iotdb.db.wal.buffer.WALInfoEntry;
+import org.apache.iotdb.db.wal.checkpoint.CheckpointManager;
+import org.apache.iotdb.db.wal.checkpoint.MemTableInfo;
+import org.apache.iotdb.db.wal.recover.file.UnsealedTsFileRecoverPerformer;
+import org.apache.iotdb.db.wal.utils.TsFileUtilsForRecoverTest;
+import org.apache.iotdb.db.wal.utils.WALMode;
+import org.apache.iotdb.db.wal.utils.listener.WALRecoverListener;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class MemTableRedoDispatcherTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final CommonConfig commonConfig = CommonDescriptor.getInstance().getConfig();
+  private static final String SG_NAME = "root.recover_sg";
+  private static final String WAL_NODE_IDENTIFIER = String.valueOf(Integer.MAX_VALUE);
+  private static final String WAL_NODE_FOLDER =
+      commonConfig.getWalDirs()[0].concat(File.separator + WAL_NODE_IDENTIFIER);
+  private static final WALRecoverManager recoverManager = WALRecoverManager.getInstance();
+  private static final int MEMTABLE_NUM = 3;
+  private static final int ENTRY_NUM_PER_MEMTABLE = 100;
+
+  private WALMode prevMode;
+  private boolean isClusterMode;
+  private int prevRecoverThreadCount;
+  private long prevRecoverMemoryBudget;
+  private IWALBuffer walBuffer;
+  private CheckpointManager checkpointManager;
+
+  @Before
+  public void setUp() throws Exception {
+    EnvironmentUtils.cleanDir(
+        new File(TsFileUtilsForRecoverTest.getTestTsFilePath(SG_NAME, 0, 0, 1)).getParent());
+    EnvironmentUtils.envSetUp();
+    isClusterMode = config.isClusterMode();
+    config.setClusterMode(true);
+    prevMode = config.getWalMode();
+    config.setWalMode(WALMode.SYNC);
+    prevRecoverThreadCount = config.getWalRecoverThreadCount();
+    config.setWalRecoverThreadCount(4);
+    // only a few entries can wait to be redone at the same time
+    prevRecoverMemoryBudget = config.getWalRecoverMemoryBudgetInByte();
+    config.setWalRecoverMemoryBudgetInByte(4L * MemTableRedoDispatcher.PERMIT_SIZE_IN_BYTE);
+    walBuffer = new WALBuffer(WAL_NODE_IDENTIFIER, WAL_NODE_FOLDER);
+    checkpointManager = new CheckpointManager(WAL_NODE_IDENTIFIER, WAL_NODE_FOLDER);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    checkpointManager.close();
+    walBuffer.close();
+    config.setWalMode(prevMode);
+    config.setClusterMode(isClusterMode);
+    config.setWalRecoverThreadCount(prevRecoverThreadCount);
+    config.setWalRecoverMemoryBudgetInByte(prevRecoverMemoryBudget);
+    EnvironmentUtils.cleanDir(
+        new File(TsFileUtilsForRecoverTest.getTestTsFilePath(SG_NAME, 0, 0, 1)).getParent());
+    EnvironmentUtils.cleanEnv();
+  }
+
+  @Test
+  public void testRedoInterleavedMemTables() throws Exception {
+    // write interleaved entries of several memTables into one wal node
+    List<IMemTable> memTables = new ArrayList<>();
+    List<String> tsFilePaths = new ArrayList<>();
+    for (int i = 0; i < MEMTABLE_NUM; ++i) {
+      IMemTable memTable = new PrimitiveMemTable();
+      String tsFilePath = TsFileUtilsForRecoverTest.getTestTsFilePath(SG_NAME, 0, i, 1);
+      checkpointManager.makeCreateMemTableCP(
+          new MemTableInfo(memTable, tsFilePath, walBuffer.getCurrentWALFileVersion()));
+      memTables.add(memTable);
+      tsFilePaths.add(tsFilePath);
+    }
+    WALEntry walEntry = null;
+    for (int time = 0; time < ENTRY_NUM_PER_MEMTABLE; ++time) {
+      for (int i = 0; i < MEMTABLE_NUM; ++i) {
+        walEntry =
+            new WALInfoEntry(
+                memTables.get(i).getMemTableId(),
+                getInsertRowNode(SG_NAME.concat(".d" + i), time),
+                true);
+        walBuffer.write(walEntry);
+      }
+    }
+    walEntry.getWalFlushListener().waitForResult();
+
+    // redo them with mocked recover performers
+    recoverManager.clear();
+    List<List<Long>> redoneTimes = new ArrayList<>();
+    List<AtomicInteger> redoneNumsWhenEnd = new ArrayList<>();
+    List<WALRecoverListener> recoverListeners = new ArrayList<>();
+    for (String tsFilePath : tsFilePaths) {
+      List<Long> times = Collections.synchronizedList(new ArrayList<>());
+      AtomicInteger redoneNumWhenEnd = new AtomicInteger(-1);
+      UnsealedTsFileRecoverPerformer recoverPerformer =
+          mockRecoverPerformer(tsFilePath, times, redoneNumWhenEnd);
+      recoverListeners.add(recoverManager.addRecoverPerformer(recoverPerformer));
+      redoneTimes.add(times);
+      redoneNumsWhenEnd.add(redoneNumWhenEnd);
+    }
+    recoverManager.setAllDataRegionScannedLatch(new CountDownLatch(0));
+    recoverManager.recover();
+
+    for (int i = 0; i < MEMTABLE_NUM; ++i) {
+      assertEquals(WALRecoverListener.Status.SUCCESS, recoverListeners.get(i).waitForResult());
+      // all entries are redone before ending recovery
+      assertEquals(ENTRY_NUM_PER_MEMTABLE, redoneNumsWhenEnd.get(i).get());
+      // entries of the same memTable are redone in order
+      List<Long> times = redoneTimes.get(i);
+      for (int time = 0; time < ENTRY_NUM_PER_MEMTABLE; ++time) {
+        assertEquals(time, (long) times.get(time));
+      }
+    }
+    // all memory budget is released
+    assertEquals(
+        recoverManager.getRedoMemoryBudgetPermits(),
+        recoverManager.getAvailableRedoMemoryBudgetPermits());
+  }
+
+  private UnsealedTsFileRecoverPerformer mockRecoverPerformer(
+      String tsFilePath, List<Long> redoneTimes, AtomicInteger redoneNumWhenEnd)
+      throws Exception {
+    TsFileResource tsFileResource = Mockito.mock(TsFileResource.class);
+    Mockito.when(tsFileResource.getTsFile()).thenReturn(new File(tsFilePath));
+    UnsealedTsFileRecoverPerformer recoverPerformer =
+        Mockito.mock(UnsealedTsFileRecoverPerformer.class);
+    WALRecoverListener recoverListener = new WALRecoverListener(tsFilePath);
+    Mockito.when(recoverPerformer.getTsFileResource()).thenReturn(tsFileResource);
+    Mockito.when(recoverPerformer.getTsFileAbsolutePath()).thenReturn(tsFilePath);
+    Mockito.when(recoverPerformer.getRecoverListener()).thenReturn(recoverListener);
+    Mockito.doAnswer(
+            invocation -> {
+              WALEntry walEntry = invocation.getArgument(0);
+              // slow redo down so that the reader thread waits for the memory budget
+              Thread.sleep(1);
+              redoneTimes.add(((InsertRowNode) walEntry.getValue()).getTime());
+              return null;
+            })
+        .when(recoverPerformer)
+        .redoLog(Mockito.any());
+    Mockito.doAnswer(
+            invocation -> {
+              redoneNumWhenEnd.set(redoneTimes.size());
+              return null;
+            })
+        .when(recoverPerformer)
+        .endRecovery();
+    return recoverPerformer;
+  }
+
+  private InsertRowNode getInsertRowNode(String devicePath, long time) throws Exception {
+    TSDataType[] dataTypes = new TSDataType[] {TSDataType.FLOAT, TSDataType.DOUBLE};
+    Object[] columns = new Object[] {1.0f, 1.0d};
+    PartialPath path = new PartialPath(devicePath);
+    String[] measurements = new String[] {"s1", "s2"};
+    InsertRowNode insertRowNode =
+        new InsertRowNode(
+            new PlanNodeId(""), path, false, measurements, dataTypes, time, columns, false);
+    insertRowNode.setMeasurementSchemas(
+        new MeasurementSchema[] {
+          new MeasurementSchema("s1", TSDataType.FLOAT),
+          new MeasurementSchema("s2", TSDataType.DOUBLE)
+        });
+    return insertRowNode;
+  }
+}
@@ -129,6 +129,7 @@ struct TFragmentInstanceInfoResp {
   2: optional i64 endTime
   3: optional list<string> failedMessages
   4: optional list<binary> failureInfoList
+  5: optional binary statistics
 }
 
 struct TCancelQueryReq {
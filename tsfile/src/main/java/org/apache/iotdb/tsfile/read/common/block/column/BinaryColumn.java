@@ -92,6 +92,11 @@ public class BinaryColumn implements Column {
     return values;
   }
 
+  @Override
+  public int getArrayOffset() {
+    return arrayOffset;
+  }
+
   @Override
   public Object getObject(int position) {
     return getBinary(position);
@@ -100,6 +100,14 @@ public interface Column {
     throw new UnsupportedOperationException(getClass().getName());
   }
 
+  /**
+   * Gets the index of the first position of this column in the arrays returned by the array
+   * getters above, and in the one returned by {@link #isNull()} if {@link #mayHaveNull()}.
+   */
+  default int getArrayOffset() {
+    throw new UnsupportedOperationException(getClass().getName());
+  }
+
   /** Gets a TsPrimitiveType at {@code position}. */
   default TsPrimitiveType getTsPrimitiveType(int position) {
     throw new UnsupportedOperationException(getClass().getName());
@@ -91,6 +91,11 @@ public class DoubleColumn implements Column {
     return values;
   }
 
+  @Override
+  public int getArrayOffset() {
+    return arrayOffset;
+  }
+
   @Override
   public Object getObject(int position) {
     return getDouble(position);
@@ -90,6 +90,11 @@ public class FloatColumn implements Column {
     return values;
   }
 
+  @Override
+  public int getArrayOffset() {
+    return arrayOffset;
+  }
+
   @Override
   public Object getObject(int position) {
     return getFloat(position);
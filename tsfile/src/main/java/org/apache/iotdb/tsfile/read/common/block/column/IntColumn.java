@@ -90,6 +90,11 @@ public class IntColumn implements Column {
     return values;
   }
 
+  @Override
+  public int getArrayOffset() {
+    return arrayOffset;
+  }
+
   @Override
   public Object getObject(int position) {
     return getInt(position);
@@ -158,6 +158,11 @@ public class RunLengthEncodedColumn implements Column {
     return res;
   }
 
+  @Override
+  public int getArrayOffset() {
+    return 0;
+  }
+
   @Override
   public TsPrimitiveType getTsPrimitiveType(int position) {
     return value.getTsPrimitiveType(0);
@@ -143,6 +143,11 @@ public class TimeColumn implements Column {
     return values;
   }
 
+  @Override
+  public int getArrayOffset() {
+    return arrayOffset;
+  }
+
   @Override
   public int getInstanceSize() {
     return INSTANCE_SIZE;
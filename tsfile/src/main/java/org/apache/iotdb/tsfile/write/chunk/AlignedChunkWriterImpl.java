@@ -274,6 +274,11 @@ public class AlignedChunkWriterImpl implements IChunkWriter {
     valueChunkWriterList.get(valueIndex).write(time, value, isNull);
   }
 
+  /** write a null value of any data type into the current column */
+  public void writeNullByColumn() {
+    valueChunkWriterList.get(valueIndex).writeNull();
+  }
+
   public void nextColumn() {
     valueIndex++;
   }
@@ -106,6 +106,10 @@ public class ValueChunkWriter {
         new ValuePageWriter(valueEncoder, ICompressor.getCompressor(compressionType), dataType);
   }
 
+  public void writeNull() {
+    pageWriter.writeNull();
+  }
+
   public void write(long time, long value, boolean isNull) {
     pageWriter.write(time, value, isNull);
   }
@@ -73,6 +73,11 @@ public class ValuePageWriter {
     this.compressor = compressor;
   }
 
+  /** write a null value, only the bitmap is updated */
+  public void writeNull() {
+    setBit(true);
+  }
+
   /** write a time value pair into encoder */
   public void write(long time, boolean value, boolean isNull) {
     setBit(isNull);
@@ -54,6 +54,7 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -304,6 +305,25 @@ public class TsFileIOWriter implements AutoCloseable {
     endCurrentChunk();
   }
 
+  /**
+   * Write a chunk that has been serialized by another writer as it is, including its chunk header.
+   *
+   * @param serializedChunk the chunk header and the chunk data
+   * @param chunkMetadata the metadata of the chunk in the file it is copied from
+   */
+  public void writeSerializedChunk(ByteBuffer serializedChunk, ChunkMetadata chunkMetadata)
+      throws IOException {
+    currentChunkMetadata =
+        new ChunkMetadata(
+            chunkMetadata.getMeasurementUid(),
+            chunkMetadata.getDataType(),
+            out.getPosition(),
+            chunkMetadata.getStatistics());
+    currentChunkMetadata.setMask(chunkMetadata.getMask());
+    out.write(serializedChunk);
+    endCurrentChunk();
+  }
+
   /** end chunk and write some log. */
   public void endCurrentChunk() {
     if (enableMemoryControl) {